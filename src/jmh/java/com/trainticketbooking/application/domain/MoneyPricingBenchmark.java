@@ -0,0 +1,73 @@
+package com.trainticketbooking.application.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares pricing a purchase and discounting a stored booking with {@link BigDecimal} prices, as the service used to,
+ * against {@link Money}. Both sides start from the {@link BigDecimal} price a client sends and end with the price to
+ * store. Run with {@code ./gradlew jmh}; the gc profiler reports allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyPricingBenchmark {
+
+    @Param({"200", "199.50"})
+    private String requestedPrice;
+
+    private final Map<String, BigDecimal> bigDecimalDiscounts = new HashMap<>();
+    private final Map<String, Money> moneyDiscounts = Map.of(
+            "DISCOUNT1", Money.ofMajor(1),
+            "DISCOUNT2", Money.ofMajor(2),
+            "DISCOUNT3", Money.ofMajor(10));
+
+    private BigDecimal price;
+    private BigDecimal storedBigDecimalPrice;
+    private Money storedMoneyPrice;
+
+    @Setup
+    public void setUp() {
+        price = new BigDecimal(requestedPrice);
+        storedBigDecimalPrice = price;
+        storedMoneyPrice = Money.of(price);
+    }
+
+    @Benchmark
+    public BigDecimal purchaseWithBigDecimal() {
+        fillBigDecimalDiscounts();
+        BigDecimal discount = bigDecimalDiscounts.get("DISCOUNT3");
+        return discount != null ? price.subtract(discount) : price;
+    }
+
+    @Benchmark
+    public Money purchaseWithMoney() {
+        Money discount = moneyDiscounts.get("DISCOUNT3");
+        Money updatedPrice = Money.of(price);
+        return discount != null ? updatedPrice.minus(discount) : updatedPrice;
+    }
+
+    @Benchmark
+    public BigDecimal discountWithBigDecimal() {
+        fillBigDecimalDiscounts();
+        BigDecimal discount = bigDecimalDiscounts.get("DISCOUNT2");
+        return storedBigDecimalPrice.compareTo(discount) > 0
+                ? storedBigDecimalPrice.subtract(discount) : storedBigDecimalPrice;
+    }
+
+    @Benchmark
+    public Money discountWithMoney() {
+        Money discount = moneyDiscounts.get("DISCOUNT2");
+        return storedMoneyPrice.isGreaterThan(discount) ? storedMoneyPrice.minus(discount) : storedMoneyPrice;
+    }
+
+    private void fillBigDecimalDiscounts() {
+        bigDecimalDiscounts.put("DISCOUNT1", BigDecimal.valueOf(1));
+        bigDecimalDiscounts.put("DISCOUNT2", BigDecimal.valueOf(2));
+        bigDecimalDiscounts.put("DISCOUNT3", BigDecimal.valueOf(10));
+    }
+}
@@ -0,0 +1,74 @@
+package com.trainticketbooking.application.journey;
+
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.dto.JourneyDto;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.repository.InMemoryBookingRepository;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.TicketBookingMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures journey searches interleaved with seat changes: each operation moves one ticket to another seat and then
+ * runs {@code searchesPerSeatChange} searches over a few routes, so the cache is made stale once per operation. With
+ * a TTL of 0 nothing is cached and every search reads the seat inventory. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JourneySearchBenchmark {
+
+    private static final LocalDate SERVICE_DATE = LocalDate.of(2026, 11, 1);
+    private static final String[][] ROUTES = {
+            {"Chennai", "Trichy"}, {"Chennai", "Madurai"}, {"Chengalpattu", "Trichy"}, {"Trichy", "Madurai"}};
+
+    @Param({"0", "1000"})
+    private long cacheTtlMs;
+
+    @Param({"1000"})
+    private int searchesPerSeatChange;
+
+    private JourneySearch journeySearch;
+    private TicketBookingService ticketBookingService;
+    private int seatNumber = 40;
+
+    @Setup
+    public void setUp() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        journeySearch = new JourneySearch(beanFactory.getBeanProvider(TicketBookingService.class),
+                List.of(new Train("12635", List.of("Chennai", "Chengalpattu", "Trichy", "Madurai"))),
+                SERVICE_DATE, cacheTtlMs, 10_000);
+        ticketBookingService = new TicketBookingService(Mappers.getMapper(TicketBookingMapper.class),
+                new InMemoryBookingRepository(), BookingArchive.disabled(), ClusterTopology.standalone(),
+                OverbookingPolicy.disabled(), DynamicPricing.clientPrices(), ObservationRegistry.NOOP,
+                List.of(journeySearch));
+        beanFactory.addBean("ticketBookingService", ticketBookingService);
+        for (int i = 0; i < 20; i++) {
+            ticketBookingService.purchaseTicket(new TicketBookingDto(null, "Chennai", "Trichy", "User" + i,
+                    "user" + i + "@example.com", BigDecimal.TEN, null, null, null));
+        }
+    }
+
+    @Benchmark
+    public void searchBetweenSeatChanges(Blackhole blackhole) {
+        seatNumber = seatNumber == 40 ? 39 : 40;
+        ticketBookingService.updateUserSeatAllocation(1, seatNumber, null);
+        for (int i = 0; i < searchesPerSeatChange; i++) {
+            String[] route = ROUTES[i & 3];
+            List<JourneyDto> journeys = journeySearch.search(route[0], route[1], SERVICE_DATE, 1 + (i & 1));
+            blackhole.consume(journeys);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.trainticketbooking.application.startup;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from launching the application in a new JVM to its first successful {@code POST /ticket-booking/}:
+ * with the default settings, with the {@code prod} profile, and AOT-processed with the CDS archive. It starts the
+ * artifact built by {@code ./gradlew -PfastStartup cdsArchive} in {@code build/cds}; run it from the project
+ * directory with {@code java -jar build/libs/trainticketbooking-0.0.1-SNAPSHOT-jmh.jar StartupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String BOOKING = "{\"from\":\"Chennai\",\"to\":\"Trichy\",\"userName\":\"Startup\","
+            + "\"userEmail\":\"startup@example.com\",\"pricePaid\":10}";
+
+    @Param({"default", "prod", "aot-cds"})
+    private String variant;
+
+    @Param("build/cds")
+    private String cdsDir;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private Process application;
+
+    @Setup
+    public void checkArtifact() {
+        if (!Files.exists(Path.of(cdsDir, "application.jsa"))) {
+            throw new IllegalStateException("Build the application first: ./gradlew -PfastStartup cdsArchive");
+        }
+    }
+
+    @Benchmark
+    public int startAndPurchase() throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        switch (variant) {
+            case "prod" -> command.add("-Dspring.profiles.active=prod");
+            case "aot-cds" -> command.addAll(List.of("-XX:SharedArchiveFile=application.jsa",
+                    "-Dspring.aot.enabled=true"));
+            default -> {
+            }
+        }
+        command.addAll(List.of("-jar", "application.jar", "--server.port=" + port));
+        application = new ProcessBuilder(command)
+                .directory(new File(cdsDir))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        HttpRequest purchase = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + "/ticket-booking/ticket-booking/"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BOOKING))
+                .build();
+        while (application.isAlive()) {
+            try {
+                int status = httpClient.send(purchase, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return status;
+                }
+            } catch (IOException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Application exited with status " + application.exitValue());
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (application != null) {
+            application.destroy();
+            application.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.trainticketbooking.application.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a ticket list through per-ticket DTOs with writing the stored bookings directly.
+ * Run with {@code ./gradlew jmh}; the gc profiler reports allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TicketListSerializationBenchmark {
+
+    @Param({"20", "1000"})
+    private int tickets;
+
+    private final TicketBookingMapper ticketBookingMapper = new TicketBookingMapperImpl();
+    private ObjectMapper objectMapper;
+    private List<TicketBooking> ticketBookings;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new Jackson2ObjectMapperBuilder()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .modulesToInstall(new SimpleModule().addSerializer(new TicketBookingJsonSerializer()))
+                .build();
+        ticketBookings = new ArrayList<>();
+        for (int i = 1; i <= tickets; i++) {
+            ticketBookings.add(new TicketBooking(i, "Chennai", "Trichy", "User" + i, "user" + i + "@example.com",
+                    Money.ofMajor(200), i <= 20 ? "A" : "B", i));
+        }
+    }
+
+    @Benchmark
+    public void mapToDtoList() throws Exception {
+        List<TicketBookingDto> dtos = ticketBookings.stream()
+                .map(ticketBookingMapper::toDto)
+                .toList();
+        objectMapper.writeValue(OutputStream.nullOutputStream(), new CustomApiResponse<>(200, "Ticket List Found", dtos));
+    }
+
+    @Benchmark
+    public void serializeBookingsDirectly() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(),
+                new CustomApiResponse<>(200, "Ticket List Found", ticketBookings));
+    }
+}
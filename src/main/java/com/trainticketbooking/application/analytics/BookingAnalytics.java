@@ -0,0 +1,261 @@
+package com.trainticketbooking.application.analytics;
+
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.BookingAnalyticsDto;
+import com.trainticketbooking.application.dto.RouteAnalyticsDto;
+import com.trainticketbooking.application.dto.SectionAnalyticsDto;
+import com.trainticketbooking.application.repository.BookingRepository;
+import com.trainticketbooking.application.seating.SeatLayout;
+import com.trainticketbooking.application.service.BookingChangeListener;
+import com.trainticketbooking.application.service.TicketBookingService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Occupancy, revenue and booking-rate counters for the sections held by this node, kept up to date from the booking
+ * changes instead of computed from the stored bookings.
+ * <p>
+ * The counters are seeded once from the booking store when the application starts; from then on every purchase, seat
+ * move, discount and cancellation adjusts them by the difference between the booking before and after the change, so
+ * reading them never touches the bookings. Per-section and per-route totals are held in {@link LongAdder}s, with
+ * amounts in minor units. A route's counters are dropped as soon as it holds no bookings, so routes made up by
+ * clients do not pile up. The whole train is the sum of its sections. Discounts and the booking and cancellation
+ * rates over the last {@code booking.analytics.rate-window-seconds} count what happened since this node started; the
+ * rates leave out changes copied from a primary node, so they describe the bookings taken by this node. Section
+ * occupancy and revenue are also published as the {@code booking.section.*} metrics.
+ */
+@Component
+public class BookingAnalytics implements BookingChangeListener, SmartInitializingSingleton {
+
+    private static final long RATE_BUCKET_MILLIS = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final ObjectProvider<TicketBookingService> ticketBookingService;
+    private final LongSupplier clock;
+    private final Map<String, Counters> sections;
+    private final ConcurrentMap<Route, Counters> routes = new ConcurrentHashMap<>();
+    private final SlidingWindowCounter purchases;
+    private final SlidingWindowCounter cancellations;
+    private final int sectionCapacity = SeatLayout.STANDARD.size();
+
+    private volatile boolean seeded;
+
+    @Autowired
+    public BookingAnalytics(BookingRepository bookingRepository,
+                            ObjectProvider<TicketBookingService> ticketBookingService,
+                            ClusterTopology clusterTopology,
+                            @Value("${booking.analytics.rate-window-seconds:60}") int rateWindowSeconds,
+                            MeterRegistry meterRegistry) {
+        this(bookingRepository, ticketBookingService, clusterTopology, rateWindowSeconds, System::currentTimeMillis);
+        sections.forEach((section, counters) -> {
+            Gauge.builder("booking.section.occupied.seats", counters.bookings, LongAdder::sum)
+                    .description("Booked seats in the section")
+                    .tag("section", section)
+                    .register(meterRegistry);
+            Gauge.builder("booking.section.revenue", counters.revenueMinorUnits,
+                            minorUnits -> amount(minorUnits.sum()).doubleValue())
+                    .description("Revenue of the bookings held in the section")
+                    .tag("section", section)
+                    .register(meterRegistry);
+        });
+    }
+
+    BookingAnalytics(BookingRepository bookingRepository,
+                     ObjectProvider<TicketBookingService> ticketBookingService,
+                     ClusterTopology clusterTopology,
+                     int rateWindowSeconds,
+                     LongSupplier clock) {
+        this.bookingRepository = bookingRepository;
+        this.ticketBookingService = ticketBookingService;
+        this.clock = clock;
+        Map<String, Counters> localSections = new LinkedHashMap<>();
+        ClusterTopology.SECTIONS.stream()
+                .filter(clusterTopology::isLocalSection)
+                .forEach(section -> localSections.put(section, new Counters()));
+        this.sections = Collections.unmodifiableMap(localSections);
+        this.purchases = new SlidingWindowCounter(rateWindowSeconds, RATE_BUCKET_MILLIS);
+        this.cancellations = new SlidingWindowCounter(rateWindowSeconds, RATE_BUCKET_MILLIS);
+    }
+
+    /**
+     * Seed the counters from the booking store. No change is applied while the store is read, and changes applied
+     * before it are ignored, since the read already includes them.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        TicketBookingService service = ticketBookingService.getIfAvailable();
+        if (service == null) {
+            seeded = true;
+            return;
+        }
+        service.readConsistently(() -> {
+            bookingRepository.scan(null, booking -> {
+                addToSection(booking, 1);
+                adjustRoute(routeOf(booking), 1, minorUnits(booking.getPricePaid()), null);
+            });
+            seeded = true;
+            return null;
+        });
+    }
+
+    @Override
+    public void onBookingChange(BookingChange change) {
+        if (!seeded) {
+            return;
+        }
+        TicketBooking before = change.before();
+        TicketBooking after = change.after();
+        if (before != null) {
+            addToSection(before, -1);
+        }
+        if (after != null) {
+            addToSection(after, 1);
+        }
+        Long discountMinorUnits = null;
+        if (change.type() == BookingChange.Type.DISCOUNT_APPLIED && before != null && after != null) {
+            discountMinorUnits = minorUnits(before.getPricePaid()) - minorUnits(after.getPricePaid());
+            countDiscount(sectionCounters(after), discountMinorUnits);
+        }
+        Route beforeRoute = before != null ? routeOf(before) : null;
+        Route afterRoute = after != null ? routeOf(after) : null;
+        if (beforeRoute != null && beforeRoute.equals(afterRoute)) {
+            // Adjusted in one step, so a route's only booking does not take the route's counters with it
+            adjustRoute(afterRoute, 0, minorUnits(after.getPricePaid()) - minorUnits(before.getPricePaid()),
+                    discountMinorUnits);
+        } else {
+            if (beforeRoute != null) {
+                adjustRoute(beforeRoute, -1, -minorUnits(before.getPricePaid()), null);
+            }
+            if (afterRoute != null) {
+                adjustRoute(afterRoute, 1, minorUnits(after.getPricePaid()), discountMinorUnits);
+            }
+        }
+        if (!change.replicated()) {
+            if (change.type() == BookingChange.Type.PURCHASED) {
+                purchases.increment(clock.getAsLong());
+            } else if (change.type() == BookingChange.Type.CANCELLED) {
+                cancellations.increment(clock.getAsLong());
+            }
+        }
+    }
+
+    /**
+     * Read the current counters. The cost depends on the number of sections and routes, not on the number of
+     * bookings.
+     *
+     * @return The analytics of the sections held by this node.
+     */
+    public BookingAnalyticsDto snapshot() {
+        List<SectionAnalyticsDto> sectionAnalytics = new ArrayList<>(sections.size());
+        long bookings = 0;
+        long revenueMinorUnits = 0;
+        long discountsApplied = 0;
+        long discountMinorUnits = 0;
+        for (Map.Entry<String, Counters> entry : sections.entrySet()) {
+            Counters counters = entry.getValue();
+            long sectionBookings = counters.bookings.sum();
+            long sectionRevenueMinorUnits = counters.revenueMinorUnits.sum();
+            long sectionDiscounts = counters.discountsApplied.sum();
+            long sectionDiscountMinorUnits = counters.discountMinorUnits.sum();
+            sectionAnalytics.add(new SectionAnalyticsDto(entry.getKey(), sectionBookings, sectionCapacity,
+                    loadFactor(sectionBookings, sectionCapacity), amount(sectionRevenueMinorUnits), sectionDiscounts,
+                    amount(sectionDiscountMinorUnits)));
+            bookings += sectionBookings;
+            revenueMinorUnits += sectionRevenueMinorUnits;
+            discountsApplied += sectionDiscounts;
+            discountMinorUnits += sectionDiscountMinorUnits;
+        }
+        List<RouteAnalyticsDto> routeAnalytics = new ArrayList<>(routes.size());
+        routes.forEach((route, counters) -> {
+            long routeBookings = counters.bookings.sum();
+            if (routeBookings > 0 || counters.discountsApplied.sum() > 0) {
+                routeAnalytics.add(new RouteAnalyticsDto(route.from(), route.to(), routeBookings,
+                        amount(counters.revenueMinorUnits.sum()), counters.discountsApplied.sum()));
+            }
+        });
+        routeAnalytics.sort(Comparator.comparing(RouteAnalyticsDto::from, Comparator.nullsFirst(String::compareTo))
+                .thenComparing(RouteAnalyticsDto::to, Comparator.nullsFirst(String::compareTo)));
+        int capacity = sectionCapacity * sections.size();
+        long now = clock.getAsLong();
+        return new BookingAnalyticsDto(bookings, capacity, loadFactor(bookings, capacity), amount(revenueMinorUnits),
+                discountsApplied, amount(discountMinorUnits), purchases.windowMillis() / 1000, purchases.sum(now),
+                cancellations.sum(now), sectionAnalytics, routeAnalytics);
+    }
+
+    private void addToSection(TicketBooking booking, int sign) {
+        Counters section = sectionCounters(booking);
+        if (section != null) {
+            section.bookings.add(sign);
+            section.revenueMinorUnits.add(sign * minorUnits(booking.getPricePaid()));
+        }
+    }
+
+    /**
+     * Adjust the counters of a route, and drop them once the route holds no bookings.
+     *
+     * @param discountMinorUnits The amount of a discount applied on the route, or null if none was.
+     */
+    private void adjustRoute(Route route, long bookings, long revenueMinorUnits, Long discountMinorUnits) {
+        routes.compute(route, (key, existing) -> {
+            Counters counters = existing != null ? existing : new Counters();
+            counters.bookings.add(bookings);
+            counters.revenueMinorUnits.add(revenueMinorUnits);
+            if (discountMinorUnits != null) {
+                countDiscount(counters, discountMinorUnits);
+            }
+            return counters.bookings.sum() == 0 ? null : counters;
+        });
+    }
+
+    private Counters sectionCounters(TicketBooking booking) {
+        return booking.getSection() != null ? sections.get(booking.getSection().toUpperCase(Locale.ROOT)) : null;
+    }
+
+    private static Route routeOf(TicketBooking booking) {
+        return new Route(booking.getFrom(), booking.getTo());
+    }
+
+    private static void countDiscount(Counters counters, long discountMinorUnits) {
+        if (counters != null) {
+            counters.discountsApplied.increment();
+            counters.discountMinorUnits.add(discountMinorUnits);
+        }
+    }
+
+    private static long minorUnits(Money amount) {
+        return amount != null ? amount.minorUnits() : 0;
+    }
+
+    private static BigDecimal amount(long minorUnits) {
+        return Money.ofMinor(minorUnits).toBigDecimal();
+    }
+
+    private static double loadFactor(long bookings, int capacity) {
+        return capacity > 0 ? (double) bookings / capacity : 0;
+    }
+
+    private record Route(String from, String to) {
+    }
+
+    private static final class Counters {
+        private final LongAdder bookings = new LongAdder();
+        private final LongAdder revenueMinorUnits = new LongAdder();
+        private final LongAdder discountsApplied = new LongAdder();
+        private final LongAdder discountMinorUnits = new LongAdder();
+    }
+}
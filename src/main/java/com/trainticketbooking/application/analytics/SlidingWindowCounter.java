@@ -0,0 +1,68 @@
+package com.trainticketbooking.application.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts events over a sliding window of fixed-size time buckets. Each bucket remembers which interval it counts, so a
+ * bucket left over from an earlier lap around the ring is reset on its next use and ignored when summing; summing costs
+ * one pass over the buckets however many events were counted.
+ */
+final class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray intervals;
+
+    SlidingWindowCounter(int buckets, long bucketMillis) {
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+        this.counts = new AtomicLongArray(buckets);
+        this.intervals = new AtomicLongArray(buckets);
+        for (int i = 0; i < buckets; i++) {
+            intervals.set(i, -1);
+        }
+    }
+
+    /**
+     * Count one event.
+     *
+     * @param nowMillis The current time in milliseconds.
+     */
+    synchronized void increment(long nowMillis) {
+        long interval = nowMillis / bucketMillis;
+        int bucket = (int) (interval % buckets);
+        if (intervals.get(bucket) != interval) {
+            counts.set(bucket, 0);
+            intervals.set(bucket, interval);
+        }
+        counts.incrementAndGet(bucket);
+    }
+
+    /**
+     * Sum the events counted within the window ending now.
+     *
+     * @param nowMillis The current time in milliseconds.
+     * @return The number of events.
+     */
+    long sum(long nowMillis) {
+        long interval = nowMillis / bucketMillis;
+        long sum = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            long bucketInterval = intervals.get(bucket);
+            if (bucketInterval > interval - buckets && bucketInterval <= interval) {
+                sum += counts.get(bucket);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Get the length of the window.
+     *
+     * @return The window length in milliseconds.
+     */
+    long windowMillis() {
+        return buckets * bucketMillis;
+    }
+}
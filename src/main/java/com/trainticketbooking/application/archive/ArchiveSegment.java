@@ -0,0 +1,350 @@
+package com.trainticketbooking.application.archive;
+
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An immutable file of archived bookings, read through a memory mapping.
+ * <p>
+ * Bookings are stored in ticket ID order, in blocks of a fixed number of bookings, each block compressed on its own.
+ * After the blocks comes a sparse index with one entry per block: the first and last ticket ID in the block, where the
+ * block starts, its compressed and uncompressed length, its number of bookings and a 64-bit filter of the email
+ * addresses in it. The index is read into memory when the segment is opened, so a ticket is found by a binary search of
+ * the index and the decompression of a single block, and a lookup by email only decompresses the blocks whose filter
+ * matches. A fixed-size footer at the very end locates the index.
+ */
+final class ArchiveSegment {
+
+    private static final int MAGIC = 0x424b5331;
+    private static final int FOOTER_BYTES = Long.BYTES + 3 * Integer.BYTES;
+    private static final int INDEX_ENTRY_BYTES = 5 * Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    private final Path file;
+    private final MappedByteBuffer mapped;
+    private final int bookingCount;
+    private final int[] firstTicketIds;
+    private final int[] lastTicketIds;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final long[] emailFilters;
+
+    private ArchiveSegment(Path file, MappedByteBuffer mapped) {
+        this.file = file;
+        this.mapped = mapped;
+        int footer = mapped.capacity() - FOOTER_BYTES;
+        if (footer < 0 || mapped.getInt(footer + Long.BYTES + 2 * Integer.BYTES) != MAGIC) {
+            throw new IllegalStateException("Not an archive segment: " + file);
+        }
+        int indexOffset = (int) mapped.getLong(footer);
+        int blocks = mapped.getInt(footer + Long.BYTES);
+        this.bookingCount = mapped.getInt(footer + Long.BYTES + Integer.BYTES);
+        this.firstTicketIds = new int[blocks];
+        this.lastTicketIds = new int[blocks];
+        this.offsets = new long[blocks];
+        this.compressedLengths = new int[blocks];
+        this.rawLengths = new int[blocks];
+        this.emailFilters = new long[blocks];
+        ByteBuffer index = mapped.slice(indexOffset, blocks * INDEX_ENTRY_BYTES);
+        for (int block = 0; block < blocks; block++) {
+            firstTicketIds[block] = index.getInt();
+            lastTicketIds[block] = index.getInt();
+            offsets[block] = index.getLong();
+            compressedLengths[block] = index.getInt();
+            rawLengths[block] = index.getInt();
+            index.getInt();
+            emailFilters[block] = index.getLong();
+        }
+    }
+
+    /**
+     * Write bookings to a new segment file. The file is written under a temporary name and only moved into place when
+     * complete, so a segment file is never seen half written.
+     *
+     * @param file      The segment file to create.
+     * @param bookings  The bookings to archive.
+     * @param blockSize The number of bookings per compressed block.
+     * @return The new segment, opened for reading.
+     * @throws IOException if the file cannot be written.
+     */
+    static ArchiveSegment write(Path file, List<TicketBooking> bookings, int blockSize) throws IOException {
+        List<TicketBooking> ordered = bookings.stream()
+                .sorted(Comparator.comparing(TicketBooking::getTicketId))
+                .toList();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                long position = 0;
+                int blocks = 0;
+                for (int start = 0; start < ordered.size(); start += blockSize) {
+                    List<TicketBooking> block = ordered.subList(start, Math.min(ordered.size(), start + blockSize));
+                    byte[] raw = encode(block);
+                    byte[] compressed = compress(deflater, raw);
+                    writeFully(channel, ByteBuffer.wrap(compressed), position);
+                    indexOut.writeInt(block.get(0).getTicketId());
+                    indexOut.writeInt(block.get(block.size() - 1).getTicketId());
+                    indexOut.writeLong(position);
+                    indexOut.writeInt(compressed.length);
+                    indexOut.writeInt(raw.length);
+                    indexOut.writeInt(block.size());
+                    indexOut.writeLong(emailFilter(block));
+                    position += compressed.length;
+                    blocks++;
+                }
+                ByteBuffer footer = ByteBuffer.allocate(index.size() + FOOTER_BYTES);
+                footer.put(index.toByteArray())
+                        .putLong(position)
+                        .putInt(blocks)
+                        .putInt(ordered.size())
+                        .putInt(MAGIC)
+                        .flip();
+                writeFully(channel, footer, position);
+                channel.force(true);
+            } finally {
+                deflater.end();
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        return open(file);
+    }
+
+    /**
+     * Open a segment file for reading.
+     *
+     * @param file The segment file.
+     * @return The segment.
+     * @throws IOException if the file cannot be read.
+     */
+    static ArchiveSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            return new ArchiveSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Find an archived booking by its ticket ID.
+     *
+     * @param ticketId The ticket ID.
+     * @return A copy of the booking, if this segment holds it.
+     */
+    Optional<TicketBooking> findById(int ticketId) {
+        int low = 0;
+        int high = firstTicketIds.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (lastTicketIds[middle] < ticketId) {
+                low = middle + 1;
+            } else if (firstTicketIds[middle] > ticketId) {
+                high = middle - 1;
+            } else {
+                return readBlock(middle).stream()
+                        .filter(booking -> booking.getTicketId() == ticketId)
+                        .findFirst();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Find the archived bookings made with the given email, ignoring case.
+     *
+     * @param userEmail The email of the user.
+     * @return Copies of the bookings in ticket ID order.
+     */
+    List<TicketBooking> findByUserEmail(String userEmail) {
+        long filter = emailFilter(userEmail);
+        Predicate<TicketBooking> matches = booking -> userEmail.equalsIgnoreCase(booking.getUserEmail());
+        List<TicketBooking> found = new ArrayList<>();
+        for (int block = 0; block < emailFilters.length; block++) {
+            if ((emailFilters[block] & filter) == filter) {
+                readBlock(block).stream().filter(matches).forEach(found::add);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get the highest ticket ID in the segment, read from the block index.
+     *
+     * @return The ticket ID, or empty if the segment holds no bookings.
+     */
+    OptionalInt highestTicketId() {
+        int blocks = lastTicketIds.length;
+        return blocks == 0 ? OptionalInt.empty() : OptionalInt.of(lastTicketIds[blocks - 1]);
+    }
+
+    /**
+     * Get the number of bookings in the segment.
+     *
+     * @return The booking count.
+     */
+    int bookingCount() {
+        return bookingCount;
+    }
+
+    /**
+     * Get the number of bytes the segment takes on disk.
+     *
+     * @return The file size.
+     */
+    long sizeBytes() {
+        return mapped.capacity();
+    }
+
+    Path file() {
+        return file;
+    }
+
+    private List<TicketBooking> readBlock(int block) {
+        ByteBuffer compressed = mapped.slice((int) offsets[block], compressedLengths[block]);
+        byte[] raw = new byte[rawLengths[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != raw.length) {
+                throw new IllegalStateException("Truncated block " + block + " in archive segment " + file);
+            }
+            return decode(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt block " + block + " in archive segment " + file, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] compress(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Build a filter with two bits set per email address, so that a block is only decompressed for a lookup by email
+     * if it may contain that address.
+     */
+    private static long emailFilter(List<TicketBooking> bookings) {
+        long filter = 0;
+        for (TicketBooking booking : bookings) {
+            if (booking.getUserEmail() != null) {
+                filter |= emailFilter(booking.getUserEmail());
+            }
+        }
+        return filter;
+    }
+
+    private static long emailFilter(String userEmail) {
+        int hash = userEmail.toLowerCase(Locale.ROOT).hashCode();
+        return 1L << (hash & 63) | 1L << (hash >>> 6 & 63);
+    }
+
+    private static byte[] encode(List<TicketBooking> bookings) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(bookings.size() * 96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(bookings.size());
+        for (TicketBooking booking : bookings) {
+            out.writeInt(booking.getTicketId());
+            writeNullableString(out, booking.getFrom());
+            writeNullableString(out, booking.getTo());
+            writeNullableString(out, booking.getUserName());
+            writeNullableString(out, booking.getUserEmail());
+            Money pricePaid = booking.getPricePaid();
+            out.writeBoolean(pricePaid != null);
+            if (pricePaid != null) {
+                out.writeLong(pricePaid.minorUnits());
+                out.writeUTF(pricePaid.currency().getCurrencyCode());
+            }
+            writeNullableString(out, booking.getSection());
+            out.writeBoolean(booking.getSeatNumber() != null);
+            if (booking.getSeatNumber() != null) {
+                out.writeInt(booking.getSeatNumber());
+            }
+            out.writeLong(booking.getVersion());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<TicketBooking> decode(byte[] raw) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        int count = in.readInt();
+        List<TicketBooking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int ticketId = in.readInt();
+            String from = readNullableString(in);
+            String to = readNullableString(in);
+            String userName = readNullableString(in);
+            String userEmail = readNullableString(in);
+            Money pricePaid = in.readBoolean()
+                    ? new Money(in.readLong(), Currency.getInstance(in.readUTF()))
+                    : null;
+            String section = readNullableString(in);
+            Integer seatNumber = in.readBoolean() ? in.readInt() : null;
+            long version = in.readLong();
+            bookings.add(new TicketBooking(ticketId, from, to, userName, userEmail, pricePaid, section, seatNumber,
+                    version));
+        }
+        return bookings;
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,197 @@
+package com.trainticketbooking.application.archive;
+
+import com.trainticketbooking.application.domain.TicketBooking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Cold storage for the bookings of completed journeys, which are only read any more for receipts and ticket history.
+ * Each archiving run writes the bookings it is given to a new compressed, immutable {@link ArchiveSegment} in
+ * {@code booking.archive.dir}, with {@code booking.archive.block-size} bookings per compressed block, and the segments
+ * found there are opened again on startup. Segments are memory-mapped, so archived bookings take no heap space until
+ * they are read, and reads do not wait for archiving. A booking archived more than once is read as last archived.
+ * Without a directory, archiving is disabled.
+ */
+@Component
+public class BookingArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingArchive.class);
+    private static final String SEGMENT_PREFIX = "bookings-";
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private final Path directory;
+    private final int blockSize;
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public BookingArchive(@Value("${booking.archive.dir:}") String archiveDir,
+                          @Value("${booking.archive.block-size:64}") int blockSize) throws IOException {
+        this(archiveDir.isBlank() ? null : Path.of(archiveDir.trim()), blockSize);
+    }
+
+    BookingArchive(Path directory, int blockSize) throws IOException {
+        this.directory = directory;
+        this.blockSize = Math.max(1, blockSize);
+        if (directory == null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(BookingArchive::isSegment).sorted().toList()) {
+                segments.add(ArchiveSegment.open(file));
+            }
+        }
+        if (!segments.isEmpty()) {
+            log.info("Opened {} archive segments with {} bookings from {}", segments.size(), count(), directory);
+        }
+    }
+
+    /**
+     * Create an archive that keeps nothing, for booking services without cold storage.
+     *
+     * @return The disabled archive.
+     */
+    public static BookingArchive disabled() {
+        try {
+            return new BookingArchive((Path) null, 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Check whether bookings can be archived.
+     *
+     * @return True if an archive directory is configured.
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Write bookings to a new segment. When this returns, the bookings can be read back from the archive, also after
+     * a restart.
+     *
+     * @param bookings The bookings to archive.
+     * @throws IllegalStateException if archiving is disabled.
+     * @throws UncheckedIOException  if the segment cannot be written.
+     */
+    public synchronized void append(Collection<TicketBooking> bookings) {
+        if (directory == null) {
+            throw new IllegalStateException("Archiving is disabled");
+        }
+        if (bookings.isEmpty()) {
+            return;
+        }
+        int next = segments.isEmpty() ? 1 : sequenceOf(segments.get(segments.size() - 1).file()) + 1;
+        Path file = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, next, SEGMENT_SUFFIX));
+        try {
+            segments.add(ArchiveSegment.write(file, new ArrayList<>(bookings), blockSize));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the archive segment " + file, e);
+        }
+    }
+
+    /**
+     * Find an archived booking by its ticket ID.
+     *
+     * @param ticketId The ticket ID.
+     * @return A copy of the booking as last archived, if it has been archived.
+     */
+    public Optional<TicketBooking> findById(Integer ticketId) {
+        if (ticketId == null) {
+            return Optional.empty();
+        }
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Optional<TicketBooking> booking = segments.get(i).findById(ticketId);
+            if (booking.isPresent()) {
+                return booking;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Find the archived bookings made with the given email, ignoring case.
+     *
+     * @param userEmail The email of the user.
+     * @return Copies of the bookings, oldest segment first, each as last archived.
+     */
+    public List<TicketBooking> findByUserEmail(String userEmail) {
+        if (userEmail == null) {
+            return List.of();
+        }
+        Map<Integer, TicketBooking> found = new LinkedHashMap<>();
+        segments.forEach(segment -> segment.findByUserEmail(userEmail)
+                .forEach(booking -> found.put(booking.getTicketId(), booking)));
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Get the highest archived ticket ID, from the block indexes of the segments without reading any booking.
+     *
+     * @return The ticket ID, or null if nothing has been archived.
+     */
+    public Integer highestTicketId() {
+        return segments.stream()
+                .map(ArchiveSegment::highestTicketId)
+                .filter(OptionalInt::isPresent)
+                .map(OptionalInt::getAsInt)
+                .max(Integer::compare)
+                .orElse(null);
+    }
+
+    /**
+     * Count the archived bookings.
+     *
+     * @return The number of bookings in all segments.
+     */
+    public long count() {
+        return segments.stream().mapToLong(ArchiveSegment::bookingCount).sum();
+    }
+
+    /**
+     * Get the number of segments written so far.
+     *
+     * @return The segment count.
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Get the space the archive takes on disk.
+     *
+     * @return The total size of the segment files in bytes.
+     */
+    public long sizeBytes() {
+        return segments.stream().mapToLong(ArchiveSegment::sizeBytes).sum();
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static int sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,468 @@
+package com.trainticketbooking.application.cluster;
+
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.domain.SeatPreference;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.BulkCancellationRequestDto;
+import com.trainticketbooking.application.dto.BulkOperationResultDto;
+import com.trainticketbooking.application.dto.BulkSeatReassignmentRequestDto;
+import com.trainticketbooking.application.dto.SeatExchangeRequestDto;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.tenant.Tenant;
+import com.trainticketbooking.application.tenant.TenantContext;
+import com.trainticketbooking.application.versioning.BookingVersions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Sends every booking command to the node owning the affected seats, as described by {@link ClusterTopology}.
+ * Commands for this node go straight to {@link TicketBookingService}; commands for other nodes are forwarded in
+ * CBOR to their {@code /cluster} endpoints, with the cluster secret that {@link ClusterController} asks for.
+ * Queries that are not bound to one owner are asked of every node and merged. Outside clustered mode every call is
+ * local.
+ * <p>
+ * On a read-only replica, changes are refused, and so are queries while the replica trails the primary by more than
+ * the configured staleness bound (see {@link ReplicationState}).
+ * <p>
+ * Entity tags are only given for resources held entirely by this node, see {@link BookingVersions}; the others are
+ * always answered in full.
+ * <p>
+ * Requests of a tenant other than the default one (see {@link TenantContext}) are served entirely by that tenant's
+ * own booking service on this node, and purchases are refused once the tenant holds as many bookings as its quota
+ * allows.
+ */
+@Component
+public class BookingCommandRouter {
+
+    private static final ParameterizedTypeReference<CustomApiResponse<TicketBookingDto>> TICKET =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<CustomApiResponse<List<TicketBooking>>> TICKET_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<CustomApiResponse<List<BulkOperationResultDto>>> BULK_RESULTS =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<CustomApiResponse<List<TicketBookingDto>>> TICKETS =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final TicketBookingService ticketBookingService;
+    private final ClusterTopology clusterTopology;
+    private final ReplicationState replicationState;
+    private final BookingVersions bookingVersions;
+    private final Map<String, RestClient> nodeClients = new HashMap<>();
+
+    public BookingCommandRouter(TicketBookingService ticketBookingService,
+                                ClusterTopology clusterTopology,
+                                ReplicationState replicationState,
+                                BookingVersions bookingVersions,
+                                RestClient.Builder restClientBuilder,
+                                @Value("${booking.cluster.request-timeout-ms:2000}") int requestTimeoutMs,
+                                @Value("${booking.cluster.secret:}") String clusterSecret) {
+        this.ticketBookingService = ticketBookingService;
+        this.clusterTopology = clusterTopology;
+        this.replicationState = replicationState;
+        this.bookingVersions = bookingVersions;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(requestTimeoutMs);
+        requestFactory.setReadTimeout(requestTimeoutMs);
+        for (String nodeId : clusterTopology.remoteNodeIds()) {
+            nodeClients.put(nodeId, restClientBuilder.clone()
+                    .baseUrl(clusterTopology.urlOf(nodeId))
+                    .requestFactory(requestFactory)
+                    .defaultHeaders(headers -> {
+                        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+                        headers.set(ClusterController.SECRET_HEADER, clusterSecret);
+                    })
+                    .build());
+        }
+    }
+
+    /**
+     * Purchase a ticket on the node holding the group member's ticket, if any, then on this node if one of its
+     * sections has a free seat, otherwise on the owners of the other sections in allocation order.
+     *
+     * @param ticketBooking  The Record containing ticket booking information.
+     * @param seatPreference The preferred seat position, or null for none.
+     * @param nearTicketId   The ticket of a group member to sit close to, or null.
+     * @return CustomApiResponse with information about the ticket booking operation.
+     * @throws IllegalArgumentException if no node has a free seat.
+     */
+    public CustomApiResponse<TicketBookingDto> purchaseTicket(TicketBookingDto ticketBooking,
+                                                              SeatPreference seatPreference,
+                                                              Integer nearTicketId) {
+        if (!replicationState.acceptsWrites()) {
+            return rejected(ApiResponseMessages.REPLICA_READ_ONLY);
+        }
+        if (!isClustered()) {
+            return localService().purchaseTicket(ticketBooking, seatPreference, nearTicketId);
+        }
+        Set<String> owners = new LinkedHashSet<>();
+        if (nearTicketId != null) {
+            owners.add(clusterTopology.ownerOfTicket(nearTicketId));
+        }
+        owners.add(clusterTopology.getLocalNodeId());
+        ClusterTopology.SECTIONS.forEach(section -> owners.add(clusterTopology.ownerOfSection(section)));
+        CustomApiResponse<TicketBookingDto> quotaExceeded = null;
+        for (String nodeId : owners) {
+            if (isLocal(nodeId)) {
+                if (localService().hasAvailableSeat()) {
+                    try {
+                        CustomApiResponse<TicketBookingDto> response = localService().purchaseTicket(ticketBooking,
+                                seatPreference, nearTicketId);
+                        if (response.getStatus() == HttpStatus.OK.value()) {
+                            return response;
+                        }
+                        quotaExceeded = response;
+                    } catch (IllegalArgumentException e) {
+                        // The last local seat went to a concurrent purchase; try the other owners.
+                    }
+                }
+                continue;
+            }
+            CustomApiResponse<TicketBookingDto> response = call(nodeId, client -> client.post()
+                    .uri(uriBuilder -> uriBuilder.path("/cluster/purchase")
+                            .queryParamIfPresent("seatPreference", Optional.ofNullable(seatPreference))
+                            .queryParamIfPresent("nearTicketId", Optional.ofNullable(nearTicketId))
+                            .build())
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .body(ticketBooking), TICKET);
+            if (response.getStatus() == HttpStatus.OK.value()) {
+                return response;
+            }
+            if (response.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                quotaExceeded = response;
+            }
+        }
+        if (quotaExceeded != null) {
+            return quotaExceeded;
+        }
+        throw new IllegalArgumentException("No available seats in either section");
+    }
+
+    /**
+     * Get user receipt details from the node that issued the ticket.
+     *
+     * @param ticketId The ID of the ticket for which receipt details are requested.
+     * @return CustomApiResponse with information about the user receipt details.
+     */
+    public CustomApiResponse<TicketBookingDto> getUserReceiptDetails(Integer ticketId) {
+        if (!replicationState.servesReads()) {
+            return rejected(ApiResponseMessages.REPLICA_STALE);
+        }
+        String owner = clusterTopology.ownerOfTicket(ticketId);
+        if (isLocal(owner)) {
+            return localService().getUserReceiptDetails(ticketId);
+        }
+        return call(owner, client -> client.get().uri("/cluster/tickets/{ticketId}", ticketId), TICKET);
+    }
+
+    /**
+     * Get all tickets associated with a user's email from every node.
+     *
+     * @param email The email of the user for whom tickets are requested.
+     * @return CustomApiResponse with information about the ticket list.
+     */
+    public CustomApiResponse<List<TicketBooking>> getAllTickets(String email) {
+        if (!replicationState.servesReads()) {
+            return rejected(ApiResponseMessages.REPLICA_STALE);
+        }
+        CustomApiResponse<List<TicketBooking>> local = localService().getAllTickets(email);
+        if (!isClustered()) {
+            return local;
+        }
+        List<TicketBooking> tickets = new ArrayList<>(dataOrEmpty(local));
+        for (String nodeId : remoteNodeIds()) {
+            tickets.addAll(dataOrEmpty(call(nodeId,
+                    client -> client.get().uri("/cluster/tickets?email={email}", email), TICKET_LIST)));
+        }
+        return tickets.isEmpty()
+                ? new CustomApiResponse<>(HttpStatus.OK.value(), ApiResponseMessages.TICKET_LIST_NOT_FOUND, null)
+                : new CustomApiResponse<>(HttpStatus.OK.value(), ApiResponseMessages.TICKET_LIST_FOUND, tickets);
+    }
+
+    /**
+     * Update seat and/or discount of a ticket on the node that issued it.
+     *
+     * @param ticketId   The ID of the ticket to be updated.
+     * @param seatNumber The new seat number to be assigned.
+     * @param discount   The discount code to apply.
+     * @param ifMatch    The If-Match header naming the version the ticket must still have, or null for any version.
+     *                   It is read by the owner, whose tags it holds.
+     * @return CustomApiResponse with information about the seat update operation.
+     */
+    public CustomApiResponse<TicketBookingDto> updateUserSeatAllocation(Integer ticketId, Integer seatNumber,
+                                                                        String discount, String ifMatch) {
+        if (!replicationState.acceptsWrites()) {
+            return rejected(ApiResponseMessages.REPLICA_READ_ONLY);
+        }
+        String owner = clusterTopology.ownerOfTicket(ticketId);
+        if (isLocal(owner)) {
+            return localService().updateUserSeatAllocation(ticketId, seatNumber, discount,
+                    bookingVersions.expectedVersion(ticketId, ifMatch));
+        }
+        return call(owner, client -> client.put()
+                .uri(uriBuilder -> uriBuilder.path("/cluster/tickets/{ticketId}")
+                        .queryParamIfPresent("seatNumber", Optional.ofNullable(seatNumber))
+                        .queryParamIfPresent("discount", Optional.ofNullable(discount))
+                        .build(ticketId))
+                .headers(headers -> {
+                    if (ifMatch != null) {
+                        headers.set(HttpHeaders.IF_MATCH, ifMatch);
+                    }
+                }), TICKET);
+    }
+
+    /**
+     * Delete the first ticket of the given user, looking on this node first and then on the others.
+     *
+     * @param userName The username of the user to be deleted.
+     * @return CustomApiResponse with information about the user deletion operation.
+     */
+    public CustomApiResponse<TicketBookingDto> deleteUserDetail(String userName) {
+        if (!replicationState.acceptsWrites()) {
+            return rejected(ApiResponseMessages.REPLICA_READ_ONLY);
+        }
+        CustomApiResponse<TicketBookingDto> response = localService().deleteUserDetail(userName);
+        for (String nodeId : remoteNodeIds()) {
+            if (response.getData() != null) {
+                break;
+            }
+            response = call(nodeId, client -> client.delete().uri("/cluster/users?userName={userName}", userName),
+                    TICKET);
+        }
+        return response;
+    }
+
+    /**
+     * Get all users and their seat allocations from the node owning the section.
+     *
+     * @param section The section for which users are requested (e.g., "A", "B").
+     * @return CustomApiResponse with information about the users and their seat allocations.
+     */
+    public CustomApiResponse<List<TicketBooking>> getUsersBySection(String section) {
+        if (!replicationState.servesReads()) {
+            return rejected(ApiResponseMessages.REPLICA_STALE);
+        }
+        String owner = clusterTopology.ownerOfSection(section);
+        if (isLocal(owner)) {
+            return localService().getUsersBySection(section);
+        }
+        return call(owner, client -> client.get().uri("/cluster/sections/{section}/users", section), TICKET_LIST);
+    }
+
+    /**
+     * Cancel matching tickets on every node.
+     *
+     * @param request The selection criteria.
+     * @return CustomApiResponse with one result per cancelled ticket.
+     */
+    public CustomApiResponse<List<BulkOperationResultDto>> cancelTickets(BulkCancellationRequestDto request) {
+        if (!replicationState.acceptsWrites()) {
+            return rejected(ApiResponseMessages.REPLICA_READ_ONLY);
+        }
+        CustomApiResponse<List<BulkOperationResultDto>> local = localService().cancelTickets(request);
+        if (!isClustered() || local.getStatus() != HttpStatus.OK.value()) {
+            return local;
+        }
+        List<BulkOperationResultDto> results = new ArrayList<>(dataOrEmpty(local));
+        for (String nodeId : remoteNodeIds()) {
+            results.addAll(dataOrEmpty(call(nodeId, client -> client.post()
+                    .uri("/cluster/bulk-cancellation")
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .body(request), BULK_RESULTS)));
+        }
+        return new CustomApiResponse<>(HttpStatus.OK.value(), ApiResponseMessages.BULK_CANCELLATION_COMPLETED,
+                results);
+    }
+
+    /**
+     * Split a seat mapping by the node that issued each ticket and apply every part on its node.
+     *
+     * @param request The mapping from ticket ID to new seat number.
+     * @return CustomApiResponse with one result per requested ticket, in request order.
+     */
+    public CustomApiResponse<List<BulkOperationResultDto>> reassignSeats(BulkSeatReassignmentRequestDto request) {
+        if (!replicationState.acceptsWrites()) {
+            return rejected(ApiResponseMessages.REPLICA_READ_ONLY);
+        }
+        Map<Integer, Integer> seatMapping = request.seatMapping();
+        if (!isClustered() || seatMapping == null || seatMapping.isEmpty()) {
+            return localService().reassignSeats(request);
+        }
+        Map<String, Map<Integer, Integer>> mappingByOwner = new LinkedHashMap<>();
+        seatMapping.forEach((ticketId, seatNumber) -> mappingByOwner
+                .computeIfAbsent(clusterTopology.ownerOfTicket(ticketId), owner -> new LinkedHashMap<>())
+                .put(ticketId, seatNumber));
+
+        Map<Integer, BulkOperationResultDto> results = new HashMap<>();
+        mappingByOwner.forEach((owner, mapping) -> {
+            BulkSeatReassignmentRequestDto part = new BulkSeatReassignmentRequestDto(mapping);
+            CustomApiResponse<List<BulkOperationResultDto>> response = isLocal(owner)
+                    ? localService().reassignSeats(part)
+                    : call(owner, client -> client.put()
+                    .uri("/cluster/bulk-seat-reassignment")
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .body(part), BULK_RESULTS);
+            if (response.getData() != null) {
+                response.getData().forEach(result -> results.put(result.ticketId(), result));
+            } else {
+                mapping.keySet().forEach(ticketId -> results.put(ticketId, new BulkOperationResultDto(ticketId,
+                        response.getStatus(), response.getMessage(), null)));
+            }
+        });
+        List<BulkOperationResultDto> ordered = seatMapping.keySet().stream().map(results::get).toList();
+        return new CustomApiResponse<>(HttpStatus.OK.value(), ApiResponseMessages.BULK_SEAT_REASSIGNMENT_COMPLETED,
+                ordered);
+    }
+
+    /**
+     * Exchange the seats of several tickets on the node that issued them. An exchange is applied in a single step on
+     * one node, so its tickets must all have been issued by the same node.
+     *
+     * @param request The mapping from ticket ID to the ID of the ticket whose seat it takes.
+     * @return CustomApiResponse with the moved tickets, or 400 if they were issued by different nodes.
+     */
+    public CustomApiResponse<List<TicketBookingDto>> exchangeSeats(SeatExchangeRequestDto request) {
+        if (!replicationState.acceptsWrites()) {
+            return rejected(ApiResponseMessages.REPLICA_READ_ONLY);
+        }
+        Map<Integer, Integer> takesSeatOf = request.takesSeatOf();
+        if (!isClustered() || takesSeatOf == null || takesSeatOf.isEmpty()) {
+            return localService().exchangeSeats(request);
+        }
+        Set<String> owners = new HashSet<>();
+        takesSeatOf.keySet().forEach(ticketId -> owners.add(clusterTopology.ownerOfTicket(ticketId)));
+        if (owners.size() > 1) {
+            return new CustomApiResponse<>(HttpStatus.BAD_REQUEST.value(),
+                    ApiResponseMessages.SEAT_EXCHANGE_SPANS_NODES, null);
+        }
+        String owner = owners.iterator().next();
+        if (isLocal(owner)) {
+            return localService().exchangeSeats(request);
+        }
+        return call(owner, client -> client.put()
+                .uri("/cluster/seat-exchange")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .body(request), TICKETS);
+    }
+
+    /**
+     * Get the entity tag of a ticket, read before the ticket itself so that a tag never claims newer data than the
+     * answer it goes with.
+     *
+     * @param ticketId The ticket ID.
+     * @return The tag, or empty if the ticket is not held here or this replica is too stale to answer.
+     */
+    public Optional<String> ticketTag(Integer ticketId) {
+        if (!replicationState.servesReads() || !isLocal(clusterTopology.ownerOfTicket(ticketId))) {
+            return Optional.empty();
+        }
+        return localService().getTicketVersion(ticketId)
+                .map(version -> bookingVersions.ticketTag(ticketId, version));
+    }
+
+    /**
+     * Get the entity tag of a ticket at a version just read or written.
+     *
+     * @param ticket The ticket.
+     * @return The tag, or empty if the ticket has no version or is not held here.
+     */
+    public Optional<String> ticketTag(TicketBookingDto ticket) {
+        if (ticket == null || ticket.version() == null
+                || !isLocal(clusterTopology.ownerOfTicket(ticket.ticketId()))) {
+            return Optional.empty();
+        }
+        return Optional.of(bookingVersions.ticketTag(ticket.ticketId(), ticket.version()));
+    }
+
+    /**
+     * Get the entity tag of the ticket list of an email address.
+     *
+     * @param email The email address.
+     * @return The tag, or empty if other nodes hold part of the list or this replica is too stale to answer.
+     */
+    public Optional<String> ticketListTag(String email) {
+        if (!replicationState.servesReads() || isClustered() || TenantContext.isolated() != null) {
+            return Optional.empty();
+        }
+        return Optional.of(bookingVersions.ticketListTag(email));
+    }
+
+    /**
+     * Get the entity tag of the user list of a section.
+     *
+     * @param section The section.
+     * @return The tag, or empty if another node owns the section or this replica is too stale to answer.
+     */
+    public Optional<String> sectionTag(String section) {
+        if (!replicationState.servesReads() || !isLocal(clusterTopology.ownerOfSection(section))
+                || TenantContext.isolated() != null) {
+            return Optional.empty();
+        }
+        return Optional.of(bookingVersions.sectionTag(section));
+    }
+
+    /**
+     * Get the booking service of the request's tenant: this node's own, or that of a tenant other than the default
+     * one, whose bookings are all held here.
+     */
+    private TicketBookingService localService() {
+        Tenant tenant = TenantContext.isolated();
+        return tenant != null ? tenant.getTicketBookingService() : ticketBookingService;
+    }
+
+    private boolean isClustered() {
+        return clusterTopology.isClustered() && TenantContext.isolated() == null;
+    }
+
+    private List<String> remoteNodeIds() {
+        return TenantContext.isolated() == null ? clusterTopology.remoteNodeIds() : List.of();
+    }
+
+    private boolean isLocal(String nodeId) {
+        return TenantContext.isolated() != null || nodeId.equals(clusterTopology.getLocalNodeId());
+    }
+
+    private <T> CustomApiResponse<T> call(String nodeId,
+                                          Function<RestClient, RestClient.RequestHeadersSpec<?>> request,
+                                          ParameterizedTypeReference<CustomApiResponse<T>> responseType) {
+        try {
+            CustomApiResponse<T> response = request.apply(nodeClients.get(nodeId))
+                    .retrieve()
+                    .onStatus(HttpStatusCode::isError, (clientRequest, clientResponse) -> {
+                    })
+                    .body(responseType);
+            if (response != null) {
+                return response;
+            }
+        } catch (RestClientException e) {
+            // Reported below like an empty answer.
+        }
+        return new CustomApiResponse<>(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ApiResponseMessages.NODE_UNAVAILABLE + nodeId, null);
+    }
+
+    private static <T> CustomApiResponse<T> rejected(String message) {
+        return new CustomApiResponse<>(HttpStatus.SERVICE_UNAVAILABLE.value(), message, null);
+    }
+
+    private static <T> List<T> dataOrEmpty(CustomApiResponse<List<T>> response) {
+        return response.getData() != null ? response.getData() : List.of();
+    }
+}
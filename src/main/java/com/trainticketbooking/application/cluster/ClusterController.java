@@ -0,0 +1,183 @@
+package com.trainticketbooking.application.cluster;
+
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.domain.SeatPreference;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.BulkCancellationRequestDto;
+import com.trainticketbooking.application.dto.BulkOperationResultDto;
+import com.trainticketbooking.application.dto.BulkSeatReassignmentRequestDto;
+import com.trainticketbooking.application.dto.SeatExchangeRequestDto;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.versioning.BookingVersions;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Node-to-node endpoints used by {@link BookingCommandRouter}. They always act on this node's own seats and never
+ * route further, which keeps forwarding to a single hop.
+ * <p>
+ * The endpoints only exist in clustered mode, and only answer requests carrying the shared
+ * {@code booking.cluster.secret} in the {@value #SECRET_HEADER} header, which the router adds to every forwarded
+ * command. Like the router, they refuse changes on a read-only replica and reads while a replica is stale. Purchases
+ * beyond the booking quota are refused by the booking service itself.
+ */
+@Hidden
+@RestController
+@RequestMapping("/cluster")
+@ConditionalOnProperty(name = "booking.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private final TicketBookingService ticketBookingService;
+    private final ReplicationState replicationState;
+    private final BookingVersions bookingVersions;
+    private final byte[] clusterSecret;
+
+    public ClusterController(TicketBookingService ticketBookingService,
+                             ReplicationState replicationState,
+                             BookingVersions bookingVersions,
+                             @Value("${booking.cluster.secret:}") String clusterSecret) {
+        if (clusterSecret.isBlank()) {
+            throw new IllegalStateException("booking.cluster.secret must be set in clustered mode");
+        }
+        this.ticketBookingService = ticketBookingService;
+        this.replicationState = replicationState;
+        this.bookingVersions = bookingVersions;
+        this.clusterSecret = clusterSecret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Turn away every request that does not come from another node of the cluster.
+     *
+     * @param secret The cluster secret sent with the request.
+     * @throws ClusterAccessDeniedException if the secret is missing or wrong.
+     */
+    @ModelAttribute
+    public void authenticate(@RequestHeader(name = SECRET_HEADER, required = false) String secret) {
+        if (secret == null || !MessageDigest.isEqual(clusterSecret, secret.getBytes(StandardCharsets.UTF_8))) {
+            throw new ClusterAccessDeniedException();
+        }
+    }
+
+    @ExceptionHandler(ClusterAccessDeniedException.class)
+    public ResponseEntity<CustomApiResponse<Void>> accessDenied() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new CustomApiResponse<>(HttpStatus.FORBIDDEN.value(),
+                        ApiResponseMessages.CLUSTER_ACCESS_DENIED, null));
+    }
+
+    @PostMapping("/purchase")
+    public ResponseEntity<CustomApiResponse<TicketBookingDto>> purchaseTicket(
+            @RequestBody TicketBookingDto ticketBookingDto,
+            @RequestParam(required = false) SeatPreference seatPreference,
+            @RequestParam(required = false) Integer nearTicketId) {
+        if (!replicationState.acceptsWrites()) {
+            return ResponseEntity.ok(rejected(ApiResponseMessages.REPLICA_READ_ONLY));
+        }
+        try {
+            return ResponseEntity.ok(ticketBookingService.purchaseTicket(ticketBookingDto, seatPreference,
+                    nearTicketId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new CustomApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/tickets/{ticketId}")
+    public CustomApiResponse<TicketBookingDto> getUserReceiptDetails(@PathVariable Integer ticketId) {
+        if (!replicationState.servesReads()) {
+            return rejected(ApiResponseMessages.REPLICA_STALE);
+        }
+        return ticketBookingService.getUserReceiptDetails(ticketId);
+    }
+
+    @GetMapping("/tickets")
+    public CustomApiResponse<List<TicketBooking>> getAllTickets(@RequestParam String email) {
+        if (!replicationState.servesReads()) {
+            return rejected(ApiResponseMessages.REPLICA_STALE);
+        }
+        return ticketBookingService.getAllTickets(email);
+    }
+
+    @PutMapping("/tickets/{ticketId}")
+    public ResponseEntity<CustomApiResponse<TicketBookingDto>> updateUserSeatAllocation(
+            @PathVariable Integer ticketId,
+            @RequestParam(required = false) Integer seatNumber, @RequestParam(required = false) String discount,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!replicationState.acceptsWrites()) {
+            return ResponseEntity.ok(rejected(ApiResponseMessages.REPLICA_READ_ONLY));
+        }
+        try {
+            return ResponseEntity.ok(ticketBookingService.updateUserSeatAllocation(ticketId, seatNumber, discount,
+                    bookingVersions.expectedVersion(ticketId, ifMatch)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new CustomApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), null));
+        }
+    }
+
+    @DeleteMapping("/users")
+    public CustomApiResponse<TicketBookingDto> deleteUserDetail(@RequestParam String userName) {
+        if (!replicationState.acceptsWrites()) {
+            return rejected(ApiResponseMessages.REPLICA_READ_ONLY);
+        }
+        return ticketBookingService.deleteUserDetail(userName);
+    }
+
+    @GetMapping("/sections/{section}/users")
+    public CustomApiResponse<List<TicketBooking>> getUsersBySection(@PathVariable String section) {
+        if (!replicationState.servesReads()) {
+            return rejected(ApiResponseMessages.REPLICA_STALE);
+        }
+        return ticketBookingService.getUsersBySection(section);
+    }
+
+    @PostMapping("/bulk-cancellation")
+    public CustomApiResponse<List<BulkOperationResultDto>> cancelTickets(
+            @RequestBody BulkCancellationRequestDto request) {
+        if (!replicationState.acceptsWrites()) {
+            return rejected(ApiResponseMessages.REPLICA_READ_ONLY);
+        }
+        return ticketBookingService.cancelTickets(request);
+    }
+
+    @PutMapping("/bulk-seat-reassignment")
+    public CustomApiResponse<List<BulkOperationResultDto>> reassignSeats(
+            @RequestBody BulkSeatReassignmentRequestDto request) {
+        if (!replicationState.acceptsWrites()) {
+            return rejected(ApiResponseMessages.REPLICA_READ_ONLY);
+        }
+        return ticketBookingService.reassignSeats(request);
+    }
+
+    @PutMapping("/seat-exchange")
+    public CustomApiResponse<List<TicketBookingDto>> exchangeSeats(@RequestBody SeatExchangeRequestDto request) {
+        if (!replicationState.acceptsWrites()) {
+            return rejected(ApiResponseMessages.REPLICA_READ_ONLY);
+        }
+        return ticketBookingService.exchangeSeats(request);
+    }
+
+    private static <T> CustomApiResponse<T> rejected(String message) {
+        return new CustomApiResponse<>(HttpStatus.SERVICE_UNAVAILABLE.value(), message, null);
+    }
+
+    /**
+     * Thrown for a request without the cluster secret; answered with 403.
+     */
+    static class ClusterAccessDeniedException extends RuntimeException {
+    }
+}
@@ -0,0 +1,151 @@
+package com.trainticketbooking.application.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Cluster membership and seat ownership for this node.
+ * <p>
+ * Sections (coaches) are the unit of ownership: each section is consistently hashed to exactly one node, and only
+ * that node sells, moves or releases its seats, so no seat is ever guarded by more than one JVM. Ticket IDs are
+ * striped by node ({@code ticketId % nodeCount} is the index of the issuing node in node ID order), so commands on
+ * an existing ticket can be routed without a lookup. With {@code booking.cluster.enabled=false} this node owns
+ * everything and IDs are not striped.
+ */
+@Component
+public class ClusterTopology {
+
+    /**
+     * The sections of the train, in allocation order.
+     */
+    public static final List<String> SECTIONS = List.of("A", "B");
+
+    private final boolean clustered;
+    private final String localNodeId;
+    private final List<String> nodeIds;
+    private final Map<String, String> nodeUrls;
+    private final Map<String, String> sectionOwners = new HashMap<>();
+
+    /**
+     * Create the topology from configuration.
+     *
+     * @param clustered    Whether clustered mode is enabled.
+     * @param localNodeId  The ID of this node.
+     * @param nodes        Every node of the cluster as {@code id=baseUrl}, this node included.
+     * @param virtualNodes The number of ring positions per node.
+     */
+    public ClusterTopology(@Value("${booking.cluster.enabled:false}") boolean clustered,
+                           @Value("${booking.cluster.node-id:local}") String localNodeId,
+                           @Value("${booking.cluster.nodes:}") List<String> nodes,
+                           @Value("${booking.cluster.virtual-nodes:64}") int virtualNodes) {
+        this.clustered = clustered;
+        this.localNodeId = localNodeId;
+        Map<String, String> urls = new TreeMap<>();
+        if (clustered) {
+            for (String node : nodes) {
+                String[] idAndUrl = node.split("=", 2);
+                if (idAndUrl.length != 2) {
+                    throw new IllegalArgumentException("Cluster node must be given as id=baseUrl: " + node);
+                }
+                urls.put(idAndUrl[0].trim(), idAndUrl[1].trim());
+            }
+            if (!urls.containsKey(localNodeId)) {
+                throw new IllegalArgumentException("Local node " + localNodeId + " is not listed in booking.cluster.nodes");
+            }
+        } else {
+            urls.put(localNodeId, "");
+        }
+        this.nodeUrls = Collections.unmodifiableMap(urls);
+        this.nodeIds = List.copyOf(urls.keySet());
+        ConsistentHashRing ring = new ConsistentHashRing(nodeIds, virtualNodes);
+        SECTIONS.forEach(section -> sectionOwners.put(section, ring.ownerOf("section:" + section)));
+    }
+
+    /**
+     * Create the topology of a single node owning every section.
+     *
+     * @return The standalone topology.
+     */
+    public static ClusterTopology standalone() {
+        return new ClusterTopology(false, "local", List.of(), 1);
+    }
+
+    public boolean isClustered() {
+        return clustered;
+    }
+
+    public String getLocalNodeId() {
+        return localNodeId;
+    }
+
+    /**
+     * Get the node owning a section. Unknown sections are treated as local.
+     *
+     * @param section The section.
+     * @return The owning node ID.
+     */
+    public String ownerOfSection(String section) {
+        return sectionOwners.getOrDefault(section.toUpperCase(Locale.ROOT), localNodeId);
+    }
+
+    /**
+     * Check whether this node owns the given section.
+     *
+     * @param section The section.
+     * @return True if the seats of the section are managed by this node.
+     */
+    public boolean isLocalSection(String section) {
+        return ownerOfSection(section).equals(localNodeId);
+    }
+
+    /**
+     * Get the node that issued the given ticket.
+     *
+     * @param ticketId The ticket ID.
+     * @return The owning node ID.
+     */
+    public String ownerOfTicket(Integer ticketId) {
+        return nodeIds.get(Math.floorMod(ticketId, nodeIds.size()));
+    }
+
+    /**
+     * Turn a node-local ticket sequence number into a cluster-wide ticket ID.
+     *
+     * @param sequence The local sequence number, starting at 1.
+     * @return The ticket ID.
+     */
+    public int ticketId(long sequence) {
+        return Math.toIntExact(sequence * nodeIds.size() + nodeIds.indexOf(localNodeId));
+    }
+
+    /**
+     * Get the node-local sequence number a ticket ID was made from, whichever node issued it.
+     *
+     * @param ticketId The ticket ID.
+     * @return The sequence number.
+     */
+    public long sequenceOf(int ticketId) {
+        return Math.floorDiv(ticketId, nodeIds.size());
+    }
+
+    /**
+     * Get the base URL of a node.
+     *
+     * @param nodeId The node ID.
+     * @return The base URL, including the servlet context path.
+     */
+    public String urlOf(String nodeId) {
+        return nodeUrls.get(nodeId);
+    }
+
+    /**
+     * Get every node except this one.
+     *
+     * @return The remote node IDs.
+     */
+    public List<String> remoteNodeIds() {
+        return nodeIds.stream().filter(nodeId -> !nodeId.equals(localNodeId)).toList();
+    }
+}
@@ -71,6 +71,212 @@ public class ApiDocumentationTags {
     public static final String FETCH_USERS_BY_SECTION_DESCRIPTION = "Fetch all users and their " +
             "seat allocations based on the specified section.";
 
+    /**
+     * Tag for bulk cancellation of tickets.
+     */
+    public static final String BULK_CANCELLATION = "Bulk cancellation";
+
+    /**
+     * Description for the endpoint used to cancel tickets in bulk.
+     */
+    public static final String BULK_CANCELLATION_DESCRIPTION = "Cancel every ticket matching the given section " +
+            "and/or user names in a single pass and return a result per ticket.";
+
+    /**
+     * Tag for bulk seat reassignment.
+     */
+    public static final String BULK_SEAT_REASSIGNMENT = "Bulk seat reassignment";
+
+    /**
+     * Description for the endpoint used to reassign seats in bulk.
+     */
+    public static final String BULK_SEAT_REASSIGNMENT_DESCRIPTION = "Move tickets to new seats according to a " +
+            "ticket id to seat number mapping in a single pass and return a result per ticket.";
+
+    /**
+     * Tag for the Replication Controller.
+     */
+    public static final String REPLICATION = "Replication Controller";
+
+    /**
+     * Summary of the endpoint used to fetch the replication status.
+     */
+    public static final String FETCH_REPLICATION_STATUS = "Fetch replication status";
+
+    /**
+     * Description for the endpoint used to fetch the replication status.
+     */
+    public static final String FETCH_REPLICATION_STATUS_DESCRIPTION = "Fetch the replication role of this node " +
+            "and, on a replica, how far it trails the primary.";
+
+    /**
+     * Summary of the endpoint used to promote a replica.
+     */
+    public static final String PROMOTE_REPLICA = "Promote replica";
+
+    /**
+     * Description for the endpoint used to promote a replica.
+     */
+    public static final String PROMOTE_REPLICA_DESCRIPTION = "Stop following the primary and accept changes " +
+            "on this node, publishing them to the remaining replicas.";
+
+    /**
+     * Summary of the endpoint used to import bookings.
+     */
+    public static final String IMPORT_BOOKINGS = "Import bookings";
+
+    /**
+     * Description for the endpoint used to import bookings.
+     */
+    public static final String IMPORT_BOOKINGS_DESCRIPTION = "Stream bookings in as CSV (text/csv, with a header " +
+            "row) or NDJSON (application/x-ndjson). Rows are validated, seated and stored in batches, and the " +
+            "rejected rows are reported with their line numbers.";
+
+    /**
+     * Summary of the endpoint used to export bookings.
+     */
+    public static final String EXPORT_BOOKINGS = "Export bookings";
+
+    /**
+     * Description for the endpoint used to export bookings.
+     */
+    public static final String EXPORT_BOOKINGS_DESCRIPTION = "Stream all bookings, or those of one section, " +
+            "out as CSV or NDJSON.";
+
+    /**
+     * Summary of the endpoint used to fetch booking analytics.
+     */
+    public static final String FETCH_BOOKING_ANALYTICS = "Fetch booking analytics";
+
+    /**
+     * Description for the endpoint used to fetch booking analytics.
+     */
+    public static final String FETCH_BOOKING_ANALYTICS_DESCRIPTION = "Fetch the booked seats, load factor, " +
+            "revenue and discounts of each section and route held by this node, with the recent booking and " +
+            "cancellation rates. The figures are kept up to date as bookings change, so this is cheap to poll.";
+
+    /**
+     * Summary of the endpoint used to fetch a rendered receipt.
+     */
+    public static final String FETCH_RENDERED_RECEIPT = "Fetch rendered receipt";
+
+    /**
+     * Description for the endpoint used to fetch a rendered receipt.
+     */
+    public static final String FETCH_RENDERED_RECEIPT_DESCRIPTION = "Fetch the receipt of a ticket as an HTML page, " +
+            "or as plain text with Accept: text/plain, including the payload of its QR code. Send the ETag back in " +
+            "If-None-Match to get 304 Not Modified while the receipt is unchanged.";
+
+    /**
+     * Summary of the endpoint used to fetch the overbooking status.
+     */
+    public static final String FETCH_OVERBOOKING_STATUS = "Fetch overbooking status";
 
+    /**
+     * Description for the endpoint used to fetch the overbooking status.
+     */
+    public static final String FETCH_OVERBOOKING_STATUS_DESCRIPTION = "Fetch, for each section held by this node, " +
+            "the seated tickets, the tickets sold beyond its seats that are still waiting for one, how many more may " +
+            "be sold, and the cancellation statistics that allowance is based on.";
+
+    /**
+     * Summary of the endpoint used to resolve overbooked tickets.
+     */
+    public static final String RESOLVE_OVERBOOKING = "Resolve overbooked tickets";
+
+    /**
+     * Description for the endpoint used to resolve overbooked tickets.
+     */
+    public static final String RESOLVE_OVERBOOKING_DESCRIPTION = "Give every overbooked ticket waiting for a seat " +
+            "the best seat left, in order of purchase, shortly before departure. Tickets for which no seat is left " +
+            "are cancelled and reported with status 409.";
+
+    /**
+     * Summary of the endpoint used to fetch the current fares.
+     */
+    public static final String FETCH_FARES = "Fetch fares";
+
+    /**
+     * Description for the endpoint used to fetch the current fares.
+     */
+    public static final String FETCH_FARES_DESCRIPTION = "Fetch the free seats and the current fare of each section " +
+            "held by this node, read at the same moment. Fares rise as a section fills up and as departure comes " +
+            "closer; they are empty when tickets keep the price sent by the client.";
+
+    /**
+     * Summary of the endpoint used to search journeys.
+     */
+    public static final String SEARCH_JOURNEYS = "Search journeys";
+
+    /**
+     * Description for the endpoint used to search journeys.
+     */
+    public static final String SEARCH_JOURNEYS_DESCRIPTION = "Find the trains from one station to another on a " +
+            "date, with the free seats and current fare of each section held by this node and whether there are " +
+            "seats for all passengers. Results are cached briefly and refreshed as soon as seats change.";
+
+    /**
+     * Summary of the endpoint used to fetch recent traces.
+     */
+    public static final String FETCH_TRACES = "Fetch traces";
+
+    /**
+     * Description for the endpoint used to fetch recent traces.
+     */
+    public static final String FETCH_TRACES_DESCRIPTION = "Fetch the traces of recent sampled requests to this node, " +
+            "newest first, with the time spent in each phase: the request, the service phases of a seat update, " +
+            "mapping and serialization. Only traces taking at least the given number of milliseconds are returned.";
+
+    /**
+     * Tag for the Profiling Controller.
+     */
+    public static final String PROFILING = "Profiling Controller";
+
+    /**
+     * Summary of the endpoint used to fetch the hot paths of the continuous profile.
+     */
+    public static final String FETCH_HOT_PATHS = "Fetch hot paths";
+
+    /**
+     * Description for the endpoint used to fetch the hot paths of the continuous profile.
+     */
+    public static final String FETCH_HOT_PATHS_DESCRIPTION = "Fetch the booking methods of this node with the most " +
+            "CPU samples, allocated bytes and time waiting for contended locks over the profiling window, as " +
+            "recorded by Flight Recorder. Requires booking.profiling.enabled.";
+
+    /**
+     * Summary of the endpoint used to complete a journey and archive its bookings.
+     */
+    public static final String COMPLETE_JOURNEY = "Complete journey";
+
+    /**
+     * Description for the endpoint used to complete a journey and archive its bookings.
+     */
+    public static final String COMPLETE_JOURNEY_DESCRIPTION = "Move every booking held by this node to a new " +
+            "compressed archive segment and free all seats for the next journey. Archived tickets are still returned " +
+            "by the receipt and ticket list endpoints but can no longer be changed. Requires booking.archive.dir.";
+
+    /**
+     * Summary of the endpoint used to fetch the state of the booking archive.
+     */
+    public static final String FETCH_ARCHIVE_STATUS = "Fetch archive status";
+
+    /**
+     * Description for the endpoint used to fetch the state of the booking archive.
+     */
+    public static final String FETCH_ARCHIVE_STATUS_DESCRIPTION = "Fetch how many bookings this node holds in its " +
+            "booking store and in its archive of completed journeys, and the size of the archive.";
+
+    /**
+     * Summary of the endpoint used to exchange the seats of several tickets.
+     */
+    public static final String EXCHANGE_SEATS = "Exchange seats";
+
+    /**
+     * Description for the endpoint used to exchange the seats of several tickets.
+     */
+    public static final String EXCHANGE_SEATS_DESCRIPTION = "Give each ticket the seat of another ticket of the " +
+            "exchange, e.g. {1: 2, 2: 1} to swap the seats of tickets 1 and 2. Either every ticket moves or, if any " +
+            "ticket is missing or has no seat, none does.";
 
-}
\ No newline at end of file
+}
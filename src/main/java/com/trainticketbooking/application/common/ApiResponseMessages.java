@@ -76,6 +76,255 @@ public class ApiResponseMessages {
      */
     public static final String USERS_IN_SECTION_NOT_FOUND = "No users found in the specified section.";
 
+    /**
+     * Message indicating that a bulk cancellation has been processed.
+     */
+    public static final String BULK_CANCELLATION_COMPLETED = "Bulk cancellation processed.";
+
+    /**
+     * Message indicating that a bulk cancellation request carried no selection criteria.
+     */
+    public static final String BULK_CANCELLATION_CRITERIA_REQUIRED = "Section or user names are required for bulk cancellation.";
+
+    /**
+     * Message indicating that a bulk cancellation request listed a null user name.
+     */
+    public static final String BULK_CANCELLATION_USER_NAME_REQUIRED = "User names for bulk cancellation must not be null.";
+
+    /**
+     * Message indicating that a bulk seat reassignment has been processed.
+     */
+    public static final String BULK_SEAT_REASSIGNMENT_COMPLETED = "Bulk seat reassignment processed.";
+
+    /**
+     * Message indicating that a bulk seat reassignment request carried no seat mapping.
+     */
+    public static final String BULK_SEAT_MAPPING_REQUIRED = "Seat mapping is required for bulk seat reassignment.";
+
+    /**
+     * Message indicating that a ticket has been cancelled.
+     */
+    public static final String TICKET_CANCELLED_SUCCESSFULLY = "Ticket cancelled successfully.";
+
+    /**
+     * Message indicating that a seat is requested more than once in the same reassignment.
+     */
+    public static final String DUPLICATE_SEAT_IN_MAPPING = "Seat is requested by more than one ticket.";
+
+    /**
+     * Message indicating that a seat belongs to a section managed by another cluster node.
+     */
+    public static final String SEAT_OWNED_BY_OTHER_NODE = "Seat belongs to a section managed by another node.";
+
+    /**
+     * Message prefix indicating that a cluster node could not be reached; the node ID follows.
+     */
+    public static final String NODE_UNAVAILABLE = "Booking node unavailable: ";
+
+    /**
+     * Message indicating that a change was sent to a read-only replica.
+     */
+    public static final String REPLICA_READ_ONLY = "This node is a read-only replica; send changes to the primary.";
+
+    /**
+     * Message indicating that a replica is too far behind the primary to answer queries.
+     */
+    public static final String REPLICA_STALE = "Replica is not in sync with the primary.";
+
+    /**
+     * Message indicating that the replication status has been fetched.
+     */
+    public static final String REPLICATION_STATUS_FETCHED = "Replication status fetched successfully.";
+
+    /**
+     * Message indicating that a replica has been promoted to primary.
+     */
+    public static final String REPLICA_PROMOTED = "Replica promoted to primary.";
+
+    /**
+     * Message indicating that a promotion was requested on a node that is not a replica.
+     */
+    public static final String NOT_A_REPLICA = "This node is not a replica.";
+
+    /**
+     * Message indicating that a bulk import has finished.
+     */
+    public static final String BOOKINGS_IMPORTED = "Bookings imported.";
+
+    /**
+     * Message prefix indicating that a required field or column is missing; the field names follow.
+     */
+    public static final String MISSING_REQUIRED_FIELD = "Missing required field: ";
+
+    /**
+     * Message indicating that a price is not a non-negative amount.
+     */
+    public static final String INVALID_PRICE = "Price must be a non-negative amount.";
+
+    /**
+     * Message indicating that an email address is not valid.
+     */
+    public static final String INVALID_EMAIL = "Invalid email address.";
+
+    /**
+     * Message prefix indicating that an imported row cannot be parsed; the parser error follows.
+     */
+    public static final String MALFORMED_ROW = "Malformed row: ";
+
+    /**
+     * Message indicating that the booking analytics have been fetched.
+     */
+    public static final String ANALYTICS_FETCHED = "Booking analytics fetched.";
+
+    /**
+     * Message indicating that the client's copy of a receipt is still current.
+     */
+    public static final String RECEIPT_NOT_MODIFIED = "Receipt not modified.";
+
+    /**
+     * Message indicating that a receipt is served by the node that issued the ticket.
+     */
+    public static final String RECEIPT_ON_OTHER_NODE = "Receipt is served by the node that issued the ticket.";
+
+    /**
+     * Message indicating that the client's copy of the requested bookings is still current.
+     */
+    public static final String BOOKINGS_NOT_MODIFIED = "Bookings not modified.";
+
+    /**
+     * Message indicating that a ticket has changed since the version named in If-Match.
+     */
+    public static final String TICKET_VERSION_MISMATCH = "Ticket has changed since it was read; fetch it again " +
+            "and retry.";
+
+    /**
+     * Message indicating that the overbooking allowance of each section has been fetched.
+     */
+    public static final String OVERBOOKING_STATUS_FETCHED = "Overbooking status fetched.";
+
+    /**
+     * Message indicating that every overbooked ticket has been given a seat or cancelled.
+     */
+    public static final String OVERBOOKING_RESOLVED = "Overbooked tickets resolved.";
+
+    /**
+     * Message indicating that an overbooked ticket has been given a seat.
+     */
+    public static final String OVERBOOKED_TICKET_SEATED = "Overbooked ticket given a seat.";
+
+    /**
+     * Message indicating that an overbooked ticket was cancelled because no seat was left for it.
+     */
+    public static final String OVERBOOKED_TICKET_CANCELLED = "No seat was left for the overbooked ticket; " +
+            "it has been cancelled.";
+
+    /**
+     * Message indicating that the free seats and fares of each section have been fetched.
+     */
+    public static final String FARES_FETCHED = "Fares fetched.";
+
+    /**
+     * Message indicating that trains were found for a journey search.
+     */
+    public static final String JOURNEYS_FOUND = "Journeys found.";
+
+    /**
+     * Message indicating that no train runs between the requested stations on the requested date.
+     */
+    public static final String JOURNEYS_NOT_FOUND = "No journeys found.";
+
+    /**
+     * Message indicating that a journey search asked for fewer than one passenger.
+     */
+    public static final String JOURNEY_PASSENGERS_REQUIRED = "At least one passenger is required.";
+
+    /**
+     * Message indicating that the traces of recent sampled requests have been fetched.
+     */
+    public static final String TRACES_FETCHED = "Traces fetched.";
+
+    /**
+     * Message indicating that the hot paths of the continuous profile have been fetched.
+     */
+    public static final String HOT_PATHS_FETCHED = "Hot paths fetched.";
+
+    /**
+     * Message indicating that the hot paths were requested while continuous profiling is switched off.
+     */
+    public static final String PROFILING_DISABLED = "Profiling is not enabled on this node.";
+
+    /**
+     * Message prefix indicating that a request named a tenant that is not configured.
+     */
+    public static final String UNKNOWN_TENANT = "Unknown tenant: ";
+
+    /**
+     * Message indicating that a tenant other than the default one called an endpoint serving only the default tenant.
+     */
+    public static final String TENANT_ENDPOINT_UNAVAILABLE = "This endpoint only serves the default tenant.";
+
+    /**
+     * Message indicating that a tenant has used up its request rate.
+     */
+    public static final String TENANT_RATE_LIMITED = "Request rate of the tenant exceeded, please retry later.";
+
+    /**
+     * Message indicating that a tenant already has its maximum number of requests in progress.
+     */
+    public static final String TENANT_BUSY = "Too many requests of the tenant in progress, please retry later.";
+
+    /**
+     * Message indicating that a tenant holds as many bookings as its quota allows.
+     */
+    public static final String TENANT_BOOKING_QUOTA_EXCEEDED = "Booking quota of the tenant exceeded.";
+
+    /**
+     * Message indicating that the bookings of a completed journey have been moved to the archive.
+     */
+    public static final String JOURNEY_ARCHIVED = "Journey completed and its bookings archived.";
+
+    /**
+     * Message indicating that the state of the booking archive has been fetched.
+     */
+    public static final String ARCHIVE_STATUS_FETCHED = "Archive status fetched.";
+
+    /**
+     * Message indicating that a journey was completed while no archive directory is configured.
+     */
+    public static final String ARCHIVE_DISABLED = "Archiving is not enabled on this node.";
+
+    /**
+     * Message indicating that the seats of the tickets of an exchange have been exchanged.
+     */
+    public static final String SEATS_EXCHANGED = "Seats exchanged.";
+
+    /**
+     * Message indicating that a seat exchange did not name at least two tickets.
+     */
+    public static final String SEAT_EXCHANGE_REQUIRED = "At least two tickets are required for a seat exchange.";
+
+    /**
+     * Message indicating that a seat exchange gives a seat to a ticket outside the exchange or takes one seat twice.
+     */
+    public static final String SEAT_EXCHANGE_NOT_A_PERMUTATION =
+            "Every ticket of a seat exchange must give its seat to exactly one other ticket of the exchange.";
+
+    /**
+     * Message indicating that a ticket of a seat exchange has no seat to give.
+     */
+    public static final String SEAT_EXCHANGE_TICKET_WITHOUT_SEAT = "Ticket has no seat to exchange: ";
+
+    /**
+     * Message indicating that the tickets of a seat exchange were issued by different nodes.
+     */
+    public static final String SEAT_EXCHANGE_SPANS_NODES =
+            "The tickets of a seat exchange must have been issued by the same node.";
+
+    /**
+     * Message indicating that a node-to-node request did not carry the cluster secret.
+     */
+    public static final String CLUSTER_ACCESS_DENIED = "Only nodes of the booking cluster may call this endpoint.";
+
     private ApiResponseMessages() {
     }
 }
\ No newline at end of file
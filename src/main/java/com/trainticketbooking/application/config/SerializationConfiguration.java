@@ -0,0 +1,60 @@
+package com.trainticketbooking.application.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainticketbooking.application.util.BookingCodec;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Registers the binary {@code application/cbor} content type next to JSON. Clients opt in with
+ * {@code Accept: application/cbor}; everyone else keeps getting JSON.
+ * <p>
+ * Writing a response body in either format is observed as {@code booking.serialization}, tagged with the format, so
+ * the time spent serializing shows up as a timer and, for sampled requests, as a span of its own.
+ */
+@Configuration
+public class SerializationConfiguration {
+
+    private static final String SERIALIZATION_OBSERVATION = "booking.serialization";
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+            ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException {
+                observeSerialization(observationRegistry, "json",
+                        () -> super.writeInternal(object, type, outputMessage));
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(BookingCodec bookingCodec,
+                                                                             ObservationRegistry observationRegistry) {
+        return new MappingJackson2CborHttpMessageConverter(bookingCodec.getObjectMapper()) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException {
+                observeSerialization(observationRegistry, "cbor",
+                        () -> super.writeInternal(object, type, outputMessage));
+            }
+        };
+    }
+
+    private static void observeSerialization(ObservationRegistry observationRegistry, String format,
+                                             Observation.CheckedRunnable<IOException> write) throws IOException {
+        Observation.createNotStarted(SERIALIZATION_OBSERVATION, observationRegistry)
+                .lowCardinalityKeyValue("format", format)
+                .observeChecked(write);
+    }
+}
@@ -0,0 +1,45 @@
+package com.trainticketbooking.application.config;
+
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import com.trainticketbooking.application.notification.NotificationDispatcher;
+import com.trainticketbooking.application.profiling.HotPathProfiler;
+import com.trainticketbooking.application.replication.ReplicationFollower;
+import com.trainticketbooking.application.replication.ReplicationFrame;
+import com.trainticketbooking.application.service.BookingChangeListener;
+import com.trainticketbooking.application.service.SeatDefragmentationJob;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Keeps the application correct when it is started the fast way (see the {@code prod} profile and the
+ * {@code fastStartup} build option).
+ * <p>
+ * With lazy initialization, beans doing background work or observing booking changes are still created at startup;
+ * created on first use, they would miss changes or never start. For AOT-processed and native builds, the schema
+ * script and the types serialized outside Spring MVC (replication frames and bulk transfers) are registered as well.
+ */
+@Configuration
+@ImportRuntimeHints(StartupConfiguration.SchemaHints.class)
+@RegisterReflectionForBinding({ReplicationFrame.class, TicketBooking.class, TicketBookingDto.class})
+public class StartupConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(BookingChangeListener.class, NotificationDispatcher.class,
+                ReplicationFollower.class, HotPathProfiler.class, SeatDefragmentationJob.class);
+    }
+
+    static class SchemaHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern("db/booking-schema.sql");
+        }
+    }
+}
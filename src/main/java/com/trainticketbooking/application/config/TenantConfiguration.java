@@ -0,0 +1,24 @@
+package com.trainticketbooking.application.config;
+
+import com.trainticketbooking.application.tenant.TenantInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts every request through {@link TenantInterceptor}, which selects its tenant and holds it to the tenant's quotas.
+ */
+@Configuration
+public class TenantConfiguration implements WebMvcConfigurer {
+
+    private final TenantInterceptor tenantInterceptor;
+
+    public TenantConfiguration(TenantInterceptor tenantInterceptor) {
+        this.tenantInterceptor = tenantInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(tenantInterceptor);
+    }
+}
@@ -0,0 +1,69 @@
+package com.trainticketbooking.application.controller;
+
+import com.trainticketbooking.application.common.ApiDocumentationTags;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.dto.ArchiveStatusDto;
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.service.TicketBookingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller class moving the bookings of completed journeys held by this node to its archive.
+ */
+@RestController
+@RequestMapping("/ticket-booking")
+public class ArchiveController {
+
+    private final TicketBookingService ticketBookingService;
+    private final ReplicationState replicationState;
+
+    public ArchiveController(TicketBookingService ticketBookingService,
+                             ReplicationState replicationState) {
+        this.ticketBookingService = ticketBookingService;
+        this.replicationState = replicationState;
+    }
+
+    /**
+     * Endpoint for fetching how many bookings are held in the booking store and in the archive.
+     *
+     * @return ResponseEntity containing the state of the archive.
+     */
+    @GetMapping("/archive")
+    @Operation(summary = ApiDocumentationTags.FETCH_ARCHIVE_STATUS,
+            description = ApiDocumentationTags.FETCH_ARCHIVE_STATUS_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.ARCHIVE_STATUS_FETCHED)
+    public ResponseEntity<CustomApiResponse<ArchiveStatusDto>> getArchiveStatus() {
+        return ResponseEntity.ok(ticketBookingService.getArchiveStatus());
+    }
+
+    /**
+     * Endpoint for completing the journey of every booking held by this node.
+     *
+     * @return ResponseEntity containing the state of the archive afterwards.
+     */
+    @PostMapping("/archive/journey-completion")
+    @Operation(summary = ApiDocumentationTags.COMPLETE_JOURNEY,
+            description = ApiDocumentationTags.COMPLETE_JOURNEY_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.JOURNEY_ARCHIVED)
+    @ApiResponse(responseCode = "409", description = ApiResponseMessages.ARCHIVE_DISABLED)
+    @ApiResponse(responseCode = "503", description = ApiResponseMessages.REPLICA_READ_ONLY)
+    public ResponseEntity<CustomApiResponse<ArchiveStatusDto>> completeJourney() {
+        if (!replicationState.acceptsWrites()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new CustomApiResponse<>(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            ApiResponseMessages.REPLICA_READ_ONLY, null));
+        }
+        CustomApiResponse<ArchiveStatusDto> response = ticketBookingService.completeJourney();
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+}
@@ -0,0 +1,43 @@
+package com.trainticketbooking.application.controller;
+
+import com.trainticketbooking.application.analytics.BookingAnalytics;
+import com.trainticketbooking.application.common.ApiDocumentationTags;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.dto.BookingAnalyticsDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller class exposing the occupancy and revenue analytics of the bookings held by this node.
+ */
+@RestController
+@RequestMapping("/ticket-booking")
+public class BookingAnalyticsController {
+
+    private final BookingAnalytics bookingAnalytics;
+
+    public BookingAnalyticsController(BookingAnalytics bookingAnalytics) {
+        this.bookingAnalytics = bookingAnalytics;
+    }
+
+    /**
+     * Endpoint for fetching the booking analytics.
+     *
+     * @return ResponseEntity containing the occupancy, revenue and booking rates.
+     */
+    @GetMapping("/analytics")
+    @Operation(summary = ApiDocumentationTags.FETCH_BOOKING_ANALYTICS,
+            description = ApiDocumentationTags.FETCH_BOOKING_ANALYTICS_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.ANALYTICS_FETCHED)
+    public ResponseEntity<CustomApiResponse<BookingAnalyticsDto>> getAnalytics() {
+        return ResponseEntity.ok(new CustomApiResponse<>(HttpStatus.OK.value(),
+                ApiResponseMessages.ANALYTICS_FETCHED, bookingAnalytics.snapshot()));
+    }
+}
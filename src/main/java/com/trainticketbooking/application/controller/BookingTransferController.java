@@ -0,0 +1,107 @@
+package com.trainticketbooking.application.controller;
+
+import com.trainticketbooking.application.common.ApiDocumentationTags;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.dto.BookingImportResultDto;
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.transfer.BookingExporter;
+import com.trainticketbooking.application.transfer.BookingFormat;
+import com.trainticketbooking.application.transfer.BookingImporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Locale;
+
+/**
+ * Controller class handling bulk import and export of the bookings held by this node.
+ */
+@RestController
+@RequestMapping("/ticket-booking")
+public class BookingTransferController {
+
+    private final BookingImporter bookingImporter;
+    private final BookingExporter bookingExporter;
+    private final ReplicationState replicationState;
+
+    public BookingTransferController(BookingImporter bookingImporter,
+                                     BookingExporter bookingExporter,
+                                     ReplicationState replicationState) {
+        this.bookingImporter = bookingImporter;
+        this.bookingExporter = bookingExporter;
+        this.replicationState = replicationState;
+    }
+
+    /**
+     * Endpoint for importing bookings from the request body.
+     *
+     * @param request The request, whose body is read as a stream.
+     * @return ResponseEntity containing the number of imported and rejected rows.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = ApiDocumentationTags.IMPORT_BOOKINGS,
+            description = ApiDocumentationTags.IMPORT_BOOKINGS_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.BOOKINGS_IMPORTED)
+    @ApiResponse(responseCode = "400", description = ApiResponseMessages.MISSING_REQUIRED_FIELD)
+    @ApiResponse(responseCode = "503", description = ApiResponseMessages.REPLICA_READ_ONLY)
+    public ResponseEntity<CustomApiResponse<BookingImportResultDto>> importBookings(HttpServletRequest request)
+            throws IOException {
+        if (!replicationState.acceptsWrites()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new CustomApiResponse<>(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            ApiResponseMessages.REPLICA_READ_ONLY, null));
+        }
+        try {
+            BookingFormat format = BookingFormat.of(MediaType.parseMediaType(request.getContentType()));
+            BookingImportResultDto result = bookingImporter.importBookings(
+                    Channels.newChannel(request.getInputStream()), format);
+            return ResponseEntity.ok(new CustomApiResponse<>(HttpStatus.OK.value(),
+                    ApiResponseMessages.BOOKINGS_IMPORTED, result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new CustomApiResponse<>(HttpStatus.BAD_REQUEST.value(), e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Endpoint for exporting bookings as a stream.
+     *
+     * @param format  The format to export, csv or ndjson.
+     * @param section The section to export; all sections if omitted.
+     * @return ResponseEntity streaming the bookings.
+     */
+    @GetMapping("/export")
+    @Operation(summary = ApiDocumentationTags.EXPORT_BOOKINGS,
+            description = ApiDocumentationTags.EXPORT_BOOKINGS_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiDocumentationTags.EXPORT_BOOKINGS)
+    @ApiResponse(responseCode = "400", description = ApiDocumentationTags.EXPORT_BOOKINGS_DESCRIPTION)
+    @ApiResponse(responseCode = "503", description = ApiResponseMessages.REPLICA_STALE)
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String section) {
+        if (!replicationState.servesReads()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        BookingFormat bookingFormat;
+        try {
+            bookingFormat = BookingFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(bookingFormat.getMediaType())
+                .body(outputStream -> bookingExporter.exportBookings(Channels.newChannel(outputStream),
+                        bookingFormat, section));
+    }
+}
@@ -0,0 +1,43 @@
+package com.trainticketbooking.application.controller;
+
+import com.trainticketbooking.application.common.ApiDocumentationTags;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.dto.SectionFareDto;
+import com.trainticketbooking.application.service.TicketBookingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller class publishing the free seats and current fares of the sections held by this node.
+ */
+@RestController
+@RequestMapping("/ticket-booking")
+public class FareController {
+
+    private final TicketBookingService ticketBookingService;
+
+    public FareController(TicketBookingService ticketBookingService) {
+        this.ticketBookingService = ticketBookingService;
+    }
+
+    /**
+     * Endpoint for fetching the free seats and fare of each section.
+     *
+     * @return ResponseEntity containing the free seats and fare of each section.
+     */
+    @GetMapping("/fares")
+    @Operation(summary = ApiDocumentationTags.FETCH_FARES,
+            description = ApiDocumentationTags.FETCH_FARES_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.FARES_FETCHED)
+    public ResponseEntity<CustomApiResponse<List<SectionFareDto>>> getFares() {
+        return ResponseEntity.ok(ticketBookingService.getFares());
+    }
+}
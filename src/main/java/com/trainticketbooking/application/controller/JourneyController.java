@@ -0,0 +1,77 @@
+package com.trainticketbooking.application.controller;
+
+import com.trainticketbooking.application.common.ApiDocumentationTags;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.dto.JourneyDto;
+import com.trainticketbooking.application.journey.JourneySearch;
+import com.trainticketbooking.application.replication.ReplicationState;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controller class handling searches for trains between two stations.
+ */
+@RestController
+@RequestMapping("/ticket-booking")
+public class JourneyController {
+
+    private final JourneySearch journeySearch;
+    private final ReplicationState replicationState;
+
+    public JourneyController(JourneySearch journeySearch,
+                             ReplicationState replicationState) {
+        this.journeySearch = journeySearch;
+        this.replicationState = replicationState;
+    }
+
+    /**
+     * Endpoint for searching the trains between two stations.
+     *
+     * @param from       The station to board at.
+     * @param to         The station to leave the train at.
+     * @param date       The date of travel; any date if omitted.
+     * @param passengers The number of passengers travelling together.
+     * @return ResponseEntity containing the trains with their free seats and fares.
+     */
+    @GetMapping("/journeys")
+    @Operation(summary = ApiDocumentationTags.SEARCH_JOURNEYS,
+            description = ApiDocumentationTags.SEARCH_JOURNEYS_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.JOURNEYS_FOUND)
+    @ApiResponse(responseCode = "400", description = ApiResponseMessages.JOURNEY_PASSENGERS_REQUIRED)
+    @ApiResponse(responseCode = "503", description = ApiResponseMessages.REPLICA_STALE)
+    public ResponseEntity<CustomApiResponse<List<JourneyDto>>> searchJourneys(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "1") int passengers) {
+        if (!replicationState.servesReads()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new CustomApiResponse<>(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            ApiResponseMessages.REPLICA_STALE, null));
+        }
+        try {
+            List<JourneyDto> journeys = journeySearch.search(from, to, date, passengers);
+            if (journeys.isEmpty()) {
+                return ResponseEntity.ok(new CustomApiResponse<>(HttpStatus.OK.value(),
+                        ApiResponseMessages.JOURNEYS_NOT_FOUND, null));
+            }
+            return ResponseEntity.ok(new CustomApiResponse<>(HttpStatus.OK.value(),
+                    ApiResponseMessages.JOURNEYS_FOUND, journeys));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new CustomApiResponse<>(HttpStatus.BAD_REQUEST.value(), e.getMessage(), null));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.trainticketbooking.application.controller;
+
+import com.trainticketbooking.application.common.ApiDocumentationTags;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.dto.BulkOperationResultDto;
+import com.trainticketbooking.application.dto.SectionOverbookingDto;
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.service.TicketBookingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller class exposing the tickets sold beyond the seats of the sections held by this node.
+ */
+@RestController
+@RequestMapping("/ticket-booking")
+public class OverbookingController {
+
+    private final TicketBookingService ticketBookingService;
+    private final ReplicationState replicationState;
+
+    public OverbookingController(TicketBookingService ticketBookingService,
+                                 ReplicationState replicationState) {
+        this.ticketBookingService = ticketBookingService;
+        this.replicationState = replicationState;
+    }
+
+    /**
+     * Endpoint for fetching the overbooking status of each section.
+     *
+     * @return ResponseEntity containing the seated and waiting tickets and the allowance of each section.
+     */
+    @GetMapping("/overbooking")
+    @Operation(summary = ApiDocumentationTags.FETCH_OVERBOOKING_STATUS,
+            description = ApiDocumentationTags.FETCH_OVERBOOKING_STATUS_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.OVERBOOKING_STATUS_FETCHED)
+    public ResponseEntity<CustomApiResponse<List<SectionOverbookingDto>>> getOverbookingStatus() {
+        return ResponseEntity.ok(ticketBookingService.getOverbookingStatus());
+    }
+
+    /**
+     * Endpoint for giving every overbooked ticket a seat before departure.
+     *
+     * @return ResponseEntity containing one result per overbooked ticket.
+     */
+    @PostMapping("/overbooking/resolution")
+    @Operation(summary = ApiDocumentationTags.RESOLVE_OVERBOOKING,
+            description = ApiDocumentationTags.RESOLVE_OVERBOOKING_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.OVERBOOKING_RESOLVED)
+    @ApiResponse(responseCode = "503", description = ApiResponseMessages.REPLICA_READ_ONLY)
+    public ResponseEntity<CustomApiResponse<List<BulkOperationResultDto>>> resolveOverbooking() {
+        if (!replicationState.acceptsWrites()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new CustomApiResponse<>(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            ApiResponseMessages.REPLICA_READ_ONLY, null));
+        }
+        return ResponseEntity.ok(ticketBookingService.resolveOverbooking());
+    }
+}
@@ -0,0 +1,110 @@
+package com.trainticketbooking.application.controller;
+
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.common.ApiDocumentationTags;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.receipt.ReceiptCache;
+import com.trainticketbooking.application.receipt.RenderedReceipt;
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.versioning.BookingVersions;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controller class serving rendered ticket receipts, with entity tags so that clients can revalidate a receipt they
+ * already hold instead of downloading it again.
+ */
+@RestController
+@RequestMapping("/ticket-booking")
+public class ReceiptController {
+
+    private final ReceiptCache receiptCache;
+    private final ClusterTopology clusterTopology;
+    private final ReplicationState replicationState;
+    private final BookingVersions bookingVersions;
+
+    public ReceiptController(ReceiptCache receiptCache,
+                             ClusterTopology clusterTopology,
+                             ReplicationState replicationState,
+                             BookingVersions bookingVersions) {
+        this.receiptCache = receiptCache;
+        this.clusterTopology = clusterTopology;
+        this.replicationState = replicationState;
+        this.bookingVersions = bookingVersions;
+    }
+
+    /**
+     * Endpoint for fetching the rendered receipt of a ticket as HTML or, when the client prefers it, plain text.
+     *
+     * @param ticketId The ID of the ticket.
+     * @param accept   The media types the client accepts.
+     * @param request  The request, used to answer conditional requests.
+     * @return ResponseEntity containing the receipt, or no body if the client's copy is still current.
+     */
+    @GetMapping(value = "/{ticketId}/receipt", produces = {MediaType.TEXT_HTML_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    @Operation(summary = ApiDocumentationTags.FETCH_RENDERED_RECEIPT,
+            description = ApiDocumentationTags.FETCH_RENDERED_RECEIPT_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.USER_RECEIPT_FETCHED_SUCCESSFUL)
+    @ApiResponse(responseCode = "304", description = ApiResponseMessages.RECEIPT_NOT_MODIFIED)
+    @ApiResponse(responseCode = "307", description = ApiResponseMessages.RECEIPT_ON_OTHER_NODE)
+    @ApiResponse(responseCode = "404", description = ApiResponseMessages.TICKET_NOT_FOUND)
+    @ApiResponse(responseCode = "503", description = ApiResponseMessages.REPLICA_STALE)
+    public ResponseEntity<byte[]> getReceipt(@PathVariable Integer ticketId,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                             WebRequest request) {
+        if (!replicationState.servesReads()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        String owner = clusterTopology.ownerOfTicket(ticketId);
+        if (!owner.equals(clusterTopology.getLocalNodeId())) {
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                    .location(URI.create(clusterTopology.urlOf(owner) + "/ticket-booking/" + ticketId + "/receipt"))
+                    .build();
+        }
+        Optional<RenderedReceipt> receipt = receiptCache.receiptFor(ticketId);
+        if (receipt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean text = prefersText(accept);
+        String etag = bookingVersions.receiptTag(ticketId, receipt.get().version(), text ? "text" : "html");
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(text ? new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8)
+                        : new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .body(text ? receipt.get().text() : receipt.get().html());
+    }
+
+    private static boolean prefersText(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.includes(MediaType.TEXT_HTML)) {
+                return false;
+            }
+            if (mediaType.includes(MediaType.TEXT_PLAIN)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,31 +1,48 @@
 package com.trainticketbooking.application.controller;
 
 
+import com.trainticketbooking.application.cluster.BookingCommandRouter;
 import com.trainticketbooking.application.common.ApiDocumentationTags;
 import com.trainticketbooking.application.common.ApiResponseMessages;
 import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.domain.SeatPreference;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.BulkCancellationRequestDto;
+import com.trainticketbooking.application.dto.BulkOperationResultDto;
+import com.trainticketbooking.application.dto.BulkSeatReassignmentRequestDto;
+import com.trainticketbooking.application.dto.SeatExchangeRequestDto;
 import com.trainticketbooking.application.dto.TicketBookingDto;
-import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.tenant.TenantScoped;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Controller class handling various endpoints related to ticket booking operations.
  * Provides RESTful APIs for creating, retrieving, updating, and deleting ticket and user-related information.
+ * <p>
+ * A ticket, the ticket list of an email address and the user list of a section carry an ETag where this node can
+ * vouch for the whole answer; a request sending that tag back in If-None-Match gets 304 Not Modified while nothing
+ * has changed, without the bookings being read. Updates accept the tag of the ticket in If-Match.
+ * <p>
+ * Every tenant is served from its own bookings, see {@link TenantScoped}.
  */
 @RestController
 @RequestMapping("/ticket-booking")
+@TenantScoped
 public class TicketBookingController {
 
-    private final TicketBookingService ticketBookingService;
+    private final BookingCommandRouter bookingCommandRouter;
 
-    public TicketBookingController(TicketBookingService ticketBookingService) {
-        this.ticketBookingService = ticketBookingService;
+    public TicketBookingController(BookingCommandRouter bookingCommandRouter) {
+        this.bookingCommandRouter = bookingCommandRouter;
     }
 
 
@@ -33,6 +50,8 @@ public class TicketBookingController {
      * Endpoint for purchasing a ticket.
      *
      * @param ticketBookingDto The DTO containing ticket booking information.
+     * @param seatPreference   The preferred seat position (WINDOW or AISLE), if any.
+     * @param nearTicketId     The ticket of a group member to sit close to, if any.
      * @return ResponseEntity containing the API response for the ticket booking operation.
      */
     @PostMapping("/")
@@ -42,9 +61,12 @@ public class TicketBookingController {
     @ApiResponse(responseCode = "200", description = ApiResponseMessages.TICKET_BOOKING_SUCCESSFULLY)
     @ApiResponse(responseCode = "500", description = ApiResponseMessages.TICKET_BOOKING_FAILED)
     public ResponseEntity<CustomApiResponse<TicketBookingDto>> purchaseTicket(
-            @RequestBody TicketBookingDto ticketBookingDto) {
+            @RequestBody TicketBookingDto ticketBookingDto,
+            @RequestParam(required = false) SeatPreference seatPreference,
+            @RequestParam(required = false) Integer nearTicketId) {
         try {
-            CustomApiResponse<TicketBookingDto> response = ticketBookingService.purchaseTicket(ticketBookingDto);
+            CustomApiResponse<TicketBookingDto> response = bookingCommandRouter.purchaseTicket(ticketBookingDto,
+                    seatPreference, nearTicketId);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -58,36 +80,51 @@ public class TicketBookingController {
      * Endpoint for retrieving user receipt details.
      *
      * @param ticketId The ID of the ticket for which the receipt details are requested.
-     * @return ResponseEntity containing the API response for fetching user receipt details.
+     * @param request  The request, used to answer conditional requests.
+     * @return ResponseEntity containing the API response for fetching user receipt details, or no body if the
+     * client's copy is still current.
      */
     @GetMapping("/user-receipt-detail")
     @Operation(summary = ApiDocumentationTags.FETCH_USER_RECEIPT_DETAIL,
             description = ApiDocumentationTags.FETCH_USER_RECEIPT_DESCRIPTION,
             tags = ApiDocumentationTags.TICKET_BOOKING)
     @ApiResponse(responseCode = "200", description = ApiResponseMessages.USER_RECEIPT_FETCHED_SUCCESSFUL)
+    @ApiResponse(responseCode = "304", description = ApiResponseMessages.BOOKINGS_NOT_MODIFIED)
     @ApiResponse(responseCode = "500", description = ApiResponseMessages.TICKET_NOT_FOUND)
     public ResponseEntity<CustomApiResponse<TicketBookingDto>> getUserReceiptDetails(
-            @RequestParam Integer ticketId) {
-        CustomApiResponse<TicketBookingDto> response = ticketBookingService.getUserReceiptDetails(ticketId);
-        return ResponseEntity.ok(response);
+            @RequestParam Integer ticketId, WebRequest request) {
+        Optional<String> etag = bookingCommandRouter.ticketTag(ticketId);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
+        CustomApiResponse<TicketBookingDto> response = bookingCommandRouter.getUserReceiptDetails(ticketId);
+        return withTicketTag(ResponseEntity.ok(), response).body(response);
     }
 
 
     /**
      * Endpoint for fetching all tickets associated with a user's email.
      *
-     * @param email The email of the user for whom the ticket list is requested.
-     * @return ResponseEntity containing the API response for fetching all tickets.
+     * @param email   The email of the user for whom the ticket list is requested.
+     * @param request The request, used to answer conditional requests.
+     * @return ResponseEntity containing the API response for fetching all tickets, or no body if the client's copy
+     * is still current.
      */
     @GetMapping("/ticket-list")
     @Operation(summary = ApiDocumentationTags.FETCH_TICKET_LIST_BY_USER_EMAIL,
             description = ApiDocumentationTags.FETCH_TICKET_LIST_BY_USER_EMAIL_DESCRIPTION,
             tags = ApiDocumentationTags.TICKET_BOOKING)
     @ApiResponse(responseCode = "200", description = ApiResponseMessages.TICKET_LIST_FOUND)
+    @ApiResponse(responseCode = "304", description = ApiResponseMessages.BOOKINGS_NOT_MODIFIED)
     @ApiResponse(responseCode = "500", description = ApiResponseMessages.TICKET_LIST_NOT_FOUND)
-    public ResponseEntity<CustomApiResponse<List<TicketBookingDto>>> getAllTicket(@RequestParam String email) {
-        CustomApiResponse<List<TicketBookingDto>> response = ticketBookingService.getAllTickets(email);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<CustomApiResponse<List<TicketBooking>>> getAllTicket(@RequestParam String email,
+                                                                               WebRequest request) {
+        Optional<String> etag = bookingCommandRouter.ticketListTag(email);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
+        CustomApiResponse<List<TicketBooking>> response = bookingCommandRouter.getAllTickets(email);
+        return withTag(ResponseEntity.ok(), etag).body(response);
     }
 
     /**
@@ -95,6 +132,9 @@ public class TicketBookingController {
      *
      * @param ticketId   The ID of the ticket to be updated.
      * @param seatNumber The new seat number to be assigned.
+     * @param discount   The discount code to apply, if any.
+     * @param ifMatch    The ETag of the ticket as last read by the client, if the update must not overwrite a newer
+     *                   change.
      * @return ResponseEntity containing the API response for updating user seat allocation.
      */
     @PutMapping("/{ticketId}")
@@ -102,14 +142,18 @@ public class TicketBookingController {
             description = ApiDocumentationTags.UPDATE_USER_DETAIL_DESCRIPTION,
             tags = ApiDocumentationTags.TICKET_BOOKING)
     @ApiResponse(responseCode = "200", description = ApiResponseMessages.USER_DETAIL_UPDATED_SUCCESSFUL)
+    @ApiResponse(responseCode = "412", description = ApiResponseMessages.TICKET_VERSION_MISMATCH)
     @ApiResponse(responseCode = "500", description = ApiResponseMessages.FAILED_TO_UPDATE_USER_DETAIL)
     public ResponseEntity<CustomApiResponse<TicketBookingDto>> updateUserSeatAllocationDetails(
             @PathVariable Integer ticketId,
-            @RequestParam(required = false) Integer seatNumber, @RequestParam(required = false) String discount) {
+            @RequestParam(required = false) Integer seatNumber, @RequestParam(required = false) String discount,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            CustomApiResponse<TicketBookingDto> response = ticketBookingService.updateUserSeatAllocation(ticketId,
-                    seatNumber, discount);
-            return ResponseEntity.ok(response);
+            CustomApiResponse<TicketBookingDto> response = bookingCommandRouter.updateUserSeatAllocation(ticketId,
+                    seatNumber, discount, ifMatch);
+            HttpStatus status = response.getStatus() == HttpStatus.PRECONDITION_FAILED.value()
+                    ? HttpStatus.PRECONDITION_FAILED : HttpStatus.OK;
+            return withTicketTag(ResponseEntity.status(status), response).body(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new CustomApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -132,7 +176,7 @@ public class TicketBookingController {
     @ApiResponse(responseCode = "500", description = ApiResponseMessages.USER_DELETE_FAILED)
     public ResponseEntity<CustomApiResponse<TicketBookingDto>> deleteUserDetails(
             @RequestParam String userName) {
-        CustomApiResponse<TicketBookingDto> response = ticketBookingService.deleteUserDetail(userName);
+        CustomApiResponse<TicketBookingDto> response = bookingCommandRouter.deleteUserDetail(userName);
         return ResponseEntity.ok(response);
     }
 
@@ -140,18 +184,91 @@ public class TicketBookingController {
      * Endpoint for fetching all users and their seat allocations based on the specified section.
      *
      * @param section The section for which users are requested (e.g., "A", "B").
-     * @return ResponseEntity containing the API response for fetching users and their seat allocations.
+     * @param request The request, used to answer conditional requests.
+     * @return ResponseEntity containing the API response for fetching users and their seat allocations, or no body
+     * if the client's copy is still current.
      */
     @GetMapping("/users-by-section")
     @Operation(summary = ApiDocumentationTags.FETCH_USERS_BY_SECTION,
             description = ApiDocumentationTags.FETCH_USERS_BY_SECTION_DESCRIPTION,
             tags = ApiDocumentationTags.TICKET_BOOKING)
     @ApiResponse(responseCode = "200", description = ApiResponseMessages.USERS_IN_SECTION_FOUND)
+    @ApiResponse(responseCode = "304", description = ApiResponseMessages.BOOKINGS_NOT_MODIFIED)
     @ApiResponse(responseCode = "500", description = ApiResponseMessages.USERS_IN_SECTION_NOT_FOUND)
-    public ResponseEntity<CustomApiResponse<List<TicketBookingDto>>> getUsersBySection(@RequestParam String section) {
-        CustomApiResponse<List<TicketBookingDto>> response = ticketBookingService.getUsersBySection(section);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<CustomApiResponse<List<TicketBooking>>> getUsersBySection(@RequestParam String section,
+                                                                                    WebRequest request) {
+        Optional<String> etag = bookingCommandRouter.sectionTag(section);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
+        CustomApiResponse<List<TicketBooking>> response = bookingCommandRouter.getUsersBySection(section);
+        return withTag(ResponseEntity.ok(), etag).body(response);
+    }
+
+    /**
+     * Endpoint for cancelling tickets in bulk by section and/or user names.
+     *
+     * @param request The selection criteria for the tickets to cancel.
+     * @return ResponseEntity containing a result for every cancelled ticket.
+     */
+    @PostMapping("/bulk-cancellation")
+    @Operation(summary = ApiDocumentationTags.BULK_CANCELLATION,
+            description = ApiDocumentationTags.BULK_CANCELLATION_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.BULK_CANCELLATION_COMPLETED)
+    @ApiResponse(responseCode = "400", description = ApiResponseMessages.BULK_CANCELLATION_CRITERIA_REQUIRED)
+    public ResponseEntity<CustomApiResponse<List<BulkOperationResultDto>>> cancelTickets(
+            @RequestBody BulkCancellationRequestDto request) {
+        CustomApiResponse<List<BulkOperationResultDto>> response = bookingCommandRouter.cancelTickets(request);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Endpoint for moving tickets to new seats in bulk.
+     *
+     * @param request The mapping from ticket ID to new seat number.
+     * @return ResponseEntity containing a result for every ticket in the mapping.
+     */
+    @PutMapping("/bulk-seat-reassignment")
+    @Operation(summary = ApiDocumentationTags.BULK_SEAT_REASSIGNMENT,
+            description = ApiDocumentationTags.BULK_SEAT_REASSIGNMENT_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.BULK_SEAT_REASSIGNMENT_COMPLETED)
+    @ApiResponse(responseCode = "400", description = ApiResponseMessages.BULK_SEAT_MAPPING_REQUIRED)
+    public ResponseEntity<CustomApiResponse<List<BulkOperationResultDto>>> reassignSeats(
+            @RequestBody BulkSeatReassignmentRequestDto request) {
+        CustomApiResponse<List<BulkOperationResultDto>> response = bookingCommandRouter.reassignSeats(request);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Endpoint for exchanging the seats of several tickets in a single step.
+     *
+     * @param request The mapping from ticket ID to the ID of the ticket whose seat it takes.
+     * @return ResponseEntity containing the moved tickets, or the reason why none was moved.
+     */
+    @PutMapping("/seat-exchange")
+    @Operation(summary = ApiDocumentationTags.EXCHANGE_SEATS,
+            description = ApiDocumentationTags.EXCHANGE_SEATS_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.SEATS_EXCHANGED)
+    @ApiResponse(responseCode = "400", description = ApiResponseMessages.SEAT_EXCHANGE_NOT_A_PERMUTATION)
+    @ApiResponse(responseCode = "404", description = ApiResponseMessages.TICKET_NOT_FOUND)
+    @ApiResponse(responseCode = "409", description = ApiResponseMessages.SEAT_EXCHANGE_TICKET_WITHOUT_SEAT)
+    public ResponseEntity<CustomApiResponse<List<TicketBookingDto>>> exchangeSeats(
+            @RequestBody SeatExchangeRequestDto request) {
+        CustomApiResponse<List<TicketBookingDto>> response = bookingCommandRouter.exchangeSeats(request);
+        return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    private ResponseEntity.BodyBuilder withTicketTag(ResponseEntity.BodyBuilder builder,
+                                                     CustomApiResponse<TicketBookingDto> response) {
+        return withTag(builder, bookingCommandRouter.ticketTag(response.getData()));
+    }
+
+    private static ResponseEntity.BodyBuilder withTag(ResponseEntity.BodyBuilder builder, Optional<String> etag) {
+        etag.ifPresent(builder::eTag);
+        return builder.varyBy(HttpHeaders.ACCEPT);
+    }
 
 }
@@ -0,0 +1,50 @@
+package com.trainticketbooking.application.controller;
+
+import com.trainticketbooking.application.common.ApiDocumentationTags;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.dto.TraceDto;
+import com.trainticketbooking.application.tracing.LocalSpanExporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller class exposing the traces of recent sampled requests to this node.
+ */
+@RestController
+@RequestMapping("/ticket-booking")
+public class TraceController {
+
+    private final LocalSpanExporter localSpanExporter;
+
+    public TraceController(LocalSpanExporter localSpanExporter) {
+        this.localSpanExporter = localSpanExporter;
+    }
+
+    /**
+     * Endpoint for fetching the traces of recent sampled requests.
+     *
+     * @param minDurationMs The shortest trace to return, in milliseconds.
+     * @param limit         The largest number of traces to return.
+     * @return ResponseEntity containing the traces, newest first, with the spans of each.
+     */
+    @GetMapping("/traces")
+    @Operation(summary = ApiDocumentationTags.FETCH_TRACES,
+            description = ApiDocumentationTags.FETCH_TRACES_DESCRIPTION,
+            tags = ApiDocumentationTags.TICKET_BOOKING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.TRACES_FETCHED)
+    public ResponseEntity<CustomApiResponse<List<TraceDto>>> getTraces(
+            @RequestParam(defaultValue = "0") long minDurationMs,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(new CustomApiResponse<>(HttpStatus.OK.value(), ApiResponseMessages.TRACES_FETCHED,
+                localSpanExporter.recentTraces(minDurationMs * 1_000, limit)));
+    }
+}
@@ -0,0 +1,35 @@
+package com.trainticketbooking.application.domain;
+
+/**
+ * A change applied to a booking, with detached copies of the booking before and after the change.
+ *
+ * @param type       What happened to the booking.
+ * @param before     The booking before the change; null for a purchase.
+ * @param after      The booking after the change; null for a cancellation or archiving.
+ * @param replicated Whether the change was made on the primary node and copied here, rather than made on this node.
+ */
+public record BookingChange(Type type, TicketBooking before, TicketBooking after, boolean replicated) {
+
+    /**
+     * The kind of change.
+     */
+    public enum Type {
+        PURCHASED,
+        SEAT_CHANGED,
+        DISCOUNT_APPLIED,
+        CANCELLED,
+        /**
+         * The journey of the booking has been completed and the booking moved to the archive.
+         */
+        ARCHIVED
+    }
+
+    /**
+     * Get the ID of the changed ticket.
+     *
+     * @return The ticket ID.
+     */
+    public Integer ticketId() {
+        return after != null ? after.getTicketId() : before.getTicketId();
+    }
+}
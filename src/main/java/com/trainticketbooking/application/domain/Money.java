@@ -0,0 +1,206 @@
+package com.trainticketbooking.application.domain;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.trainticketbooking.application.util.MoneyJson;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount of money held as a whole number of minor units (e.g., paise or cents) of a currency, so that pricing is
+ * plain {@code long} arithmetic. Amounts are converted to and from {@link BigDecimal} only where they enter or
+ * leave the application, such as JSON documents; {@link BigDecimal}s with more decimal places than the currency
+ * are rounded half up.
+ *
+ * @param minorUnits The amount in minor units of the currency.
+ * @param currency   The currency.
+ */
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+
+    /**
+     * The currency prices are given in; bookings carry no currency of their own.
+     */
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("INR");
+
+    /**
+     * No money in the default currency.
+     */
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+        if (currency.getDefaultFractionDigits() < 0 || currency.getDefaultFractionDigits() >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Unsupported currency " + currency);
+        }
+    }
+
+    /**
+     * Create an amount in the default currency from its minor units.
+     *
+     * @param minorUnits The amount in minor units.
+     * @return The amount.
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    /**
+     * Create a whole amount in the default currency.
+     *
+     * @param majorUnits The amount in major units (e.g., rupees).
+     * @return The amount.
+     */
+    public static Money ofMajor(long majorUnits) {
+        return ofMinor(Math.multiplyExact(majorUnits, POWERS_OF_TEN[DEFAULT_CURRENCY.getDefaultFractionDigits()]));
+    }
+
+    /**
+     * Convert a decimal amount in the default currency.
+     *
+     * @param amount The amount, or null.
+     * @return The amount, or null if none was given.
+     * @throws ArithmeticException if the amount does not fit.
+     */
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        if (amount.scale() == 0) {
+            return ofMajor(amount.longValueExact());
+        }
+        return ofMinor(amount.movePointRight(DEFAULT_CURRENCY.getDefaultFractionDigits())
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact());
+    }
+
+    /**
+     * Parse a decimal amount in the default currency, such as {@code 200} or {@code -12.5}. Plain amounts with no more
+     * decimal places than the currency are parsed without creating a {@link BigDecimal}.
+     *
+     * @param text The amount.
+     * @return The amount.
+     * @throws NumberFormatException if the text is not a number.
+     * @throws ArithmeticException   if the amount does not fit.
+     */
+    public static Money parse(String text) {
+        int fractionDigits = DEFAULT_CURRENCY.getDefaultFractionDigits();
+        int length = text.length();
+        int index = length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        long units = 0;
+        int integerDigits = 0;
+        while (index < length && Character.isDigit(text.charAt(index)) && integerDigits < 15) {
+            units = units * 10 + (text.charAt(index++) - '0');
+            integerDigits++;
+        }
+        int decimals = 0;
+        if (index < length && text.charAt(index) == '.') {
+            index++;
+            while (index < length && Character.isDigit(text.charAt(index)) && decimals < fractionDigits) {
+                units = units * 10 + (text.charAt(index++) - '0');
+                decimals++;
+            }
+        }
+        if (index != length || integerDigits + decimals == 0) {
+            return of(new BigDecimal(text));
+        }
+        units *= POWERS_OF_TEN[fractionDigits - decimals];
+        return ofMinor(text.charAt(0) == '-' ? -units : units);
+    }
+
+    /**
+     * Add an amount of the same currency.
+     *
+     * @param other The amount to add.
+     * @return The sum.
+     */
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * Subtract an amount of the same currency.
+     *
+     * @param other The amount to subtract.
+     * @return The difference.
+     */
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * Check whether this amount is more than another amount of the same currency.
+     *
+     * @param other The amount to compare with.
+     * @return True if this amount is larger.
+     */
+    public boolean isGreaterThan(Money other) {
+        return compareTo(other) > 0;
+    }
+
+    /**
+     * Check whether this amount is below zero.
+     *
+     * @return True if the amount is negative.
+     */
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * Convert to a decimal amount with the currency's number of decimal places.
+     *
+     * @return The amount.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    /**
+     * Format as a plain decimal number with the currency's number of decimal places, such as {@code 200.00}.
+     *
+     * @return The formatted amount.
+     */
+    public String toPlainString() {
+        int fractionDigits = currency.getDefaultFractionDigits();
+        if (fractionDigits == 0) {
+            return Long.toString(minorUnits);
+        }
+        long scale = POWERS_OF_TEN[fractionDigits];
+        long major = Math.abs(minorUnits / scale);
+        long minor = Math.abs(minorUnits % scale);
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        text.append(major).append('.');
+        String minorText = Long.toString(minor);
+        text.append("0".repeat(fractionDigits - minorText.length())).append(minorText);
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString() + " " + currency.getCurrencyCode();
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot combine " + currency + " with " + other.currency);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.trainticketbooking.application.domain;
+
+/**
+ * Seat position a passenger prefers when a seat is allocated.
+ */
+public enum SeatPreference {
+    WINDOW,
+    AISLE
+}
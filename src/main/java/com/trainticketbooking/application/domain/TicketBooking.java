@@ -4,8 +4,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 /**
  * Represents a ticket booking in the system.
  */
@@ -42,7 +40,7 @@ public class TicketBooking {
     /**
      * The amount paid for the ticket.
      */
-    private BigDecimal pricePaid;
+    private Money pricePaid;
 
     /**
      * The section of the seating area (e.g., A, B, etc.).
@@ -54,4 +52,33 @@ public class TicketBooking {
      */
     private Integer seatNumber;
 
+    /**
+     * The version of the booking, starting at 1 and increased by every change to it.
+     */
+    private long version;
+
+    /**
+     * Create the first version of a booking.
+     */
+    public TicketBooking(Integer ticketId, String from, String to, String userName, String userEmail,
+                         Money pricePaid, String section, Integer seatNumber) {
+        this(ticketId, from, to, userName, userEmail, pricePaid, section, seatNumber, 1);
+    }
+
+    /**
+     * Create a detached copy of this booking.
+     *
+     * @return The copy.
+     */
+    public TicketBooking copy() {
+        return new TicketBooking(ticketId, from, to, userName, userEmail, pricePaid, section, seatNumber, version);
+    }
+
+    /**
+     * Increase the version after a change to the booking.
+     */
+    public void nextVersion() {
+        version++;
+    }
+
 }
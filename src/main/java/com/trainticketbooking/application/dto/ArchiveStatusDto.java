@@ -0,0 +1,12 @@
+package com.trainticketbooking.application.dto;
+
+/**
+ * Record representing how many bookings this node holds in its booking store and in its archive of completed
+ * journeys.
+ */
+public record ArchiveStatusDto(boolean enabled,
+                               long activeBookings,
+                               long archivedBookings,
+                               int segments,
+                               long archiveBytes) {
+}
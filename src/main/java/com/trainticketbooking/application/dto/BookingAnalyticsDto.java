@@ -0,0 +1,20 @@
+package com.trainticketbooking.application.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Record representing the occupancy, revenue and booking rates of the sections held by a node.
+ */
+public record BookingAnalyticsDto(long bookings,
+                                  int capacity,
+                                  double loadFactor,
+                                  BigDecimal revenue,
+                                  long discountsApplied,
+                                  BigDecimal discountGiven,
+                                  long rateWindowSeconds,
+                                  long bookingsInWindow,
+                                  long cancellationsInWindow,
+                                  List<SectionAnalyticsDto> sections,
+                                  List<RouteAnalyticsDto> routes) {
+}
@@ -0,0 +1,8 @@
+package com.trainticketbooking.application.dto;
+
+/**
+ * Record representing a row rejected by a bulk import.
+ */
+public record BookingImportErrorDto(long line,
+                                    String message) {
+}
@@ -0,0 +1,12 @@
+package com.trainticketbooking.application.dto;
+
+import java.util.List;
+
+/**
+ * Record representing the outcome of a bulk import. Only the first rejected rows are listed in errors.
+ */
+public record BookingImportResultDto(long rowsRead,
+                                     long imported,
+                                     long rejected,
+                                     List<BookingImportErrorDto> errors) {
+}
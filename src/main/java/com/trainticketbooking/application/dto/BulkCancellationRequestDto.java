@@ -0,0 +1,11 @@
+package com.trainticketbooking.application.dto;
+
+import java.util.Set;
+
+/**
+ * Record representing the selection criteria for a bulk cancellation.
+ * When both criteria are given a ticket has to match both of them.
+ */
+public record BulkCancellationRequestDto(String section,
+                                         Set<String> userNames) {
+}
@@ -0,0 +1,10 @@
+package com.trainticketbooking.application.dto;
+
+/**
+ * Record representing the outcome of a bulk operation for a single ticket.
+ */
+public record BulkOperationResultDto(Integer ticketId,
+                                     int status,
+                                     String message,
+                                     TicketBookingDto ticket) {
+}
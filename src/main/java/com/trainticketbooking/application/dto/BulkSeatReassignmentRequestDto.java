@@ -0,0 +1,9 @@
+package com.trainticketbooking.application.dto;
+
+import java.util.Map;
+
+/**
+ * Record representing a bulk seat reassignment, keyed by ticket ID with the new seat number as value.
+ */
+public record BulkSeatReassignmentRequestDto(Map<Integer, Integer> seatMapping) {
+}
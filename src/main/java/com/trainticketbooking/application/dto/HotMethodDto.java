@@ -0,0 +1,13 @@
+package com.trainticketbooking.application.dto;
+
+/**
+ * Record representing the profiling samples attributed to one method over the profiling window.
+ */
+public record HotMethodDto(String method,
+                           long cpuSamples,
+                           double cpuShare,
+                           long allocatedBytes,
+                           double allocationShare,
+                           long contentions,
+                           double contendedMillis) {
+}
@@ -0,0 +1,16 @@
+package com.trainticketbooking.application.dto;
+
+import java.util.List;
+
+/**
+ * Record representing the CPU, allocation and lock contention hot spots of a node over the profiling window.
+ */
+public record HotPathProfileDto(long windowSeconds,
+                                long cpuSamples,
+                                long allocatedBytes,
+                                long contentions,
+                                double contendedMillis,
+                                List<HotMethodDto> byCpu,
+                                List<HotMethodDto> byAllocation,
+                                List<HotMethodDto> byContention) {
+}
@@ -0,0 +1,16 @@
+package com.trainticketbooking.application.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Record representing a train found by a journey search, with the free seats and fare of each of its sections.
+ */
+public record JourneyDto(String trainNumber,
+                         String from,
+                         String to,
+                         LocalDate date,
+                         int freeSeats,
+                         boolean seatsForAllPassengers,
+                         List<SectionFareDto> sections) {
+}
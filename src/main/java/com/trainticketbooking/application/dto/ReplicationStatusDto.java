@@ -0,0 +1,10 @@
+package com.trainticketbooking.application.dto;
+
+/**
+ * Record representing the replication status of a node.
+ */
+public record ReplicationStatusDto(String role,
+                                   boolean servesReads,
+                                   long appliedSequence,
+                                   long stalenessMs) {
+}
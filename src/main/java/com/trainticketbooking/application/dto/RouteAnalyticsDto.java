@@ -0,0 +1,13 @@
+package com.trainticketbooking.application.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Record representing the bookings and revenue of one route.
+ */
+public record RouteAnalyticsDto(String from,
+                                String to,
+                                long bookings,
+                                BigDecimal revenue,
+                                long discountsApplied) {
+}
@@ -0,0 +1,10 @@
+package com.trainticketbooking.application.dto;
+
+import java.util.Map;
+
+/**
+ * Record representing a seat exchange between tickets, keyed by ticket ID with the ID of the ticket whose seat it takes
+ * as value; every ticket of the exchange gives its seat to another ticket of the exchange.
+ */
+public record SeatExchangeRequestDto(Map<Integer, Integer> takesSeatOf) {
+}
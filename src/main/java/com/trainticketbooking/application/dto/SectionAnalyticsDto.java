@@ -0,0 +1,15 @@
+package com.trainticketbooking.application.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Record representing the occupancy and revenue of one section.
+ */
+public record SectionAnalyticsDto(String section,
+                                  long bookings,
+                                  int capacity,
+                                  double loadFactor,
+                                  BigDecimal revenue,
+                                  long discountsApplied,
+                                  BigDecimal discountGiven) {
+}
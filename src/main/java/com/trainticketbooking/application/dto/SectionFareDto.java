@@ -0,0 +1,12 @@
+package com.trainticketbooking.application.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Record representing the free seats of one section and the fare a seat there costs at the same moment.
+ */
+public record SectionFareDto(String section,
+                             int capacity,
+                             int freeSeats,
+                             BigDecimal fare) {
+}
@@ -0,0 +1,13 @@
+package com.trainticketbooking.application.dto;
+
+/**
+ * Record representing how far one section is sold beyond its seats, and the statistics the allowance is based on.
+ */
+public record SectionOverbookingDto(String section,
+                                    int capacity,
+                                    int seatedTickets,
+                                    int waitingTickets,
+                                    int extraSeatsAllowed,
+                                    double cancellationRate,
+                                    double observations) {
+}
@@ -0,0 +1,18 @@
+package com.trainticketbooking.application.dto;
+
+import java.util.Map;
+
+/**
+ * Record representing one finished tracing span, with OpenTelemetry IDs. The parent span ID is null for the span that
+ * started the trace.
+ */
+public record SpanDto(String traceId,
+                      String spanId,
+                      String parentSpanId,
+                      String name,
+                      String kind,
+                      long startEpochMicros,
+                      long durationMicros,
+                      boolean error,
+                      Map<String, String> attributes) {
+}
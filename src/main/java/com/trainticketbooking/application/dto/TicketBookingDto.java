@@ -3,7 +3,8 @@ package com.trainticketbooking.application.dto;
 import java.math.BigDecimal;
 
 /**
- * Record representing a ticket booking for input/output operations.
+ * Record representing a ticket booking for input/output operations. The version is set on output only and grows
+ * with every change to the booking.
  */
 public record TicketBookingDto(Integer ticketId,
                                String from,
@@ -13,5 +14,14 @@ public record TicketBookingDto(Integer ticketId,
                                BigDecimal pricePaid,
                                String section,
                                Integer seatNumber,
-                               String discount) {
+                               String discount,
+                               Long version) {
+
+    /**
+     * Create a booking without a version, as sent by clients purchasing a ticket.
+     */
+    public TicketBookingDto(Integer ticketId, String from, String to, String userName, String userEmail,
+                            BigDecimal pricePaid, String section, Integer seatNumber, String discount) {
+        this(ticketId, from, to, userName, userEmail, pricePaid, section, seatNumber, discount, null);
+    }
 }
\ No newline at end of file
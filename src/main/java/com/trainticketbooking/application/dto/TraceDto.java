@@ -0,0 +1,13 @@
+package com.trainticketbooking.application.dto;
+
+import java.util.List;
+
+/**
+ * Record representing the spans of one trace recorded by this node, named after its first span and ordered by start.
+ */
+public record TraceDto(String traceId,
+                       String name,
+                       long startEpochMicros,
+                       long durationMicros,
+                       List<SpanDto> spans) {
+}
@@ -0,0 +1,60 @@
+package com.trainticketbooking.application.journey;
+
+import java.util.*;
+
+/**
+ * Inverted index from each station to the trains calling there, with the position of the station on each route, so
+ * finding the trains between two stations only looks at the trains calling at both. Station names are matched
+ * ignoring case and surrounding spaces. Immutable.
+ */
+final class JourneyIndex {
+
+    private final Map<String, List<Call>> callsByStation = new HashMap<>();
+    private final List<Train> trainsForAnyStation = new ArrayList<>();
+
+    JourneyIndex(List<Train> trains) {
+        for (Train train : trains) {
+            if (train.stops().isEmpty()) {
+                trainsForAnyStation.add(train);
+                continue;
+            }
+            for (int position = 0; position < train.stops().size(); position++) {
+                callsByStation.computeIfAbsent(normalize(train.stops().get(position)), station -> new ArrayList<>())
+                        .add(new Call(train, position));
+            }
+        }
+    }
+
+    /**
+     * Find the trains calling at one station and later at another.
+     *
+     * @param from The station to board at.
+     * @param to   The station to leave the train at.
+     * @return The trains, in the order they were indexed.
+     */
+    List<Train> trainsBetween(String from, String to) {
+        String fromStation = normalize(from);
+        String toStation = normalize(to);
+        if (fromStation.isEmpty() || fromStation.equals(toStation)) {
+            return List.of();
+        }
+        List<Train> trains = new ArrayList<>(trainsForAnyStation);
+        List<Call> arrivals = callsByStation.getOrDefault(toStation, List.of());
+        for (Call departure : callsByStation.getOrDefault(fromStation, List.of())) {
+            for (Call arrival : arrivals) {
+                if (arrival.train() == departure.train() && arrival.position() > departure.position()) {
+                    trains.add(departure.train());
+                    break;
+                }
+            }
+        }
+        return trains;
+    }
+
+    static String normalize(String station) {
+        return station == null ? "" : station.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Call(Train train, int position) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.trainticketbooking.application.journey;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.dto.JourneyDto;
+import com.trainticketbooking.application.dto.SectionFareDto;
+import com.trainticketbooking.application.service.BookingChangeListener;
+import com.trainticketbooking.application.service.TicketBookingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds the trains between two stations with the free seats and fares of their sections.
+ * <p>
+ * The train sold by this application is {@code booking.journey.train-number}, calling at the comma-separated
+ * {@code booking.journey.stops}; without stops it takes passengers between any two stations, like a purchase does. It
+ * runs on {@code booking.journey.service-date}, or every day if no date is set. Trains are looked up in a
+ * {@link JourneyIndex}, and the seats and fares of all sections are read at the same moment, like
+ * {@link TicketBookingService#getFares()}.
+ * <p>
+ * Results are cached for {@code booking.journey.cache-ttl-ms}, so fares that rise towards departure are picked up
+ * soon. A purchase, seat change or cancellation makes every cached result stale at once, by moving on the inventory
+ * generation each result is stored with, without touching the cache under the seat inventory lock. A stale result is
+ * searched again by the first request asking for it, while concurrent requests for the same search wait for that
+ * result. Hit, miss and eviction counts are published under the {@code cache.*} metrics with {@code cache=journeys}.
+ */
+@Component
+public class JourneySearch implements BookingChangeListener {
+
+    private final ObjectProvider<TicketBookingService> ticketBookingService;
+    private final JourneyIndex journeyIndex;
+    private final LocalDate serviceDate;
+    private final Cache<SearchKey, Journeys> results;
+    private final AtomicLong inventoryGeneration = new AtomicLong();
+
+    @Autowired
+    public JourneySearch(ObjectProvider<TicketBookingService> ticketBookingService,
+                         @Value("${booking.journey.train-number:1}") String trainNumber,
+                         @Value("${booking.journey.stops:}") String stops,
+                         @Value("${booking.journey.service-date:}") String serviceDate,
+                         @Value("${booking.journey.cache-ttl-ms:1000}") long cacheTtlMs,
+                         @Value("${booking.journey.cache-size:10000}") long cacheSize,
+                         MeterRegistry meterRegistry) {
+        this(ticketBookingService,
+                List.of(new Train(trainNumber, Arrays.stream(stops.split(","))
+                        .map(String::trim)
+                        .filter(stop -> !stop.isEmpty())
+                        .toList())),
+                serviceDate.isBlank() ? null : LocalDate.parse(serviceDate.trim()),
+                cacheTtlMs,
+                cacheSize);
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "journeys");
+    }
+
+    JourneySearch(ObjectProvider<TicketBookingService> ticketBookingService,
+                  List<Train> trains,
+                  LocalDate serviceDate,
+                  long cacheTtlMs,
+                  long cacheSize) {
+        this.ticketBookingService = ticketBookingService;
+        this.journeyIndex = new JourneyIndex(trains);
+        this.serviceDate = serviceDate;
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void onBookingChange(BookingChange change) {
+        if (change.type() != BookingChange.Type.DISCOUNT_APPLIED) {
+            inventoryGeneration.incrementAndGet();
+        }
+    }
+
+    /**
+     * Find the trains between two stations.
+     *
+     * @param from       The station to board at.
+     * @param to         The station to leave the train at.
+     * @param date       The date of travel, or null for any date.
+     * @param passengers The number of passengers travelling together.
+     * @return The trains, empty if none runs between the stations on that date.
+     * @throws IllegalArgumentException if there are fewer than one passenger.
+     */
+    public List<JourneyDto> search(String from, String to, LocalDate date, int passengers) {
+        if (passengers < 1) {
+            throw new IllegalArgumentException(ApiResponseMessages.JOURNEY_PASSENGERS_REQUIRED);
+        }
+        SearchKey key = new SearchKey(JourneyIndex.normalize(from), JourneyIndex.normalize(to), date, passengers);
+        Journeys cached = results.getIfPresent(key);
+        if (cached != null && cached.generation() == inventoryGeneration.get()) {
+            return cached.journeys();
+        }
+        if (cached != null) {
+            results.asMap().remove(key, cached);
+        }
+        return results.get(key, searchKey -> find(from, to, date, passengers)).journeys();
+    }
+
+    private Journeys find(String from, String to, LocalDate date, int passengers) {
+        List<Train> trains = serviceDate == null || date == null || serviceDate.equals(date)
+                ? journeyIndex.trainsBetween(from, to)
+                : List.of();
+        TicketBookingService service = ticketBookingService.getIfAvailable();
+        if (trains.isEmpty() || service == null) {
+            return new Journeys(inventoryGeneration.get(), List.of());
+        }
+        Availability availability = service.readConsistently(() ->
+                new Availability(inventoryGeneration.get(), service.getFares().getData()));
+        int freeSeats = availability.sections().stream().mapToInt(SectionFareDto::freeSeats).sum();
+        List<JourneyDto> journeys = new ArrayList<>(trains.size());
+        for (Train train : trains) {
+            journeys.add(new JourneyDto(train.number(), from, to, date != null ? date : serviceDate, freeSeats,
+                    freeSeats >= passengers, availability.sections()));
+        }
+        return new Journeys(availability.generation(), List.copyOf(journeys));
+    }
+
+    private record SearchKey(String from, String to, LocalDate date, int passengers) {
+    }
+
+    private record Journeys(long generation, List<JourneyDto> journeys) {
+    }
+
+    private record Availability(long generation, List<SectionFareDto> sections) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.trainticketbooking.application.journey;
+
+import java.util.List;
+
+/**
+ * A train and the stations it calls at, in order.
+ *
+ * @param number The train number.
+ * @param stops  The stations, from the first to the last; empty if the train takes passengers between any stations.
+ */
+public record Train(String number, List<String> stops) {
+
+    public Train {
+        stops = List.copyOf(stops);
+    }
+}
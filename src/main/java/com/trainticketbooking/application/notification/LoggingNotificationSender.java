@@ -0,0 +1,26 @@
+package com.trainticketbooking.application.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Stand-in {@link NotificationSender} that writes each notification to the log instead of delivering it. Replace this
+ * bean to connect a real mail gateway.
+ */
+@Component
+public class LoggingNotificationSender implements NotificationSender {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingNotificationSender.class);
+
+    @Override
+    public void send(List<Notification> batch) {
+        for (Notification notification : batch) {
+            log.info("{} for ticket {} to {}: {} to {}, section {} seat {}", notification.kind(),
+                    notification.ticketId(), notification.recipient(), notification.from(), notification.to(),
+                    notification.section(), notification.seatNumber());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.trainticketbooking.application.notification;
+
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.TicketBooking;
+
+/**
+ * A message to the passenger about a change to their booking, waiting in the {@link NotificationOutbox}.
+ *
+ * @param sequence   The position of the notification in the outbox, increasing in the order the changes were applied.
+ * @param kind       What the passenger is told about.
+ * @param ticketId   The ticket ID.
+ * @param recipient  The email address of the passenger.
+ * @param userName   The name of the passenger.
+ * @param from       The source location of the journey.
+ * @param to         The destination location of the journey.
+ * @param section    The section of the seat, or null.
+ * @param seatNumber The seat number, or null.
+ * @param createdAt  When the change was applied, in epoch milliseconds.
+ */
+public record Notification(long sequence, Kind kind, Integer ticketId, String recipient, String userName, String from,
+                           String to, String section, Integer seatNumber, long createdAt) {
+
+    /**
+     * The kind of notification.
+     */
+    public enum Kind {
+        CONFIRMATION,
+        SEAT_CHANGE,
+        CANCELLATION
+    }
+
+    /**
+     * Build the notification for a booking change.
+     *
+     * @param sequence  The position in the outbox.
+     * @param change    The change.
+     * @param createdAt When the change was applied, in epoch milliseconds.
+     * @return The notification, or null if the passenger is not told about this kind of change.
+     */
+    static Notification of(long sequence, BookingChange change, long createdAt) {
+        Kind kind = switch (change.type()) {
+            case PURCHASED -> Kind.CONFIRMATION;
+            case SEAT_CHANGED -> Kind.SEAT_CHANGE;
+            case CANCELLED -> Kind.CANCELLATION;
+            case DISCOUNT_APPLIED, ARCHIVED -> null;
+        };
+        TicketBooking booking = change.after() != null ? change.after() : change.before();
+        if (kind == null || booking.getUserEmail() == null) {
+            return null;
+        }
+        return new Notification(sequence, kind, booking.getTicketId(), booking.getUserEmail(), booking.getUserName(),
+                booking.getFrom(), booking.getTo(), booking.getSection(), booking.getSeatNumber(), createdAt);
+    }
+}
@@ -0,0 +1,164 @@
+package com.trainticketbooking.application.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Background thread delivering the {@link NotificationOutbox} to the {@link NotificationSender} in batches of up to
+ * {@code booking.notification.batch-size}, in order and at least once. A batch that fails is retried after
+ * {@code booking.notification.retry-initial-backoff-ms}, doubling up to
+ * {@code booking.notification.retry-max-backoff-ms}; later notifications wait behind it. After
+ * {@code booking.notification.max-attempts} failed attempts its notifications are sent one at a time, and one that
+ * fails as often on its own is dead-lettered by the outbox, so a single undeliverable notification cannot hold up the
+ * rest. Delivered notifications are counted in {@code booking.notifications.sent}, failed attempts in
+ * {@code booking.notifications.send.failures}, dead-lettered notifications in
+ * {@code booking.notifications.dead.letters}, and the queue length is published as
+ * {@code booking.notifications.pending}.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final NotificationOutbox notificationOutbox;
+    private final NotificationSender notificationSender;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final int maxAttempts;
+    private final Counter sent;
+    private final Counter failures;
+
+    private volatile Thread dispatcher;
+    private long backoffMs;
+    private int failedAttempts;
+    private long sendSinglyUpTo;
+
+    public NotificationDispatcher(NotificationOutbox notificationOutbox,
+                                  NotificationSender notificationSender,
+                                  @Value("${booking.notification.batch-size:100}") int batchSize,
+                                  @Value("${booking.notification.poll-interval-ms:1000}") long pollIntervalMs,
+                                  @Value("${booking.notification.retry-initial-backoff-ms:500}") long initialBackoffMs,
+                                  @Value("${booking.notification.retry-max-backoff-ms:60000}") long maxBackoffMs,
+                                  @Value("${booking.notification.max-attempts:10}") int maxAttempts,
+                                  MeterRegistry meterRegistry) {
+        this.notificationOutbox = notificationOutbox;
+        this.notificationSender = notificationSender;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = initialBackoffMs;
+        this.sent = meterRegistry.counter("booking.notifications.sent");
+        this.failures = meterRegistry.counter("booking.notifications.send.failures");
+        Gauge.builder("booking.notifications.pending", notificationOutbox, NotificationOutbox::size)
+                .description("Notifications waiting to be delivered")
+                .register(meterRegistry);
+        FunctionCounter.builder("booking.notifications.dead.letters", notificationOutbox,
+                        NotificationOutbox::deadLetterCount)
+                .description("Notifications given up on")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start delivering notifications.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (dispatcher != null) {
+            return;
+        }
+        dispatcher = new Thread(this::dispatch, "notification-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Stop delivering notifications. Undelivered ones stay in the outbox.
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        Thread thread = dispatcher;
+        dispatcher = null;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(pollIntervalMs);
+        }
+    }
+
+    /**
+     * Take the next batch from the outbox and try to deliver it.
+     *
+     * @param waitMs How long to wait for a notification if the outbox is empty.
+     * @return The delay before the next attempt: 0 after a delivery, after giving up on a batch or when there was
+     * nothing to deliver, otherwise the retry backoff.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    long dispatchOnce(long waitMs) throws InterruptedException {
+        List<Notification> batch = notificationOutbox.nextBatch(batchSize, waitMs);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        if (batch.get(0).sequence() <= sendSinglyUpTo) {
+            batch = batch.subList(0, 1);
+        }
+        try {
+            notificationSender.send(batch);
+        } catch (Exception e) {
+            failures.increment();
+            if (++failedAttempts >= maxAttempts) {
+                giveUp(batch, e);
+                return 0;
+            }
+            long delay = backoffMs;
+            backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            log.warn("Could not deliver {} notifications starting at {}, retrying in {} ms", batch.size(),
+                    batch.get(0).sequence(), delay, e);
+            return delay;
+        }
+        notificationOutbox.delivered(batch.get(batch.size() - 1).sequence());
+        sent.increment(batch.size());
+        failedAttempts = 0;
+        backoffMs = initialBackoffMs;
+        return 0;
+    }
+
+    private void giveUp(List<Notification> batch, Exception e) {
+        failedAttempts = 0;
+        backoffMs = initialBackoffMs;
+        long last = batch.get(batch.size() - 1).sequence();
+        if (batch.size() > 1) {
+            log.warn("Could not deliver {} notifications starting at {} in {} attempts, sending them one at a time",
+                    batch.size(), batch.get(0).sequence(), maxAttempts, e);
+            sendSinglyUpTo = last;
+            return;
+        }
+        log.error("Could not deliver notification {} in {} attempts, giving up", last, maxAttempts, e);
+        notificationOutbox.deadLetter(last);
+    }
+
+    private void dispatch() {
+        while (dispatcher == Thread.currentThread()) {
+            try {
+                long delay = dispatchOnce(pollIntervalMs);
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
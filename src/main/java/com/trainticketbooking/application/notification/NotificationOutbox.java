@@ -0,0 +1,449 @@
+package com.trainticketbooking.application.notification;
+
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.service.BookingChangeListener;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Queue of notifications waiting to be delivered by the {@link NotificationDispatcher}.
+ * <p>
+ * A notification is queued while the booking change is applied, under the seat inventory lock, so every confirmed
+ * purchase, seat change and cancellation has its notification queued before the request returns, and in the same order.
+ * Changes copied from a primary node are left to the primary to notify.
+ * <p>
+ * With {@code booking.notification.outbox-dir} set, each notification is also appended to a journal file in that
+ * directory, and whatever was not delivered is queued again on restart. Each delivered batch appends a small marker.
+ * Once the journal holds at least {@code booking.notification.compact-after-records} records no longer needed, and at
+ * least as many as are still waiting, it is rewritten with only the notifications still waiting. The new journal is
+ * written without blocking new notifications, so a long queue never holds up a booking. Appends go to the
+ * operating system without waiting for the disk unless {@code booking.notification.sync-writes} is set, so they
+ * survive a crash of the application but not of the machine. Without a directory the queue is kept in memory only.
+ * <p>
+ * At most {@code booking.notification.max-pending} notifications are queued. Further ones, and those the dispatcher
+ * gives up on, are dead-lettered: logged as errors and, with a directory, appended to a dead-letter file next to the
+ * journal, to be sent by hand.
+ */
+@Component
+public class NotificationOutbox implements BookingChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutbox.class);
+
+    private static final String JOURNAL_FILE = "notification-outbox.log";
+    private static final String COMPACTED_JOURNAL_FILE = "notification-outbox.log.tmp";
+    private static final String DEAD_LETTER_FILE = "notification-dead-letters.log";
+    private static final byte NOTIFICATION = 'N';
+    private static final byte DELIVERED = 'D';
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+
+    private final boolean syncWrites;
+    private final int maxPending;
+    private final int compactAfterRecords;
+    private final Deque<Notification> pending = new ArrayDeque<>();
+    private final Path directory;
+    private FileChannel journal;
+    private long journalRecords;
+    private boolean compacting;
+    private long lastSequence;
+    private long deadLettered;
+
+    public NotificationOutbox(@Value("${booking.notification.outbox-dir:}") String outboxDir,
+                              @Value("${booking.notification.sync-writes:false}") boolean syncWrites,
+                              @Value("${booking.notification.max-pending:100000}") int maxPending,
+                              @Value("${booking.notification.compact-after-records:1000}") int compactAfterRecords)
+            throws IOException {
+        this.syncWrites = syncWrites;
+        this.maxPending = Math.max(1, maxPending);
+        this.compactAfterRecords = Math.max(1, compactAfterRecords);
+        if (outboxDir.isBlank()) {
+            this.directory = null;
+            this.journal = null;
+            return;
+        }
+        this.directory = Files.createDirectories(Path.of(outboxDir));
+        this.journal = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+        if (!pending.isEmpty()) {
+            log.info("{} undelivered notifications queued again from {}", pending.size(), directory);
+        }
+    }
+
+    @Override
+    public void onBookingChange(BookingChange change) {
+        if (!change.replicated()) {
+            append(change);
+        }
+    }
+
+    /**
+     * Get the oldest notifications that have not been delivered yet, waiting up to the given time if there are none.
+     *
+     * @param maxSize The maximum number of notifications to return.
+     * @param waitMs  How long to wait for a notification, or 0 not to wait.
+     * @return The notifications in order, or an empty list if none arrived in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    synchronized List<Notification> nextBatch(int maxSize, long waitMs) throws InterruptedException {
+        if (pending.isEmpty() && waitMs > 0) {
+            wait(waitMs);
+        }
+        List<Notification> batch = new ArrayList<>(Math.min(maxSize, pending.size()));
+        for (Notification notification : pending) {
+            if (batch.size() == maxSize) {
+                break;
+            }
+            batch.add(notification);
+        }
+        return batch;
+    }
+
+    /**
+     * Remove the notifications up to the given sequence number, which have been delivered.
+     *
+     * @param sequence The sequence number of the last delivered notification.
+     */
+    void delivered(long sequence) {
+        Compaction compaction;
+        synchronized (this) {
+            while (!pending.isEmpty() && pending.peekFirst().sequence() <= sequence) {
+                pending.removeFirst();
+            }
+            compaction = markDelivered(sequence);
+        }
+        compact(compaction);
+    }
+
+    /**
+     * Give up on the notifications up to the given sequence number, which could not be delivered, and dead-letter
+     * them.
+     *
+     * @param sequence The sequence number of the last notification given up on.
+     */
+    void deadLetter(long sequence) {
+        Compaction compaction;
+        synchronized (this) {
+            while (!pending.isEmpty() && pending.peekFirst().sequence() <= sequence) {
+                deadLetter(pending.removeFirst());
+            }
+            compaction = markDelivered(sequence);
+        }
+        compact(compaction);
+    }
+
+    /**
+     * Get the number of notifications dead-lettered since startup.
+     *
+     * @return The number of notifications.
+     */
+    public synchronized long deadLetterCount() {
+        return deadLettered;
+    }
+
+    /**
+     * Get the number of notifications waiting to be delivered.
+     *
+     * @return The number of notifications.
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Close the journal.
+     */
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private synchronized void append(BookingChange change) {
+        Notification notification = Notification.of(lastSequence + 1, change, System.currentTimeMillis());
+        if (notification == null) {
+            return;
+        }
+        lastSequence = notification.sequence();
+        if (pending.size() >= maxPending) {
+            log.error("Notification outbox holds {} notifications, dead-lettering notification {}", pending.size(),
+                    notification.sequence());
+            deadLetter(notification);
+            return;
+        }
+        pending.addLast(notification);
+        notifyAll();
+        if (journal == null) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream records = new ByteArrayOutputStream(128);
+            writeRecord(records, NOTIFICATION, out -> writeNotification(out, notification));
+            append(journal, records);
+            journalRecords++;
+        } catch (IOException e) {
+            // The booking has been made either way; the notification is still delivered unless the application stops.
+            log.error("Could not write notification {} to the outbox journal", notification.sequence(), e);
+        }
+    }
+
+    private void deadLetter(Notification notification) {
+        deadLettered++;
+        log.error("Dead-lettered {} notification {} for ticket {} to {}", notification.kind(),
+                notification.sequence(), notification.ticketId(), notification.recipient());
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel deadLetters = FileChannel.open(directory.resolve(DEAD_LETTER_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ByteArrayOutputStream records = new ByteArrayOutputStream(128);
+            writeRecord(records, NOTIFICATION, out -> writeNotification(out, notification));
+            append(deadLetters, records);
+        } catch (IOException e) {
+            log.error("Could not write notification {} to the dead-letter file", notification.sequence(), e);
+        }
+    }
+
+    /**
+     * Append a marker for the notifications up to the given sequence number, which have left the queue, and start a
+     * compaction if the journal now holds enough records that are no longer needed.
+     *
+     * @return The compaction to run once the monitor is released, or null.
+     */
+    private Compaction markDelivered(long sequence) {
+        if (journal == null) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream records = new ByteArrayOutputStream(16);
+            writeRecord(records, DELIVERED, out -> out.writeLong(sequence));
+            append(journal, records);
+            journalRecords++;
+        } catch (IOException e) {
+            log.warn("Could not mark notifications up to {} as delivered; they may be sent again after a restart",
+                    sequence, e);
+        }
+        long unneededRecords = journalRecords - pending.size();
+        if (compacting || unneededRecords < Math.max(compactAfterRecords, pending.size())) {
+            return null;
+        }
+        try {
+            compacting = true;
+            return new Compaction(Math.max(sequence, lastSequence), List.copyOf(pending), journal.size(),
+                    journalRecords);
+        } catch (IOException e) {
+            compacting = false;
+            log.warn("Could not compact the outbox journal", e);
+            return null;
+        }
+    }
+
+    /**
+     * Replace the journal by one holding only the notifications queued when the compaction started, after the last
+     * sequence number handed out so that the numbering carries on after a restart. The new journal is written next to
+     * the old one without holding the monitor; then, holding it again, whatever was appended meanwhile is copied over
+     * and the new journal is moved over the old one, so a crash leaves one or the other.
+     */
+    private void compact(Compaction compaction) {
+        if (compaction == null) {
+            return;
+        }
+        Path compacted = directory.resolve(COMPACTED_JOURNAL_FILE);
+        FileChannel channel = null;
+        try {
+            ByteArrayOutputStream records = new ByteArrayOutputStream(128 * (compaction.pending().size() + 1));
+            writeRecord(records, DELIVERED, out -> out.writeLong(compaction.sequence()));
+            for (Notification notification : compaction.pending()) {
+                writeRecord(records, NOTIFICATION, out -> writeNotification(out, notification));
+            }
+            channel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            append(channel, records);
+        } catch (IOException e) {
+            log.warn("Could not compact the outbox journal", e);
+            closeQuietly(channel);
+            synchronized (this) {
+                compacting = false;
+            }
+            return;
+        }
+        synchronized (this) {
+            compacting = false;
+            try (FileChannel written = channel) {
+                if (journal == null || !journal.isOpen()) {
+                    return;
+                }
+                written.position(written.size());
+                long position = compaction.journalSize();
+                while (position < journal.size()) {
+                    position += journal.transferTo(position, journal.size() - position, written);
+                }
+                if (syncWrites) {
+                    written.force(false);
+                }
+            } catch (IOException e) {
+                log.warn("Could not compact the outbox journal", e);
+                return;
+            }
+            try {
+                journal.close();
+                Files.move(compacted, directory.resolve(JOURNAL_FILE), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                journalRecords = 1 + compaction.pending().size() + journalRecords - compaction.journalRecords();
+            } catch (IOException e) {
+                log.warn("Could not compact the outbox journal; delivered notifications may be sent again after a "
+                        + "restart", e);
+            }
+            try {
+                journal = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                log.error("Could not reopen the outbox journal, notifications are kept in memory only", e);
+                journal = null;
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            if (closeable != null) {
+                closeable.close();
+            }
+        } catch (IOException e) {
+            // Nothing left to release.
+        }
+    }
+
+    private static void writeRecord(ByteArrayOutputStream records, byte type, RecordWriter recordWriter)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(type);
+        out.writeInt(0);
+        recordWriter.write(out);
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(1, record.remaining() - Byte.BYTES - Integer.BYTES);
+        records.write(record.array());
+    }
+
+    private void append(FileChannel channel, ByteArrayOutputStream records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(records.toByteArray());
+        long position = channel.size();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        if (syncWrites) {
+            channel.force(false);
+        }
+    }
+
+    private void recover() throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(journal.position(0))));
+        long validLength = 0;
+        while (true) {
+            byte type;
+            byte[] payload;
+            try {
+                type = in.readByte();
+                int length = in.readInt();
+                if (length < 0 || length > MAX_RECORD_LENGTH) {
+                    break;
+                }
+                payload = new byte[length];
+                in.readFully(payload);
+            } catch (EOFException e) {
+                break;
+            }
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+            if (type == NOTIFICATION) {
+                Notification notification = readNotification(record);
+                pending.addLast(notification);
+                lastSequence = Math.max(lastSequence, notification.sequence());
+            } else if (type == DELIVERED) {
+                long sequence = record.readLong();
+                while (!pending.isEmpty() && pending.peekFirst().sequence() <= sequence) {
+                    pending.removeFirst();
+                }
+                lastSequence = Math.max(lastSequence, sequence);
+            } else {
+                break;
+            }
+            journalRecords++;
+            validLength += Byte.BYTES + Integer.BYTES + payload.length;
+        }
+        if (validLength < journal.size()) {
+            log.warn("Dropping {} bytes of an incomplete record at the end of the outbox journal",
+                    journal.size() - validLength);
+            journal.truncate(validLength);
+        }
+    }
+
+    private static void writeNotification(DataOutputStream out, Notification notification) throws IOException {
+        out.writeLong(notification.sequence());
+        out.writeUTF(notification.kind().name());
+        writeNullableInt(out, notification.ticketId());
+        writeNullableString(out, notification.recipient());
+        writeNullableString(out, notification.userName());
+        writeNullableString(out, notification.from());
+        writeNullableString(out, notification.to());
+        writeNullableString(out, notification.section());
+        writeNullableInt(out, notification.seatNumber());
+        out.writeLong(notification.createdAt());
+    }
+
+    private static Notification readNotification(DataInputStream in) throws IOException {
+        return new Notification(in.readLong(), Notification.Kind.valueOf(in.readUTF()), readNullableInt(in),
+                readNullableString(in), readNullableString(in), readNullableString(in), readNullableString(in),
+                readNullableString(in), readNullableInt(in), in.readLong());
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullableInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readNullableInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    /**
+     * A compaction started under the monitor: the notifications queued at that point, and the size of the journal
+     * that already accounts for them.
+     */
+    private record Compaction(long sequence, List<Notification> pending, long journalSize, long journalRecords) {
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,19 @@
+package com.trainticketbooking.application.notification;
+
+import java.util.List;
+
+/**
+ * Delivers notifications to passengers, for instance through a mail gateway.
+ */
+public interface NotificationSender {
+
+    /**
+     * Deliver a batch of notifications. Either the whole batch is accepted, or an exception is thrown and the batch is
+     * offered again later, so a sender may see a notification more than once and should drop repeated sequence
+     * numbers if duplicates matter.
+     *
+     * @param batch The notifications, in outbox order.
+     * @throws Exception if the batch could not be delivered.
+     */
+    void send(List<Notification> batch) throws Exception;
+}
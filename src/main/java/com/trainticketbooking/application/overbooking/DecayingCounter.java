@@ -0,0 +1,39 @@
+package com.trainticketbooking.application.overbooking;
+
+/**
+ * A count whose past increments fade exponentially with age, halving every half-life, so it describes recent
+ * behaviour without keeping the individual events. Not thread-safe.
+ */
+final class DecayingCounter {
+
+    private final double halfLifeMillis;
+    private double value;
+    private long updatedAt;
+
+    DecayingCounter(long halfLifeMillis) {
+        this.halfLifeMillis = halfLifeMillis;
+    }
+
+    /**
+     * Count one event.
+     *
+     * @param now The time of the event in milliseconds.
+     */
+    void increment(long now) {
+        value = valueAt(now) + 1;
+        updatedAt = Math.max(updatedAt, now);
+    }
+
+    /**
+     * Get the decayed count.
+     *
+     * @param now The current time in milliseconds.
+     * @return The weighted number of events counted so far.
+     */
+    double valueAt(long now) {
+        if (value == 0 || now <= updatedAt) {
+            return value;
+        }
+        return value * Math.pow(0.5, (now - updatedAt) / halfLifeMillis);
+    }
+}
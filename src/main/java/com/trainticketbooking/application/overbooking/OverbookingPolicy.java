@@ -0,0 +1,208 @@
+package com.trainticketbooking.application.overbooking;
+
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.seating.SeatLayout;
+import com.trainticketbooking.application.service.BookingChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides how many tickets each section may sell beyond its seats, from how often the tickets sold in that section
+ * are cancelled again.
+ * <p>
+ * Every ticket that gets a seat on this node counts as a sale of its section and every cancellation of a seated
+ * ticket as a cancellation; both are kept as counters that halve every {@code booking.overbooking.half-life-hours},
+ * so the rate follows recent behaviour. Once a section has {@code booking.overbooking.min-observations} weighted
+ * sales, it may sell the largest number of extra tickets, up to {@code booking.overbooking.max-extra-seats}, for which
+ * the chance that more ticket holders than seats are left at departure stays within {@code booking.overbooking.risk},
+ * taking each ticket to be cancelled independently at the observed rate. The allowance is worked out when a booking
+ * changes, so the purchase path only reads it. With the default of no extra seats, nothing is overbooked.
+ * <p>
+ * Changes copied from a primary node are not counted: the statistics describe the sales of this node, and a replica
+ * starts from scratch if it is promoted.
+ */
+@Component
+public class OverbookingPolicy implements BookingChangeListener {
+
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    private final int sectionCapacity = SeatLayout.STANDARD.size();
+    private final int maxExtraSeats;
+    private final double risk;
+    private final double minObservations;
+    private final LongSupplier clock;
+    private final Map<String, SectionStatistics> sections;
+
+    @Autowired
+    public OverbookingPolicy(@Value("${booking.overbooking.max-extra-seats:0}") int maxExtraSeats,
+                             @Value("${booking.overbooking.risk:0.05}") double risk,
+                             @Value("${booking.overbooking.min-observations:50}") double minObservations,
+                             @Value("${booking.overbooking.half-life-hours:720}") long halfLifeHours) {
+        this(maxExtraSeats, risk, minObservations, halfLifeHours, System::currentTimeMillis);
+    }
+
+    OverbookingPolicy(int maxExtraSeats, double risk, double minObservations, long halfLifeHours,
+                      LongSupplier clock) {
+        this.maxExtraSeats = Math.max(0, maxExtraSeats);
+        this.risk = risk;
+        this.minObservations = minObservations;
+        this.clock = clock;
+        Map<String, SectionStatistics> statistics = new LinkedHashMap<>();
+        ClusterTopology.SECTIONS.forEach(section ->
+                statistics.put(section, new SectionStatistics(halfLifeHours * MILLIS_PER_HOUR)));
+        this.sections = Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Create a policy that never overbooks.
+     *
+     * @return The policy.
+     */
+    public static OverbookingPolicy disabled() {
+        return new OverbookingPolicy(0, 0, 0, 1, System::currentTimeMillis);
+    }
+
+    @Override
+    public void onBookingChange(BookingChange change) {
+        if (change.replicated() || maxExtraSeats == 0) {
+            return;
+        }
+        TicketBooking before = change.before();
+        TicketBooking after = change.after();
+        boolean seatedBefore = before != null && before.getSeatNumber() != null;
+        if (after != null && after.getSeatNumber() != null && !seatedBefore) {
+            SectionStatistics statistics = statisticsOf(after.getSection());
+            if (statistics != null) {
+                statistics.recordSale(clock.getAsLong());
+            }
+        } else if (change.type() == BookingChange.Type.CANCELLED && seatedBefore) {
+            SectionStatistics statistics = statisticsOf(before.getSection());
+            if (statistics != null) {
+                statistics.recordCancellation(clock.getAsLong());
+            }
+        }
+    }
+
+    /**
+     * Get the number of tickets a section may currently sell beyond its seats.
+     *
+     * @param section The section.
+     * @return The number of extra tickets, 0 if the section is not known.
+     */
+    public int extraSeats(String section) {
+        SectionStatistics statistics = statisticsOf(section);
+        return statistics != null ? statistics.extraSeats : 0;
+    }
+
+    /**
+     * Get the weighted number of sales observed in a section.
+     *
+     * @param section The section.
+     * @return The decayed number of sales.
+     */
+    public double observations(String section) {
+        SectionStatistics statistics = statisticsOf(section);
+        return statistics != null ? statistics.observations(clock.getAsLong()) : 0;
+    }
+
+    /**
+     * Get the share of the sales in a section that were cancelled again.
+     *
+     * @param section The section.
+     * @return The decayed cancellation rate, between 0 and 1.
+     */
+    public double cancellationRate(String section) {
+        SectionStatistics statistics = statisticsOf(section);
+        return statistics != null ? statistics.cancellationRate(clock.getAsLong()) : 0;
+    }
+
+    /**
+     * Work out how many extra tickets may be sold for the given number of seats, so that the chance of more ticket
+     * holders than seats being left stays within the risk.
+     *
+     * @param seats            The number of seats.
+     * @param cancellationRate The chance that a ticket is cancelled.
+     * @param maxExtraSeats    The largest allowance to consider.
+     * @param risk             The accepted chance of being oversold.
+     * @return The number of extra tickets.
+     */
+    static int allowance(int seats, double cancellationRate, int maxExtraSeats, double risk) {
+        double showRate = 1 - Math.min(Math.max(cancellationRate, 0), 1);
+        int extra = 0;
+        while (extra < maxExtraSeats && oversoldProbability(seats + extra + 1, seats, showRate) <= risk) {
+            extra++;
+        }
+        return extra;
+    }
+
+    /**
+     * Get the chance that more than the given number of seats are needed when each of the sold tickets is used with
+     * the given probability, that is the upper tail of the binomial distribution.
+     */
+    private static double oversoldProbability(int sold, int seats, double showRate) {
+        if (showRate <= 0) {
+            return 0;
+        }
+        if (showRate >= 1) {
+            return sold > seats ? 1 : 0;
+        }
+        double odds = showRate / (1 - showRate);
+        double probability = Math.pow(1 - showRate, sold);
+        double withinSeats = 0;
+        for (int shows = 0; shows <= seats; shows++) {
+            withinSeats += probability;
+            probability = probability * (sold - shows) / (shows + 1) * odds;
+        }
+        return Math.max(0, 1 - withinSeats);
+    }
+
+    private SectionStatistics statisticsOf(String section) {
+        return section != null ? sections.get(section.toUpperCase(Locale.ROOT)) : null;
+    }
+
+    private final class SectionStatistics {
+
+        private final DecayingCounter sales;
+        private final DecayingCounter cancellations;
+        private volatile int extraSeats;
+
+        private SectionStatistics(long halfLifeMillis) {
+            this.sales = new DecayingCounter(halfLifeMillis);
+            this.cancellations = new DecayingCounter(halfLifeMillis);
+        }
+
+        private synchronized void recordSale(long now) {
+            sales.increment(now);
+            update(now);
+        }
+
+        private synchronized void recordCancellation(long now) {
+            cancellations.increment(now);
+            update(now);
+        }
+
+        private synchronized double observations(long now) {
+            return sales.valueAt(now);
+        }
+
+        private synchronized double cancellationRate(long now) {
+            double sold = sales.valueAt(now);
+            return sold > 0 ? Math.min(1, cancellations.valueAt(now) / sold) : 0;
+        }
+
+        private void update(long now) {
+            extraSeats = observations(now) >= minObservations
+                    ? allowance(sectionCapacity, cancellationRate(now), maxExtraSeats, risk)
+                    : 0;
+        }
+    }
+}
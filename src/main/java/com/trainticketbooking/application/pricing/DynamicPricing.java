@@ -0,0 +1,116 @@
+package com.trainticketbooking.application.pricing;
+
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.seating.SeatLayout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.function.LongSupplier;
+
+/**
+ * Fares that rise as a section fills up and as departure comes closer.
+ * <p>
+ * The fare for a section holding {@code occupied} of its seats, {@code days} whole days before departure, is
+ * <pre>
+ * base-fare * (1 + max-occupancy-surcharge * (occupied / seats)^2)
+ *           * (1 + max-late-surcharge * (late-booking-days - days) / late-booking-days)
+ * </pre>
+ * with {@code days} capped at {@code booking.pricing.late-booking-days}, so the fare only starts to rise for lateness
+ * within that many days of {@code booking.pricing.departure}, and stays flat if no departure is set. Fares rise slowly
+ * while the section is empty and steeply as the last seats go. Every fare is worked out once, when the application
+ * starts, into a table indexed by days left and occupied seats, so pricing a purchase is a lookup.
+ * <p>
+ * Without {@code booking.pricing.base-fare}, tickets keep the price sent by the client.
+ */
+@Component
+public class DynamicPricing {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final int sectionCapacity = SeatLayout.STANDARD.size();
+    private final LongSupplier clock;
+    private final Instant departure;
+    private final int lateBookingDays;
+    private final long[][] faresMinorUnits;
+
+    @Autowired
+    public DynamicPricing(@Value("${booking.pricing.base-fare:}") String baseFare,
+                          @Value("${booking.pricing.max-occupancy-surcharge:1.0}") double maxOccupancySurcharge,
+                          @Value("${booking.pricing.departure:}") String departure,
+                          @Value("${booking.pricing.late-booking-days:14}") int lateBookingDays,
+                          @Value("${booking.pricing.max-late-surcharge:0.5}") double maxLateSurcharge) {
+        this(baseFare.isBlank() ? null : Money.of(new BigDecimal(baseFare.trim())), maxOccupancySurcharge,
+                departure.isBlank() ? null : OffsetDateTime.parse(departure.trim()).toInstant(), lateBookingDays,
+                maxLateSurcharge, System::currentTimeMillis);
+    }
+
+    DynamicPricing(Money baseFare, double maxOccupancySurcharge, Instant departure, int lateBookingDays,
+                   double maxLateSurcharge, LongSupplier clock) {
+        this.clock = clock;
+        this.departure = departure;
+        this.lateBookingDays = Math.max(0, lateBookingDays);
+        this.faresMinorUnits = baseFare != null && baseFare.minorUnits() > 0
+                ? fareTable(baseFare.minorUnits(), maxOccupancySurcharge, maxLateSurcharge)
+                : null;
+    }
+
+    /**
+     * Create a pricing that keeps the price sent by the client.
+     *
+     * @return The pricing.
+     */
+    public static DynamicPricing clientPrices() {
+        return new DynamicPricing(null, 0, null, 0, 0, System::currentTimeMillis);
+    }
+
+    /**
+     * Check whether fares are set by this pricing rather than by the client.
+     *
+     * @return True if a base fare is configured.
+     */
+    public boolean isEnabled() {
+        return faresMinorUnits != null;
+    }
+
+    /**
+     * Get the current fare of a seat in a section holding the given number of seats. A full or overbooked section
+     * costs the same as a full one.
+     *
+     * @param occupiedSeats The number of seats already taken in the section.
+     * @return The fare, or null if fares are set by the client.
+     */
+    public Money fare(int occupiedSeats) {
+        if (faresMinorUnits == null) {
+            return null;
+        }
+        int occupied = Math.min(Math.max(occupiedSeats, 0), sectionCapacity);
+        return Money.ofMinor(faresMinorUnits[daysLeft()][occupied]);
+    }
+
+    private int daysLeft() {
+        if (departure == null) {
+            return lateBookingDays;
+        }
+        long millisLeft = departure.toEpochMilli() - clock.getAsLong();
+        return millisLeft <= 0 ? 0 : (int) Math.min(lateBookingDays, millisLeft / MILLIS_PER_DAY);
+    }
+
+    private long[][] fareTable(long baseFareMinorUnits, double maxOccupancySurcharge, double maxLateSurcharge) {
+        long[][] fares = new long[lateBookingDays + 1][sectionCapacity + 1];
+        for (int days = 0; days <= lateBookingDays; days++) {
+            double lateFactor = lateBookingDays > 0
+                    ? 1 + maxLateSurcharge * (lateBookingDays - days) / lateBookingDays
+                    : 1;
+            for (int occupied = 0; occupied <= sectionCapacity; occupied++) {
+                double fill = (double) occupied / sectionCapacity;
+                double occupancyFactor = 1 + maxOccupancySurcharge * fill * fill;
+                fares[days][occupied] = Math.round(baseFareMinorUnits * occupancyFactor * lateFactor);
+            }
+        }
+        return fares;
+    }
+}
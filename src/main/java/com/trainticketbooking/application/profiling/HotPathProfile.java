@@ -0,0 +1,171 @@
+package com.trainticketbooking.application.profiling;
+
+import com.trainticketbooking.application.dto.HotMethodDto;
+import com.trainticketbooking.application.dto.HotPathProfileDto;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Rolling per-method totals of profiling samples over a window of fixed-size time buckets. Like the analytics
+ * counters, each bucket remembers which interval it holds and is reset on its next use after the window has moved
+ * past it. Samples taken outside the profiled methods only count towards the totals the shares are computed from.
+ */
+final class HotPathProfile {
+
+    private static final int CPU_SAMPLES = 0;
+    private static final int ALLOCATED_BYTES = 1;
+    private static final int CONTENTIONS = 2;
+    private static final int CONTENDED_NANOS = 3;
+    private static final int STATS = 4;
+
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+
+    HotPathProfile(int buckets, long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = new Bucket[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new Bucket();
+        }
+    }
+
+    private static final class Bucket {
+
+        private long interval = -1;
+        private final long[] totals = new long[STATS];
+        private final Map<String, long[]> methods = new HashMap<>();
+    }
+
+    /**
+     * Count one CPU sample.
+     *
+     * @param method     The profiled method on top of the sampled stack, or null if there is none.
+     * @param timeMillis The time of the sample in milliseconds.
+     */
+    void recordCpuSample(String method, long timeMillis) {
+        record(method, timeMillis, CPU_SAMPLES, 1, -1, 0);
+    }
+
+    /**
+     * Count a sampled allocation.
+     *
+     * @param method     The profiled method that allocated, or null if there is none.
+     * @param bytes      The bytes the sample stands for.
+     * @param timeMillis The time of the allocation in milliseconds.
+     */
+    void recordAllocation(String method, long bytes, long timeMillis) {
+        record(method, timeMillis, ALLOCATED_BYTES, bytes, -1, 0);
+    }
+
+    /**
+     * Count a wait for a contended lock.
+     *
+     * @param method     The profiled method that waited, or null if there is none.
+     * @param nanos      How long the wait took, in nanoseconds.
+     * @param timeMillis The time the wait ended in milliseconds.
+     */
+    void recordContention(String method, long nanos, long timeMillis) {
+        record(method, timeMillis, CONTENTIONS, 1, CONTENDED_NANOS, nanos);
+    }
+
+    /**
+     * Sum the samples within the window ending now.
+     *
+     * @param nowMillis The current time in milliseconds.
+     * @param limit     The largest number of methods to list for each kind of sample.
+     * @return The totals and the methods with the most CPU samples, allocation and lock contention.
+     */
+    synchronized HotPathProfileDto snapshot(long nowMillis, int limit) {
+        long interval = nowMillis / bucketMillis;
+        long[] totals = new long[STATS];
+        Map<String, long[]> methods = new HashMap<>();
+        for (Bucket bucket : buckets) {
+            if (bucket.interval <= interval - buckets.length || bucket.interval > interval) {
+                continue;
+            }
+            add(totals, bucket.totals);
+            bucket.methods.forEach((method, stats) ->
+                    add(methods.computeIfAbsent(method, m -> new long[STATS]), stats));
+        }
+        List<HotMethodDto> hotMethods = methods.entrySet().stream()
+                .map(entry -> toDto(entry.getKey(), entry.getValue(), totals))
+                .toList();
+        return new HotPathProfileDto(windowMillis() / 1000,
+                totals[CPU_SAMPLES],
+                totals[ALLOCATED_BYTES],
+                totals[CONTENTIONS],
+                totals[CONTENDED_NANOS] / 1_000_000.0,
+                top(hotMethods, HotMethodDto::cpuSamples, limit),
+                top(hotMethods, HotMethodDto::allocatedBytes, limit),
+                top(hotMethods, HotMethodDto::contendedMillis, limit));
+    }
+
+    /**
+     * Get the length of the window.
+     *
+     * @return The window length in milliseconds.
+     */
+    long windowMillis() {
+        return buckets.length * bucketMillis;
+    }
+
+    private synchronized void record(String method, long timeMillis, int stat, long amount,
+                                     int durationStat, long duration) {
+        long interval = timeMillis / bucketMillis;
+        Bucket bucket = buckets[(int) (interval % buckets.length)];
+        if (bucket.interval > interval) {
+            // Late sample from a bucket that has already been reused
+            return;
+        }
+        if (bucket.interval != interval) {
+            bucket.interval = interval;
+            bucket.methods.clear();
+            Arrays.fill(bucket.totals, 0);
+        }
+        bucket.totals[stat] += amount;
+        if (durationStat >= 0) {
+            bucket.totals[durationStat] += duration;
+        }
+        if (method != null) {
+            long[] stats = bucket.methods.computeIfAbsent(method, m -> new long[STATS]);
+            stats[stat] += amount;
+            if (durationStat >= 0) {
+                stats[durationStat] += duration;
+            }
+        }
+    }
+
+    private static void add(long[] sums, long[] stats) {
+        for (int i = 0; i < STATS; i++) {
+            sums[i] += stats[i];
+        }
+    }
+
+    private static HotMethodDto toDto(String method, long[] stats, long[] totals) {
+        return new HotMethodDto(method,
+                stats[CPU_SAMPLES],
+                share(stats[CPU_SAMPLES], totals[CPU_SAMPLES]),
+                stats[ALLOCATED_BYTES],
+                share(stats[ALLOCATED_BYTES], totals[ALLOCATED_BYTES]),
+                stats[CONTENTIONS],
+                stats[CONTENDED_NANOS] / 1_000_000.0);
+    }
+
+    private static double share(long part, long total) {
+        return total == 0 ? 0 : (double) part / total;
+    }
+
+    private static List<HotMethodDto> top(List<HotMethodDto> methods, ToDoubleFunction<HotMethodDto> metric,
+                                          int limit) {
+        return methods.stream()
+                .filter(method -> metric.applyAsDouble(method) > 0)
+                .sorted(Comparator.comparingDouble(metric).reversed().thenComparing(HotMethodDto::method))
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+}
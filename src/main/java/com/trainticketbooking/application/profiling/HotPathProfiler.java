@@ -0,0 +1,191 @@
+package com.trainticketbooking.application.profiling;
+
+import com.trainticketbooking.application.dto.HotPathProfileDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Continuous profiling with JDK Flight Recorder, for finding out in production which booking methods dominate CPU
+ * time, allocation and lock contention without attaching a profiler.
+ * <p>
+ * When {@code booking.profiling.enabled} is set, a {@link RecordingStream} takes CPU samples every
+ * {@code booking.profiling.cpu-sample-period-ms}, samples allocations at up to
+ * {@code booking.profiling.allocation-samples-per-second} and records waits of at least
+ * {@code booking.profiling.contention-threshold-ms} to enter a monitor or acquire a lock. Each event is attributed
+ * to the innermost frame of its stack that belongs to one of {@code booking.profiling.packages}, so time spent in
+ * library code counts towards the booking method that called it, and summed over the last
+ * {@code booking.profiling.window-seconds}. Events are handled on the stream's own thread, away from the requests.
+ */
+@Component
+public class HotPathProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(HotPathProfiler.class);
+    private static final int WINDOW_BUCKETS = 10;
+    private static final Duration RETAINED_RECORDING = Duration.ofSeconds(30);
+
+    private final boolean enabled;
+    private final List<String> packagePrefixes;
+    private final Duration cpuSamplePeriod;
+    private final int allocationSamplesPerSecond;
+    private final Duration contentionThreshold;
+    private final HotPathProfile profile;
+    private final LongSupplier clock;
+
+    private RecordingStream recordingStream;
+
+    @Autowired
+    public HotPathProfiler(@Value("${booking.profiling.enabled:false}") boolean enabled,
+                           @Value("${booking.profiling.packages:com.trainticketbooking.application.service,"
+                                   + "com.trainticketbooking.application.controller,"
+                                   + "com.trainticketbooking.application.util}") String packages,
+                           @Value("${booking.profiling.window-seconds:300}") int windowSeconds,
+                           @Value("${booking.profiling.cpu-sample-period-ms:20}") long cpuSamplePeriodMs,
+                           @Value("${booking.profiling.allocation-samples-per-second:150}")
+                           int allocationSamplesPerSecond,
+                           @Value("${booking.profiling.contention-threshold-ms:1}") long contentionThresholdMs) {
+        this(enabled, packages, windowSeconds, cpuSamplePeriodMs, allocationSamplesPerSecond, contentionThresholdMs,
+                System::currentTimeMillis);
+    }
+
+    HotPathProfiler(boolean enabled,
+                    String packages,
+                    int windowSeconds,
+                    long cpuSamplePeriodMs,
+                    int allocationSamplesPerSecond,
+                    long contentionThresholdMs,
+                    LongSupplier clock) {
+        this.enabled = enabled;
+        this.packagePrefixes = Arrays.stream(packages.split(","))
+                .map(String::trim)
+                .filter(prefix -> !prefix.isEmpty())
+                .map(prefix -> prefix + ".")
+                .toList();
+        this.cpuSamplePeriod = Duration.ofMillis(Math.max(1, cpuSamplePeriodMs));
+        this.allocationSamplesPerSecond = Math.max(1, allocationSamplesPerSecond);
+        this.contentionThreshold = Duration.ofMillis(Math.max(0, contentionThresholdMs));
+        long windowMillis = Math.max(WINDOW_BUCKETS, windowSeconds * 1000L);
+        this.profile = new HotPathProfile(WINDOW_BUCKETS, windowMillis / WINDOW_BUCKETS);
+        this.clock = clock;
+    }
+
+    /**
+     * Start the recording if profiling is enabled.
+     */
+    @PostConstruct
+    public synchronized void startIfEnabled() {
+        if (!enabled || recordingStream != null) {
+            return;
+        }
+        RecordingStream stream = new RecordingStream();
+        stream.setMaxAge(RETAINED_RECORDING);
+        stream.enable("jdk.ExecutionSample").withPeriod(cpuSamplePeriod).withStackTrace();
+        stream.enable("jdk.ObjectAllocationSample")
+                .with("throttle", allocationSamplesPerSecond + "/s")
+                .withStackTrace();
+        stream.enable("jdk.JavaMonitorEnter").withThreshold(contentionThreshold).withStackTrace();
+        stream.enable("jdk.ThreadPark").withThreshold(contentionThreshold).withStackTrace();
+        stream.onEvent("jdk.ExecutionSample", event ->
+                profile.recordCpuSample(hotMethod(event), timeMillis(event)));
+        stream.onEvent("jdk.ObjectAllocationSample", event ->
+                profile.recordAllocation(hotMethod(event), event.getLong("weight"), timeMillis(event)));
+        stream.onEvent("jdk.JavaMonitorEnter", event ->
+                profile.recordContention(hotMethod(event), event.getDuration().toNanos(), timeMillis(event)));
+        stream.onEvent("jdk.ThreadPark", event -> {
+            if (isLockWait(event)) {
+                profile.recordContention(hotMethod(event), event.getDuration().toNanos(), timeMillis(event));
+            }
+        });
+        stream.startAsync();
+        recordingStream = stream;
+        log.info("Profiling {} with Flight Recorder", packagePrefixes);
+    }
+
+    /**
+     * Stop the recording.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    /**
+     * Check whether the recording is running.
+     *
+     * @return True if samples are being collected.
+     */
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    /**
+     * Sum the samples of the profiling window.
+     *
+     * @param limit The largest number of methods to list for each kind of sample.
+     * @return The totals and the booking methods with the most CPU samples, allocation and lock contention.
+     */
+    public HotPathProfileDto hotPaths(int limit) {
+        return profile.snapshot(clock.getAsLong(), limit);
+    }
+
+    /**
+     * Find the innermost frame of the event's stack in the profiled packages.
+     *
+     * @param event The recorded event.
+     * @return The method as the class name followed by the method name, or null if no frame is profiled.
+     */
+    private String hotMethod(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            RecordedMethod method = frame.getMethod();
+            if (method != null && method.getType() != null && isProfiled(method.getType().getName())) {
+                return method.getType().getName() + "." + method.getName();
+            }
+        }
+        return null;
+    }
+
+    private boolean isProfiled(String className) {
+        for (String prefix : packagePrefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Park events also cover idle threads waiting for work; only waits for a lock count as contention.
+     */
+    private static boolean isLockWait(RecordedEvent event) {
+        RecordedClass parkedClass = event.getClass("parkedClass");
+        return parkedClass != null
+                && parkedClass.getName().startsWith("java.util.concurrent.locks.")
+                && !parkedClass.getName().endsWith("$ConditionObject");
+    }
+
+    private static long timeMillis(RecordedEvent event) {
+        return event.getEndTime().toEpochMilli();
+    }
+}
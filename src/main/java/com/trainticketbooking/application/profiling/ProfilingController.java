@@ -0,0 +1,51 @@
+package com.trainticketbooking.application.profiling;
+
+import com.trainticketbooking.application.common.ApiDocumentationTags;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.dto.HotPathProfileDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Operator endpoints for the continuous profile of this node.
+ */
+@RestController
+@RequestMapping("/profiling")
+public class ProfilingController {
+
+    private final HotPathProfiler hotPathProfiler;
+
+    public ProfilingController(HotPathProfiler hotPathProfiler) {
+        this.hotPathProfiler = hotPathProfiler;
+    }
+
+    /**
+     * Endpoint for fetching the booking methods that dominate CPU time, allocation and lock contention.
+     *
+     * @param limit The largest number of methods to list for each kind of sample.
+     * @return ResponseEntity containing the hot paths over the profiling window.
+     */
+    @GetMapping("/hot-paths")
+    @Operation(summary = ApiDocumentationTags.FETCH_HOT_PATHS,
+            description = ApiDocumentationTags.FETCH_HOT_PATHS_DESCRIPTION,
+            tags = ApiDocumentationTags.PROFILING)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.HOT_PATHS_FETCHED)
+    @ApiResponse(responseCode = "409", description = ApiResponseMessages.PROFILING_DISABLED)
+    public ResponseEntity<CustomApiResponse<HotPathProfileDto>> getHotPaths(
+            @RequestParam(defaultValue = "10") int limit) {
+        if (!hotPathProfiler.isRunning()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new CustomApiResponse<>(HttpStatus.CONFLICT.value(),
+                            ApiResponseMessages.PROFILING_DISABLED, null));
+        }
+        return ResponseEntity.ok(new CustomApiResponse<>(HttpStatus.OK.value(),
+                ApiResponseMessages.HOT_PATHS_FETCHED, hotPathProfiler.hotPaths(limit)));
+    }
+}
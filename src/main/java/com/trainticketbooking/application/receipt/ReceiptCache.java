@@ -0,0 +1,104 @@
+package com.trainticketbooking.application.receipt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.repository.BookingRepository;
+import com.trainticketbooking.application.service.BookingChangeListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Size-bounded cache of rendered receipts, keyed by ticket ID and booking version.
+ * <p>
+ * Receipts are rendered in the background as soon as a ticket is purchased, moved to another seat or discounted, and
+ * the receipt of the previous version is dropped. A fetch renders the receipt itself only when the background
+ * rendering has not finished yet, was skipped because more than {@code booking.receipt.render-queue-size} receipts
+ * were waiting, or was evicted. Hit, miss and eviction counts are published under the {@code cache.*} metrics with
+ * {@code cache=receipts}.
+ */
+@Component
+public class ReceiptCache implements BookingChangeListener {
+
+    private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
+    private final ReceiptRenderer receiptRenderer;
+    private final Cache<ReceiptKey, RenderedReceipt> receipts;
+    private final ThreadPoolExecutor renderers;
+
+    public ReceiptCache(BookingRepository bookingRepository,
+                        BookingArchive bookingArchive,
+                        ReceiptRenderer receiptRenderer,
+                        @Value("${booking.receipt.cache-size:10000}") long cacheSize,
+                        @Value("${booking.receipt.render-threads:1}") int renderThreads,
+                        @Value("${booking.receipt.render-queue-size:1000}") int renderQueueSize,
+                        MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchive = bookingArchive;
+        this.receiptRenderer = receiptRenderer;
+        this.receipts = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.renderers = new ThreadPoolExecutor(renderThreads, renderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(renderQueueSize), runnable -> {
+            Thread thread = new Thread(runnable, "receipt-renderer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+        CaffeineCacheMetrics.monitor(meterRegistry, receipts, "receipts");
+    }
+
+    /**
+     * Stop rendering in the background.
+     */
+    @PreDestroy
+    public void stop() {
+        renderers.shutdownNow();
+    }
+
+    @Override
+    public void onBookingChange(BookingChange change) {
+        if (change.before() != null) {
+            receipts.invalidate(keyOf(change.before()));
+        }
+        TicketBooking after = change.after();
+        if (after != null) {
+            renderers.execute(() -> receipts.get(keyOf(after), key -> receiptRenderer.render(after)));
+        }
+    }
+
+    /**
+     * Get the receipt of the current version of a ticket, rendering it if it is not cached. Tickets of completed
+     * journeys are read from the {@link BookingArchive}.
+     *
+     * @param ticketId The ID of the ticket.
+     * @return The receipt, or empty if the ticket does not exist.
+     */
+    public Optional<RenderedReceipt> receiptFor(Integer ticketId) {
+        return bookingRepository.findById(ticketId)
+                .map(TicketBooking::copy)
+                .or(() -> bookingArchive.findById(ticketId))
+                .map(ticketBooking -> receipts.get(keyOf(ticketBooking),
+                        key -> receiptRenderer.render(ticketBooking)));
+    }
+
+    private ReceiptKey keyOf(TicketBooking ticketBooking) {
+        return new ReceiptKey(ticketBooking.getTicketId(), ticketBooking.getVersion());
+    }
+
+    private record ReceiptKey(Integer ticketId, long version) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.trainticketbooking.application.receipt;
+
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Renders ticket receipts as HTML and plain text, with a QR payload that a gate scanner holding the signing key can
+ * check offline.
+ * <p>
+ * The QR payload is {@code TB2.<data>.<signature>}: {@code data} is the unpadded base64url encoding of the ticket ID,
+ * route, passenger, section, seat and price in minor units joined by {@code |}, and {@code signature} is the unpadded
+ * base64url encoding of the HMAC-SHA256 of {@code data} under {@code booking.receipt.signing-key}. Without a signing
+ * key the payload is just {@code TB2.<data>}, which a scanner cannot tell from a forged one.
+ */
+@Component
+public class ReceiptRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptRenderer.class);
+
+    private static final String QR_PREFIX = "TB2.";
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec signingKey;
+
+    public ReceiptRenderer(@Value("${booking.receipt.signing-key:}") String signingKey) {
+        if (signingKey.isBlank()) {
+            log.warn("booking.receipt.signing-key is not set, receipt QR payloads are not signed");
+            this.signingKey = null;
+        } else {
+            this.signingKey = new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM);
+        }
+    }
+
+    /**
+     * Render the receipt of a booking.
+     *
+     * @param ticketBooking The booking.
+     * @return The rendered receipt.
+     */
+    public RenderedReceipt render(TicketBooking ticketBooking) {
+        String qrPayload = qrPayload(ticketBooking);
+        return new RenderedReceipt(ticketBooking.getTicketId(), ticketBooking.getVersion(),
+                html(ticketBooking, qrPayload).getBytes(StandardCharsets.UTF_8),
+                text(ticketBooking, qrPayload).getBytes(StandardCharsets.UTF_8),
+                qrPayload);
+    }
+
+    private static String html(TicketBooking ticketBooking, String qrPayload) {
+        return "<!DOCTYPE html>\n"
+                + "<html><head><meta charset=\"utf-8\"><title>Ticket " + ticketBooking.getTicketId()
+                + "</title></head>\n<body>\n<h1>Train ticket receipt</h1>\n<table>\n"
+                + row("Ticket", String.valueOf(ticketBooking.getTicketId()))
+                + row("Passenger", ticketBooking.getUserName())
+                + row("Email", ticketBooking.getUserEmail())
+                + row("From", ticketBooking.getFrom())
+                + row("To", ticketBooking.getTo())
+                + row("Section", ticketBooking.getSection())
+                + row("Seat", ticketBooking.getSeatNumber() != null ? ticketBooking.getSeatNumber().toString() : null)
+                + row("Price paid", price(ticketBooking.getPricePaid()))
+                + "</table>\n<p class=\"qr\" data-qr=\"" + qrPayload + "\">" + qrPayload + "</p>\n</body></html>\n";
+    }
+
+    private static String row(String label, String value) {
+        return "<tr><th>" + label + "</th><td>" + (value != null ? HtmlUtils.htmlEscape(value) : "") + "</td></tr>\n";
+    }
+
+    private static String text(TicketBooking ticketBooking, String qrPayload) {
+        return "TRAIN TICKET RECEIPT\n"
+                + line("Ticket", String.valueOf(ticketBooking.getTicketId()))
+                + line("Passenger", ticketBooking.getUserName())
+                + line("Email", ticketBooking.getUserEmail())
+                + line("From", ticketBooking.getFrom())
+                + line("To", ticketBooking.getTo())
+                + line("Section", ticketBooking.getSection())
+                + line("Seat", ticketBooking.getSeatNumber() != null ? ticketBooking.getSeatNumber().toString() : null)
+                + line("Price paid", price(ticketBooking.getPricePaid()))
+                + line("QR", qrPayload);
+    }
+
+    private static String line(String label, String value) {
+        return String.format("%-12s%s%n", label + ":", value != null ? value : "");
+    }
+
+    private static String price(Money price) {
+        return price != null ? price.currency().getCurrencyCode() + " " + price.toPlainString() : null;
+    }
+
+    private String qrPayload(TicketBooking ticketBooking) {
+        String data = String.join("|",
+                String.valueOf(ticketBooking.getTicketId()),
+                String.valueOf(ticketBooking.getFrom()),
+                String.valueOf(ticketBooking.getTo()),
+                String.valueOf(ticketBooking.getUserName()),
+                String.valueOf(ticketBooking.getSection()),
+                String.valueOf(ticketBooking.getSeatNumber()),
+                ticketBooking.getPricePaid() != null ? Long.toString(ticketBooking.getPricePaid().minorUnits()) : "");
+        String encoded = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(data.getBytes(StandardCharsets.UTF_8));
+        if (signingKey == null) {
+            return QR_PREFIX + encoded;
+        }
+        return QR_PREFIX + encoded + "." + sign(encoded);
+    }
+
+    private String sign(String data) {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(signingKey);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(data.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign receipt QR payload", e);
+        }
+    }
+}
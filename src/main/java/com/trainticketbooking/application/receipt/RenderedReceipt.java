@@ -0,0 +1,13 @@
+package com.trainticketbooking.application.receipt;
+
+/**
+ * A receipt rendered for one version of a booking, already encoded as UTF-8 so it can be written out as it is.
+ *
+ * @param ticketId  The ID of the ticket.
+ * @param version   The version of the booking the receipt was rendered from.
+ * @param html      The receipt as an HTML page.
+ * @param text      The receipt as plain text.
+ * @param qrPayload The payload to encode in the receipt's QR code.
+ */
+public record RenderedReceipt(Integer ticketId, long version, byte[] html, byte[] text, String qrPayload) {
+}
@@ -0,0 +1,82 @@
+package com.trainticketbooking.application.replication;
+
+import com.trainticketbooking.application.common.ApiDocumentationTags;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.dto.ReplicationStatusDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Operator endpoints for inspecting replication and promoting a replica after the primary failed.
+ */
+@RestController
+@RequestMapping("/replication")
+public class ReplicationController {
+
+    private final ReplicationState replicationState;
+    private final ObjectProvider<ReplicationFollower> replicationFollower;
+
+    public ReplicationController(ReplicationState replicationState,
+                                 ObjectProvider<ReplicationFollower> replicationFollower) {
+        this.replicationState = replicationState;
+        this.replicationFollower = replicationFollower;
+    }
+
+    /**
+     * Endpoint for fetching the replication status of this node.
+     *
+     * @return ResponseEntity containing the replication status.
+     */
+    @GetMapping("/status")
+    @Operation(summary = ApiDocumentationTags.FETCH_REPLICATION_STATUS,
+            description = ApiDocumentationTags.FETCH_REPLICATION_STATUS_DESCRIPTION,
+            tags = ApiDocumentationTags.REPLICATION)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.REPLICATION_STATUS_FETCHED)
+    public ResponseEntity<CustomApiResponse<ReplicationStatusDto>> getStatus() {
+        return ResponseEntity.ok(new CustomApiResponse<>(HttpStatus.OK.value(),
+                ApiResponseMessages.REPLICATION_STATUS_FETCHED, status()));
+    }
+
+    /**
+     * Endpoint for promoting this replica to primary.
+     *
+     * @return ResponseEntity containing the replication status after the promotion.
+     */
+    @PostMapping("/promote")
+    @Operation(summary = ApiDocumentationTags.PROMOTE_REPLICA,
+            description = ApiDocumentationTags.PROMOTE_REPLICA_DESCRIPTION,
+            tags = ApiDocumentationTags.REPLICATION)
+    @ApiResponse(responseCode = "200", description = ApiResponseMessages.REPLICA_PROMOTED)
+    @ApiResponse(responseCode = "409", description = ApiResponseMessages.NOT_A_REPLICA)
+    public ResponseEntity<CustomApiResponse<ReplicationStatusDto>> promote() {
+        ReplicationFollower follower = replicationFollower.getIfAvailable();
+        try {
+            if (follower == null || !follower.promote()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new CustomApiResponse<>(HttpStatus.CONFLICT.value(),
+                                ApiResponseMessages.NOT_A_REPLICA, status()));
+            }
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new CustomApiResponse<>(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                            e.getMessage(), status()));
+        }
+        return ResponseEntity.ok(new CustomApiResponse<>(HttpStatus.OK.value(),
+                ApiResponseMessages.REPLICA_PROMOTED, status()));
+    }
+
+    private ReplicationStatusDto status() {
+        return new ReplicationStatusDto(replicationState.getRole().name(), replicationState.servesReads(),
+                replicationState.getAppliedSequence(), replicationState.stalenessMs());
+    }
+}
@@ -0,0 +1,209 @@
+package com.trainticketbooking.application.replication;
+
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.BookingCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Replica side of replication. Connects to the primary's replication port, applies the streamed changes to the
+ * local booking store and seat inventory in order, and reconnects after
+ * {@code booking.replication.reconnect-delay-ms} if the connection drops, resuming where it left off. A change that
+ * cannot be applied, for example because the local store rejects it, leaves the copy in doubt: the replica then stops
+ * serving reads, drops the connection and asks for a fresh snapshot when it reconnects.
+ * <p>
+ * A replica is promoted to primary through {@link #promote()}, or on its own once the primary has been unreachable
+ * for {@code booking.replication.auto-promote-after-ms} (0 disables this). Only a replica that has completed a
+ * snapshot is ever promoted automatically.
+ */
+@Component
+@ConditionalOnExpression("'${booking.replication.role:standalone}' != 'standalone'")
+public class ReplicationFollower {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationFollower.class);
+
+    private final ReplicationState replicationState;
+    private final ReplicationPublisher replicationPublisher;
+    private final TicketBookingService ticketBookingService;
+    private final BookingCodec bookingCodec;
+    private final String primaryHost;
+    private final int primaryPort;
+    private final int readTimeoutMs;
+    private final long reconnectDelayMs;
+    private final long autoPromoteAfterMs;
+
+    private volatile boolean running;
+    private volatile Socket socket;
+    private Thread follower;
+
+    public ReplicationFollower(ReplicationState replicationState,
+                               ReplicationPublisher replicationPublisher,
+                               TicketBookingService ticketBookingService,
+                               BookingCodec bookingCodec,
+                               @Value("${booking.replication.primary-host:127.0.0.1}") String primaryHost,
+                               @Value("${booking.replication.primary-port:7400}") int primaryPort,
+                               @Value("${booking.replication.heartbeat-ms:200}") long heartbeatMs,
+                               @Value("${booking.replication.reconnect-delay-ms:500}") long reconnectDelayMs,
+                               @Value("${booking.replication.auto-promote-after-ms:0}") long autoPromoteAfterMs) {
+        this.replicationState = replicationState;
+        this.replicationPublisher = replicationPublisher;
+        this.ticketBookingService = ticketBookingService;
+        this.bookingCodec = bookingCodec;
+        this.primaryHost = primaryHost;
+        this.primaryPort = primaryPort;
+        this.readTimeoutMs = (int) Math.max(heartbeatMs * 5, 1000);
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.autoPromoteAfterMs = autoPromoteAfterMs;
+    }
+
+    /**
+     * Start following the primary if this node is a replica.
+     */
+    @PostConstruct
+    public synchronized void startIfReplica() {
+        if (replicationState.getRole() == ReplicationState.Role.REPLICA) {
+            running = true;
+            follower = new Thread(this::follow, "replication-follower");
+            follower.setDaemon(true);
+            follower.start();
+        }
+    }
+
+    /**
+     * Stop following the primary.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        closeSocket();
+        if (follower != null) {
+            follower.interrupt();
+        }
+    }
+
+    /**
+     * Stop following the primary, accept writes and start publishing changes to other replicas.
+     *
+     * @return False if this node is not a replica.
+     * @throws IOException if the replication port cannot be bound; the node is a primary regardless.
+     */
+    public synchronized boolean promote() throws IOException {
+        if (replicationState.getRole() != ReplicationState.Role.REPLICA) {
+            return false;
+        }
+        stop();
+        replicationState.promote();
+        log.info("Promoted to primary at sequence {}", replicationState.getAppliedSequence());
+        replicationPublisher.start();
+        return true;
+    }
+
+    private void follow() {
+        long lastContactMillis = System.currentTimeMillis();
+        while (running) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(new InetSocketAddress(primaryHost, primaryPort), readTimeoutMs);
+                connection.setSoTimeout(readTimeoutMs);
+                connection.setTcpNoDelay(true);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+                out.writeLong(replicationState.getEpoch());
+                out.writeLong(replicationState.getAppliedSequence());
+                out.flush();
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+                while (running) {
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    if (!applyOrResync(bytes)) {
+                        break;
+                    }
+                    lastContactMillis = System.currentTimeMillis();
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.debug("Lost connection to primary {}:{}", primaryHost, primaryPort, e);
+                }
+            }
+            if (running && autoPromoteAfterMs > 0 && replicationState.isSynced()
+                    && System.currentTimeMillis() - lastContactMillis >= autoPromoteAfterMs) {
+                promoteQuietly();
+                return;
+            }
+            sleepBeforeReconnect();
+        }
+    }
+
+    /**
+     * Apply a received frame.
+     *
+     * @return False if the frame could not be applied and the replica must be resynchronized.
+     */
+    private boolean applyOrResync(byte[] bytes) {
+        try {
+            apply(bookingCodec.decode(bytes, ReplicationFrame.class));
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Applying a change from the primary after sequence {} failed; resyncing from a fresh snapshot",
+                    replicationState.getAppliedSequence(), e);
+            replicationState.resyncRequired();
+            return false;
+        }
+    }
+
+    private void apply(ReplicationFrame frame) {
+        switch (frame.type()) {
+            case SNAPSHOT_START -> {
+                replicationState.snapshotStarted(frame.epoch());
+                ticketBookingService.clearReplicatedState();
+            }
+            case SAVE -> ticketBookingService.applyReplicatedBooking(frame.booking());
+            case SAVE_ALL -> ticketBookingService.applyReplicatedBookings(frame.bookings());
+            case DELETE -> ticketBookingService.applyReplicatedCancellation(frame.ticketId());
+            case SNAPSHOT_END, HEARTBEAT -> {
+                // Nothing to apply; only moves the replica's position.
+            }
+        }
+        replicationState.applied(frame.sequence(), frame.type() == ReplicationFrame.Type.SNAPSHOT_END);
+    }
+
+    private void promoteQuietly() {
+        try {
+            promote();
+        } catch (IOException e) {
+            log.error("Promoted to primary but could not publish changes", e);
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void closeSocket() {
+        Socket connection = socket;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                // Closing only unblocks the follower thread.
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.trainticketbooking.application.replication;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.trainticketbooking.application.domain.TicketBooking;
+
+import java.util.List;
+
+/**
+ * One message of the replication stream, sent CBOR encoded behind a four byte length.
+ *
+ * @param sequence  Position in the primary's change log; for snapshot and heartbeat frames the position they
+ *                  bring the replica up to.
+ * @param type      The kind of frame.
+ * @param epoch     Identifies the primary's log; only set on {@link Type#SNAPSHOT_START}.
+ * @param booking   The booking as stored after the change; only set on {@link Type#SAVE}.
+ * @param ticketId  The cancelled ticket; only set on {@link Type#DELETE}.
+ * @param bookings  The bookings as stored after a change of several tickets made in one step, such as a seat
+ *                  exchange; only set on {@link Type#SAVE_ALL}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReplicationFrame(long sequence, Type type, Long epoch, TicketBooking booking, Integer ticketId,
+                               List<TicketBooking> bookings) {
+
+    /**
+     * The kind of frame.
+     */
+    public enum Type {
+        SAVE,
+        SAVE_ALL,
+        DELETE,
+        SNAPSHOT_START,
+        SNAPSHOT_END,
+        HEARTBEAT
+    }
+
+    static ReplicationFrame save(long sequence, TicketBooking booking) {
+        return new ReplicationFrame(sequence, Type.SAVE, null, booking, null, null);
+    }
+
+    static ReplicationFrame saveAll(long sequence, List<TicketBooking> bookings) {
+        return new ReplicationFrame(sequence, Type.SAVE_ALL, null, null, null, bookings);
+    }
+
+    static ReplicationFrame delete(long sequence, Integer ticketId) {
+        return new ReplicationFrame(sequence, Type.DELETE, null, null, ticketId, null);
+    }
+
+    static ReplicationFrame marker(long sequence, Type type) {
+        return new ReplicationFrame(sequence, type, null, null, null, null);
+    }
+}
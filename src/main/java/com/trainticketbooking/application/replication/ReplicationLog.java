@@ -0,0 +1,57 @@
+package com.trainticketbooking.application.replication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded, in-order log of the most recent replication frames. A replica that falls further behind than the log
+ * reaches is sent a snapshot instead.
+ */
+class ReplicationLog {
+
+    private final ReplicationFrame[] frames;
+    private long lastSequence;
+
+    ReplicationLog(int capacity) {
+        this.frames = new ReplicationFrame[capacity];
+    }
+
+    /**
+     * Append a frame built for the next sequence number and wake up waiting readers.
+     *
+     * @param frameFactory Builds the frame from its sequence number.
+     */
+    synchronized void append(LongFunction<ReplicationFrame> frameFactory) {
+        lastSequence++;
+        frames[(int) (lastSequence % frames.length)] = frameFactory.apply(lastSequence);
+        notifyAll();
+    }
+
+    synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Get the frames following the given sequence number, waiting up to the given time if there are none yet.
+     *
+     * @param sequence The last sequence number the reader has.
+     * @param waitMs   How long to wait for new frames.
+     * @return The frames in order, an empty list if none arrived in time, or null if the frames following the
+     * sequence number are no longer (or were never) in the log.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    synchronized List<ReplicationFrame> readAfter(long sequence, long waitMs) throws InterruptedException {
+        if (sequence == lastSequence) {
+            wait(waitMs);
+        }
+        if (sequence > lastSequence || lastSequence - sequence > frames.length) {
+            return null;
+        }
+        List<ReplicationFrame> result = new ArrayList<>((int) (lastSequence - sequence));
+        for (long next = sequence + 1; next <= lastSequence; next++) {
+            result.add(frames[(int) (next % frames.length)]);
+        }
+        return result;
+    }
+}
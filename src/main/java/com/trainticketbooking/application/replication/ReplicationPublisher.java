@@ -0,0 +1,235 @@
+package com.trainticketbooking.application.replication;
+
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.repository.BookingRepository;
+import com.trainticketbooking.application.service.BookingChangeListener;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.BookingCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Primary side of replication. Every booking change is appended to a bounded {@link ReplicationLog} as it is
+ * applied, and streamed in order to each connected replica over a plain TCP socket, one CBOR frame per change
+ * carrying the booking as stored after the change (or the ID of a cancelled or archived ticket; archives are kept by
+ * the node that wrote them). Tickets moved together, as by a seat exchange, share one frame, so a replica stores them
+ * together too and never holds two tickets on one seat.
+ * <p>
+ * A connecting replica sends the epoch and sequence number it is up to. If it belongs to this primary's log and is
+ * still within reach of it, streaming resumes from there; otherwise the replica first gets a snapshot of every
+ * booking, taken while no change can be applied. Idle connections get a heartbeat every
+ * {@code booking.replication.heartbeat-ms} so replicas can tell how current they are.
+ * A replica starts publishing when it is promoted.
+ */
+@Component
+@ConditionalOnExpression("'${booking.replication.role:standalone}' != 'standalone'")
+public class ReplicationPublisher implements BookingChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationPublisher.class);
+
+    private final ReplicationState replicationState;
+    private final BookingRepository bookingRepository;
+    private final ObjectProvider<TicketBookingService> ticketBookingService;
+    private final BookingCodec bookingCodec;
+    private final String bindAddress;
+    private final int port;
+    private final long heartbeatMs;
+    private final ReplicationLog replicationLog;
+    private final Set<Socket> replicas = ConcurrentHashMap.newKeySet();
+
+    private volatile long epoch;
+    private volatile ServerSocket serverSocket;
+
+    public ReplicationPublisher(ReplicationState replicationState,
+                                BookingRepository bookingRepository,
+                                ObjectProvider<TicketBookingService> ticketBookingService,
+                                BookingCodec bookingCodec,
+                                @Value("${booking.replication.bind-address:127.0.0.1}") String bindAddress,
+                                @Value("${booking.replication.port:7400}") int port,
+                                @Value("${booking.replication.heartbeat-ms:200}") long heartbeatMs,
+                                @Value("${booking.replication.log-size:10000}") int logSize) {
+        this.replicationState = replicationState;
+        this.bookingRepository = bookingRepository;
+        this.ticketBookingService = ticketBookingService;
+        this.bookingCodec = bookingCodec;
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.heartbeatMs = heartbeatMs;
+        this.replicationLog = new ReplicationLog(logSize);
+    }
+
+    /**
+     * Start accepting replicas if this node is the primary.
+     */
+    @PostConstruct
+    public void startIfPrimary() throws IOException {
+        if (replicationState.getRole() == ReplicationState.Role.PRIMARY) {
+            start();
+        }
+    }
+
+    /**
+     * Start a new log and accept replicas on the replication port.
+     *
+     * @throws IOException if the port cannot be bound.
+     */
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            return;
+        }
+        epoch = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getByName(bindAddress), port));
+        Thread acceptor = new Thread(this::acceptReplicas, "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Publishing booking changes on {}:{}", bindAddress, serverSocket.getLocalPort());
+    }
+
+    /**
+     * Stop accepting replicas and disconnect the connected ones.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        closeQuietly(serverSocket);
+        replicas.forEach(ReplicationPublisher::closeQuietly);
+        serverSocket = null;
+    }
+
+    /**
+     * Get the port replicas connect to.
+     *
+     * @return The bound port, or -1 if not publishing.
+     */
+    public int getLocalPort() {
+        ServerSocket socket = serverSocket;
+        return socket != null ? socket.getLocalPort() : -1;
+    }
+
+    @Override
+    public void onBookingChange(BookingChange change) {
+        if (serverSocket == null || change.replicated()) {
+            return;
+        }
+        if (change.after() == null) {
+            replicationLog.append(sequence -> ReplicationFrame.delete(sequence, change.ticketId()));
+        } else {
+            replicationLog.append(sequence -> ReplicationFrame.save(sequence, change.after()));
+        }
+    }
+
+    @Override
+    public void onBookingChanges(List<BookingChange> changes) {
+        if (changes.size() == 1) {
+            onBookingChange(changes.get(0));
+            return;
+        }
+        if (serverSocket == null || changes.stream().anyMatch(BookingChange::replicated)) {
+            return;
+        }
+        List<TicketBooking> bookings = changes.stream().map(BookingChange::after).toList();
+        replicationLog.append(sequence -> ReplicationFrame.saveAll(sequence, bookings));
+    }
+
+    private void acceptReplicas() {
+        ServerSocket socket = serverSocket;
+        while (socket != null && !socket.isClosed()) {
+            try {
+                Socket replica = socket.accept();
+                replica.setTcpNoDelay(true);
+                replicas.add(replica);
+                Thread sender = new Thread(() -> serve(replica), "replication-sender-" + replica.getPort());
+                sender.setDaemon(true);
+                sender.start();
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Failed to accept replica", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket replica) {
+        try (replica) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(replica.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(replica.getOutputStream()));
+            long replicaEpoch = in.readLong();
+            long cursor = in.readLong();
+            if (replicaEpoch != epoch) {
+                cursor = sendSnapshot(out);
+            }
+            while (!replica.isClosed()) {
+                List<ReplicationFrame> frames = replicationLog.readAfter(cursor, heartbeatMs);
+                if (frames == null) {
+                    cursor = sendSnapshot(out);
+                } else if (frames.isEmpty()) {
+                    write(out, ReplicationFrame.marker(cursor, ReplicationFrame.Type.HEARTBEAT));
+                } else {
+                    for (ReplicationFrame frame : frames) {
+                        write(out, frame);
+                    }
+                    cursor = frames.get(frames.size() - 1).sequence();
+                }
+                out.flush();
+            }
+        } catch (EOFException | SocketException e) {
+            log.info("Replica {} disconnected", replica.getRemoteSocketAddress());
+        } catch (IOException e) {
+            log.warn("Replication to {} failed", replica.getRemoteSocketAddress(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            replicas.remove(replica);
+        }
+    }
+
+    private long sendSnapshot(DataOutputStream out) throws IOException {
+        Snapshot snapshot = ticketBookingService.getObject().readConsistently(() -> new Snapshot(
+                replicationLog.lastSequence(),
+                bookingRepository.findAll().stream().map(TicketBooking::copy).toList()));
+        write(out, new ReplicationFrame(snapshot.sequence(), ReplicationFrame.Type.SNAPSHOT_START, epoch, null,
+                null, null));
+        for (TicketBooking booking : snapshot.bookings()) {
+            write(out, ReplicationFrame.save(snapshot.sequence(), booking));
+        }
+        write(out, ReplicationFrame.marker(snapshot.sequence(), ReplicationFrame.Type.SNAPSHOT_END));
+        return snapshot.sequence();
+    }
+
+    private void write(DataOutputStream out, ReplicationFrame frame) throws IOException {
+        byte[] bytes = bookingCodec.encode(frame);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            if (closeable != null) {
+                closeable.close();
+            }
+        } catch (IOException e) {
+            // Already closed or broken; nothing left to release.
+        }
+    }
+
+    private record Snapshot(long sequence, List<TicketBooking> bookings) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.trainticketbooking.application.replication;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Replication role of this node and, on a replica, how far it trails the primary.
+ * <p>
+ * A standalone node or primary serves every request. A replica rejects writes and serves reads only while it holds a
+ * complete copy of the primary's bookings and has heard from the primary within
+ * {@code booking.replication.max-staleness-ms}; the primary sends a heartbeat whenever it has no changes to send.
+ */
+@Component
+public class ReplicationState {
+
+    /**
+     * Replication role of a node.
+     */
+    public enum Role {
+        STANDALONE,
+        PRIMARY,
+        REPLICA
+    }
+
+    private final long maxStalenessMs;
+
+    private volatile Role role;
+    private volatile boolean synced;
+    private volatile long epoch;
+    private volatile long snapshotEpoch;
+    private volatile long appliedSequence;
+    private volatile long lastContactMillis;
+
+    public ReplicationState(@Value("${booking.replication.role:standalone}") String role,
+                            @Value("${booking.replication.max-staleness-ms:1000}") long maxStalenessMs) {
+        this.role = Role.valueOf(role.toUpperCase(Locale.ROOT));
+        this.maxStalenessMs = maxStalenessMs;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * Check whether this node accepts booking changes.
+     *
+     * @return False on a replica.
+     */
+    public boolean acceptsWrites() {
+        return role != Role.REPLICA;
+    }
+
+    /**
+     * Check whether this node may answer queries.
+     *
+     * @return False on a replica that has no complete copy or has not heard from the primary recently enough.
+     */
+    public boolean servesReads() {
+        return role != Role.REPLICA || (synced && stalenessMs() <= maxStalenessMs);
+    }
+
+    /**
+     * Get the time since the replica last heard from the primary.
+     *
+     * @return The staleness in milliseconds; 0 on a standalone node or primary.
+     */
+    public long stalenessMs() {
+        return role == Role.REPLICA ? System.currentTimeMillis() - lastContactMillis : 0;
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    public long getLastContactMillis() {
+        return lastContactMillis;
+    }
+
+    /**
+     * Record that a full copy of the primary's bookings is being loaded; reads are refused until it is complete,
+     * and a replica that reconnects before then asks for a new copy.
+     *
+     * @param epoch The primary's log the copy belongs to.
+     */
+    void snapshotStarted(long epoch) {
+        this.synced = false;
+        this.epoch = 0;
+        this.snapshotEpoch = epoch;
+    }
+
+    /**
+     * Record that the local copy can no longer be trusted; reads are refused and the next connection asks for a new
+     * copy.
+     */
+    void resyncRequired() {
+        this.synced = false;
+        this.epoch = 0;
+    }
+
+    /**
+     * Record a frame received from the primary.
+     *
+     * @param sequence     The sequence number the replica is now up to.
+     * @param snapshotDone Whether the frame completed a snapshot.
+     */
+    void applied(long sequence, boolean snapshotDone) {
+        this.appliedSequence = sequence;
+        this.lastContactMillis = System.currentTimeMillis();
+        if (snapshotDone) {
+            this.epoch = snapshotEpoch;
+            this.synced = true;
+        }
+    }
+
+    /**
+     * Make this replica a primary.
+     */
+    void promote() {
+        this.role = Role.PRIMARY;
+    }
+}
@@ -0,0 +1,129 @@
+package com.trainticketbooking.application.repository;
+
+import com.trainticketbooking.application.domain.TicketBooking;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage for ticket bookings. The seat inventory is kept by the service; implementations only have to
+ * persist bookings and reject a second booking for an already taken section and seat where they can.
+ */
+public interface BookingRepository {
+
+    /**
+     * Insert or update a booking.
+     *
+     * @param ticketBooking The booking to store.
+     * @return The stored booking.
+     */
+    TicketBooking save(TicketBooking ticketBooking);
+
+    /**
+     * Insert or update several bookings in one batch. Seat changes within the batch may exchange seats
+     * between the given bookings.
+     *
+     * @param ticketBookings The bookings to store.
+     */
+    void saveAll(Collection<TicketBooking> ticketBookings);
+
+    /**
+     * Find a booking by its ticket ID.
+     *
+     * @param ticketId The ticket ID.
+     * @return The booking, if present.
+     */
+    Optional<TicketBooking> findById(Integer ticketId);
+
+    /**
+     * Find all bookings made with the given email, ignoring case.
+     *
+     * @param userEmail The email of the user.
+     * @return The bookings of the user.
+     */
+    List<TicketBooking> findByUserEmail(String userEmail);
+
+    /**
+     * Find all bookings in the given section, ignoring case.
+     *
+     * @param section The section (e.g., "A", "B").
+     * @return The bookings in the section.
+     */
+    List<TicketBooking> findBySection(String section);
+
+    /**
+     * Find the first booking made under the given username, ignoring case.
+     *
+     * @param userName The username.
+     * @return The booking, if present.
+     */
+    Optional<TicketBooking> findFirstByUserName(String userName);
+
+    /**
+     * Get every stored booking.
+     *
+     * @return All bookings.
+     */
+    Collection<TicketBooking> findAll();
+
+    /**
+     * Pass every stored booking, or every booking of one section, to the given action one at a time, without
+     * loading them all into memory first. Bookings are visited in no particular order.
+     *
+     * @param section The section (e.g., "A", "B"), ignoring case, or null for all sections.
+     * @param action  The action to run for each booking.
+     */
+    void scan(String section, Consumer<TicketBooking> action);
+
+    /**
+     * Delete a booking by its ticket ID.
+     *
+     * @param ticketId The ticket ID.
+     * @return True if a booking was deleted, false otherwise.
+     */
+    boolean deleteById(Integer ticketId);
+
+    /**
+     * Delete several bookings in one batch.
+     *
+     * @param ticketIds The ticket IDs to delete.
+     */
+    void deleteAllById(Collection<Integer> ticketIds);
+
+    /**
+     * Count the stored bookings.
+     *
+     * @return The number of bookings.
+     */
+    long count();
+
+    /**
+     * Register a listener for writes this repository acknowledged but the store behind it rejected later. Only a
+     * store writing behind can reject a write after acknowledging it; the others throw from the write itself and
+     * ignore the listener.
+     *
+     * @param listener Called with the rejected bookings, which were not stored.
+     */
+    default void onRejectedWrites(Consumer<List<TicketBooking>> listener) {
+    }
+
+    /**
+     * Get the highest ticket sequence number recorded for a node, see {@link #recordIssuedSequence(String, long)}.
+     *
+     * @param nodeId The ID of the node issuing the tickets.
+     * @return The sequence number, or 0 if none was recorded.
+     */
+    long findIssuedSequence(String nodeId);
+
+    /**
+     * Record that a node may have issued ticket sequence numbers up to the given one, so that their ticket IDs are
+     * not issued again after a restart, even when their bookings have been deleted since. The recorded number never
+     * goes down.
+     *
+     * @param nodeId   The ID of the node issuing the tickets.
+     * @param sequence The highest sequence number the node may have issued.
+     */
+    void recordIssuedSequence(String nodeId, long sequence);
+}
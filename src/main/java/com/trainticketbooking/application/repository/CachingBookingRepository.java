@@ -0,0 +1,443 @@
+package com.trainticketbooking.application.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trainticketbooking.application.domain.TicketBooking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Read-through, write-behind cache in front of the JDBC booking repository.
+ * <p>
+ * Bookings are held in a size-bounded Caffeine cache (W-TinyLFU eviction). Writes are acknowledged once they are
+ * queued; repeated writes of the same ticket are coalesced and the queue is flushed to the delegate in one batch
+ * every {@code booking.cache.flush-interval-ms}, or earlier once {@code booking.cache.flush-batch-size} tickets are
+ * pending. Queued writes stay readable even if the cache evicts them. The queue and the cache hold copies of the
+ * bookings taken when they are written, and reads hand out copies again, so callers can change the bookings they hold
+ * while a flush is running and the flush writes exactly what was saved. The ticket IDs of every booking are indexed by
+ * email and section, so lookups by email or section are served from the cache and the queued writes; queries the
+ * index cannot answer flush the queue first and go to the database, which remains the source of truth.
+ * <p>
+ * A write the database rejects, such as a seat already taken by another booking, is dropped instead of being retried
+ * forever: the failed batch is written again write group by write group, the groups still rejected are dropped and
+ * logged, and the listeners registered with {@link #onRejectedWrites(Consumer)} are told so they can undo them.
+ * Hit, miss and eviction counts are published under the {@code cache.*} metrics with {@code cache=bookings}.
+ */
+@Repository
+@Primary
+@ConditionalOnExpression("'${booking.repository.type:memory}' == 'jdbc' and ${booking.cache.enabled:false}")
+public class CachingBookingRepository implements BookingRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingBookingRepository.class);
+
+    private final BookingRepository delegate;
+    private final Cache<Integer, TicketBooking> cache;
+    private final long flushIntervalMs;
+    private final int flushBatchSize;
+
+    /**
+     * Latest queued write per ticket; a write without a booking is a delete.
+     */
+    private final Map<Integer, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Counter flushedWrites;
+    private final Counter rejectedWrites;
+    private final List<Consumer<List<TicketBooking>>> rejectedWriteListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Email and section of every stored or queued booking, and the ticket IDs under each of them.
+     */
+    private final Map<Integer, IndexKey> indexKeys = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> ticketIdsByEmail = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> ticketIdsBySection = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+
+    public CachingBookingRepository(@Qualifier("jdbcBookingRepository") BookingRepository delegate,
+                                    @Value("${booking.cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${booking.cache.flush-interval-ms:200}") long flushIntervalMs,
+                                    @Value("${booking.cache.flush-batch-size:500}") int flushBatchSize,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushBatchSize = flushBatchSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        delegate.scan(null, this::index);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bookings");
+        Gauge.builder("booking.cache.pending.writes", this, CachingBookingRepository::pendingWrites)
+                .description("Booking writes waiting for the next flush")
+                .register(meterRegistry);
+        this.flushedWrites = Counter.builder("booking.cache.flushed.writes")
+                .description("Booking writes flushed to the backing store")
+                .register(meterRegistry);
+        this.rejectedWrites = Counter.builder("booking.cache.rejected.writes")
+                .description("Acknowledged booking writes the backing store rejected and that were dropped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start the periodic flush.
+     */
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-cache-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the periodic flush and write out whatever is still queued.
+     */
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+    }
+
+    @Override
+    public TicketBooking save(TicketBooking ticketBooking) {
+        queue(ticketBooking, writeSequence.incrementAndGet());
+        requestFlushIfFull();
+        return ticketBooking;
+    }
+
+    /**
+     * Queue the bookings as one write group, which is written to the delegate together even when the rest of a
+     * failed flush is written group by group, so seats exchanged between them are never split up.
+     */
+    @Override
+    public void saveAll(Collection<TicketBooking> ticketBookings) {
+        long group = writeSequence.incrementAndGet();
+        ticketBookings.forEach(ticketBooking -> queue(ticketBooking, group));
+        requestFlushIfFull();
+    }
+
+    @Override
+    public Optional<TicketBooking> findById(Integer ticketId) {
+        PendingWrite pending = pendingWrites.get(ticketId);
+        if (pending != null) {
+            return Optional.ofNullable(pending.ticketBooking()).map(TicketBooking::copy);
+        }
+        return Optional.ofNullable(cache.get(ticketId, id -> delegate.findById(id).orElse(null)))
+                .map(TicketBooking::copy);
+    }
+
+    @Override
+    public List<TicketBooking> findByUserEmail(String userEmail) {
+        return findIndexed(ticketIdsByEmail.get(emailKey(userEmail)),
+                ticket -> ticket.getUserEmail().equalsIgnoreCase(userEmail));
+    }
+
+    @Override
+    public List<TicketBooking> findBySection(String section) {
+        return findIndexed(ticketIdsBySection.get(sectionKey(section)),
+                ticket -> section.equalsIgnoreCase(ticket.getSection()));
+    }
+
+    @Override
+    public Optional<TicketBooking> findFirstByUserName(String userName) {
+        flush();
+        return delegate.findFirstByUserName(userName).map(this::populate);
+    }
+
+    @Override
+    public Collection<TicketBooking> findAll() {
+        flush();
+        return delegate.findAll();
+    }
+
+    /**
+     * Flush and stream from the delegate; scanned bookings are not added to the cache.
+     */
+    @Override
+    public void scan(String section, Consumer<TicketBooking> action) {
+        flush();
+        delegate.scan(section, action);
+    }
+
+    @Override
+    public boolean deleteById(Integer ticketId) {
+        long sequence = writeSequence.incrementAndGet();
+        pendingWrites.put(ticketId, new PendingWrite(null, sequence, sequence));
+        cache.invalidate(ticketId);
+        boolean existed = unindex(ticketId);
+        requestFlushIfFull();
+        return existed;
+    }
+
+    @Override
+    public void deleteAllById(Collection<Integer> ticketIds) {
+        ticketIds.forEach(this::deleteById);
+    }
+
+    @Override
+    public long count() {
+        return indexKeys.size();
+    }
+
+    /**
+     * Tell the listener about every queued write the delegate rejects. The rejected bookings have been dropped from
+     * the queue, and the cache answers with what the delegate holds for them again. Listeners are called on the
+     * flushing thread, never while a caller of this repository is waiting for a flush.
+     */
+    @Override
+    public void onRejectedWrites(Consumer<List<TicketBooking>> listener) {
+        rejectedWriteListeners.add(listener);
+    }
+
+    @Override
+    public long findIssuedSequence(String nodeId) {
+        return delegate.findIssuedSequence(nodeId);
+    }
+
+    /**
+     * Write the sequence number through to the delegate straight away: ticket IDs above it may be handed out as
+     * soon as this returns.
+     */
+    @Override
+    public void recordIssuedSequence(String nodeId, long sequence) {
+        delegate.recordIssuedSequence(nodeId, sequence);
+    }
+
+    /**
+     * Write all queued changes to the delegate in one batch of deletes followed by one batch of saves.
+     * Written changes leave the queue only afterwards, and only if they were not superseded meanwhile,
+     * so a flush that fails for any other reason than a rejected write is simply retried by the next one.
+     * If the delegate rejects the batch, the saves are written again one write group at a time, in the order they
+     * were queued, and passes over the groups still failing are repeated as long as one succeeds. Groups rejected
+     * by the last pass are dropped.
+     */
+    public void flush() {
+        List<TicketBooking> dropped = new ArrayList<>();
+        synchronized (flushLock) {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            Map<Integer, PendingWrite> batch = new HashMap<>(pendingWrites);
+            List<Integer> deletes = new ArrayList<>();
+            List<TicketBooking> saves = new ArrayList<>();
+            batch.forEach((ticketId, write) -> {
+                if (write.ticketBooking() == null) {
+                    deletes.add(ticketId);
+                } else {
+                    saves.add(write.ticketBooking());
+                }
+            });
+            delegate.deleteAllById(deletes);
+            Map<Integer, PendingWrite> rejected = Map.of();
+            try {
+                delegate.saveAll(saves);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("The backing store rejected a batch of {} booking writes, writing them group by group",
+                        saves.size(), e);
+                rejected = saveGroupByGroup(batch);
+            }
+            for (Map.Entry<Integer, PendingWrite> entry : batch.entrySet()) {
+                boolean removed = pendingWrites.remove(entry.getKey(), entry.getValue());
+                if (removed && rejected.containsKey(entry.getKey())) {
+                    reindexFromDelegate(entry.getKey());
+                    dropped.add(entry.getValue().ticketBooking());
+                }
+            }
+            flushedWrites.increment(batch.size() - rejected.size());
+        }
+        if (!dropped.isEmpty()) {
+            log.error("Dropped {} acknowledged booking writes the backing store rejected, tickets {}",
+                    dropped.size(), dropped.stream().map(TicketBooking::getTicketId).toList());
+            rejectedWrites.increment(dropped.size());
+            notifyRejectedWrites(dropped);
+        }
+    }
+
+    /**
+     * Save the bookings of a rejected batch one write group at a time.
+     *
+     * @return The writes of the groups the delegate kept rejecting.
+     */
+    private Map<Integer, PendingWrite> saveGroupByGroup(Map<Integer, PendingWrite> batch) {
+        Map<Long, List<PendingWrite>> groups = new TreeMap<>();
+        batch.values().stream()
+                .filter(write -> write.ticketBooking() != null)
+                .forEach(write -> groups.computeIfAbsent(write.group(), group -> new ArrayList<>()).add(write));
+        List<List<PendingWrite>> remaining = new ArrayList<>(groups.values());
+        boolean progress = true;
+        while (progress && !remaining.isEmpty()) {
+            progress = false;
+            for (Iterator<List<PendingWrite>> iterator = remaining.iterator(); iterator.hasNext(); ) {
+                List<PendingWrite> group = iterator.next();
+                try {
+                    delegate.saveAll(group.stream().map(PendingWrite::ticketBooking).toList());
+                    iterator.remove();
+                    progress = true;
+                } catch (DataIntegrityViolationException e) {
+                    log.debug("The backing store rejected the writes of tickets {}",
+                            group.stream().map(write -> write.ticketBooking().getTicketId()).toList(), e);
+                }
+            }
+        }
+        Map<Integer, PendingWrite> rejected = new HashMap<>();
+        remaining.forEach(group -> group.forEach(write -> rejected.put(write.ticketBooking().getTicketId(), write)));
+        return rejected;
+    }
+
+    private void notifyRejectedWrites(List<TicketBooking> dropped) {
+        Runnable notification = () -> rejectedWriteListeners.forEach(listener -> listener.accept(dropped));
+        ScheduledExecutorService executor = flusher;
+        if (executor == null || executor.isShutdown()) {
+            notification.run();
+        } else {
+            executor.execute(notification);
+        }
+    }
+
+    private void flushQuietly() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Flushing booking writes failed, retrying on the next run", e);
+        }
+    }
+
+    private void requestFlushIfFull() {
+        if (flusher != null && pendingWrites() >= flushBatchSize && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private int pendingWrites() {
+        return pendingWrites.size();
+    }
+
+    private void queue(TicketBooking ticketBooking, long group) {
+        TicketBooking snapshot = ticketBooking.copy();
+        Integer ticketId = snapshot.getTicketId();
+        pendingWrites.put(ticketId, new PendingWrite(snapshot, writeSequence.incrementAndGet(), group));
+        cache.put(ticketId, snapshot);
+        index(snapshot);
+    }
+
+    private TicketBooking populate(TicketBooking ticketBooking) {
+        cache.put(ticketBooking.getTicketId(), ticketBooking.copy());
+        return ticketBooking;
+    }
+
+    /**
+     * Look up indexed tickets through the queue and the cache, dropping any that changed since they were looked up.
+     */
+    private List<TicketBooking> findIndexed(Set<Integer> ticketIds, Predicate<TicketBooking> matches) {
+        if (ticketIds == null) {
+            return List.of();
+        }
+        return ticketIds.stream()
+                .sorted()
+                .map(this::findById)
+                .flatMap(Optional::stream)
+                .filter(matches)
+                .toList();
+    }
+
+    private void index(TicketBooking ticketBooking) {
+        Integer ticketId = ticketBooking.getTicketId();
+        IndexKey key = new IndexKey(emailKey(ticketBooking.getUserEmail()), sectionKey(ticketBooking.getSection()));
+        IndexKey previous = indexKeys.put(ticketId, key);
+        if (key.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            removeIndexed(ticketIdsByEmail, previous.email(), ticketId);
+            removeIndexed(ticketIdsBySection, previous.section(), ticketId);
+        }
+        addIndexed(ticketIdsByEmail, key.email(), ticketId);
+        addIndexed(ticketIdsBySection, key.section(), ticketId);
+    }
+
+    private boolean unindex(Integer ticketId) {
+        IndexKey previous = indexKeys.remove(ticketId);
+        if (previous == null) {
+            return false;
+        }
+        removeIndexed(ticketIdsByEmail, previous.email(), ticketId);
+        removeIndexed(ticketIdsBySection, previous.section(), ticketId);
+        return true;
+    }
+
+    private void reindexFromDelegate(Integer ticketId) {
+        cache.invalidate(ticketId);
+        Optional<TicketBooking> stored = delegate.findById(ticketId);
+        if (stored.isPresent()) {
+            index(stored.get());
+        } else {
+            unindex(ticketId);
+        }
+    }
+
+    private static void addIndexed(Map<String, Set<Integer>> index, String key, Integer ticketId) {
+        if (key != null) {
+            index.compute(key, (k, ticketIds) -> {
+                Set<Integer> ids = ticketIds != null ? ticketIds : ConcurrentHashMap.newKeySet();
+                ids.add(ticketId);
+                return ids;
+            });
+        }
+    }
+
+    private static void removeIndexed(Map<String, Set<Integer>> index, String key, Integer ticketId) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, ticketIds) -> {
+                ticketIds.remove(ticketId);
+                return ticketIds.isEmpty() ? null : ticketIds;
+            });
+        }
+    }
+
+    private static String emailKey(String userEmail) {
+        return userEmail != null ? userEmail.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String sectionKey(String section) {
+        return section != null ? section.toUpperCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * A queued write. Writes queued by one {@link #saveAll(Collection)} share their group.
+     */
+    private record PendingWrite(TicketBooking ticketBooking, long sequence, long group) {
+    }
+
+    private record IndexKey(String email, String section) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.trainticketbooking.application.repository;
+
+import com.trainticketbooking.application.domain.TicketBooking;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Booking repository keeping all bookings in a {@link ConcurrentHashMap}. This is the default store.
+ */
+@Repository
+@ConditionalOnProperty(name = "booking.repository.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryBookingRepository implements BookingRepository {
+
+    private final Map<Integer, TicketBooking> ticketBookingMap = new ConcurrentHashMap<>();
+    private final Map<String, Long> issuedSequences = new ConcurrentHashMap<>();
+
+    @Override
+    public TicketBooking save(TicketBooking ticketBooking) {
+        ticketBookingMap.put(ticketBooking.getTicketId(), ticketBooking);
+        return ticketBooking;
+    }
+
+    @Override
+    public void saveAll(Collection<TicketBooking> ticketBookings) {
+        ticketBookings.forEach(this::save);
+    }
+
+    @Override
+    public Optional<TicketBooking> findById(Integer ticketId) {
+        return Optional.ofNullable(ticketBookingMap.get(ticketId));
+    }
+
+    @Override
+    public List<TicketBooking> findByUserEmail(String userEmail) {
+        return ticketBookingMap.values().stream()
+                .filter(ticket -> ticket.getUserEmail().equalsIgnoreCase(userEmail))
+                .toList();
+    }
+
+    @Override
+    public List<TicketBooking> findBySection(String section) {
+        return ticketBookingMap.values().stream()
+                .filter(ticket -> ticket.getSection().equalsIgnoreCase(section))
+                .toList();
+    }
+
+    @Override
+    public Optional<TicketBooking> findFirstByUserName(String userName) {
+        return ticketBookingMap.values().stream()
+                .filter(ticket -> ticket.getUserName().equalsIgnoreCase(userName))
+                .findFirst();
+    }
+
+    @Override
+    public Collection<TicketBooking> findAll() {
+        return ticketBookingMap.values();
+    }
+
+    @Override
+    public void scan(String section, Consumer<TicketBooking> action) {
+        for (TicketBooking ticket : ticketBookingMap.values()) {
+            if (section == null || ticket.getSection().equalsIgnoreCase(section)) {
+                action.accept(ticket);
+            }
+        }
+    }
+
+    @Override
+    public boolean deleteById(Integer ticketId) {
+        return ticketBookingMap.remove(ticketId) != null;
+    }
+
+    @Override
+    public void deleteAllById(Collection<Integer> ticketIds) {
+        ticketIds.forEach(ticketBookingMap::remove);
+    }
+
+    @Override
+    public long count() {
+        return ticketBookingMap.size();
+    }
+
+    @Override
+    public long findIssuedSequence(String nodeId) {
+        return issuedSequences.getOrDefault(nodeId, 0L);
+    }
+
+    @Override
+    public void recordIssuedSequence(String nodeId, long sequence) {
+        issuedSequences.merge(nodeId, sequence, Math::max);
+    }
+}
@@ -0,0 +1,220 @@
+package com.trainticketbooking.application.repository;
+
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Booking repository backed by a relational database through JDBC. Batches are sent with
+ * {@link JdbcTemplate#batchUpdate}, and the unique constraint on section and seat number in
+ * {@code db/booking-schema.sql} rejects double bookings even when several instances share the database.
+ */
+@Repository
+@ConditionalOnProperty(name = "booking.repository.type", havingValue = "jdbc")
+public class JdbcBookingRepository implements BookingRepository {
+
+    private static final String SELECT_COLUMNS = "SELECT ticket_id, from_station, to_station, user_name, " +
+            "user_email, price_paid_minor, section, seat_number, version FROM ticket_booking";
+
+    private static final String INSERT = "INSERT INTO ticket_booking (from_station, to_station, user_name, " +
+            "user_email, price_paid_minor, section, seat_number, version, ticket_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE = "UPDATE ticket_booking SET from_station = ?, to_station = ?, " +
+            "user_name = ?, user_email = ?, price_paid_minor = ?, section = ?, seat_number = ?, version = ? " +
+            "WHERE ticket_id = ?";
+
+    private static final String RELEASE_SEAT = "UPDATE ticket_booking SET seat_number = NULL WHERE ticket_id = ?";
+
+    private static final String DELETE = "DELETE FROM ticket_booking WHERE ticket_id = ?";
+
+    private static final String UPDATE_SEQUENCE = "UPDATE ticket_sequence SET issued = GREATEST(issued, ?) " +
+            "WHERE node_id = ?";
+
+    private static final String INSERT_SEQUENCE = "INSERT INTO ticket_sequence (issued, node_id) VALUES (?, ?)";
+
+    private static final RowMapper<TicketBooking> ROW_MAPPER = (resultSet, rowNum) -> new TicketBooking(
+            resultSet.getInt("ticket_id"),
+            resultSet.getString("from_station"),
+            resultSet.getString("to_station"),
+            resultSet.getString("user_name"),
+            resultSet.getString("user_email"),
+            priceOf(resultSet),
+            resultSet.getString("section"),
+            resultSet.getObject("seat_number", Integer.class),
+            resultSet.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int scanFetchSize;
+
+    public JdbcBookingRepository(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 @Value("${booking.repository.scan-fetch-size:500}") int scanFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.scanFetchSize = scanFetchSize;
+    }
+
+    @Override
+    public TicketBooking save(TicketBooking ticketBooking) {
+        if (jdbcTemplate.update(UPDATE, ps -> bind(ps, ticketBooking)) == 0) {
+            jdbcTemplate.update(INSERT, ps -> bind(ps, ticketBooking));
+        }
+        return ticketBooking;
+    }
+
+    /**
+     * Store the bookings in one transaction. Seats of the bookings are released first so that bookings of
+     * the same batch can exchange seats without tripping the unique seat constraint; rows the update did
+     * not find are inserted in a second batch.
+     *
+     * @param ticketBookings The bookings to store.
+     */
+    @Override
+    public void saveAll(Collection<TicketBooking> ticketBookings) {
+        if (ticketBookings.isEmpty()) {
+            return;
+        }
+        List<TicketBooking> batch = List.copyOf(ticketBookings);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (batch.size() > 1) {
+                jdbcTemplate.batchUpdate(RELEASE_SEAT, batch, batch.size(),
+                        (ps, ticket) -> ps.setInt(1, ticket.getTicketId()));
+            }
+            int[][] updated = jdbcTemplate.batchUpdate(UPDATE, batch, batch.size(), JdbcBookingRepository::bind);
+            List<TicketBooking> missing = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (updated[0][i] == 0) {
+                    missing.add(batch.get(i));
+                }
+            }
+            if (!missing.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT, missing, missing.size(), JdbcBookingRepository::bind);
+            }
+        });
+    }
+
+    @Override
+    public Optional<TicketBooking> findById(Integer ticketId) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE ticket_id = ?", ROW_MAPPER, ticketId)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<TicketBooking> findByUserEmail(String userEmail) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE LOWER(user_email) = ? ORDER BY ticket_id",
+                ROW_MAPPER, userEmail.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public List<TicketBooking> findBySection(String section) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE section = ? ORDER BY ticket_id",
+                ROW_MAPPER, section.toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public Optional<TicketBooking> findFirstByUserName(String userName) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE LOWER(user_name) = ? ORDER BY ticket_id " +
+                        "FETCH FIRST 1 ROWS ONLY", ROW_MAPPER, userName.toLowerCase(Locale.ROOT))
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public Collection<TicketBooking> findAll() {
+        return jdbcTemplate.query(SELECT_COLUMNS + " ORDER BY ticket_id", ROW_MAPPER);
+    }
+
+    /**
+     * Stream the rows through a forward-only cursor, fetching {@code booking.repository.scan-fetch-size} rows
+     * per round trip.
+     */
+    @Override
+    public void scan(String section, Consumer<TicketBooking> action) {
+        String sql = section == null ? SELECT_COLUMNS : SELECT_COLUMNS + " WHERE section = ?";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(scanFetchSize);
+            if (section != null) {
+                ps.setString(1, section.toUpperCase(Locale.ROOT));
+            }
+            return ps;
+        }, (RowCallbackHandler) resultSet -> action.accept(ROW_MAPPER.mapRow(resultSet, 0)));
+    }
+
+    @Override
+    public boolean deleteById(Integer ticketId) {
+        return jdbcTemplate.update(DELETE, ticketId) > 0;
+    }
+
+    @Override
+    public void deleteAllById(Collection<Integer> ticketIds) {
+        if (!ticketIds.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE, ticketIds, ticketIds.size(), (ps, ticketId) -> ps.setInt(1, ticketId));
+        }
+    }
+
+    @Override
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ticket_booking", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public long findIssuedSequence(String nodeId) {
+        return jdbcTemplate.queryForList("SELECT issued FROM ticket_sequence WHERE node_id = ?", Long.class, nodeId)
+                .stream()
+                .findFirst()
+                .orElse(0L);
+    }
+
+    @Override
+    public void recordIssuedSequence(String nodeId, long sequence) {
+        if (jdbcTemplate.update(UPDATE_SEQUENCE, sequence, nodeId) == 0) {
+            jdbcTemplate.update(INSERT_SEQUENCE, sequence, nodeId);
+        }
+    }
+
+    private static Money priceOf(ResultSet resultSet) throws SQLException {
+        long minorUnits = resultSet.getLong("price_paid_minor");
+        return resultSet.wasNull() ? null : Money.ofMinor(minorUnits);
+    }
+
+    private static void bind(PreparedStatement ps, TicketBooking ticket) throws SQLException {
+        ps.setString(1, ticket.getFrom());
+        ps.setString(2, ticket.getTo());
+        ps.setString(3, ticket.getUserName());
+        ps.setString(4, ticket.getUserEmail());
+        if (ticket.getPricePaid() == null) {
+            ps.setNull(5, Types.BIGINT);
+        } else {
+            ps.setLong(5, ticket.getPricePaid().minorUnits());
+        }
+        ps.setString(6, ticket.getSection().toUpperCase(Locale.ROOT));
+        if (ticket.getSeatNumber() == null) {
+            ps.setNull(7, Types.INTEGER);
+        } else {
+            ps.setInt(7, ticket.getSeatNumber());
+        }
+        ps.setLong(8, ticket.getVersion());
+        ps.setInt(9, ticket.getTicketId());
+    }
+}
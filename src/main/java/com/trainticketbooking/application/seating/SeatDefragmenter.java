@@ -0,0 +1,191 @@
+package com.trainticketbooking.application.seating;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Plans seat moves that gather the free seats of a section into whole free rows, so that a group booking finds seats
+ * beside and behind each other after cancellations and seat changes have scattered them.
+ * <p>
+ * The sparsest partly occupied row is emptied first, into the free seats of the other partly occupied rows, so each
+ * freed row costs as few moves as there are passengers in it. A row is only emptied if all of its passengers can be
+ * moved, and no passenger is moved into an empty row. Passengers keep what they chose their seat for: a passenger at a
+ * window moves to another window seat and one on the aisle to another aisle seat, and passengers sitting directly
+ * beside each other move together, to seats directly beside each other.
+ */
+public final class SeatDefragmenter {
+
+    /**
+     * A planned move of the passenger in one seat to another seat of the same section.
+     *
+     * @param fromSeat The seat number the passenger leaves.
+     * @param toSeat   The seat number the passenger moves to.
+     */
+    public record Move(int fromSeat, int toSeat) {
+    }
+
+    private SeatDefragmenter() {
+    }
+
+    /**
+     * Plan the moves that free whole rows, without moving anyone.
+     *
+     * @param seats    The occupied seats of the section.
+     * @param maxMoves The largest number of moves to plan; rows needing more moves than are left are skipped.
+     * @return The moves, to be applied together; empty if no row can be freed.
+     */
+    public static List<Move> plan(SectionSeats seats, int maxMoves) {
+        SeatLayout layout = seats.getLayout();
+        long occupied = layout.allSeats() & ~seats.freeMask();
+        List<Move> moves = new ArrayList<>();
+        boolean emptied = true;
+        while (emptied) {
+            emptied = false;
+            for (int row : rowsToEmpty(layout, occupied)) {
+                List<int[]> rowMoves = emptyRow(layout, occupied, row);
+                if (rowMoves != null && moves.size() + rowMoves.size() <= maxMoves) {
+                    for (int[] move : rowMoves) {
+                        occupied = occupied & ~(1L << move[0]) | 1L << move[1];
+                        moves.add(new Move(seats.seatAt(move[0]), seats.seatAt(move[1])));
+                    }
+                    emptied = true;
+                    break;
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Get the partly occupied rows, fewest passengers first and back rows before front rows.
+     */
+    private static List<Integer> rowsToEmpty(SeatLayout layout, long occupied) {
+        return IntStream.range(0, layout.rows())
+                .filter(row -> isPartlyOccupied(layout, occupied, row))
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(row -> Long.bitCount(occupied & layout.rowSeats(row)))
+                        .thenComparing(Comparator.reverseOrder()))
+                .toList();
+    }
+
+    /**
+     * Plan the moves of every passenger in a row into the other partly occupied rows.
+     *
+     * @return The moves as pairs of seat positions, or null if not every passenger in the row can be moved.
+     */
+    private static List<int[]> emptyRow(SeatLayout layout, long occupied, int row) {
+        long free = 0;
+        for (int other = 0; other < layout.rows(); other++) {
+            if (other != row && isPartlyOccupied(layout, occupied, other)) {
+                free |= layout.rowSeats(other) & ~occupied;
+            }
+        }
+        List<Long> companions = new ArrayList<>();
+        long remaining = occupied & layout.rowSeats(row);
+        while (remaining != 0) {
+            long unit = Long.lowestOneBit(remaining);
+            long grown = unit;
+            do {
+                unit = grown;
+                for (long bits = unit; bits != 0; bits &= bits - 1) {
+                    grown |= layout.adjacentTo(Long.numberOfTrailingZeros(bits)) & occupied;
+                }
+            } while (grown != unit);
+            companions.add(unit);
+            remaining &= ~unit;
+        }
+        companions.sort(Comparator.comparingInt(Long::bitCount).reversed());
+
+        List<int[]> moves = new ArrayList<>();
+        for (long unit : companions) {
+            int[] targets = place(layout, occupied, free, unit);
+            if (targets == null) {
+                return null;
+            }
+            int[] positions = positions(unit);
+            for (int i = 0; i < positions.length; i++) {
+                moves.add(new int[]{positions[i], targets[i]});
+                free &= ~(1L << targets[i]);
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Find seats directly beside each other for passengers sitting directly beside each other, each of the same kind
+     * as the seat it replaces, in the fullest row that has them, front rows first.
+     *
+     * @return The target position of each passenger in seat order, or null if there are none.
+     */
+    private static int[] place(SeatLayout layout, long occupied, long free, long unit) {
+        int[] positions = positions(unit);
+        List<Integer> rows = IntStream.range(0, layout.rows())
+                .filter(row -> (free & layout.rowSeats(row)) != 0)
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(row -> Long.bitCount(occupied & layout.rowSeats(row)))
+                        .reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+        for (int row : rows) {
+            for (long start = free & layout.rowSeats(row); start != 0; start &= start - 1) {
+                int[] run = run(layout, free, Long.numberOfTrailingZeros(start), positions.length);
+                if (run == null) {
+                    continue;
+                }
+                if (sameKinds(layout, positions, run, false)) {
+                    return run;
+                }
+                if (sameKinds(layout, positions, run, true)) {
+                    int[] reversed = new int[run.length];
+                    for (int i = 0; i < run.length; i++) {
+                        reversed[i] = run[run.length - 1 - i];
+                    }
+                    return reversed;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the free seats starting at a position, each directly beside the one before it.
+     */
+    private static int[] run(SeatLayout layout, long free, int start, int length) {
+        int[] run = new int[length];
+        run[0] = start;
+        for (int i = 1; i < length; i++) {
+            int next = run[i - 1] + 1;
+            if (next >= layout.size() || (free & 1L << next) == 0
+                    || (layout.adjacentTo(run[i - 1]) & 1L << next) == 0) {
+                return null;
+            }
+            run[i] = next;
+        }
+        return run;
+    }
+
+    private static boolean sameKinds(SeatLayout layout, int[] positions, int[] run, boolean reversed) {
+        for (int i = 0; i < positions.length; i++) {
+            int target = run[reversed ? run.length - 1 - i : i];
+            if ((layout.sameKindAs(positions[i]) & 1L << target) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPartlyOccupied(SeatLayout layout, long occupied, int row) {
+        long taken = occupied & layout.rowSeats(row);
+        return taken != 0 && taken != layout.rowSeats(row);
+    }
+
+    private static int[] positions(long mask) {
+        int[] positions = new int[Long.bitCount(mask)];
+        for (int i = 0; mask != 0; i++, mask &= mask - 1) {
+            positions[i] = Long.numberOfTrailingZeros(mask);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,155 @@
+package com.trainticketbooking.application.seating;
+
+import com.trainticketbooking.application.domain.SeatPreference;
+
+/**
+ * Seat arrangement of a section, with the seat attributes and neighbourhoods precomputed as bitmasks.
+ * Bit {@code p} stands for the seat at position {@code p}, counted row by row from the front of the section, so a
+ * section holds at most 64 seats.
+ */
+public final class SeatLayout {
+
+    /**
+     * Five rows of four seats, two on each side of the aisle.
+     */
+    public static final SeatLayout STANDARD = new SeatLayout(5, 4, 2);
+
+    private final int size;
+    private final int seatsPerRow;
+    private final long allSeats;
+    private final long windowSeats;
+    private final long aisleSeats;
+    private final long[] adjacentSeats;
+    private final long[] nearbySeats;
+
+    /**
+     * Create a layout.
+     *
+     * @param rows        The number of rows.
+     * @param seatsPerRow The number of seats in a row.
+     * @param aisleAfter  The number of seats in a row before the aisle.
+     */
+    public SeatLayout(int rows, int seatsPerRow, int aisleAfter) {
+        this.size = rows * seatsPerRow;
+        this.seatsPerRow = seatsPerRow;
+        if (size > Long.SIZE) {
+            throw new IllegalArgumentException("A section can hold at most " + Long.SIZE + " seats");
+        }
+        this.allSeats = size == Long.SIZE ? -1L : (1L << size) - 1;
+        this.adjacentSeats = new long[size];
+        this.nearbySeats = new long[size];
+        long window = 0;
+        long aisle = 0;
+        for (int position = 0; position < size; position++) {
+            int row = position / seatsPerRow;
+            int column = position % seatsPerRow;
+            if (column == 0 || column == seatsPerRow - 1) {
+                window |= 1L << position;
+            }
+            if (column == aisleAfter - 1 || column == aisleAfter) {
+                aisle |= 1L << position;
+            }
+            for (int other = 0; other < size; other++) {
+                int otherRow = other / seatsPerRow;
+                int otherColumn = other % seatsPerRow;
+                if (other == position) {
+                    continue;
+                }
+                boolean sameSide = (column < aisleAfter) == (otherColumn < aisleAfter);
+                if (otherRow == row && sameSide && Math.abs(otherColumn - column) == 1) {
+                    adjacentSeats[position] |= 1L << other;
+                }
+                if (Math.abs(otherRow - row) <= 1) {
+                    nearbySeats[position] |= 1L << other;
+                }
+            }
+        }
+        this.windowSeats = window;
+        this.aisleSeats = aisle;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long allSeats() {
+        return allSeats;
+    }
+
+    public int rows() {
+        return size / seatsPerRow;
+    }
+
+    /**
+     * Get the seats of a row.
+     *
+     * @param row The row, counted from the front of the section.
+     * @return The mask of the seats in the row.
+     */
+    public long rowSeats(int row) {
+        return seatsPerRow == Long.SIZE ? allSeats : ((1L << seatsPerRow) - 1) << (row * seatsPerRow);
+    }
+
+    /**
+     * Get the row of a seat.
+     *
+     * @param position The seat position.
+     * @return The row, counted from the front of the section.
+     */
+    public int rowOf(int position) {
+        return position / seatsPerRow;
+    }
+
+    /**
+     * Get the seats of the same kind as a seat: window seats, aisle seats, or the seats that are neither.
+     *
+     * @param position The seat position.
+     * @return The mask of seats of the same kind.
+     */
+    public long sameKindAs(int position) {
+        long bit = 1L << position;
+        if ((windowSeats & bit) != 0) {
+            return windowSeats;
+        }
+        if ((aisleSeats & bit) != 0) {
+            return aisleSeats & ~windowSeats;
+        }
+        return allSeats & ~windowSeats & ~aisleSeats;
+    }
+
+    /**
+     * Get the seats matching a preference.
+     *
+     * @param preference The preference, or null for none.
+     * @return The mask of matching seats; every seat if there is no preference.
+     */
+    public long seatsMatching(SeatPreference preference) {
+        if (preference == null) {
+            return allSeats;
+        }
+        return switch (preference) {
+            case WINDOW -> windowSeats;
+            case AISLE -> aisleSeats;
+        };
+    }
+
+    /**
+     * Get the seats directly beside a seat, on the same side of the aisle.
+     *
+     * @param position The seat position.
+     * @return The mask of adjacent seats.
+     */
+    public long adjacentTo(int position) {
+        return adjacentSeats[position];
+    }
+
+    /**
+     * Get the seats in the same row as a seat or in the rows directly in front of and behind it.
+     *
+     * @param position The seat position.
+     * @return The mask of nearby seats.
+     */
+    public long nearby(int position) {
+        return nearbySeats[position];
+    }
+}
@@ -0,0 +1,92 @@
+package com.trainticketbooking.application.seating;
+
+import com.trainticketbooking.application.domain.SeatPreference;
+
+import java.util.Map;
+
+/**
+ * Picks the best free seat for a purchase. Candidates are ranked, in this order, by:
+ * <ol>
+ *     <li>closeness to a group member's seat: beside it, then within a row of it, then anywhere in its section;</li>
+ *     <li>the passenger's window or aisle preference;</li>
+ *     <li>coach balance: the section with the most free seats;</li>
+ *     <li>the lowest seat number.</li>
+ * </ol>
+ * Each step narrows a bitmask of free seats, so a selection costs a few bitwise operations per section.
+ */
+public final class SeatSelector {
+
+    /**
+     * A selected seat.
+     *
+     * @param section    The section of the seat.
+     * @param seatNumber The seat number.
+     */
+    public record Selection(String section, int seatNumber) {
+    }
+
+    private SeatSelector() {
+    }
+
+    /**
+     * Select a free seat without occupying it.
+     *
+     * @param sections   The sections to choose from, in tie-break order.
+     * @param preference The seat preference, or null for none.
+     * @param nearSeat   The seat number of a group member, or null.
+     * @return The selection, or null if every section is full.
+     */
+    public static Selection select(Map<String, SectionSeats> sections, SeatPreference preference, Integer nearSeat) {
+        if (nearSeat != null) {
+            for (Map.Entry<String, SectionSeats> entry : sections.entrySet()) {
+                SectionSeats seats = entry.getValue();
+                int position = seats.positionOf(nearSeat);
+                long free = seats.freeMask();
+                if (position >= 0 && free != 0) {
+                    SeatLayout layout = seats.getLayout();
+                    long closest = free & layout.adjacentTo(position);
+                    if (closest == 0) {
+                        closest = free & layout.nearby(position);
+                    }
+                    if (closest == 0) {
+                        closest = free;
+                    }
+                    return new Selection(entry.getKey(), seats.seatAt(lowest(closest, layout, preference)));
+                }
+            }
+        }
+
+        String bestSection = null;
+        long bestCandidates = 0;
+        boolean bestMatchesPreference = false;
+        int bestFreeSeats = 0;
+        for (Map.Entry<String, SectionSeats> entry : sections.entrySet()) {
+            SectionSeats seats = entry.getValue();
+            long free = seats.freeMask();
+            if (free == 0) {
+                continue;
+            }
+            long preferred = free & seats.getLayout().seatsMatching(preference);
+            boolean matchesPreference = preferred != 0;
+            int freeSeats = Long.bitCount(free);
+            if (bestSection == null
+                    || (matchesPreference && !bestMatchesPreference)
+                    || (matchesPreference == bestMatchesPreference && freeSeats > bestFreeSeats)) {
+                bestSection = entry.getKey();
+                bestCandidates = matchesPreference ? preferred : free;
+                bestMatchesPreference = matchesPreference;
+                bestFreeSeats = freeSeats;
+            }
+        }
+        if (bestSection == null) {
+            return null;
+        }
+        return new Selection(bestSection,
+                sections.get(bestSection).seatAt(Long.numberOfTrailingZeros(bestCandidates)));
+    }
+
+    private static int lowest(long candidates, SeatLayout layout, SeatPreference preference) {
+        long preferred = candidates & layout.seatsMatching(preference);
+        return Long.numberOfTrailingZeros(preferred != 0 ? preferred : candidates);
+    }
+}
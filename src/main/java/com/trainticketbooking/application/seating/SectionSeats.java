@@ -0,0 +1,131 @@
+package com.trainticketbooking.application.seating;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The occupied seats of one section, kept as a bitmask over the section's {@link SeatLayout}. Seat numbers are
+ * numbered consecutively from the section's first seat. Not thread-safe.
+ */
+public final class SectionSeats extends AbstractSet<Integer> {
+
+    private final int firstSeat;
+    private final SeatLayout layout;
+    private long occupied;
+
+    public SectionSeats(int firstSeat, SeatLayout layout) {
+        this.firstSeat = firstSeat;
+        this.layout = layout;
+    }
+
+    public SeatLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Get the free seats.
+     *
+     * @return The mask of free seat positions.
+     */
+    public long freeMask() {
+        return layout.allSeats() & ~occupied;
+    }
+
+    /**
+     * Get the position of a seat in the layout.
+     *
+     * @param seatNumber The seat number.
+     * @return The position, or -1 if the seat is not in this section.
+     */
+    public int positionOf(int seatNumber) {
+        int position = seatNumber - firstSeat;
+        return position >= 0 && position < layout.size() ? position : -1;
+    }
+
+    /**
+     * Get the seat number at a position in the layout.
+     *
+     * @param position The position.
+     * @return The seat number.
+     */
+    public int seatAt(int position) {
+        return firstSeat + position;
+    }
+
+    @Override
+    public boolean contains(Object seat) {
+        int position = seat instanceof Integer seatNumber ? positionOf(seatNumber) : -1;
+        return position >= 0 && (occupied & (1L << position)) != 0;
+    }
+
+    /**
+     * Mark a seat as occupied.
+     *
+     * @param seatNumber The seat number.
+     * @return True if the seat was free.
+     * @throws IllegalArgumentException if the seat is not in this section.
+     */
+    @Override
+    public boolean add(Integer seatNumber) {
+        int position = positionOf(seatNumber);
+        if (position < 0) {
+            throw new IllegalArgumentException("Seat " + seatNumber + " is not in this section");
+        }
+        long bit = 1L << position;
+        boolean added = (occupied & bit) == 0;
+        occupied |= bit;
+        return added;
+    }
+
+    @Override
+    public boolean remove(Object seat) {
+        if (!contains(seat)) {
+            return false;
+        }
+        occupied &= ~(1L << positionOf((Integer) seat));
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        occupied = 0;
+    }
+
+    @Override
+    public int size() {
+        return Long.bitCount(occupied);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private long remaining = occupied;
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return remaining != 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                last = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return seatAt(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                occupied &= ~(1L << last);
+                last = -1;
+            }
+        };
+    }
+}
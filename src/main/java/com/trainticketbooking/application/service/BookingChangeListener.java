@@ -0,0 +1,33 @@
+package com.trainticketbooking.application.service;
+
+import com.trainticketbooking.application.domain.BookingChange;
+
+import java.util.List;
+
+/**
+ * Receives every booking change made by {@link TicketBookingService}. Listeners are called while the seat
+ * inventory lock is held, so they see changes one at a time and in the order they were applied; they must
+ * return quickly and hand any slow work to another thread. On a replica, the changes copied from the primary node are
+ * passed on as well, marked as {@link BookingChange#replicated() replicated}, so that state derived from the bookings
+ * stays in step; listeners with side effects outside this node should ignore them.
+ */
+public interface BookingChangeListener {
+
+    /**
+     * Called after a change has been applied to the booking store and the seat inventory.
+     *
+     * @param change The change.
+     */
+    void onBookingChange(BookingChange change);
+
+    /**
+     * Called after changes of several tickets have been applied together in one step, such as the moves of a seat
+     * exchange, whose tickets only hold distinct seats once all of them have moved. None of the changes is a
+     * cancellation. Passes the changes to {@link #onBookingChange(BookingChange)} one at a time unless overridden.
+     *
+     * @param changes The changes, in the order they were applied.
+     */
+    default void onBookingChanges(List<BookingChange> changes) {
+        changes.forEach(this::onBookingChange);
+    }
+}
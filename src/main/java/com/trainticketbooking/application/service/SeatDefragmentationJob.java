@@ -0,0 +1,116 @@
+package com.trainticketbooking.application.service;
+
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.seating.SeatDefragmenter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job gathering the free seats scattered by cancellations and seat changes back into whole free rows, see
+ * {@link SeatDefragmenter}. Every {@code booking.defragmentation.interval-ms} (0, the default, disables the job) it
+ * calls {@link TicketBookingService#defragmentSeats(int)} with up to {@code booking.defragmentation.moves-per-step}
+ * moves at a time, pausing {@code booking.defragmentation.step-pause-ms} between steps, until nothing is left to
+ * gather. Purchases only ever wait for a single step. A row holding more passengers than one step may move is left
+ * as it is. Replicas leave defragmentation to their primary. Moved passengers are counted in
+ * {@code booking.defragmentation.moves}.
+ */
+@Component
+public class SeatDefragmentationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatDefragmentationJob.class);
+
+    private final TicketBookingService ticketBookingService;
+    private final ReplicationState replicationState;
+    private final long intervalMs;
+    private final int movesPerStep;
+    private final long stepPauseMs;
+    private final Counter moves;
+
+    private ScheduledExecutorService scheduler;
+
+    public SeatDefragmentationJob(TicketBookingService ticketBookingService,
+                                  ReplicationState replicationState,
+                                  @Value("${booking.defragmentation.interval-ms:0}") long intervalMs,
+                                  @Value("${booking.defragmentation.moves-per-step:4}") int movesPerStep,
+                                  @Value("${booking.defragmentation.step-pause-ms:20}") long stepPauseMs,
+                                  MeterRegistry meterRegistry) {
+        this.ticketBookingService = ticketBookingService;
+        this.replicationState = replicationState;
+        this.intervalMs = intervalMs;
+        this.movesPerStep = movesPerStep;
+        this.stepPauseMs = stepPauseMs;
+        this.moves = Counter.builder("booking.defragmentation.moves")
+                .description("Passengers moved to gather free seats into whole rows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start the periodic defragmentation if it is enabled.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (intervalMs <= 0 || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-defragmentation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the periodic defragmentation. A step in progress is completed.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Run defragmentation steps until no section can be gathered any further.
+     *
+     * @return The number of passengers moved.
+     * @throws InterruptedException if interrupted while pausing between steps.
+     */
+    public int runOnce() throws InterruptedException {
+        int total = 0;
+        while (replicationState.acceptsWrites()) {
+            int moved = ticketBookingService.defragmentSeats(movesPerStep);
+            if (moved == 0) {
+                break;
+            }
+            total += moved;
+            moves.increment(moved);
+            Thread.sleep(stepPauseMs);
+        }
+        return total;
+    }
+
+    private void runQuietly() {
+        try {
+            int moved = runOnce();
+            if (moved > 0) {
+                log.info("Moved {} passengers to gather free seats into whole rows", moved);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Seat defragmentation failed; retrying in {} ms", intervalMs, e);
+        }
+    }
+}
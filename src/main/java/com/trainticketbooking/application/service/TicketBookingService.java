@@ -1,17 +1,38 @@
 package com.trainticketbooking.application.service;
 
 
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.ClusterTopology;
 import com.trainticketbooking.application.common.ApiResponseMessages;
 import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.SeatPreference;
 import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.BulkCancellationRequestDto;
+import com.trainticketbooking.application.dto.BulkOperationResultDto;
+import com.trainticketbooking.application.dto.ArchiveStatusDto;
+import com.trainticketbooking.application.dto.BulkSeatReassignmentRequestDto;
+import com.trainticketbooking.application.dto.SectionFareDto;
+import com.trainticketbooking.application.dto.SeatExchangeRequestDto;
+import com.trainticketbooking.application.dto.SectionOverbookingDto;
 import com.trainticketbooking.application.dto.TicketBookingDto;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.repository.BookingRepository;
+import com.trainticketbooking.application.seating.SeatDefragmenter;
+import com.trainticketbooking.application.seating.SeatLayout;
+import com.trainticketbooking.application.seating.SeatSelector;
+import com.trainticketbooking.application.seating.SectionSeats;
 import com.trainticketbooking.application.util.TicketBookingMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 
 /**
@@ -22,17 +43,153 @@ public class TicketBookingService {
 
 
     private final TicketBookingMapper ticketBookingMapper;
-    private final Map<Integer, TicketBooking> ticketBookingMap = new ConcurrentHashMap<>();
+    private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
+    private final ClusterTopology clusterTopology;
+    private final OverbookingPolicy overbookingPolicy;
+    private final DynamicPricing dynamicPricing;
+    private final ObservationRegistry observationRegistry;
+    private final List<BookingChangeListener> changeListeners;
 
-    private final Map<String, BigDecimal> discountMap = new HashMap<>();
+    private final Map<String, Money> discountMap = Map.of(
+            "DISCOUNT1", Money.ofMajor(1),
+            "DISCOUNT2", Money.ofMajor(2),
+            "DISCOUNT3", Money.ofMajor(10));
 
 
-    private final Set<Integer> sectionASeats = new HashSet<>();
-    private final Set<Integer> sectionBSeats = new HashSet<>();
+    private final SectionSeats sectionASeats = new SectionSeats(1, SeatLayout.STANDARD);
+    private final SectionSeats sectionBSeats = new SectionSeats(21, SeatLayout.STANDARD);
     private static final int MAX_SEATS_PER_SECTION = 20;
 
-    public TicketBookingService( TicketBookingMapper ticketBookingMapper) {
+    /**
+     * Observations timing a seat update and its phases. Each is published as a timer of the same name and, for
+     * sampled requests, as a tracing span nested in the span of the request.
+     */
+    private static final String UPDATE_OBSERVATION = "booking.update";
+    private static final String LOCK_WAIT_OBSERVATION = "booking.update.lock-wait";
+    private static final String LOOKUP_OBSERVATION = "booking.update.lookup";
+    private static final String DISCOUNT_OBSERVATION = "booking.update.discount";
+    private static final String SEAT_CHANGE_OBSERVATION = "booking.update.seat-change";
+    private static final String STORE_OBSERVATION = "booking.update.store";
+    private static final String MAPPING_OBSERVATION = "booking.update.mapping";
+
+    /**
+     * Tickets sold beyond the seats of their section, in order of purchase, until they are given a seat by
+     * {@link #resolveOverbooking()}.
+     */
+    private final Set<Integer> sectionAWaiting = new LinkedHashSet<>();
+    private final Set<Integer> sectionBWaiting = new LinkedHashSet<>();
+
+    /**
+     * Guards every change that touches both the booking store and the seat sets, so bulk operations
+     * never interleave with single-ticket purchases, seat moves or deletions.
+     */
+    private final Object seatInventoryLock = new Object();
+
+    /**
+     * Keeps journeys from being completed twice at once, which would archive the same bookings twice. Taken before
+     * {@code seatInventoryLock}, never after it.
+     */
+    private final Object journeyCompletionLock = new Object();
+
+    /**
+     * The sequence number of the next ticket issued by this node. It only grows, so a ticket ID is never issued
+     * twice, even after the ticket it was issued for has been cancelled. Sequence numbers are recorded in the
+     * booking store a block at a time, up to {@code reservedTicketSequence}, so that numbering carries on above them
+     * after a restart.
+     */
+    private long nextTicketSequence = 1;
+    private long reservedTicketSequence;
+    private static final int TICKET_SEQUENCE_BLOCK = 100;
+
+    private boolean undoingRejectedWrites;
+
+    /**
+     * The most bookings this service may hold, or 0 for no limit, see {@link #limitBookings(long)}.
+     */
+    private long maxBookings;
+
+    public TicketBookingService(TicketBookingMapper ticketBookingMapper,
+                                BookingRepository bookingRepository,
+                                BookingArchive bookingArchive,
+                                ClusterTopology clusterTopology,
+                                OverbookingPolicy overbookingPolicy,
+                                DynamicPricing dynamicPricing,
+                                ObservationRegistry observationRegistry,
+                                List<BookingChangeListener> changeListeners) {
         this.ticketBookingMapper = ticketBookingMapper;
+        this.bookingRepository = bookingRepository;
+        this.bookingArchive = bookingArchive;
+        this.clusterTopology = clusterTopology;
+        this.overbookingPolicy = overbookingPolicy;
+        this.dynamicPricing = dynamicPricing;
+        this.observationRegistry = observationRegistry;
+        this.changeListeners = changeListeners;
+    }
+
+    /**
+     * Rebuild the seat inventory from the bookings already present in the repository, and continue the ticket
+     * numbering after the highest ticket ID found there or in the archive, or recorded as issued. The first call also
+     * starts undoing writes the repository rejects after acknowledging them.
+     */
+    @PostConstruct
+    public void loadSeatInventory() {
+        synchronized (seatInventoryLock) {
+            if (!undoingRejectedWrites) {
+                bookingRepository.onRejectedWrites(this::undoRejectedWrites);
+                undoingRejectedWrites = true;
+            }
+            for (TicketBooking ticket : rebuildSeatInventory()) {
+                advanceTicketSequence(ticket.getTicketId());
+            }
+            advanceTicketSequence(bookingArchive.highestTicketId());
+            reservedTicketSequence = Math.max(reservedTicketSequence,
+                    bookingRepository.findIssuedSequence(clusterTopology.getLocalNodeId()));
+            nextTicketSequence = Math.max(nextTicketSequence, reservedTicketSequence + 1);
+        }
+    }
+
+    /**
+     * Fill the seat sets and waiting lists from the bookings in the repository. Callers hold the seat inventory lock.
+     *
+     * @return The bookings in the repository.
+     */
+    private Collection<TicketBooking> rebuildSeatInventory() {
+        sectionASeats.clear();
+        sectionBSeats.clear();
+        sectionAWaiting.clear();
+        sectionBWaiting.clear();
+        Collection<TicketBooking> tickets = bookingRepository.findAll();
+        for (TicketBooking ticket : tickets) {
+            if (ticket.getSeatNumber() != null) {
+                seatsOf(sectionOfSeat(ticket.getSeatNumber())).add(ticket.getSeatNumber());
+            } else if (ticket.getSection() != null) {
+                waitingOf(ticket.getSection()).add(ticket.getTicketId());
+            }
+        }
+        return tickets;
+    }
+
+    /**
+     * Undo bookings that the store rejected after they had been acknowledged, see
+     * {@link BookingRepository#onRejectedWrites}. The seat inventory is rebuilt from the store, and each rejected
+     * booking is published as moved back to the seat the store holds for it, or as cancelled if the store holds none,
+     * so its holder is told and replicas follow.
+     *
+     * @param rejected The bookings that were not stored.
+     */
+    private void undoRejectedWrites(List<TicketBooking> rejected) {
+        synchronized (seatInventoryLock) {
+            loadSeatInventory();
+            for (TicketBooking ticket : rejected) {
+                TicketBooking stored = bookingRepository.findById(ticket.getTicketId()).orElse(null);
+                if (stored == null) {
+                    publishChange(BookingChange.Type.CANCELLED, ticket, null);
+                } else if (!Objects.equals(stored.getSeatNumber(), ticket.getSeatNumber())) {
+                    publishChange(BookingChange.Type.SEAT_CHANGED, ticket, stored);
+                }
+            }
+        }
     }
 
     /**
@@ -42,73 +199,211 @@ public class TicketBookingService {
      * @return CustomApiResponse with information about the ticket booking operation.
      */
     public CustomApiResponse<TicketBookingDto> purchaseTicket(TicketBookingDto ticketBooking) {
-        this.getDiscountMap();
-        BigDecimal updatedPrice = ticketBooking.pricePaid();
-        if (Optional.ofNullable(ticketBooking.discount()).isPresent()){
-            BigDecimal discountAmount = discountMap.get(ticketBooking.discount());
-            if(Optional.ofNullable(discountAmount).isPresent() ){
-                updatedPrice = updatedPrice.subtract(discountAmount);
+        return purchaseTicket(ticketBooking, null, null);
+    }
+
+    /**
+     * Limit the number of bookings this service holds to the booking quota of its tenant. Purchases and imported
+     * tickets beyond it are refused; the check runs under the seat inventory lock, so concurrent purchases cannot
+     * overshoot the quota.
+     *
+     * @param maxBookings The most bookings to hold, or 0 for no limit.
+     */
+    public void limitBookings(long maxBookings) {
+        synchronized (seatInventoryLock) {
+            this.maxBookings = maxBookings;
+        }
+    }
+
+    /**
+     * Purchase a ticket and allocate the free seat that best matches the passenger's preferences.
+     * When every seat is taken, the ticket may still be sold within the allowance of the {@link OverbookingPolicy};
+     * it then gets a section but no seat until {@link #resolveOverbooking()} runs. With {@link DynamicPricing}
+     * enabled, the ticket costs the current fare of its section instead of the price sent by the client, less any
+     * discount.
+     *
+     * @param ticketBooking  The Record containing ticket booking information.
+     * @param seatPreference The preferred seat position, or null for none.
+     * @param nearTicketId   The ticket of a group member to sit close to, or null.
+     * @return CustomApiResponse with information about the ticket booking operation, with status 429 if the booking
+     * quota set by {@link #limitBookings(long)} is used up.
+     * @throws IllegalArgumentException if all seats owned by this node are occupied and none may be overbooked.
+     */
+    public CustomApiResponse<TicketBookingDto> purchaseTicket(TicketBookingDto ticketBooking,
+                                                              SeatPreference seatPreference,
+                                                              Integer nearTicketId) {
+        Money updatedPrice = dynamicPricing.isEnabled() ? null : priceAfterDiscount(ticketBooking);
+        TicketBooking newTicket;
+        synchronized (seatInventoryLock) {
+            if (maxBookings > 0 && bookingRepository.count() >= maxBookings) {
+                return new CustomApiResponse<>(HttpStatus.TOO_MANY_REQUESTS.value(),
+                        ApiResponseMessages.TENANT_BOOKING_QUOTA_EXCEEDED, null);
+            }
+            Integer ticketId = generateTicketId();
+            SeatSelector.Selection seat = allocateSeat(seatPreference, nearTicketId);
+            String section = seat != null ? seat.section() : overbookedSection();
+            if (section == null) {
+                throw new IllegalArgumentException("No available seats in either section");
             }
+            if (dynamicPricing.isEnabled()) {
+                // Priced on the seats taken before this one
+                int occupiedSeats = seatsOf(section).size() - (seat != null ? 1 : 0);
+                updatedPrice = minusDiscount(dynamicPricing.fare(occupiedSeats), ticketBooking.discount());
+            }
+            newTicket = new TicketBooking(ticketId,
+                    ticketBooking.from(),
+                    ticketBooking.to(),
+                    ticketBooking.userName(),
+                    ticketBooking.userEmail(),
+                    updatedPrice,
+                    section,
+                    seat != null ? seat.seatNumber() : null);
+            store(newTicket);
+            if (seat == null) {
+                waitingOf(section).add(ticketId);
+            }
+            publishChange(BookingChange.Type.PURCHASED, null, newTicket);
         }
-        Integer ticketId = generateTicketId();
-        String section = allocateSection();
-        Integer seatNumber = allocateSeat(section);
-        TicketBooking newTicket = new TicketBooking(ticketId,
-                ticketBooking.from(),
-                ticketBooking.to(),
-                ticketBooking.userName(),
-                ticketBooking.userEmail(),
-                updatedPrice,
-                section,
-                seatNumber);
-        ticketBookingMap.put(ticketId, newTicket);
         return new CustomApiResponse<>(HttpStatus.OK.value(),
                 ApiResponseMessages.TICKET_BOOKING_SUCCESSFULLY,
                 convertToDto(newTicket));
     }
 
     /**
-     * Generate a new ticket ID.
+     * Import a batch of tickets in one step. Each ticket keeps the price it carries, less its discount code if it has
+     * one, even when dynamic pricing is enabled, and keeps its requested seat when that seat is free; tickets without
+     * a seat get one from {@link SeatSelector}. Tickets beyond the booking quota set by {@link #limitBookings(long)}
+     * are rejected. The bulk import calls this once per parsed batch.
+     *
+     * @param tickets The tickets to import.
+     * @return For each ticket, in order, null if it was imported or the reason it was rejected.
+     */
+    public List<String> importTickets(List<TicketBookingDto> tickets) {
+        List<String> rejections = new ArrayList<>(tickets.size());
+        List<TicketBooking> imported = new ArrayList<>();
+        synchronized (seatInventoryLock) {
+            Map<String, SectionSeats> localSections = localSections();
+            for (TicketBookingDto ticket : tickets) {
+                Integer seatNumber = ticket.seatNumber();
+                SeatSelector.Selection seat = null;
+                String rejection = null;
+                if (maxBookings > 0 && bookingRepository.count() + imported.size() >= maxBookings) {
+                    rejection = ApiResponseMessages.TENANT_BOOKING_QUOTA_EXCEEDED;
+                } else if (seatNumber == null) {
+                    seat = SeatSelector.select(localSections, null, null);
+                    if (seat == null) {
+                        rejection = "No available seats in either section";
+                    }
+                } else if (seatNumber < 1 || seatNumber > MAX_SEATS_PER_SECTION * 2) {
+                    rejection = "Invalid seat number. Seat number must be between 1 and "
+                            + MAX_SEATS_PER_SECTION * 2 + ".";
+                } else if (!clusterTopology.isLocalSection(sectionOfSeat(seatNumber))) {
+                    rejection = ApiResponseMessages.SEAT_OWNED_BY_OTHER_NODE;
+                } else if (isSeatOccupied(seatNumber)) {
+                    rejection = ApiResponseMessages.SEAT_ALREADY_OCCUPIED;
+                } else {
+                    seat = new SeatSelector.Selection(sectionOfSeat(seatNumber), seatNumber);
+                }
+                rejections.add(rejection);
+                if (seat != null) {
+                    seatsOf(seat.section()).add(seat.seatNumber());
+                    imported.add(new TicketBooking(generateTicketId(),
+                            ticket.from(),
+                            ticket.to(),
+                            ticket.userName(),
+                            ticket.userEmail(),
+                            priceAfterDiscount(ticket),
+                            seat.section(),
+                            seat.seatNumber()));
+                }
+            }
+            storeAll(imported);
+            imported.forEach(ticket -> publishChange(BookingChange.Type.PURCHASED, null, ticket));
+        }
+        return rejections;
+    }
+
+    /**
+     * Generate a new ticket ID. In clustered mode the ID also identifies the node that issued it. IDs are taken from
+     * a sequence that only grows, so an ID is not issued again after its ticket has been cancelled.
      *
      * @return The generated ticket ID.
      */
     public Integer generateTicketId() {
-        return ticketBookingMap.size() + 1;
+        synchronized (seatInventoryLock) {
+            if (nextTicketSequence > reservedTicketSequence) {
+                long reserved = nextTicketSequence + TICKET_SEQUENCE_BLOCK - 1;
+                recordIssuedSequence(reserved);
+                reservedTicketSequence = reserved;
+            }
+            return clusterTopology.ticketId(nextTicketSequence++);
+        }
+    }
+
+    private void advanceTicketSequence(Integer ticketId) {
+        if (ticketId != null) {
+            nextTicketSequence = Math.max(nextTicketSequence, clusterTopology.sequenceOf(ticketId) + 1);
+        }
     }
 
     /**
-     * Allocate a seat based on the provided section.
+     * Check whether a section owned by this node still has a free seat, or may still be overbooked.
      *
-     * @param section The section for which a seat needs to be allocated.
-     * @return The allocated seat number.
-     * @throws IllegalArgumentException if all seats in the section are occupied.
+     * @return True if a purchase can be served by this node.
      */
-    private int allocateSeat(String section) {
-        Set<Integer> sectionSeats = section.equalsIgnoreCase("A") ? sectionASeats : sectionBSeats;
-        int startSeatNumber = section.equalsIgnoreCase("A") ? 1 : 21;
-        int endSeatNumber = section.equalsIgnoreCase("A") ? MAX_SEATS_PER_SECTION : 40;
-        for (int i = startSeatNumber; i <= endSeatNumber; i++) {
-            if (!sectionSeats.contains(i)) {
-                sectionSeats.add(i);
-                return i;
-            }
+    public boolean hasAvailableSeat() {
+        synchronized (seatInventoryLock) {
+            return (clusterTopology.isLocalSection("A") && sectionASeats.size() < MAX_SEATS_PER_SECTION)
+                    || (clusterTopology.isLocalSection("B") && sectionBSeats.size() < MAX_SEATS_PER_SECTION)
+                    || overbookedSection() != null;
         }
-        throw new IllegalArgumentException("No available seats in section " + section);
     }
+
     /**
-     * Allocate a section based on availability.
+     * Allocate the best free seat in the sections owned by this node, see {@link SeatSelector}.
      *
-     * @return The allocated section.
-     * @throws IllegalArgumentException if all seats in both sections are occupied.
+     * @param seatPreference The preferred seat position, or null for none.
+     * @param nearTicketId   The ticket of a group member to sit close to, or null; ignored if unknown here.
+     * @return The allocated seat, or null if all seats in both sections are occupied.
      */
-    private String allocateSection() {
-        if (sectionASeats.size() < MAX_SEATS_PER_SECTION) {
-            return "A";
-        } else if (sectionBSeats.size() < MAX_SEATS_PER_SECTION) {
-            return "B";
-        } else {
-            throw new IllegalArgumentException("No available seats in either section");
+    private SeatSelector.Selection allocateSeat(SeatPreference seatPreference, Integer nearTicketId) {
+        Map<String, SectionSeats> localSections = localSections();
+        Integer nearSeat = nearTicketId == null ? null : bookingRepository.findById(nearTicketId)
+                .map(TicketBooking::getSeatNumber)
+                .orElse(null);
+        SeatSelector.Selection seat = SeatSelector.select(localSections, seatPreference, nearSeat);
+        if (seat != null) {
+            seatsOf(seat.section()).add(seat.seatNumber());
         }
+        return seat;
+    }
+
+    /**
+     * Pick the section owned by this node with the most room left for tickets sold beyond its seats.
+     *
+     * @return The section, or null if no section may be overbooked any further.
+     */
+    private String overbookedSection() {
+        String section = null;
+        int mostRoom = 0;
+        for (String candidate : localSections().keySet()) {
+            int room = overbookingPolicy.extraSeats(candidate) - waitingOf(candidate).size();
+            if (room > mostRoom) {
+                section = candidate;
+                mostRoom = room;
+            }
+        }
+        return section;
+    }
+
+    /**
+     * Get the current version of a ticket.
+     *
+     * @param ticketId The ID of the ticket.
+     * @return The version, or empty if the ticket does not exist.
+     */
+    public Optional<Long> getTicketVersion(Integer ticketId) {
+        return bookingRepository.findById(ticketId).map(TicketBooking::getVersion);
     }
 
     /**
@@ -118,7 +413,9 @@ public class TicketBookingService {
      * @return CustomApiResponse with information about the user receipt details.
      */
     public CustomApiResponse<TicketBookingDto> getUserReceiptDetails(Integer ticketId) {
-        TicketBooking ticketBooking = ticketBookingMap.get(ticketId);
+        TicketBooking ticketBooking = bookingRepository.findById(ticketId)
+                .or(() -> bookingArchive.findById(ticketId))
+                .orElse(null);
         if (ticketBooking != null) {
             return new CustomApiResponse<>(HttpStatus.OK.value(),
                     ApiResponseMessages.USER_RECEIPT_FETCHED_SUCCESSFUL, convertToDto(ticketBooking));
@@ -130,15 +427,23 @@ public class TicketBookingService {
 
     /**
      * Get all tickets associated with a user's email.
+     * The stored bookings are returned as they are and written out by TicketBookingJsonSerializer,
+     * so no DTO is built per ticket.
      *
      * @param email The email of the user for whom tickets are requested.
      * @return CustomApiResponse with information about the ticket list.
      */
-    public CustomApiResponse<List<TicketBookingDto>> getAllTickets(String email) {
-        List<TicketBookingDto> userTickets = ticketBookingMap.values().stream()
-                .filter(ticket -> ticket.getUserEmail().equalsIgnoreCase(email))
-                .map(this::convertToDto)
-                .toList();
+    public CustomApiResponse<List<TicketBooking>> getAllTickets(String email) {
+        List<TicketBooking> userTickets = bookingRepository.findByUserEmail(email);
+        List<TicketBooking> archivedTickets = bookingArchive.findByUserEmail(email);
+        if (!archivedTickets.isEmpty()) {
+            // A ticket changed while its journey was being archived is still held, and the held copy is current
+            Set<Integer> heldTicketIds = new HashSet<>();
+            userTickets.forEach(ticket -> heldTicketIds.add(ticket.getTicketId()));
+            archivedTickets.removeIf(ticket -> heldTicketIds.contains(ticket.getTicketId()));
+            archivedTickets.addAll(userTickets);
+            userTickets = archivedTickets;
+        }
 
         if (!userTickets.isEmpty()) {
             return new CustomApiResponse<>(HttpStatus.OK.value(),
@@ -159,60 +464,99 @@ public class TicketBookingService {
      * @return CustomApiResponse with information about the seat update operation.
      */
     public CustomApiResponse<TicketBookingDto> updateUserSeatAllocation(Integer ticketId, Integer seatNumber, String discount) {
+        return updateUserSeatAllocation(ticketId, seatNumber, discount, null);
+    }
 
+    /**
+     * Update the seat allocation for a user's ticket, provided the ticket is still at the version the client last saw.
+     * The check and the update happen in one step, so concurrent updates cannot overwrite each other unnoticed.
+     * The time spent waiting for the seat inventory, looking up the ticket, applying the discount, changing the seat,
+     * storing the ticket and mapping it is observed phase by phase.
+     *
+     * @param ticketId        The ID of the ticket to be updated.
+     * @param seatNumber      The new seat number to be assigned.
+     * @param discount        The discount code to apply, or null.
+     * @param expectedVersion The version the client last saw, or null to update whatever version is current.
+     * @return CustomApiResponse with information about the seat update operation; status 412 with the current ticket
+     * if the ticket has changed since.
+     */
+    public CustomApiResponse<TicketBookingDto> updateUserSeatAllocation(Integer ticketId, Integer seatNumber,
+                                                                        String discount, Long expectedVersion) {
+        return observe(UPDATE_OBSERVATION, () -> {
+            Observation lockWait = Observation.start(LOCK_WAIT_OBSERVATION, observationRegistry);
+            synchronized (seatInventoryLock) {
+                lockWait.stop();
+                TicketBooking ticketBooking = observe(LOOKUP_OBSERVATION,
+                        () -> bookingRepository.findById(ticketId).orElse(null));
+                if (ticketBooking != null && expectedVersion != null
+                        && ticketBooking.getVersion() != expectedVersion) {
+                    return new CustomApiResponse<>(HttpStatus.PRECONDITION_FAILED.value(),
+                            ApiResponseMessages.TICKET_VERSION_MISMATCH,
+                            observe(MAPPING_OBSERVATION, () -> convertToDto(ticketBooking)));
+                }
+                return updateUserSeatAllocation(ticketBooking, seatNumber, discount);
+            }
+        });
+    }
 
-        TicketBooking ticketBooking = ticketBookingMap.get(ticketId);
-        this.getDiscountMap();
+    /**
+     * Apply a discount and/or move a ticket to another seat as one change: a seat that cannot be taken is reported
+     * before anything is changed, and both changes reach the booking store in a single write.
+     */
+    private CustomApiResponse<TicketBookingDto> updateUserSeatAllocation(TicketBooking ticketBooking,
+                                                                         Integer seatNumber, String discount) {
         String responseForDiscount = null;
         String responseForSeatUpdate = null;
         CustomApiResponse<TicketBookingDto> customApiResponse = new CustomApiResponse<>();
+        List<BookingChange> changes = new ArrayList<>(2);
+        boolean seatRejected = ticketBooking != null && seatNumber != null && seatRejection(seatNumber) != null;
 
-        if (Optional.ofNullable(discount).isPresent()){
-            responseForDiscount = this.applyDiscount(ticketBooking, discount);
+        if (Optional.ofNullable(discount).isPresent() && (ticketBooking == null || seatRejected)) {
+            responseForDiscount = "Discount not applied and ";
+        } else if (Optional.ofNullable(discount).isPresent()){
+            responseForDiscount = observe(DISCOUNT_OBSERVATION,
+                    () -> this.applyDiscount(ticketBooking, discount, changes));
             customApiResponse.setStatus(HttpStatus.OK.value());
         }else {
             responseForDiscount = "No discount is opted for ticket and ";
         }
         if(Optional.ofNullable(seatNumber).isPresent()) {
-            responseForSeatUpdate = this.updateSeatNumber(ticketBooking, seatNumber, customApiResponse);
+            responseForSeatUpdate = observe(SEAT_CHANGE_OBSERVATION,
+                    () -> this.updateSeatNumber(ticketBooking, seatNumber, changes, customApiResponse));
 
         }else {
             responseForSeatUpdate = "no seat update preferd.";
         }
+        if (!changes.isEmpty()) {
+            Observation.createNotStarted(STORE_OBSERVATION, observationRegistry).observe(() -> store(ticketBooking));
+            changes.forEach(change -> publishChange(change.type(), change.before(), change.after()));
+        }
         customApiResponse.setMessage(responseForDiscount+responseForSeatUpdate);
         return customApiResponse;
     }
 
     private String updateSeatNumber(TicketBooking ticketBooking,
                                   Integer seatNumber,
+                                  List<BookingChange> changes,
                                   CustomApiResponse<TicketBookingDto> customApiResponse) {
         String responseForSeatUpdate = null;
         if (ticketBooking != null) {
-
-            // Check if the seat number is within the valid range
-            if (seatNumber < 1 || seatNumber > (MAX_SEATS_PER_SECTION * 2)) {
-                responseForSeatUpdate = "Invalid seat number. Seat number must be between " +
-                        "1 and " + MAX_SEATS_PER_SECTION * 2+".";
+            responseForSeatUpdate = seatRejection(seatNumber);
+            if (responseForSeatUpdate == null) {
+                // The section follows the seat: seats 1-20 are in section A and 21-40 in section B
+                String section = sectionOfSeat(seatNumber);
+                TicketBooking before = ticketBooking.copy();
+                unAllocateSeat(ticketBooking);
+                seatsOf(section).add(seatNumber);
+                ticketBooking.setSection(section);
+                ticketBooking.setSeatNumber(seatNumber);
+                ticketBooking.nextVersion();
+                changes.add(new BookingChange(BookingChange.Type.SEAT_CHANGED, before, ticketBooking.copy(), false));
+                responseForSeatUpdate = ApiResponseMessages.USER_DETAIL_UPDATED_SUCCESSFUL;
+                customApiResponse.setStatus(HttpStatus.OK.value());
+                customApiResponse.setData(observe(MAPPING_OBSERVATION, () -> convertToDto(ticketBooking)));
+            } else {
                 customApiResponse.setStatus(HttpStatus.BAD_REQUEST.value());
-            }else {
-
-                // Check if the seat is already occupied
-                if (!isSeatOccupied(seatNumber)) {
-                    if (ticketBooking.getSection().equalsIgnoreCase("a")) {
-                        sectionASeats.remove(ticketBooking.getSeatNumber());
-                        sectionASeats.add(seatNumber);
-                    } else {
-                        sectionBSeats.remove(ticketBooking.getSeatNumber());
-                        sectionBSeats.add(seatNumber);
-                    }
-                    ticketBooking.setSeatNumber(seatNumber);
-                    responseForSeatUpdate = ApiResponseMessages.USER_DETAIL_UPDATED_SUCCESSFUL;
-                    customApiResponse.setStatus(HttpStatus.OK.value());
-                    customApiResponse.setData(convertToDto(ticketBooking));
-                } else {
-                    responseForSeatUpdate = ApiResponseMessages.SEAT_ALREADY_OCCUPIED;
-                    customApiResponse.setStatus(HttpStatus.BAD_REQUEST.value());
-                }
             }
         } else {
             responseForSeatUpdate = ApiResponseMessages.FAILED_TO_UPDATE_USER_DETAIL;
@@ -222,13 +566,35 @@ public class TicketBookingService {
         return responseForSeatUpdate;
     }
 
-    private String applyDiscount(TicketBooking ticketBooking, String discount) {
-        BigDecimal updatedPrice = ticketBooking.getPricePaid();
-        BigDecimal discountAmount = discountMap.get(discount);
-        if(Optional.ofNullable(discountAmount).isPresent() && updatedPrice.compareTo(discountAmount)>0 ){
-            updatedPrice = updatedPrice.subtract(discountAmount);
+    /**
+     * Check whether a ticket can be moved to a seat.
+     *
+     * @param seatNumber The seat number.
+     * @return The reason the seat cannot be taken, or null if it can.
+     */
+    private String seatRejection(int seatNumber) {
+        if (seatNumber < 1 || seatNumber > (MAX_SEATS_PER_SECTION * 2)) {
+            return "Invalid seat number. Seat number must be between " +
+                    "1 and " + MAX_SEATS_PER_SECTION * 2+".";
+        }
+        if (!clusterTopology.isLocalSection(sectionOfSeat(seatNumber))) {
+            return ApiResponseMessages.SEAT_OWNED_BY_OTHER_NODE;
+        }
+        if (isSeatOccupied(seatNumber)) {
+            return ApiResponseMessages.SEAT_ALREADY_OCCUPIED;
+        }
+        return null;
+    }
+
+    private String applyDiscount(TicketBooking ticketBooking, String discount, List<BookingChange> changes) {
+        Money updatedPrice = ticketBooking.getPricePaid();
+        Money discountAmount = discountMap.get(discount);
+        if(Optional.ofNullable(discountAmount).isPresent() && updatedPrice.isGreaterThan(discountAmount)){
+            updatedPrice = updatedPrice.minus(discountAmount);
+            TicketBooking before = ticketBooking.copy();
             ticketBooking.setPricePaid(updatedPrice);
-            ticketBookingMap.replace(ticketBooking.getTicketId(),ticketBooking);
+            ticketBooking.nextVersion();
+            changes.add(new BookingChange(BookingChange.Type.DISCOUNT_APPLIED, before, ticketBooking.copy(), false));
             return "Discount applied to pirce and ";
         } else {
             return "Discount amount is higher than booking price and ";
@@ -242,7 +608,9 @@ public class TicketBookingService {
      * @return True if the seat is already occupied, false otherwise.
      */
     public boolean isSeatOccupied(int seatNumber) {
-        return sectionASeats.contains(seatNumber) || sectionBSeats.contains(seatNumber);
+        synchronized (seatInventoryLock) {
+            return sectionASeats.contains(seatNumber) || sectionBSeats.contains(seatNumber);
+        }
     }
 
     /**
@@ -252,41 +620,667 @@ public class TicketBookingService {
      * @return CustomApiResponse with information about the user deletion operation.
      */
     public CustomApiResponse<TicketBookingDto> deleteUserDetail(String userName) {
-        Iterator<Map.Entry<Integer, TicketBooking>> iterator = ticketBookingMap.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<Integer, TicketBooking> entry = iterator.next();
-            if (entry.getValue().getUserName().equalsIgnoreCase(userName)) {
-                Boolean seatUnAllocated = this.unAllocateSeat(entry);
+        synchronized (seatInventoryLock) {
+            Optional<TicketBooking> ticketBooking = bookingRepository.findFirstByUserName(userName);
+            if (ticketBooking.isPresent()) {
+                Boolean seatUnAllocated = this.unAllocateSeat(ticketBooking.get());
                 if(seatUnAllocated.equals(Boolean.TRUE)) {
-                    iterator.remove();
+                    remove(ticketBooking.get().getTicketId());
+                    publishChange(BookingChange.Type.CANCELLED, ticketBooking.get(), null);
                 }
 
                 return new CustomApiResponse<>(HttpStatus.OK.value(),
-                        ApiResponseMessages.USER_DELETED_SUCCESSFULLY, convertToDto(entry.getValue()));
+                        ApiResponseMessages.USER_DELETED_SUCCESSFULLY, convertToDto(ticketBooking.get()));
             }
         }
         return new CustomApiResponse<>(HttpStatus.OK.value(),
                 ApiResponseMessages.USER_NOT_FOUND, null);
     }
 
-    public Boolean unAllocateSeat(Map.Entry<Integer, TicketBooking> entry) {
+    public Boolean unAllocateSeat(TicketBooking ticketBooking) {
+        Integer seatNumber = ticketBooking.getSeatNumber();
+        if (seatNumber == null) {
+            // An overbooked ticket still waiting for its seat
+            return ticketBooking.getSection() != null
+                    && waitingOf(ticketBooking.getSection()).remove(ticketBooking.getTicketId());
+        }
+        return seatsOf(sectionOfSeat(seatNumber)).remove(seatNumber);
+    }
+
+    /**
+     * Cancel every ticket matching the given section and/or user names in a single pass over the bookings.
+     * Seats of cancelled tickets are released in the same step.
+     *
+     * @param request The selection criteria; at least one of section or user names is required.
+     * @return CustomApiResponse with one result per cancelled ticket.
+     */
+    public CustomApiResponse<List<BulkOperationResultDto>> cancelTickets(BulkCancellationRequestDto request) {
+        String section = request.section();
+        Set<String> userNames = new HashSet<>();
+        if (request.userNames() != null) {
+            for (String userName : request.userNames()) {
+                if (userName == null) {
+                    return new CustomApiResponse<>(HttpStatus.BAD_REQUEST.value(),
+                            ApiResponseMessages.BULK_CANCELLATION_USER_NAME_REQUIRED, null);
+                }
+                userNames.add(userName.toLowerCase(Locale.ROOT));
+            }
+        }
+        if (section == null && userNames.isEmpty()) {
+            return new CustomApiResponse<>(HttpStatus.BAD_REQUEST.value(),
+                    ApiResponseMessages.BULK_CANCELLATION_CRITERIA_REQUIRED, null);
+        }
+
+        List<BulkOperationResultDto> results = new ArrayList<>();
+        synchronized (seatInventoryLock) {
+            Collection<TicketBooking> candidates = section != null
+                    ? bookingRepository.findBySection(section)
+                    : bookingRepository.findAll();
+            List<TicketBooking> cancelledTickets = candidates.stream()
+                    .filter(ticket -> userNames.isEmpty() || (ticket.getUserName() != null
+                            && userNames.contains(ticket.getUserName().toLowerCase(Locale.ROOT))))
+                    .toList();
+            for (TicketBooking ticket : cancelledTickets) {
+                unAllocateSeat(ticket);
+                results.add(new BulkOperationResultDto(ticket.getTicketId(), HttpStatus.OK.value(),
+                        ApiResponseMessages.TICKET_CANCELLED_SUCCESSFULLY, convertToDto(ticket)));
+            }
+            removeAll(cancelledTickets.stream().map(TicketBooking::getTicketId).toList());
+            cancelledTickets.forEach(ticket -> publishChange(BookingChange.Type.CANCELLED, ticket, null));
+        }
+        return new CustomApiResponse<>(HttpStatus.OK.value(),
+                ApiResponseMessages.BULK_CANCELLATION_COMPLETED, results);
+    }
+
+    /**
+     * Move tickets to new seats according to the given mapping in a single step.
+     * Seats vacated by tickets of the same mapping can be taken by other tickets of that mapping,
+     * so whole coaches can be shifted or permuted. A ticket whose move is rejected keeps its seat.
+     * Seats 1-20 belong to section A and 21-40 to section B; the section follows the new seat, which has to be
+     * in a section owned by this node.
+     *
+     * @param request The mapping from ticket ID to new seat number.
+     * @return CustomApiResponse with one result per requested ticket, in request order.
+     */
+    public CustomApiResponse<List<BulkOperationResultDto>> reassignSeats(BulkSeatReassignmentRequestDto request) {
+        Map<Integer, Integer> seatMapping = request.seatMapping();
+        if (seatMapping == null || seatMapping.isEmpty()) {
+            return new CustomApiResponse<>(HttpStatus.BAD_REQUEST.value(),
+                    ApiResponseMessages.BULK_SEAT_MAPPING_REQUIRED, null);
+        }
+
+        Map<Integer, BulkOperationResultDto> results = new LinkedHashMap<>();
+        synchronized (seatInventoryLock) {
+            Map<Integer, TicketBooking> moves = new LinkedHashMap<>();
+            Set<Integer> requestedSeats = new HashSet<>();
+            for (Map.Entry<Integer, Integer> entry : seatMapping.entrySet()) {
+                Integer ticketId = entry.getKey();
+                Integer seatNumber = entry.getValue();
+                TicketBooking ticket = bookingRepository.findById(ticketId).orElse(null);
+                if (ticket == null) {
+                    results.put(ticketId, new BulkOperationResultDto(ticketId, HttpStatus.NOT_FOUND.value(),
+                            ApiResponseMessages.TICKET_NOT_FOUND, null));
+                } else if (seatNumber == null || seatNumber < 1 || seatNumber > MAX_SEATS_PER_SECTION * 2) {
+                    results.put(ticketId, new BulkOperationResultDto(ticketId, HttpStatus.BAD_REQUEST.value(),
+                            "Invalid seat number. Seat number must be between 1 and "
+                                    + MAX_SEATS_PER_SECTION * 2 + ".", null));
+                } else if (!clusterTopology.isLocalSection(sectionOfSeat(seatNumber))) {
+                    results.put(ticketId, new BulkOperationResultDto(ticketId, HttpStatus.BAD_REQUEST.value(),
+                            ApiResponseMessages.SEAT_OWNED_BY_OTHER_NODE, null));
+                } else if (!requestedSeats.add(seatNumber)) {
+                    results.put(ticketId, new BulkOperationResultDto(ticketId, HttpStatus.BAD_REQUEST.value(),
+                            ApiResponseMessages.DUPLICATE_SEAT_IN_MAPPING, null));
+                } else {
+                    moves.put(ticketId, ticket);
+                    results.put(ticketId, null);
+                }
+            }
+
+            // Seats held by tickets that stay put; a rejected move pins its ticket's seat, which can in turn
+            // reject another move targeting that seat, so repeat until no further move is rejected.
+            Set<Integer> heldSeats = new HashSet<>(sectionASeats);
+            heldSeats.addAll(sectionBSeats);
+            moves.values().forEach(ticket -> heldSeats.remove(ticket.getSeatNumber()));
+            boolean rejected = true;
+            while (rejected) {
+                rejected = false;
+                Iterator<TicketBooking> iterator = moves.values().iterator();
+                while (iterator.hasNext()) {
+                    TicketBooking ticket = iterator.next();
+                    if (heldSeats.contains(seatMapping.get(ticket.getTicketId()))) {
+                        iterator.remove();
+                        heldSeats.add(ticket.getSeatNumber());
+                        results.put(ticket.getTicketId(), new BulkOperationResultDto(ticket.getTicketId(),
+                                HttpStatus.BAD_REQUEST.value(), ApiResponseMessages.SEAT_ALREADY_OCCUPIED, null));
+                        rejected = true;
+                    }
+                }
+            }
 
-        return entry.getValue().getSection().equalsIgnoreCase("A") ?
-                sectionASeats.remove(entry.getValue().getSeatNumber()) :
-                sectionBSeats.remove(entry.getValue().getSeatNumber());
+            moves.values().forEach(this::unAllocateSeat);
+            Map<Integer, TicketBooking> before = new HashMap<>();
+            for (TicketBooking ticket : moves.values()) {
+                before.put(ticket.getTicketId(), ticket.copy());
+                Integer seatNumber = seatMapping.get(ticket.getTicketId());
+                String section = sectionOfSeat(seatNumber);
+                seatsOf(section).add(seatNumber);
+                ticket.setSection(section);
+                ticket.setSeatNumber(seatNumber);
+                ticket.nextVersion();
+                results.put(ticket.getTicketId(), new BulkOperationResultDto(ticket.getTicketId(),
+                        HttpStatus.OK.value(), ApiResponseMessages.USER_DETAIL_UPDATED_SUCCESSFUL,
+                        convertToDto(ticket)));
+            }
+            storeAll(moves.values());
+            publishSeatChanges(before, moves.values());
+        }
+        return new CustomApiResponse<>(HttpStatus.OK.value(),
+                ApiResponseMessages.BULK_SEAT_REASSIGNMENT_COMPLETED, new ArrayList<>(results.values()));
+    }
+
+    /**
+     * Exchange the seats of several tickets in a single step: each ticket takes the seat of another ticket of the
+     * exchange, so two passengers can trade seats and a group can be reshuffled among its own seats, which a series of
+     * single seat changes cannot do because every intermediate seat is still taken. The exchange is checked in full
+     * before anything is changed, and either every ticket moves or none does. The seats taken as a whole stay the
+     * same, so the seat inventory is unchanged; the section of a ticket follows its new seat.
+     *
+     * @param request The mapping from ticket ID to the ID of the ticket whose seat it takes.
+     * @return CustomApiResponse with the moved tickets in request order; 400 if the mapping is not a permutation of
+     * its tickets, 404 if a ticket does not exist and 409 if a ticket has no seat, with no ticket moved.
+     */
+    public CustomApiResponse<List<TicketBookingDto>> exchangeSeats(SeatExchangeRequestDto request) {
+        Map<Integer, Integer> takesSeatOf = request.takesSeatOf();
+        if (takesSeatOf == null || takesSeatOf.size() < 2) {
+            return new CustomApiResponse<>(HttpStatus.BAD_REQUEST.value(),
+                    ApiResponseMessages.SEAT_EXCHANGE_REQUIRED, null);
+        }
+        if (!new HashSet<>(takesSeatOf.values()).equals(takesSeatOf.keySet())) {
+            return new CustomApiResponse<>(HttpStatus.BAD_REQUEST.value(),
+                    ApiResponseMessages.SEAT_EXCHANGE_NOT_A_PERMUTATION, null);
+        }
+
+        synchronized (seatInventoryLock) {
+            Map<Integer, TicketBooking> tickets = new LinkedHashMap<>();
+            for (Integer ticketId : takesSeatOf.keySet()) {
+                TicketBooking ticket = bookingRepository.findById(ticketId).orElse(null);
+                if (ticket == null) {
+                    return new CustomApiResponse<>(HttpStatus.NOT_FOUND.value(),
+                            ApiResponseMessages.TICKET_NOT_FOUND + ": " + ticketId, null);
+                }
+                if (ticket.getSeatNumber() == null) {
+                    return new CustomApiResponse<>(HttpStatus.CONFLICT.value(),
+                            ApiResponseMessages.SEAT_EXCHANGE_TICKET_WITHOUT_SEAT + ticketId, null);
+                }
+                tickets.put(ticketId, ticket);
+            }
+
+            Map<Integer, TicketBooking> before = new HashMap<>();
+            tickets.forEach((ticketId, ticket) -> before.put(ticketId, ticket.copy()));
+            List<TicketBooking> moved = new ArrayList<>(tickets.size());
+            tickets.forEach((ticketId, ticket) -> {
+                Integer seatNumber = before.get(takesSeatOf.get(ticketId)).getSeatNumber();
+                if (!seatNumber.equals(ticket.getSeatNumber())) {
+                    ticket.setSection(sectionOfSeat(seatNumber));
+                    ticket.setSeatNumber(seatNumber);
+                    ticket.nextVersion();
+                    moved.add(ticket);
+                }
+            });
+            storeAll(moved);
+            publishSeatChanges(before, moved);
+            return new CustomApiResponse<>(HttpStatus.OK.value(), ApiResponseMessages.SEATS_EXCHANGED,
+                    tickets.values().stream().map(this::convertToDto).toList());
+        }
+    }
+
+    /**
+     * Move passengers to gather the free seats of a section owned by this node into whole free rows, see
+     * {@link SeatDefragmenter}. One call is one step: it plans at most {@code maxMoves} moves in one section and
+     * applies them together, holding the seat inventory lock only for that step, so purchases are served between
+     * the steps of a longer defragmentation. Moved tickets are changed like any other seat change, so their holders
+     * are notified.
+     *
+     * @param maxMoves The largest number of passengers to move in this step.
+     * @return The number of passengers moved; 0 once no section can be gathered any further.
+     */
+    public int defragmentSeats(int maxMoves) {
+        synchronized (seatInventoryLock) {
+            for (Map.Entry<String, SectionSeats> entry : localSections().entrySet()) {
+                List<SeatDefragmenter.Move> moves = SeatDefragmenter.plan(entry.getValue(), maxMoves);
+                if (moves.isEmpty()) {
+                    continue;
+                }
+                Map<Integer, TicketBooking> ticketsBySeat = new HashMap<>();
+                for (TicketBooking ticket : bookingRepository.findBySection(entry.getKey())) {
+                    if (ticket.getSeatNumber() != null) {
+                        ticketsBySeat.put(ticket.getSeatNumber(), ticket);
+                    }
+                }
+                if (!moves.stream().allMatch(move -> ticketsBySeat.containsKey(move.fromSeat()))) {
+                    continue;
+                }
+
+                SectionSeats seats = entry.getValue();
+                Map<Integer, TicketBooking> before = new HashMap<>();
+                List<TicketBooking> moved = new ArrayList<>(moves.size());
+                moves.forEach(move -> seats.remove(move.fromSeat()));
+                for (SeatDefragmenter.Move move : moves) {
+                    TicketBooking ticket = ticketsBySeat.get(move.fromSeat());
+                    before.put(ticket.getTicketId(), ticket.copy());
+                    seats.add(move.toSeat());
+                    ticket.setSeatNumber(move.toSeat());
+                    ticket.nextVersion();
+                    moved.add(ticket);
+                }
+                storeAll(moved);
+                publishSeatChanges(before, moved);
+                return moved.size();
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Complete the journey of every booking held by this node: write the bookings to a new segment of the
+     * {@link BookingArchive} and remove them from the booking store, so every seat is free again for the next
+     * journey. Archived tickets can still be read by {@link #getUserReceiptDetails(Integer)} and
+     * {@link #getAllTickets(String)}, but no longer be changed. Ticket numbering carries on, so a new ticket never
+     * takes the ID of an archived one.
+     * <p>
+     * The bookings are copied under the seat inventory lock, but the segment is written without holding it, so
+     * purchases and seat changes go on meanwhile. Afterwards only the bookings still unchanged are removed; one
+     * changed during the write stays in the booking store, which readers prefer to its archived copy, and is archived
+     * again with the next journey.
+     *
+     * @return CustomApiResponse with the state of the archive afterwards, or 409 if archiving is disabled.
+     */
+    public CustomApiResponse<ArchiveStatusDto> completeJourney() {
+        if (!bookingArchive.isEnabled()) {
+            return new CustomApiResponse<>(HttpStatus.CONFLICT.value(), ApiResponseMessages.ARCHIVE_DISABLED, null);
+        }
+        synchronized (journeyCompletionLock) {
+            List<TicketBooking> completed = new ArrayList<>();
+            synchronized (seatInventoryLock) {
+                bookingRepository.findAll().forEach(ticket -> completed.add(ticket.copy()));
+            }
+            // Written to the archive first, so that a failed write leaves the bookings where they were
+            bookingArchive.append(completed);
+            synchronized (seatInventoryLock) {
+                List<TicketBooking> unchanged = completed.stream()
+                        .filter(ticket -> bookingRepository.findById(ticket.getTicketId())
+                                .filter(ticket::equals)
+                                .isPresent())
+                        .toList();
+                removeAll(unchanged.stream().map(TicketBooking::getTicketId).toList());
+                rebuildSeatInventory();
+                unchanged.forEach(ticket -> publishChange(BookingChange.Type.ARCHIVED, ticket, null));
+                return new CustomApiResponse<>(HttpStatus.OK.value(), ApiResponseMessages.JOURNEY_ARCHIVED,
+                        archiveStatus());
+            }
+        }
+    }
+
+    /**
+     * Get how many bookings are held in the booking store and in the archive.
+     *
+     * @return CustomApiResponse with the state of the archive.
+     */
+    public CustomApiResponse<ArchiveStatusDto> getArchiveStatus() {
+        return new CustomApiResponse<>(HttpStatus.OK.value(), ApiResponseMessages.ARCHIVE_STATUS_FETCHED,
+                archiveStatus());
+    }
+
+    private ArchiveStatusDto archiveStatus() {
+        return new ArchiveStatusDto(bookingArchive.isEnabled(), bookingRepository.count(), bookingArchive.count(),
+                bookingArchive.segmentCount(), bookingArchive.sizeBytes());
+    }
+
+    /**
+     * Give a seat to every overbooked ticket still waiting for one, in a single pass, typically shortly before
+     * departure. Tickets are taken section by section in order of purchase and first get the best free seat of their
+     * own section, then whatever is left in the other sections owned by this node. Tickets for which no seat is left
+     * are cancelled, so their holders are notified like for any other cancellation.
+     *
+     * @return CustomApiResponse with one result per waiting ticket: 200 with its new seat, or 409 if it was
+     * cancelled.
+     */
+    public CustomApiResponse<List<BulkOperationResultDto>> resolveOverbooking() {
+        Map<Integer, BulkOperationResultDto> results = new LinkedHashMap<>();
+        synchronized (seatInventoryLock) {
+            Map<String, SectionSeats> localSections = localSections();
+            List<TicketBooking> waiting = new ArrayList<>();
+            for (String section : localSections.keySet()) {
+                waitingOf(section).forEach(ticketId -> bookingRepository.findById(ticketId).ifPresent(waiting::add));
+                waitingOf(section).clear();
+            }
+
+            Map<Integer, TicketBooking> before = new HashMap<>();
+            List<TicketBooking> seated = new ArrayList<>();
+            List<TicketBooking> unseated = new ArrayList<>();
+            for (TicketBooking ticket : waiting) {
+                String section = ticket.getSection().toUpperCase(Locale.ROOT);
+                SeatSelector.Selection seat = SeatSelector.select(Map.of(section, seatsOf(section)), null, null);
+                if (seat == null) {
+                    unseated.add(ticket);
+                } else {
+                    before.put(ticket.getTicketId(), ticket.copy());
+                    seatWaitingTicket(ticket, seat);
+                    seated.add(ticket);
+                }
+                results.put(ticket.getTicketId(), null);
+            }
+            List<TicketBooking> bumped = new ArrayList<>();
+            for (TicketBooking ticket : unseated) {
+                SeatSelector.Selection seat = SeatSelector.select(localSections, null, null);
+                if (seat == null) {
+                    bumped.add(ticket);
+                    results.put(ticket.getTicketId(), new BulkOperationResultDto(ticket.getTicketId(),
+                            HttpStatus.CONFLICT.value(), ApiResponseMessages.OVERBOOKED_TICKET_CANCELLED,
+                            convertToDto(ticket)));
+                } else {
+                    before.put(ticket.getTicketId(), ticket.copy());
+                    seatWaitingTicket(ticket, seat);
+                    seated.add(ticket);
+                }
+            }
+            for (TicketBooking ticket : seated) {
+                results.put(ticket.getTicketId(), new BulkOperationResultDto(ticket.getTicketId(),
+                        HttpStatus.OK.value(), ApiResponseMessages.OVERBOOKED_TICKET_SEATED, convertToDto(ticket)));
+            }
+
+            storeAll(seated);
+            removeAll(bumped.stream().map(TicketBooking::getTicketId).toList());
+            seated.forEach(ticket ->
+                    publishChange(BookingChange.Type.SEAT_CHANGED, before.get(ticket.getTicketId()), ticket));
+            bumped.forEach(ticket -> publishChange(BookingChange.Type.CANCELLED, ticket, null));
+        }
+        return new CustomApiResponse<>(HttpStatus.OK.value(),
+                ApiResponseMessages.OVERBOOKING_RESOLVED, new ArrayList<>(results.values()));
+    }
+
+    /**
+     * Get, for each section owned by this node, how many tickets are seated or waiting for a seat and how many may be
+     * sold beyond its seats.
+     *
+     * @return CustomApiResponse with one entry per section.
+     */
+    public CustomApiResponse<List<SectionOverbookingDto>> getOverbookingStatus() {
+        List<SectionOverbookingDto> sections = new ArrayList<>();
+        synchronized (seatInventoryLock) {
+            localSections().forEach((section, seats) -> sections.add(new SectionOverbookingDto(section,
+                    seats.getLayout().size(),
+                    seats.size(),
+                    waitingOf(section).size(),
+                    overbookingPolicy.extraSeats(section),
+                    overbookingPolicy.cancellationRate(section),
+                    overbookingPolicy.observations(section))));
+        }
+        return new CustomApiResponse<>(HttpStatus.OK.value(),
+                ApiResponseMessages.OVERBOOKING_STATUS_FETCHED, sections);
+    }
+
+    /**
+     * Get the free seats and the current fare of each section owned by this node. Both are read at the same moment,
+     * so the fare is the one a purchase would pay for a seat of that section, given no other purchase comes first.
+     *
+     * @return CustomApiResponse with one entry per section; the fares are null unless dynamic pricing is enabled.
+     */
+    public CustomApiResponse<List<SectionFareDto>> getFares() {
+        List<SectionFareDto> fares = new ArrayList<>();
+        synchronized (seatInventoryLock) {
+            localSections().forEach((section, seats) -> {
+                Money fare = dynamicPricing.fare(seats.size());
+                fares.add(new SectionFareDto(section,
+                        seats.getLayout().size(),
+                        seats.getLayout().size() - seats.size(),
+                        fare != null ? fare.toBigDecimal() : null));
+            });
+        }
+        return new CustomApiResponse<>(HttpStatus.OK.value(), ApiResponseMessages.FARES_FETCHED, fares);
+    }
+
+    private void seatWaitingTicket(TicketBooking ticket, SeatSelector.Selection seat) {
+        seatsOf(seat.section()).add(seat.seatNumber());
+        ticket.setSection(seat.section());
+        ticket.setSeatNumber(seat.seatNumber());
+        ticket.nextVersion();
+    }
+
+    /**
+     * Run a read while no change can be applied, so that the result and any state kept by the change listeners
+     * describe the same moment.
+     *
+     * @param reader The read to run.
+     * @return The result of the read.
+     */
+    public <T> T readConsistently(Supplier<T> reader) {
+        synchronized (seatInventoryLock) {
+            return reader.get();
+        }
+    }
+
+    /**
+     * Store a booking received from the primary node, moving its seat in the inventory if it changed.
+     * Replicated changes are not passed on to the change listeners.
+     *
+     * @param ticketBooking The booking as stored on the primary.
+     */
+    public void applyReplicatedBooking(TicketBooking ticketBooking) {
+        applyReplicatedBookings(List.of(ticketBooking));
+    }
+
+    /**
+     * Store bookings the primary node changed in one step, such as the tickets of a seat exchange, together, so the
+     * booking store never holds two of them on one seat.
+     *
+     * @param ticketBookings The bookings as stored on the primary.
+     */
+    public void applyReplicatedBookings(List<TicketBooking> ticketBookings) {
+        synchronized (seatInventoryLock) {
+            Map<Integer, TicketBooking> before = new HashMap<>();
+            for (TicketBooking ticketBooking : ticketBookings) {
+                bookingRepository.findById(ticketBooking.getTicketId()).ifPresent(previous -> {
+                    unAllocateSeat(previous);
+                    before.put(previous.getTicketId(), previous);
+                });
+            }
+            storeAll(ticketBookings);
+            for (TicketBooking ticketBooking : ticketBookings) {
+                advanceTicketSequence(ticketBooking.getTicketId());
+                if (ticketBooking.getSeatNumber() != null) {
+                    seatsOf(sectionOfSeat(ticketBooking.getSeatNumber())).add(ticketBooking.getSeatNumber());
+                } else if (ticketBooking.getSection() != null) {
+                    waitingOf(ticketBooking.getSection()).add(ticketBooking.getTicketId());
+                }
+            }
+            publishChanges(ticketBookings.stream()
+                    .map(ticketBooking -> {
+                        TicketBooking previous = before.get(ticketBooking.getTicketId());
+                        return changeOf(replicatedChangeType(previous, ticketBooking), previous, ticketBooking, true);
+                    })
+                    .toList());
+        }
+    }
+
+    /**
+     * Remove a booking cancelled on the primary node and release its seat.
+     *
+     * @param ticketId The ID of the cancelled ticket.
+     */
+    public void applyReplicatedCancellation(Integer ticketId) {
+        synchronized (seatInventoryLock) {
+            bookingRepository.findById(ticketId).ifPresent(ticket -> {
+                unAllocateSeat(ticket);
+                remove(ticketId);
+                publishChange(BookingChange.Type.CANCELLED, ticket, null, true);
+            });
+        }
+    }
+
+    /**
+     * Drop every booking and seat before a full copy of the primary's bookings is applied.
+     */
+    public void clearReplicatedState() {
+        synchronized (seatInventoryLock) {
+            List<TicketBooking> dropped = new ArrayList<>(bookingRepository.findAll());
+            removeAll(dropped.stream()
+                    .map(TicketBooking::getTicketId)
+                    .toList());
+            sectionASeats.clear();
+            sectionBSeats.clear();
+            sectionAWaiting.clear();
+            sectionBWaiting.clear();
+            dropped.forEach(ticket -> publishChange(BookingChange.Type.CANCELLED, ticket, null, true));
+        }
+    }
+
+    /*
+     * Writes to the booking store. The seat inventory is changed together with the store, before the write; if the
+     * write fails, the inventory is rebuilt from whatever the store now holds, so the two never drift apart.
+     */
+
+    private void store(TicketBooking ticketBooking) {
+        try {
+            bookingRepository.save(ticketBooking);
+        } catch (RuntimeException e) {
+            loadSeatInventory();
+            throw e;
+        }
+    }
+
+    private void storeAll(Collection<TicketBooking> ticketBookings) {
+        try {
+            bookingRepository.saveAll(ticketBookings);
+        } catch (RuntimeException e) {
+            loadSeatInventory();
+            throw e;
+        }
+    }
+
+    private void remove(Integer ticketId) {
+        try {
+            bookingRepository.deleteById(ticketId);
+        } catch (RuntimeException e) {
+            loadSeatInventory();
+            throw e;
+        }
+    }
+
+    private void removeAll(Collection<Integer> ticketIds) {
+        try {
+            bookingRepository.deleteAllById(ticketIds);
+        } catch (RuntimeException e) {
+            loadSeatInventory();
+            throw e;
+        }
+    }
+
+    private void recordIssuedSequence(long sequence) {
+        try {
+            bookingRepository.recordIssuedSequence(clusterTopology.getLocalNodeId(), sequence);
+        } catch (RuntimeException e) {
+            loadSeatInventory();
+            throw e;
+        }
+    }
+
+    private <T> T observe(String name, Supplier<T> phase) {
+        return Observation.createNotStarted(name, observationRegistry).observe(phase);
+    }
+
+    private void publishChange(BookingChange.Type type, TicketBooking before, TicketBooking after) {
+        publishChange(type, before, after, false);
+    }
+
+    private void publishChange(BookingChange.Type type, TicketBooking before, TicketBooking after,
+                               boolean replicated) {
+        if (changeListeners.isEmpty()) {
+            return;
+        }
+        BookingChange change = changeOf(type, before, after, replicated);
+        changeListeners.forEach(listener -> listener.onBookingChange(change));
+    }
+
+    private void publishSeatChanges(Map<Integer, TicketBooking> before, Collection<TicketBooking> moved) {
+        publishChanges(moved.stream()
+                .map(ticket -> changeOf(BookingChange.Type.SEAT_CHANGED, before.get(ticket.getTicketId()), ticket,
+                        false))
+                .toList());
+    }
+
+    private void publishChanges(List<BookingChange> changes) {
+        if (changeListeners.isEmpty() || changes.isEmpty()) {
+            return;
+        }
+        changeListeners.forEach(listener -> listener.onBookingChanges(changes));
+    }
+
+    private static BookingChange changeOf(BookingChange.Type type, TicketBooking before, TicketBooking after,
+                                          boolean replicated) {
+        return new BookingChange(type,
+                before != null ? before.copy() : null,
+                after != null ? after.copy() : null,
+                replicated);
+    }
+
+    private static BookingChange.Type replicatedChangeType(TicketBooking before, TicketBooking after) {
+        if (before == null) {
+            return BookingChange.Type.PURCHASED;
+        }
+        if (!Objects.equals(before.getPricePaid(), after.getPricePaid())) {
+            return BookingChange.Type.DISCOUNT_APPLIED;
+        }
+        return BookingChange.Type.SEAT_CHANGED;
+    }
+
+    private Map<String, SectionSeats> localSections() {
+        Map<String, SectionSeats> localSections = new LinkedHashMap<>();
+        for (String section : ClusterTopology.SECTIONS) {
+            if (clusterTopology.isLocalSection(section)) {
+                localSections.put(section, seatsOf(section));
+            }
+        }
+        return localSections;
+    }
+
+    private Money priceAfterDiscount(TicketBookingDto ticketBooking) {
+        return minusDiscount(Money.of(ticketBooking.pricePaid()), ticketBooking.discount());
+    }
+
+    private Money minusDiscount(Money price, String discount) {
+        Money updatedPrice = price;
+        if (Optional.ofNullable(discount).isPresent()){
+            Money discountAmount = discountMap.get(discount);
+            if(Optional.ofNullable(discountAmount).isPresent() ){
+                updatedPrice = updatedPrice.minus(discountAmount);
+            }
+        }
+        return updatedPrice;
+    }
+
+    private SectionSeats seatsOf(String section) {
+        return section.equalsIgnoreCase("A") ? sectionASeats : sectionBSeats;
+    }
+
+    private Set<Integer> waitingOf(String section) {
+        return section.equalsIgnoreCase("A") ? sectionAWaiting : sectionBWaiting;
+    }
+
+    private String sectionOfSeat(int seatNumber) {
+        return seatNumber <= MAX_SEATS_PER_SECTION ? "A" : "B";
     }
 
     /**
      * Get all users and their seat allocations based on the specified section.
+     * The stored bookings are returned as they are and written out by TicketBookingJsonSerializer,
+     * so no DTO is built per ticket.
      *
      * @param section The section for which users are requested (e.g., "A", "B").
      * @return CustomApiResponse with information about the users and their seat allocations.
      */
-    public CustomApiResponse<List<TicketBookingDto>> getUsersBySection(String section) {
-        List<TicketBookingDto> usersInSection = ticketBookingMap.values().stream()
-                .filter(ticket -> ticket.getSection().equalsIgnoreCase(section))
-                .map(this::convertToDto)
-                .toList();
+    public CustomApiResponse<List<TicketBooking>> getUsersBySection(String section) {
+        List<TicketBooking> usersInSection = bookingRepository.findBySection(section);
 
         if (!usersInSection.isEmpty()) {
             return new CustomApiResponse<>(HttpStatus.OK.value(),
@@ -300,11 +1294,4 @@ public class TicketBookingService {
     private TicketBookingDto convertToDto(TicketBooking ticketBooking) {
         return ticketBookingMapper.toDto(ticketBooking);
     }
-
-    private void getDiscountMap(){
-        discountMap.put("DISCOUNT1", BigDecimal.valueOf(1));
-        discountMap.put("DISCOUNT2", BigDecimal.valueOf(2));
-        discountMap.put("DISCOUNT3", BigDecimal.valueOf(10));
-
-    }
 }
\ No newline at end of file
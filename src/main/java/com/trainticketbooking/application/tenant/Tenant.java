@@ -0,0 +1,41 @@
+package com.trainticketbooking.application.tenant;
+
+import com.trainticketbooking.application.service.TicketBookingService;
+
+/**
+ * A rail operator served by this deployment, with its own booking store, seat inventory and ticket numbering, and its
+ * own {@link TenantQuota}.
+ */
+public final class Tenant {
+
+    /**
+     * The ID of the tenant served when a request names none.
+     */
+    public static final String DEFAULT_ID = "default";
+
+    private final String id;
+    private final TicketBookingService ticketBookingService;
+    private final TenantQuota quota;
+
+    public Tenant(String id, TicketBookingService ticketBookingService, TenantQuota quota) {
+        this.id = id;
+        this.ticketBookingService = ticketBookingService;
+        this.quota = quota;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public TicketBookingService getTicketBookingService() {
+        return ticketBookingService;
+    }
+
+    public TenantQuota getQuota() {
+        return quota;
+    }
+
+    public boolean isDefault() {
+        return DEFAULT_ID.equals(id);
+    }
+}
@@ -0,0 +1,39 @@
+package com.trainticketbooking.application.tenant;
+
+/**
+ * Holds the tenant of the request being served by the current thread, as selected by {@link TenantInterceptor}.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Tenant> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Get the tenant of the current request.
+     *
+     * @return The tenant, or null outside a request or when the deployment serves a single tenant.
+     */
+    public static Tenant current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Get the tenant of the current request if it is not the default tenant.
+     *
+     * @return The tenant, or null if the request is served from the default tenant's bookings.
+     */
+    public static Tenant isolated() {
+        Tenant tenant = CURRENT.get();
+        return tenant != null && !tenant.isDefault() ? tenant : null;
+    }
+
+    public static void set(Tenant tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,125 @@
+package com.trainticketbooking.application.tenant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Selects the tenant of every request from its {@value #TENANT_HEADER} header, the default tenant if there is none,
+ * and holds the request to the tenant's quotas before it reaches a controller, so a tenant over its limits is turned
+ * away without taking a worker from the others. A request over the tenant's request rate, or arriving while the
+ * tenant already has its maximum number of requests in progress, is answered with 429; the worker of an admitted
+ * request is given back when it completes. Requests for another tenant than the default one are only served by
+ * {@link TenantScoped} endpoints. Turned away requests are counted in {@code booking.tenant.rejections}, tagged with
+ * the tenant and the reason.
+ * <p>
+ * Nothing is checked unless {@code booking.tenants} is configured (see {@link TenantRegistry}).
+ */
+@Component
+public class TenantInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    private static final String ADMITTED_TENANT = TenantInterceptor.class.getName() + ".TENANT";
+    private static final String REJECTIONS = "booking.tenant.rejections";
+
+    private final TenantRegistry tenantRegistry;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public TenantInterceptor(TenantRegistry tenantRegistry, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.tenantRegistry = tenantRegistry;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!tenantRegistry.isConfigured() || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        response.addHeader(HttpHeaders.VARY, TENANT_HEADER);
+        String tenantId = request.getHeader(TENANT_HEADER);
+        Tenant tenant = tenantId == null || tenantId.isBlank()
+                ? tenantRegistry.defaultTenant()
+                : tenantRegistry.find(tenantId.trim()).orElse(null);
+        if (tenant == null) {
+            return reject(response, "unknown", "unknown-tenant", HttpStatus.BAD_REQUEST,
+                    ApiResponseMessages.UNKNOWN_TENANT + tenantId.trim());
+        }
+        if (!tenant.isDefault() && !isTenantScoped(handler)) {
+            return reject(response, tenant.getId(), "endpoint", HttpStatus.BAD_REQUEST,
+                    ApiResponseMessages.TENANT_ENDPOINT_UNAVAILABLE);
+        }
+        if (!tenant.getQuota().tryAcquireRequest(System.nanoTime())) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return reject(response, tenant.getId(), "rate", HttpStatus.TOO_MANY_REQUESTS,
+                    ApiResponseMessages.TENANT_RATE_LIMITED);
+        }
+        if (!tenant.getQuota().tryAcquireWorker()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return reject(response, tenant.getId(), "concurrency", HttpStatus.TOO_MANY_REQUESTS,
+                    ApiResponseMessages.TENANT_BUSY);
+        }
+        request.setAttribute(ADMITTED_TENANT, tenant);
+        TenantContext.set(tenant);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        release(request);
+    }
+
+    private static void release(HttpServletRequest request) {
+        Object tenant = request.getAttribute(ADMITTED_TENANT);
+        if (tenant != null) {
+            request.removeAttribute(ADMITTED_TENANT);
+            ((Tenant) tenant).getQuota().releaseWorker();
+        }
+        TenantContext.clear();
+    }
+
+    private static boolean isTenantScoped(Object handler) {
+        return handler instanceof HandlerMethod handlerMethod
+                && (handlerMethod.hasMethodAnnotation(TenantScoped.class)
+                || handlerMethod.getBeanType().isAnnotationPresent(TenantScoped.class));
+    }
+
+    private boolean reject(HttpServletResponse response, String tenantId, String reason, HttpStatus status,
+                           String message) throws IOException {
+        Counter.builder(REJECTIONS)
+                .description("Requests turned away by the quotas or endpoint restrictions of their tenant")
+                .tag("tenant", tenantId)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new CustomApiResponse<>(status.value(), message, null));
+        return false;
+    }
+}
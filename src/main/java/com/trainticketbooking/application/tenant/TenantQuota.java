@@ -0,0 +1,93 @@
+package com.trainticketbooking.application.tenant;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * The resource limits of one tenant: a token bucket for its request rate, a number of requests it may have in
+ * progress at once, and the number of bookings it may hold. A limit of 0 means unlimited.
+ */
+public final class TenantQuota {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double requestsPerSecond;
+    private final int maxConcurrentRequests;
+    private final long maxBookings;
+    private final Semaphore workers;
+
+    private double tokens;
+    private long refilledAtNanos;
+    private boolean started;
+
+    public TenantQuota(double requestsPerSecond, int maxConcurrentRequests, long maxBookings) {
+        this.requestsPerSecond = Math.max(0, requestsPerSecond);
+        this.maxConcurrentRequests = Math.max(0, maxConcurrentRequests);
+        this.maxBookings = Math.max(0, maxBookings);
+        this.workers = this.maxConcurrentRequests > 0 ? new Semaphore(this.maxConcurrentRequests) : null;
+        // A burst of up to one second's worth of requests
+        this.tokens = Math.max(1, this.requestsPerSecond);
+    }
+
+    /**
+     * Take a token for a request, if the rate allows one.
+     *
+     * @param nowNanos The current time of a monotonic clock, in nanoseconds.
+     * @return False if the tenant has used up its request rate.
+     */
+    public synchronized boolean tryAcquireRequest(long nowNanos) {
+        if (requestsPerSecond == 0) {
+            return true;
+        }
+        if (started) {
+            double refill = (nowNanos - refilledAtNanos) * requestsPerSecond / NANOS_PER_SECOND;
+            tokens = Math.min(Math.max(1, requestsPerSecond), tokens + refill);
+        }
+        started = true;
+        refilledAtNanos = nowNanos;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * Take a worker for a request without waiting.
+     *
+     * @return False if the tenant already has its maximum number of requests in progress.
+     */
+    public boolean tryAcquireWorker() {
+        return workers == null || workers.tryAcquire();
+    }
+
+    /**
+     * Give back a worker taken by {@link #tryAcquireWorker()}.
+     */
+    public void releaseWorker() {
+        if (workers != null) {
+            workers.release();
+        }
+    }
+
+    /**
+     * Check whether a tenant holding the given number of bookings may take another one.
+     *
+     * @param bookings The number of bookings the tenant holds.
+     * @return True if the booking quota leaves room for one more.
+     */
+    public boolean hasRoomForBooking(long bookings) {
+        return maxBookings == 0 || bookings < maxBookings;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public long getMaxBookings() {
+        return maxBookings;
+    }
+}
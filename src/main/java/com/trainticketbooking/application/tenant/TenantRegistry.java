@@ -0,0 +1,118 @@
+package com.trainticketbooking.application.tenant;
+
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.repository.BookingRepository;
+import com.trainticketbooking.application.repository.InMemoryBookingRepository;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.TicketBookingMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The rail operators served by this deployment, configured in {@code booking.tenants} as entries of the form
+ * {@code id} or {@code id:requestsPerSecond:maxConcurrentRequests:maxBookings}. Quotas left out or empty are taken
+ * from {@code booking.tenant.requests-per-second}, {@code booking.tenant.max-concurrent-requests} and
+ * {@code booking.tenant.max-bookings}; 0 means unlimited.
+ * <p>
+ * The {@value Tenant#DEFAULT_ID} tenant is always served, from the application's own {@link TicketBookingService}
+ * and booking store, and is only limited if it is listed itself. Every other tenant gets a booking service of its
+ * own, with its own in-memory booking store, seat inventory and ticket numbering, so its tickets, seats and ticket
+ * IDs are never seen by another tenant.
+ */
+@Component
+public class TenantRegistry {
+
+    private final Tenant defaultTenant;
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>();
+    private final boolean configured;
+
+    public TenantRegistry(@Value("${booking.tenants:}") List<String> tenantEntries,
+                          @Value("${booking.tenant.requests-per-second:0}") double requestsPerSecond,
+                          @Value("${booking.tenant.max-concurrent-requests:0}") int maxConcurrentRequests,
+                          @Value("${booking.tenant.max-bookings:0}") long maxBookings,
+                          TicketBookingService ticketBookingService,
+                          TicketBookingMapper ticketBookingMapper,
+                          DynamicPricing dynamicPricing,
+                          ObservationRegistry observationRegistry) {
+        Tenant unlimitedDefault = new Tenant(Tenant.DEFAULT_ID, ticketBookingService, new TenantQuota(0, 0, 0));
+        for (String entry : tenantEntries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] fields = entry.trim().split(":", -1);
+            String id = fields[0].trim();
+            if (id.isEmpty() || tenants.containsKey(id)) {
+                throw new IllegalArgumentException("Invalid or duplicate tenant in booking.tenants: " + entry);
+            }
+            TenantQuota quota = new TenantQuota(
+                    field(fields, 1) == null ? requestsPerSecond : Double.parseDouble(field(fields, 1)),
+                    field(fields, 2) == null ? maxConcurrentRequests : Integer.parseInt(field(fields, 2)),
+                    field(fields, 3) == null ? maxBookings : Long.parseLong(field(fields, 3)));
+            if (Tenant.DEFAULT_ID.equals(id)) {
+                ticketBookingService.limitBookings(quota.getMaxBookings());
+                tenants.put(id, new Tenant(id, ticketBookingService, quota));
+                continue;
+            }
+            BookingRepository tenantRepository = new InMemoryBookingRepository();
+            TicketBookingService tenantService = new TicketBookingService(ticketBookingMapper, tenantRepository,
+                    BookingArchive.disabled(), ClusterTopology.standalone(), OverbookingPolicy.disabled(),
+                    dynamicPricing, observationRegistry, List.of());
+            tenantService.loadSeatInventory();
+            tenantService.limitBookings(quota.getMaxBookings());
+            tenants.put(id, new Tenant(id, tenantService, quota));
+        }
+        this.configured = !tenants.isEmpty();
+        this.defaultTenant = tenants.computeIfAbsent(Tenant.DEFAULT_ID, id -> unlimitedDefault);
+    }
+
+    /**
+     * Check whether any tenant is configured.
+     *
+     * @return True if requests select a tenant and are held to its quotas.
+     */
+    public boolean isConfigured() {
+        return configured;
+    }
+
+    /**
+     * Get the tenant served when a request names none.
+     *
+     * @return The default tenant.
+     */
+    public Tenant defaultTenant() {
+        return defaultTenant;
+    }
+
+    /**
+     * Find a tenant by its ID.
+     *
+     * @param id The tenant ID.
+     * @return The tenant, or empty if no such tenant is configured.
+     */
+    public Optional<Tenant> find(String id) {
+        return Optional.ofNullable(tenants.get(id));
+    }
+
+    /**
+     * Get every configured tenant, including the default one.
+     *
+     * @return The tenants in configuration order.
+     */
+    public Collection<Tenant> tenants() {
+        return tenants.values();
+    }
+
+    private static String field(String[] fields, int index) {
+        return index < fields.length && !fields[index].isBlank() ? fields[index].trim() : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.trainticketbooking.application.tenant;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller, or one of its endpoints, as serving every tenant from the tenant's own bookings. The other
+ * endpoints only serve the default tenant.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TenantScoped {
+}
@@ -0,0 +1,183 @@
+package com.trainticketbooking.application.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainticketbooking.application.dto.SpanDto;
+import com.trainticketbooking.application.dto.TraceDto;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the tracing spans of sampled requests on this node, for looking into slow requests without a tracing backend.
+ * <p>
+ * Spans are handed over by the OpenTelemetry SDK in batches, off the request threads. The last
+ * {@code booking.tracing.buffer-size} spans are kept in memory and served grouped by trace, and if
+ * {@code booking.tracing.file} is set every span is also appended to that file as one line of JSON, so traces of an
+ * offline run can be read afterwards. Which requests are sampled is decided by
+ * {@code management.tracing.sampling.probability}; further exporters, such as OTLP, receive the same spans.
+ */
+@Component
+public class LocalSpanExporter implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalSpanExporter.class);
+
+    private final int bufferSize;
+    private final ObjectMapper objectMapper;
+    private final ArrayDeque<SpanDto> recentSpans;
+    private final BufferedWriter writer;
+
+    @Autowired
+    public LocalSpanExporter(@Value("${booking.tracing.buffer-size:2048}") int bufferSize,
+                             @Value("${booking.tracing.file:}") String file,
+                             ObjectMapper objectMapper) {
+        this(bufferSize, file.isBlank() ? null : Path.of(file.trim()), objectMapper);
+    }
+
+    LocalSpanExporter(int bufferSize, Path file, ObjectMapper objectMapper) {
+        this.bufferSize = Math.max(0, bufferSize);
+        this.objectMapper = objectMapper;
+        this.recentSpans = new ArrayDeque<>(this.bufferSize);
+        try {
+            this.writer = file == null ? null : Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the span file " + file, e);
+        }
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<SpanDto> exported = spans.stream().map(LocalSpanExporter::toDto).toList();
+        synchronized (recentSpans) {
+            for (SpanDto span : exported) {
+                if (recentSpans.size() == bufferSize) {
+                    recentSpans.pollFirst();
+                }
+                if (bufferSize > 0) {
+                    recentSpans.addLast(span);
+                }
+            }
+        }
+        if (writer == null) {
+            return CompletableResultCode.ofSuccess();
+        }
+        synchronized (writer) {
+            try {
+                for (SpanDto span : exported) {
+                    writer.write(objectMapper.writeValueAsString(span));
+                    writer.newLine();
+                }
+                // One flush per batch, so the file is readable while the application runs
+                writer.flush();
+                return CompletableResultCode.ofSuccess();
+            } catch (IOException e) {
+                log.warn("Writing spans to the span file failed", e);
+                return CompletableResultCode.ofFailure();
+            }
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        if (writer == null) {
+            return CompletableResultCode.ofSuccess();
+        }
+        synchronized (writer) {
+            try {
+                writer.flush();
+                return CompletableResultCode.ofSuccess();
+            } catch (IOException e) {
+                log.warn("Flushing the span file failed", e);
+                return CompletableResultCode.ofFailure();
+            }
+        }
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        if (writer == null) {
+            return CompletableResultCode.ofSuccess();
+        }
+        synchronized (writer) {
+            try {
+                writer.close();
+                return CompletableResultCode.ofSuccess();
+            } catch (IOException e) {
+                log.warn("Closing the span file failed", e);
+                return CompletableResultCode.ofFailure();
+            }
+        }
+    }
+
+    /**
+     * Get the most recent traces whose spans are still held in memory, newest first.
+     *
+     * @param minDurationMicros The shortest trace to return, in microseconds.
+     * @param limit             The largest number of traces to return.
+     * @return The traces with their spans.
+     */
+    public List<TraceDto> recentTraces(long minDurationMicros, int limit) {
+        Map<String, List<SpanDto>> spansByTrace = new LinkedHashMap<>();
+        synchronized (recentSpans) {
+            recentSpans.forEach(span ->
+                    spansByTrace.computeIfAbsent(span.traceId(), traceId -> new ArrayList<>()).add(span));
+        }
+        return spansByTrace.values().stream()
+                .map(LocalSpanExporter::toTrace)
+                .filter(trace -> trace.durationMicros() >= minDurationMicros)
+                .sorted(Comparator.comparingLong(TraceDto::startEpochMicros).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    private static TraceDto toTrace(List<SpanDto> spans) {
+        List<SpanDto> ordered = spans.stream()
+                .sorted(Comparator.comparingLong(SpanDto::startEpochMicros))
+                .toList();
+        SpanDto first = ordered.stream()
+                .filter(span -> span.parentSpanId() == null)
+                .findFirst()
+                .orElse(ordered.get(0));
+        long start = ordered.get(0).startEpochMicros();
+        long end = ordered.stream()
+                .mapToLong(span -> span.startEpochMicros() + span.durationMicros())
+                .max()
+                .orElse(start);
+        return new TraceDto(first.traceId(), first.name(), start, end - start, ordered);
+    }
+
+    private static SpanDto toDto(SpanData span) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+        return new SpanDto(span.getTraceId(),
+                span.getSpanId(),
+                span.getParentSpanContext().isValid() ? span.getParentSpanId() : null,
+                span.getName(),
+                span.getKind().name(),
+                span.getStartEpochNanos() / 1_000,
+                (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000,
+                span.getStatus().getStatusCode() == StatusCode.ERROR,
+                attributes);
+    }
+}
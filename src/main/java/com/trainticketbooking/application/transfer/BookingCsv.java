@@ -0,0 +1,86 @@
+package com.trainticketbooking.application.transfer;
+
+import com.trainticketbooking.application.domain.TicketBooking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV reading and writing for bookings. Fields containing commas, quotes or line breaks are quoted, with quotes
+ * doubled; a quoted field cannot span lines.
+ */
+final class BookingCsv {
+
+    static final String HEADER = "ticketId,from,to,userName,userEmail,pricePaid,section,seatNumber\n";
+
+    private BookingCsv() {
+    }
+
+    /**
+     * Write a booking as one CSV line, matching {@link #HEADER}.
+     *
+     * @param ticket The booking.
+     * @return The line, ending with a line break.
+     */
+    static String format(TicketBooking ticket) {
+        return new StringBuilder(96)
+                .append(ticket.getTicketId()).append(',')
+                .append(quote(ticket.getFrom())).append(',')
+                .append(quote(ticket.getTo())).append(',')
+                .append(quote(ticket.getUserName())).append(',')
+                .append(quote(ticket.getUserEmail())).append(',')
+                .append(ticket.getPricePaid() != null ? ticket.getPricePaid().toPlainString() : "").append(',')
+                .append(quote(ticket.getSection())).append(',')
+                .append(ticket.getSeatNumber() != null ? ticket.getSeatNumber() : "").append('\n')
+                .toString();
+    }
+
+    /**
+     * Split a CSV line into its fields.
+     *
+     * @param line The line, without its line break.
+     * @return The fields; empty fields are empty strings.
+     * @throws IllegalArgumentException if a quoted field is not closed.
+     */
+    static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,96 @@
+package com.trainticketbooking.application.transfer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams bookings from the store to a channel as CSV or NDJSON. Bookings are taken one at a time from
+ * {@link BookingRepository#scan} and encoded into a reusable buffer of {@code booking.export.buffer-size-bytes},
+ * which is written out whenever it fills, so memory use does not depend on the number of bookings.
+ * NDJSON lines have the same shape as the JSON ticket lists.
+ */
+@Component
+public class BookingExporter {
+
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+    private final int bufferSizeBytes;
+
+    public BookingExporter(BookingRepository bookingRepository,
+                           ObjectMapper objectMapper,
+                           @Value("${booking.export.buffer-size-bytes:65536}") int bufferSizeBytes) {
+        this.bookingRepository = bookingRepository;
+        this.objectMapper = objectMapper;
+        this.bufferSizeBytes = bufferSizeBytes;
+    }
+
+    /**
+     * Export the bookings of one or all sections.
+     *
+     * @param target  The channel to write to; it is not closed.
+     * @param format  The format to write.
+     * @param section The section (e.g., "A", "B"), or null for all sections.
+     * @throws IOException if the channel cannot be written.
+     */
+    public void exportBookings(WritableByteChannel target, BookingFormat format, String section) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSizeBytes);
+        if (format == BookingFormat.CSV) {
+            append(target, buffer, BookingCsv.HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            bookingRepository.scan(section, ticket -> {
+                try {
+                    append(target, buffer, encode(ticket, format));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        drain(target, buffer);
+    }
+
+    private byte[] encode(TicketBooking ticket, BookingFormat format) throws JsonProcessingException {
+        if (format == BookingFormat.CSV) {
+            return BookingCsv.format(ticket).getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] json = objectMapper.writeValueAsBytes(ticket);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    private static void append(WritableByteChannel target, ByteBuffer buffer, byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            drain(target, buffer);
+        }
+        if (bytes.length > buffer.capacity()) {
+            ByteBuffer large = ByteBuffer.wrap(bytes);
+            while (large.hasRemaining()) {
+                target.write(large);
+            }
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private static void drain(WritableByteChannel target, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        buffer.clear();
+    }
+}
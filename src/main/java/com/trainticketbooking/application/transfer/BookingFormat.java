@@ -0,0 +1,45 @@
+package com.trainticketbooking.application.transfer;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Line-oriented formats for bulk import and export of bookings.
+ */
+public enum BookingFormat {
+
+    /**
+     * Comma separated values with a header row naming the columns.
+     */
+    CSV(new MediaType("text", "csv")),
+
+    /**
+     * One JSON booking per line.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    BookingFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Get the format of a media type.
+     *
+     * @param mediaType The media type.
+     * @return The format.
+     * @throws IllegalArgumentException if the media type is not a supported format.
+     */
+    public static BookingFormat of(MediaType mediaType) {
+        for (BookingFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported booking format: " + mediaType);
+    }
+}
@@ -0,0 +1,352 @@
+package com.trainticketbooking.application.transfer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.dto.BookingImportErrorDto;
+import com.trainticketbooking.application.dto.BookingImportResultDto;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import com.trainticketbooking.application.service.TicketBookingService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams bookings from a CSV or NDJSON source into the booking store through a bounded pipeline:
+ * <ol>
+ *     <li>the source channel is read into chunks of whole lines of at most {@code booking.import.chunk-size-bytes};</li>
+ *     <li>chunks are parsed and validated in parallel on {@code booking.import.parser-threads} threads;</li>
+ *     <li>parsed chunks are taken back in source order, and the valid rows of each chunk get their seats and are
+ *     written in one {@link TicketBookingService#importTickets} batch.</li>
+ * </ol>
+ * At most {@code booking.import.max-in-flight} chunks are read ahead of the writer, so memory use does not depend on
+ * the size of the source. Rejected rows are counted, and the first of them are reported with their line numbers.
+ * <p>
+ * CSV sources need a header row with at least the columns {@code from}, {@code to}, {@code userName},
+ * {@code userEmail} and {@code pricePaid}; {@code seatNumber} and {@code discount} are optional, and other
+ * columns (such as {@code ticketId} and {@code section} in an export) are ignored.
+ */
+@Component
+public class BookingImporter {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final List<String> REQUIRED_COLUMNS = List.of("from", "to", "userName", "userEmail", "pricePaid");
+
+    private final TicketBookingService ticketBookingService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSizeBytes;
+    private final int maxInFlight;
+    private final ExecutorService parsers;
+
+    public BookingImporter(TicketBookingService ticketBookingService,
+                           ObjectMapper objectMapper,
+                           @Value("${booking.import.chunk-size-bytes:65536}") int chunkSizeBytes,
+                           @Value("${booking.import.parser-threads:0}") int parserThreads,
+                           @Value("${booking.import.max-in-flight:0}") int maxInFlight) {
+        this.ticketBookingService = ticketBookingService;
+        this.objectMapper = objectMapper;
+        this.chunkSizeBytes = chunkSizeBytes;
+        int threads = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : threads * 2;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.parsers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "booking-import-parser-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        parsers.shutdownNow();
+    }
+
+    /**
+     * Import every booking of a source.
+     *
+     * @param source The source, read to its end but not closed.
+     * @param format The format of the source.
+     * @return The number of rows read, imported and rejected, with the first rejected rows.
+     * @throws IOException              if the source cannot be read.
+     * @throws IllegalArgumentException if the CSV header is missing a required column or a line does not fit
+     *                                  in a chunk.
+     */
+    public BookingImportResultDto importBookings(ReadableByteChannel source, BookingFormat format)
+            throws IOException {
+        ImportProgress progress = new ImportProgress();
+        Deque<Future<List<ParsedRow>>> inFlight = new ArrayDeque<>();
+        ByteBuffer buffer = ByteBuffer.allocate(chunkSizeBytes);
+        Map<String, Integer> columns = null;
+        long nextLine = 1;
+        boolean endOfSource = false;
+        try {
+            while (!endOfSource) {
+                endOfSource = fill(source, buffer);
+                buffer.flip();
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                    continue;
+                }
+                int end = endOfSource ? buffer.limit() : lastLineBreak(buffer) + 1;
+                if (end == 0) {
+                    throw new IllegalArgumentException("Line " + nextLine + " is longer than "
+                            + chunkSizeBytes + " bytes");
+                }
+                byte[] chunk = new byte[end];
+                buffer.get(chunk);
+                buffer.compact();
+
+                int offset = 0;
+                if (format == BookingFormat.CSV && columns == null) {
+                    offset = indexOf(chunk, (byte) '\n') + 1;
+                    if (offset == 0) {
+                        offset = chunk.length;
+                    }
+                    columns = parseHeader(new String(chunk, 0, offset, StandardCharsets.UTF_8).strip());
+                    nextLine++;
+                }
+                long firstLine = nextLine;
+                int from = offset;
+                Map<String, Integer> chunkColumns = columns;
+                inFlight.add(parsers.submit(() -> parse(chunk, from, firstLine, format, chunkColumns)));
+                nextLine += count(chunk, offset, (byte) '\n');
+                if (inFlight.size() >= maxInFlight) {
+                    write(inFlight.poll(), progress);
+                }
+            }
+            if (format == BookingFormat.CSV && columns == null) {
+                throw new IllegalArgumentException(ApiResponseMessages.MISSING_REQUIRED_FIELD
+                        + String.join(", ", REQUIRED_COLUMNS));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), progress);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        return progress.result();
+    }
+
+    private void write(Future<List<ParsedRow>> parsedChunk, ImportProgress progress) {
+        List<ParsedRow> rows = awaitChunk(parsedChunk);
+        List<ParsedRow> valid = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            progress.rowsRead++;
+            if (row.error() != null) {
+                progress.reject(row.line(), row.error());
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        List<String> rejections = ticketBookingService.importTickets(
+                valid.stream().map(ParsedRow::ticket).toList());
+        for (int i = 0; i < valid.size(); i++) {
+            if (rejections.get(i) == null) {
+                progress.imported++;
+            } else {
+                progress.reject(valid.get(i).line(), rejections.get(i));
+            }
+        }
+    }
+
+    private List<ParsedRow> parse(byte[] chunk, int offset, long firstLine, BookingFormat format,
+                                  Map<String, Integer> columns) {
+        String text = new String(chunk, offset, chunk.length - offset, StandardCharsets.UTF_8);
+        List<ParsedRow> rows = new ArrayList<>();
+        long line = firstLine;
+        int start = 0;
+        while (start < text.length()) {
+            int lineBreak = text.indexOf('\n', start);
+            int end = lineBreak < 0 ? text.length() : lineBreak;
+            String content = text.substring(start, end).strip();
+            if (!content.isEmpty()) {
+                rows.add(parseRow(line, content, format, columns));
+            }
+            line++;
+            start = end + 1;
+        }
+        return rows;
+    }
+
+    private ParsedRow parseRow(long line, String content, BookingFormat format, Map<String, Integer> columns) {
+        TicketBookingDto ticket;
+        try {
+            ticket = format == BookingFormat.CSV
+                    ? fromCsv(BookingCsv.parse(content), columns)
+                    : objectMapper.readValue(content, TicketBookingDto.class);
+        } catch (JsonProcessingException e) {
+            return new ParsedRow(line, null, ApiResponseMessages.MALFORMED_ROW + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return new ParsedRow(line, null, e.getMessage());
+        }
+        return new ParsedRow(line, ticket, validate(ticket));
+    }
+
+    private static TicketBookingDto fromCsv(List<String> fields, Map<String, Integer> columns) {
+        String price = field(fields, columns, "pricePaid");
+        String seatNumber = field(fields, columns, "seatNumber");
+        BigDecimal pricePaid;
+        try {
+            pricePaid = price == null ? null : new BigDecimal(price);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(ApiResponseMessages.INVALID_PRICE);
+        }
+        Integer seat;
+        try {
+            seat = seatNumber == null ? null : Integer.valueOf(seatNumber);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(ApiResponseMessages.MALFORMED_ROW + "seatNumber " + seatNumber);
+        }
+        return new TicketBookingDto(null,
+                field(fields, columns, "from"),
+                field(fields, columns, "to"),
+                field(fields, columns, "userName"),
+                field(fields, columns, "userEmail"),
+                pricePaid,
+                null,
+                seat,
+                field(fields, columns, "discount"));
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name.toLowerCase(Locale.ROOT));
+        if (index == null || index >= fields.size() || fields.get(index).isBlank()) {
+            return null;
+        }
+        return fields.get(index).strip();
+    }
+
+    private static String validate(TicketBookingDto ticket) {
+        if (isBlank(ticket.from())) {
+            return ApiResponseMessages.MISSING_REQUIRED_FIELD + "from";
+        }
+        if (isBlank(ticket.to())) {
+            return ApiResponseMessages.MISSING_REQUIRED_FIELD + "to";
+        }
+        if (isBlank(ticket.userName())) {
+            return ApiResponseMessages.MISSING_REQUIRED_FIELD + "userName";
+        }
+        if (isBlank(ticket.userEmail())) {
+            return ApiResponseMessages.MISSING_REQUIRED_FIELD + "userEmail";
+        }
+        if (ticket.userEmail().indexOf('@') <= 0) {
+            return ApiResponseMessages.INVALID_EMAIL;
+        }
+        if (ticket.pricePaid() == null) {
+            return ApiResponseMessages.MISSING_REQUIRED_FIELD + "pricePaid";
+        }
+        if (ticket.pricePaid().signum() < 0) {
+            return ApiResponseMessages.INVALID_PRICE;
+        }
+        return null;
+    }
+
+    private static Map<String, Integer> parseHeader(String header) {
+        List<String> names = BookingCsv.parse(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).strip().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column.toLowerCase(Locale.ROOT)))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException(ApiResponseMessages.MISSING_REQUIRED_FIELD
+                    + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    /**
+     * Read from the source until the buffer is full or the source is exhausted.
+     *
+     * @return True if the source is exhausted.
+     */
+    private static boolean fill(ReadableByteChannel source, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int lastLineBreak(ByteBuffer buffer) {
+        for (int i = buffer.limit() - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] bytes, byte value) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int count(byte[] bytes, int from, byte value) {
+        int count = 0;
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static List<ParsedRow> awaitChunk(Future<List<ParsedRow>> parsedChunk) {
+        try {
+            return parsedChunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to parse bookings", e.getCause());
+        }
+    }
+
+    private record ParsedRow(long line, TicketBookingDto ticket, String error) {
+    }
+
+    private static final class ImportProgress {
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private final List<BookingImportErrorDto> errors = new ArrayList<>();
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookingImportErrorDto(line, message));
+            }
+        }
+
+        private BookingImportResultDto result() {
+            return new BookingImportResultDto(rowsRead, imported, rejected, errors);
+        }
+    }
+}
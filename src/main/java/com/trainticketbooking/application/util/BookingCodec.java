@@ -0,0 +1,63 @@
+package com.trainticketbooking.application.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Compact binary (CBOR) codec for bookings. The same mapper backs the {@code application/cbor} HTTP content type
+ * and the binary formats used internally, so both stay byte-compatible. It is built from the application's Jackson
+ * settings, which omit null fields.
+ */
+@Component
+public class BookingCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public BookingCodec(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+    }
+
+    /**
+     * Encode a value to CBOR.
+     *
+     * @param value The value to encode.
+     * @return The encoded bytes.
+     */
+    public byte[] encode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decode a CBOR encoded value.
+     *
+     * @param bytes The encoded bytes.
+     * @param type  The type to decode into.
+     * @param <T>   The type parameter.
+     * @return The decoded value.
+     */
+    public <T> T decode(byte[] bytes, Class<T> type) {
+        try {
+            return objectMapper.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get the CBOR object mapper.
+     *
+     * @return The object mapper.
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
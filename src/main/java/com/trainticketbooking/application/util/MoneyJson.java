@@ -0,0 +1,77 @@
+package com.trainticketbooking.application.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.trainticketbooking.application.domain.Money;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link Money} as a plain decimal number in the default currency, the same way a {@code BigDecimal} price is
+ * written, and reads it back from a number or a numeric string. Bound to {@link Money} by its annotations, so any
+ * object mapper handles it.
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    /**
+     * Write an amount as a decimal number. Text formats get the digits directly, without an intermediate
+     * {@code BigDecimal}.
+     *
+     * @param generator The generator to write to.
+     * @param money     The amount.
+     * @throws IOException if the amount cannot be written.
+     */
+    public static void writeAmount(JsonGenerator generator, Money money) throws IOException {
+        if (generator.canWriteFormattedNumbers()) {
+            generator.writeNumber(money.toPlainString());
+        } else {
+            generator.writeNumber(money.toBigDecimal());
+        }
+    }
+
+    public static class Serializer extends StdSerializer<Money> {
+
+        public Serializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(Money money, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            writeAmount(generator, money);
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Money> {
+
+        public Deserializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            try {
+                if (token == JsonToken.VALUE_NUMBER_INT) {
+                    return Money.ofMajor(parser.getLongValue());
+                }
+                if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    return Money.of(parser.getDecimalValue());
+                }
+                if (token == JsonToken.VALUE_STRING) {
+                    return Money.parse(parser.getText().strip());
+                }
+            } catch (NumberFormatException | ArithmeticException e) {
+                return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), e.getMessage());
+            }
+            return (Money) context.handleUnexpectedToken(Money.class, parser);
+        }
+    }
+}
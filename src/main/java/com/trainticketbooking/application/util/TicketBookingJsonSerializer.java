@@ -0,0 +1,66 @@
+package com.trainticketbooking.application.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.trainticketbooking.application.domain.TicketBooking;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link TicketBooking} in the same shape as {@link com.trainticketbooking.application.dto.TicketBookingDto},
+ * straight from the stored booking. List endpoints use it to skip building a DTO per booking; field names are
+ * pre-encoded and null fields are left out.
+ */
+@JsonComponent
+public class TicketBookingJsonSerializer extends StdSerializer<TicketBooking> {
+
+    private static final SerializedString TICKET_ID = new SerializedString("ticketId");
+    private static final SerializedString FROM = new SerializedString("from");
+    private static final SerializedString TO = new SerializedString("to");
+    private static final SerializedString USER_NAME = new SerializedString("userName");
+    private static final SerializedString USER_EMAIL = new SerializedString("userEmail");
+    private static final SerializedString PRICE_PAID = new SerializedString("pricePaid");
+    private static final SerializedString SECTION = new SerializedString("section");
+    private static final SerializedString SEAT_NUMBER = new SerializedString("seatNumber");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    public TicketBookingJsonSerializer() {
+        super(TicketBooking.class);
+    }
+
+    @Override
+    public void serialize(TicketBooking ticketBooking, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(ticketBooking);
+        if (ticketBooking.getTicketId() != null) {
+            generator.writeFieldName(TICKET_ID);
+            generator.writeNumber(ticketBooking.getTicketId());
+        }
+        writeString(generator, FROM, ticketBooking.getFrom());
+        writeString(generator, TO, ticketBooking.getTo());
+        writeString(generator, USER_NAME, ticketBooking.getUserName());
+        writeString(generator, USER_EMAIL, ticketBooking.getUserEmail());
+        if (ticketBooking.getPricePaid() != null) {
+            generator.writeFieldName(PRICE_PAID);
+            MoneyJson.writeAmount(generator, ticketBooking.getPricePaid());
+        }
+        writeString(generator, SECTION, ticketBooking.getSection());
+        if (ticketBooking.getSeatNumber() != null) {
+            generator.writeFieldName(SEAT_NUMBER);
+            generator.writeNumber(ticketBooking.getSeatNumber());
+        }
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(ticketBooking.getVersion());
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeString(value);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.trainticketbooking.application.util;
 
 
+import com.trainticketbooking.application.domain.Money;
 import com.trainticketbooking.application.domain.TicketBooking;
 import com.trainticketbooking.application.dto.TicketBookingDto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
+import java.math.BigDecimal;
+
 @Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE, componentModel = "spring")
 public interface TicketBookingMapper {
 
@@ -18,5 +21,10 @@ public interface TicketBookingMapper {
     @Mapping(target = "pricePaid", source = "pricePaid")
     @Mapping(target = "section", source = "section")
     @Mapping(target = "seatNumber", source = "seatNumber")
+    @Mapping(target = "version", source = "version")
     TicketBookingDto toDto(TicketBooking ticketBooking);
+
+    default BigDecimal toAmount(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.trainticketbooking.application.versioning;
+
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.service.BookingChangeListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entity tags for the booking resources, so that unchanged resources can be answered with 304 Not Modified without
+ * loading or serializing any booking.
+ * <p>
+ * A single ticket is tagged with its ID and {@link TicketBooking#getVersion() version}, and each representation of
+ * its receipt additionally with the representation. The ticket list of an email
+ * address and the user list of a section are tagged with the number of the last change that touched them. Changes are
+ * numbered in the order they are applied. Every tag also carries a random epoch chosen at startup, so tags handed out
+ * before a restart never match again, even when ticket IDs and versions start over. Replicated changes are counted
+ * too, which keeps the tags of a replica in step with its data.
+ * <p>
+ * At most {@code booking.versions.max-tracked-keys} email addresses and sections are remembered each. Past that, the
+ * older half is forgotten and tagged with the newest change forgotten instead, which may cost their clients one full
+ * answer but never matches a tag handed out before their last change.
+ */
+@Component
+public class BookingVersions implements BookingChangeListener {
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 1);
+    private final AtomicLong changeSequence = new AtomicLong();
+    private final LastChanges lastChangeByEmail;
+    private final LastChanges lastChangeBySection;
+
+    public BookingVersions(@Value("${booking.versions.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.lastChangeByEmail = new LastChanges(maxTrackedKeys);
+        this.lastChangeBySection = new LastChanges(maxTrackedKeys);
+    }
+
+    @Override
+    public void onBookingChange(BookingChange change) {
+        long sequence = changeSequence.incrementAndGet();
+        touch(change.before(), sequence);
+        touch(change.after(), sequence);
+    }
+
+    /**
+     * Get the entity tag of a ticket at the given version.
+     *
+     * @param ticketId The ticket ID.
+     * @param version  The version of the ticket.
+     * @return The strong entity tag, quoted.
+     */
+    public String ticketTag(Integer ticketId, long version) {
+        return "\"" + ticketId + "-" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * Get the entity tag of one representation of a ticket's receipt rendered at the given version.
+     *
+     * @param ticketId       The ticket ID.
+     * @param version        The version of the ticket the receipt was rendered from.
+     * @param representation The representation, such as {@code html} or {@code text}.
+     * @return The strong entity tag, quoted.
+     */
+    public String receiptTag(Integer ticketId, long version, String representation) {
+        return "\"" + ticketId + "-" + epoch + "-" + version + "-" + representation + "\"";
+    }
+
+    /**
+     * Read the version named by an If-Match header for the given ticket.
+     *
+     * @param ticketId The ticket being updated.
+     * @param ifMatch  The If-Match header, or null.
+     * @return The expected version; null if any version is acceptable, or -1 if the header cannot match the ticket,
+     * which includes tags handed out before a restart.
+     */
+    public Long expectedVersion(Integer ticketId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"" + ticketId + "-" + epoch + "-";
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // Not one of our tags; try the next one.
+                }
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * Get the entity tag of the ticket list of an email address.
+     *
+     * @param email The email address, in any case.
+     * @return The strong entity tag, quoted.
+     */
+    public String ticketListTag(String email) {
+        return tag("e", lastChangeByEmail.get(email.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Get the entity tag of the user list of a section.
+     *
+     * @param section The section, in any case.
+     * @return The strong entity tag, quoted.
+     */
+    public String sectionTag(String section) {
+        return tag("s", lastChangeBySection.get(section.toUpperCase(Locale.ROOT)));
+    }
+
+    private void touch(TicketBooking ticketBooking, long sequence) {
+        if (ticketBooking == null) {
+            return;
+        }
+        if (ticketBooking.getUserEmail() != null) {
+            lastChangeByEmail.put(ticketBooking.getUserEmail().toLowerCase(Locale.ROOT), sequence);
+        }
+        if (ticketBooking.getSection() != null) {
+            lastChangeBySection.put(ticketBooking.getSection().toUpperCase(Locale.ROOT), sequence);
+        }
+    }
+
+    private String tag(String kind, long sequence) {
+        return "\"" + kind + "-" + epoch + "-" + sequence + "\"";
+    }
+
+    /**
+     * The last change of each key, for at most a fixed number of keys. Forgotten keys answer the newest change
+     * forgotten, which is raised before any key is dropped so that a lookup never sees an older one.
+     */
+    private static final class LastChanges {
+
+        private final int maxKeys;
+        private final Map<String, Long> lastChanges = new ConcurrentHashMap<>();
+        private final AtomicLong forgotten = new AtomicLong();
+
+        LastChanges(int maxKeys) {
+            this.maxKeys = Math.max(1, maxKeys);
+        }
+
+        long get(String key) {
+            Long sequence = lastChanges.get(key);
+            return sequence != null ? sequence : forgotten.get();
+        }
+
+        void put(String key, long sequence) {
+            lastChanges.merge(key, sequence, Math::max);
+            if (lastChanges.size() > maxKeys) {
+                forgetOlderHalf();
+            }
+        }
+
+        private synchronized void forgetOlderHalf() {
+            if (lastChanges.size() <= maxKeys) {
+                return;
+            }
+            long[] sequences = lastChanges.values().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sequences);
+            long cutoff = sequences[sequences.length / 2];
+            forgotten.accumulateAndGet(cutoff, Math::max);
+            lastChanges.values().removeIf(sequence -> sequence <= cutoff);
+        }
+    }
+}
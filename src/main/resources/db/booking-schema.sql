@@ -0,0 +1,17 @@
+CREATE TABLE IF NOT EXISTS ticket_booking (
+    ticket_id        INTEGER        NOT NULL PRIMARY KEY,
+    from_station     VARCHAR(100),
+    to_station       VARCHAR(100),
+    user_name        VARCHAR(100),
+    user_email       VARCHAR(255),
+    price_paid_minor BIGINT,
+    section          VARCHAR(8)     NOT NULL,
+    seat_number      INTEGER,
+    version          BIGINT         NOT NULL DEFAULT 1,
+    CONSTRAINT uk_ticket_booking_seat UNIQUE (section, seat_number)
+);
+
+CREATE TABLE IF NOT EXISTS ticket_sequence (
+    node_id          VARCHAR(100)   NOT NULL PRIMARY KEY,
+    issued           BIGINT         NOT NULL
+);
@@ -0,0 +1,191 @@
+package com.trainticketbooking.application.analytics;
+
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.BookingAnalyticsDto;
+import com.trainticketbooking.application.dto.RouteAnalyticsDto;
+import com.trainticketbooking.application.dto.SectionAnalyticsDto;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.repository.InMemoryBookingRepository;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.TicketBookingMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingAnalyticsTest {
+
+    @Mock
+    private TicketBookingMapper ticketBookingMapper;
+
+    @Mock
+    private ObjectProvider<TicketBookingService> ticketBookingServiceProvider;
+
+    private InMemoryBookingRepository bookingRepository;
+    private AtomicLong clock;
+    private BookingAnalytics bookingAnalytics;
+
+    @BeforeEach
+    public void setUp() {
+        bookingRepository = new InMemoryBookingRepository();
+        clock = new AtomicLong(1_000_000);
+        bookingAnalytics = new BookingAnalytics(bookingRepository, ticketBookingServiceProvider,
+                ClusterTopology.standalone(), 60, clock::get);
+    }
+
+    @Test
+    public void testSeedsCountersFromStoredBookings() {
+        // Arrange
+        bookingRepository.save(booking(1, "London", "Paris", "12.50", "A", 1));
+        bookingRepository.save(booking(2, "London", "Paris", "7.50", "B", 21));
+        when(ticketBookingServiceProvider.getIfAvailable()).thenReturn(new TicketBookingService(ticketBookingMapper,
+                bookingRepository, BookingArchive.disabled(), ClusterTopology.standalone(),
+                OverbookingPolicy.disabled(), DynamicPricing.clientPrices(), ObservationRegistry.NOOP,
+                List.of(bookingAnalytics)));
+
+        // Act
+        bookingAnalytics.afterSingletonsInstantiated();
+        BookingAnalyticsDto analytics = bookingAnalytics.snapshot();
+
+        // Assert
+        assertEquals(2, analytics.bookings());
+        assertEquals(40, analytics.capacity());
+        assertEquals(0.05, analytics.loadFactor(), 1e-9);
+        assertEquals(new BigDecimal("20.00"), analytics.revenue());
+        assertEquals(List.of(new RouteAnalyticsDto("London", "Paris", 2, new BigDecimal("20.00"), 0)),
+                analytics.routes());
+        assertEquals(0, analytics.bookingsInWindow());
+    }
+
+    @Test
+    public void testChangesAdjustCounters() {
+        // Arrange
+        seed();
+        TicketBooking purchased = booking(1, "London", "Paris", "10", "A", 1);
+        TicketBooking discounted = booking(1, "London", "Paris", "8", "A", 1);
+        TicketBooking moved = booking(1, "London", "Paris", "8", "B", 21);
+
+        // Act
+        bookingAnalytics.onBookingChange(change(BookingChange.Type.PURCHASED, null, purchased));
+        bookingAnalytics.onBookingChange(change(BookingChange.Type.DISCOUNT_APPLIED, purchased, discounted));
+        bookingAnalytics.onBookingChange(change(BookingChange.Type.SEAT_CHANGED, discounted, moved));
+        BookingAnalyticsDto analytics = bookingAnalytics.snapshot();
+
+        // Assert
+        assertEquals(new SectionAnalyticsDto("A", 0, 20, 0, new BigDecimal("0.00"), 1, new BigDecimal("2.00")),
+                analytics.sections().get(0));
+        assertEquals(new SectionAnalyticsDto("B", 1, 20, 0.05, new BigDecimal("8.00"), 0, new BigDecimal("0.00")),
+                analytics.sections().get(1));
+        assertEquals(new BigDecimal("8.00"), analytics.revenue());
+        assertEquals(1, analytics.discountsApplied());
+        assertEquals(new BigDecimal("2.00"), analytics.discountGiven());
+        assertEquals(List.of(new RouteAnalyticsDto("London", "Paris", 1, new BigDecimal("8.00"), 1)),
+                analytics.routes());
+    }
+
+    @Test
+    public void testCancellationReleasesSeatAndRevenue() {
+        // Arrange
+        seed();
+        TicketBooking purchased = booking(1, "London", "Paris", "10", "A", 1);
+        bookingAnalytics.onBookingChange(change(BookingChange.Type.PURCHASED, null, purchased));
+
+        // Act
+        bookingAnalytics.onBookingChange(change(BookingChange.Type.CANCELLED, purchased, null));
+        BookingAnalyticsDto analytics = bookingAnalytics.snapshot();
+
+        // Assert
+        assertEquals(0, analytics.bookings());
+        assertEquals(new BigDecimal("0.00"), analytics.revenue());
+        assertEquals(List.of(), analytics.routes());
+        assertEquals(1, analytics.bookingsInWindow());
+        assertEquals(1, analytics.cancellationsInWindow());
+    }
+
+    @Test
+    public void testRoutesWithoutBookingsAreDropped() {
+        // Arrange
+        seed();
+        for (int i = 0; i < 100; i++) {
+            TicketBooking purchased = booking(i, "Station" + i, "Paris", "10", "A", 1);
+            bookingAnalytics.onBookingChange(change(BookingChange.Type.PURCHASED, null, purchased));
+            bookingAnalytics.onBookingChange(change(BookingChange.Type.CANCELLED, purchased, null));
+        }
+
+        // Act
+        Map<?, ?> routes = (Map<?, ?>) ReflectionTestUtils.getField(bookingAnalytics, "routes");
+
+        // Assert
+        assertTrue(routes.isEmpty());
+    }
+
+    @Test
+    public void testBookingRateSlidesOutOfWindow() {
+        // Arrange
+        seed();
+        bookingAnalytics.onBookingChange(change(BookingChange.Type.PURCHASED, null,
+                booking(1, "London", "Paris", "10", "A", 1)));
+        clock.addAndGet(30_000);
+        bookingAnalytics.onBookingChange(change(BookingChange.Type.PURCHASED, null,
+                booking(2, "London", "Paris", "10", "A", 2)));
+
+        // Act
+        long bothInWindow = bookingAnalytics.snapshot().bookingsInWindow();
+        clock.addAndGet(31_000);
+        long oneInWindow = bookingAnalytics.snapshot().bookingsInWindow();
+
+        // Assert
+        assertEquals(2, bothInWindow);
+        assertEquals(1, oneInWindow);
+        assertEquals(60, bookingAnalytics.snapshot().rateWindowSeconds());
+    }
+
+    @Test
+    public void testReplicatedChangesAreNotCountedInRates() {
+        // Arrange
+        seed();
+
+        // Act
+        bookingAnalytics.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null,
+                booking(1, "London", "Paris", "10", "A", 1), true));
+        BookingAnalyticsDto analytics = bookingAnalytics.snapshot();
+
+        // Assert
+        assertEquals(1, analytics.bookings());
+        assertEquals(0, analytics.bookingsInWindow());
+    }
+
+    private void seed() {
+        when(ticketBookingServiceProvider.getIfAvailable()).thenReturn(null);
+        bookingAnalytics.afterSingletonsInstantiated();
+    }
+
+    private static BookingChange change(BookingChange.Type type, TicketBooking before, TicketBooking after) {
+        return new BookingChange(type, before, after, false);
+    }
+
+    private static TicketBooking booking(int ticketId, String from, String to, String price, String section,
+                                         int seatNumber) {
+        return new TicketBooking(ticketId, from, to, "User" + ticketId, "user" + ticketId + "@example.com",
+                Money.parse(price), section, seatNumber);
+    }
+}
@@ -0,0 +1,89 @@
+package com.trainticketbooking.application.archive;
+
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testArchivedBookingsAreFoundByTicketIdAndEmail() throws IOException {
+        // Arrange
+        BookingArchive archive = new BookingArchive(directory, 8);
+        List<TicketBooking> bookings = new ArrayList<>();
+        for (int ticketId = 100; ticketId > 0; ticketId--) {
+            bookings.add(booking(ticketId, "user" + ticketId % 7 + "@example.com"));
+        }
+
+        // Act
+        archive.append(bookings);
+
+        // Assert
+        assertEquals(100, archive.count());
+        assertEquals(1, archive.segmentCount());
+        TicketBooking found = archive.findById(42).orElseThrow();
+        assertEquals(bookings.get(100 - 42), found);
+        assertNotSame(bookings.get(100 - 42), found);
+        assertTrue(archive.findById(101).isEmpty());
+        assertTrue(archive.findById(0).isEmpty());
+        List<TicketBooking> byEmail = archive.findByUserEmail("USER3@example.com");
+        assertEquals(14, byEmail.size());
+        assertTrue(byEmail.stream().allMatch(booking -> booking.getTicketId() % 7 == 3));
+    }
+
+    @Test
+    public void testSegmentsAreOpenedAgainAfterARestart() throws IOException {
+        // Arrange
+        BookingArchive archive = new BookingArchive(directory, 4);
+        archive.append(List.of(booking(1, "a@example.com"), booking(2, "b@example.com")));
+        archive.append(List.of(booking(3, "a@example.com")));
+
+        // Act
+        BookingArchive reopened = new BookingArchive(directory, 4);
+        reopened.append(List.of(booking(4, "a@example.com")));
+
+        // Assert
+        assertEquals(4, reopened.count());
+        assertEquals(3, reopened.segmentCount());
+        assertEquals(List.of(1, 3, 4), reopened.findByUserEmail("a@example.com").stream()
+                .map(TicketBooking::getTicketId)
+                .toList());
+        assertEquals("b@example.com", reopened.findById(2).orElseThrow().getUserEmail());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.filter(file -> file.toString().endsWith(".segment")).count());
+        }
+    }
+
+    @Test
+    public void testDisabledArchiveHoldsNothing() {
+        // Arrange
+        BookingArchive archive = BookingArchive.disabled();
+
+        // Act & Assert
+        assertFalse(archive.isEnabled());
+        assertTrue(archive.findById(1).isEmpty());
+        assertTrue(archive.findByUserEmail("a@example.com").isEmpty());
+        assertThrows(IllegalStateException.class, () -> archive.append(List.of(booking(1, "a@example.com"))));
+    }
+
+    private static TicketBooking booking(int ticketId, String userEmail) {
+        // Overbooked tickets have neither a seat nor, in older data, a price
+        Integer seatNumber = ticketId % 10 == 0 ? null : ticketId % 40 + 1;
+        Money pricePaid = ticketId % 25 == 0 ? null : Money.ofMinor(1_000 + ticketId);
+        return new TicketBooking(ticketId, "Chennai", "Trichy", "User " + ticketId, userEmail, pricePaid,
+                ticketId % 2 == 0 ? "A" : "B", seatNumber, ticketId % 3 + 1);
+    }
+}
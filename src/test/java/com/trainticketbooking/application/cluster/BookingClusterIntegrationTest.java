@@ -0,0 +1,140 @@
+package com.trainticketbooking.application.cluster;
+
+import com.trainticketbooking.application.TrainticketbookingApplication;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two booking nodes on localhost and books through only one of them.
+ */
+public class BookingClusterIntegrationTest {
+
+    private static final String CLUSTER_SECRET = "integration-test-secret";
+
+    private static ConfigurableApplicationContext node1;
+    private static ConfigurableApplicationContext node2;
+    private static RestClient node1Client;
+    private static RestClient node2Client;
+    private static int node2Port;
+
+    @BeforeAll
+    public static void startCluster() throws IOException {
+        int port1 = freePort();
+        int port2 = freePort();
+        node2Port = port2;
+        String nodes = "node-1=http://localhost:" + port1 + "/ticket-booking,"
+                + "node-2=http://localhost:" + port2 + "/ticket-booking";
+        node1 = startNode("node-1", port1, nodes);
+        node2 = startNode("node-2", port2, nodes);
+        node1Client = RestClient.create("http://localhost:" + port1 + "/ticket-booking/ticket-booking");
+        node2Client = RestClient.create("http://localhost:" + port2 + "/ticket-booking/ticket-booking");
+    }
+
+    @AfterAll
+    public static void stopCluster() {
+        node1.close();
+        node2.close();
+    }
+
+    @Test
+    public void testSeatsOfBothNodesAreSoldThroughOneNode() {
+        // Act
+        Set<String> seats = new HashSet<>();
+        Set<Integer> ticketIds = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            TicketBookingDto ticket = node1Client.post().uri("/")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new TicketBookingDto(null, "Chennai", "Trichy", "User" + i, "cluster@example.com",
+                            BigDecimal.TEN, null, null, null))
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<CustomApiResponse<TicketBookingDto>>() {
+                    })
+                    .getData();
+            seats.add(ticket.section() + ticket.seatNumber());
+            ticketIds.add(ticket.ticketId());
+        }
+        HttpStatusCode soldOut = node1Client.post().uri("/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new TicketBookingDto(null, "Chennai", "Trichy", "Late", "late@example.com",
+                        BigDecimal.TEN, null, null, null))
+                .exchange((request, response) -> response.getStatusCode());
+
+        // Assert
+        assertEquals(40, seats.size());
+        assertEquals(40, ticketIds.size());
+        assertTrue(soldOut.is5xxServerError());
+        for (Integer ticketId : ticketIds) {
+            CustomApiResponse<TicketBookingDto> receipt = node2Client.get()
+                    .uri("/user-receipt-detail?ticketId={ticketId}", ticketId)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<>() {
+                    });
+            assertEquals(ticketId, receipt.getData().ticketId());
+        }
+        List<TicketBooking> tickets = node2Client.get()
+                .uri("/ticket-list?email={email}", "cluster@example.com")
+                .retrieve()
+                .body(new ParameterizedTypeReference<CustomApiResponse<List<TicketBooking>>>() {
+                })
+                .getData();
+        assertEquals(40, tickets.size());
+    }
+
+    @Test
+    public void testClusterEndpointsRefuseCallersWithoutTheSecret() {
+        // Arrange
+        RestClient clusterClient = RestClient.create("http://localhost:" + node2Port + "/ticket-booking");
+        TicketBookingDto ticket = new TicketBookingDto(null, "Chennai", "Trichy", "Outsider", "outsider@example.com",
+                BigDecimal.TEN, null, null, null);
+
+        // Act
+        HttpStatusCode withoutSecret = clusterClient.post().uri("/cluster/purchase")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ticket)
+                .exchange((request, response) -> response.getStatusCode());
+        HttpStatusCode wrongSecret = clusterClient.post().uri("/cluster/purchase")
+                .header(ClusterController.SECRET_HEADER, "guess")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ticket)
+                .exchange((request, response) -> response.getStatusCode());
+
+        // Assert
+        assertEquals(403, withoutSecret.value());
+        assertEquals(403, wrongSecret.value());
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, int port, String nodes) {
+        return new SpringApplicationBuilder(TrainticketbookingApplication.class)
+                .properties("server.port=" + port,
+                        "booking.cluster.enabled=true",
+                        "booking.cluster.node-id=" + nodeId,
+                        "booking.cluster.nodes=" + nodes,
+                        "booking.cluster.secret=" + CLUSTER_SECRET)
+                .run();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
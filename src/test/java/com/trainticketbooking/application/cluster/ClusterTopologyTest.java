@@ -0,0 +1,75 @@
+package com.trainticketbooking.application.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClusterTopologyTest {
+
+    @Test
+    public void testStandaloneOwnsEverything() {
+        // Arrange
+        ClusterTopology topology = ClusterTopology.standalone();
+
+        // Assert
+        assertTrue(topology.isLocalSection("A"));
+        assertTrue(topology.isLocalSection("b"));
+        assertEquals(7, topology.ticketId(7));
+        assertEquals("local", topology.ownerOfTicket(7));
+        assertTrue(topology.remoteNodeIds().isEmpty());
+    }
+
+    @Test
+    public void testEveryNodeAgreesOnOwnershipAndTicketIdsAreStriped() {
+        // Arrange
+        List<String> nodes = List.of("node-1=http://localhost:8081", "node-2=http://localhost:8082",
+                "node-3=http://localhost:8083");
+        ClusterTopology node1 = new ClusterTopology(true, "node-1", nodes, 64);
+        ClusterTopology node2 = new ClusterTopology(true, "node-2", nodes, 64);
+
+        // Assert
+        for (String section : ClusterTopology.SECTIONS) {
+            assertEquals(node1.ownerOfSection(section), node2.ownerOfSection(section));
+            assertFalse(node1.isLocalSection(section) && node2.isLocalSection(section));
+        }
+        assertEquals("node-1", node2.ownerOfTicket(node1.ticketId(5)));
+        assertEquals("node-2", node1.ownerOfTicket(node2.ticketId(5)));
+        assertNotEquals(node1.ticketId(5), node2.ticketId(5));
+        assertEquals(List.of("node-1", "node-3"), node2.remoteNodeIds());
+    }
+
+    @Test
+    public void testRingSpreadsKeysAndMovesFewOnNodeAdded() {
+        // Arrange
+        ConsistentHashRing threeNodes = new ConsistentHashRing(List.of("n1", "n2", "n3"), 64);
+        ConsistentHashRing fourNodes = new ConsistentHashRing(List.of("n1", "n2", "n3", "n4"), 64);
+        Map<String, Integer> keysPerNode = new HashMap<>();
+        int moved = 0;
+
+        // Act
+        for (int i = 0; i < 3000; i++) {
+            String key = "coach-" + i;
+            String owner = threeNodes.ownerOf(key);
+            keysPerNode.merge(owner, 1, Integer::sum);
+            String newOwner = fourNodes.ownerOf(key);
+            if (!newOwner.equals(owner)) {
+                assertEquals("n4", newOwner);
+                moved++;
+            }
+        }
+
+        // Assert
+        keysPerNode.values().forEach(keys -> assertTrue(keys > 600, "unbalanced ring: " + keysPerNode));
+        assertTrue(moved < 1200, "too many keys moved: " + moved);
+    }
+
+    @Test
+    public void testLocalNodeMustBeListed() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClusterTopology(true, "node-9", List.of("node-1=http://localhost:8081"), 64));
+    }
+}
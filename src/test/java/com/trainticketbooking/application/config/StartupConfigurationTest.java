@@ -0,0 +1,54 @@
+package com.trainticketbooking.application.config;
+
+import com.trainticketbooking.application.TrainticketbookingApplication;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartupConfigurationTest {
+
+    @Test
+    public void testProdProfileStartsLazilyButKeepsBackgroundBeansAndDropsApiDocs() {
+        // Arrange
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TrainticketbookingApplication.class)
+                .profiles("prod")
+                .properties("server.port=0")
+                .run()) {
+            ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+            boolean controllerCreatedAtStartup = beanFactory.containsSingleton("ticketBookingController");
+            RestClient client = RestClient.create("http://localhost:"
+                    + ((WebServerApplicationContext) context).getWebServer().getPort() + "/ticket-booking");
+
+            // Act
+            CustomApiResponse<TicketBookingDto> purchase = client.post().uri("/ticket-booking/")
+                    .body(new TicketBookingDto(null, "Chennai", "Trichy", "Lazy", "lazy@example.com",
+                            BigDecimal.TEN, null, null, null))
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<>() {
+                    });
+            HttpStatusCode apiDocs = client.get().uri("/v3/api-docs")
+                    .exchange((request, response) -> response.getStatusCode());
+
+            // Assert
+            assertFalse(controllerCreatedAtStartup);
+            assertTrue(beanFactory.containsSingleton("notificationDispatcher"));
+            assertTrue(beanFactory.containsSingleton("bookingAnalytics"));
+            assertTrue(beanFactory.containsSingleton("notificationOutbox"));
+            assertTrue(beanFactory.containsSingleton("hotPathProfiler"));
+            assertTrue(beanFactory.containsSingleton("seatDefragmentationJob"));
+            assertEquals(200, purchase.getStatus());
+            assertEquals(404, apiDocs.value());
+        }
+    }
+}
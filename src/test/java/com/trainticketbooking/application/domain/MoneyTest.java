@@ -0,0 +1,79 @@
+package com.trainticketbooking.application.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    public void testParse() {
+        // Act & Assert
+        assertEquals(Money.ofMinor(20000), Money.parse("200"));
+        assertEquals(Money.ofMinor(1250), Money.parse("12.5"));
+        assertEquals(Money.ofMinor(-5), Money.parse("-0.05"));
+        assertEquals(Money.ofMinor(1235), Money.parse("12.345"));
+        assertEquals(Money.ofMinor(150000), Money.parse("1.5E3"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("12.5.0"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+    }
+
+    @Test
+    public void testConvertsBigDecimal() {
+        // Act & Assert
+        assertEquals(Money.ofMajor(200), Money.of(BigDecimal.valueOf(200)));
+        assertEquals(Money.ofMinor(1999), Money.of(new BigDecimal("19.985")));
+        assertNull(Money.of(null));
+        assertEquals(new BigDecimal("12.50"), Money.ofMinor(1250).toBigDecimal());
+    }
+
+    @Test
+    public void testArithmetic() {
+        // Arrange
+        Money price = Money.ofMajor(10);
+        Money discount = Money.parse("2.50");
+
+        // Act
+        Money discounted = price.minus(discount);
+
+        // Assert
+        assertEquals(Money.ofMinor(750), discounted);
+        assertEquals(price, discounted.plus(discount));
+        assertTrue(price.isGreaterThan(discount));
+        assertTrue(discount.minus(price).isNegative());
+        assertEquals("-7.50", discount.minus(price).toPlainString());
+        assertEquals("7.50 INR", discounted.toString());
+    }
+
+    @Test
+    public void testRejectsMixedCurrencies() {
+        // Arrange
+        Money dollars = new Money(100, Currency.getInstance("USD"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMajor(1).minus(dollars));
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        TicketBooking ticketBooking = new TicketBooking(1, "Chennai", "Trichy", "User", "user@example.com",
+                Money.parse("199.5"), "A", 1);
+
+        // Act
+        String json = objectMapper.writeValueAsString(ticketBooking);
+        TicketBooking read = objectMapper.readValue(json, TicketBooking.class);
+        TicketBookingDto dto = objectMapper.readValue(json, TicketBookingDto.class);
+
+        // Assert
+        assertTrue(json.contains("\"pricePaid\":199.50"));
+        assertEquals(ticketBooking, read);
+        assertEquals(new BigDecimal("199.50"), dto.pricePaid());
+    }
+}
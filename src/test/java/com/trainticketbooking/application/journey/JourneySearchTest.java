@@ -0,0 +1,99 @@
+package com.trainticketbooking.application.journey;
+
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.dto.JourneyDto;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.repository.InMemoryBookingRepository;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.TicketBookingMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JourneySearchTest {
+
+    private static final LocalDate SERVICE_DATE = LocalDate.of(2026, 11, 1);
+
+    private JourneySearch journeySearch;
+    private TicketBookingService ticketBookingService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ObjectProvider<TicketBookingService> provider = mock(ObjectProvider.class);
+        journeySearch = new JourneySearch(provider,
+                List.of(new Train("12635", List.of("Chennai", "Chengalpattu", "Trichy", "Madurai"))),
+                SERVICE_DATE, 60_000, 100);
+        ticketBookingService = spy(new TicketBookingService(Mappers.getMapper(TicketBookingMapper.class),
+                new InMemoryBookingRepository(), BookingArchive.disabled(), ClusterTopology.standalone(),
+                OverbookingPolicy.disabled(), DynamicPricing.clientPrices(), ObservationRegistry.NOOP,
+                List.of(journeySearch)));
+        when(provider.getIfAvailable()).thenReturn(ticketBookingService);
+    }
+
+    @Test
+    public void testIndexFindsTrainsCallingAtBothStationsInOrder() {
+        // Arrange
+        Train coastal = new Train("1", List.of("Chennai", "Trichy"));
+        Train inland = new Train("2", List.of("Trichy", "Chennai"));
+        Train anywhere = new Train("3", List.of());
+        JourneyIndex index = new JourneyIndex(List.of(coastal, inland, anywhere));
+
+        // Act
+        List<Train> southbound = index.trainsBetween(" chennai ", "TRICHY");
+        List<Train> unknown = index.trainsBetween("Chennai", "Madurai");
+        List<Train> sameStation = index.trainsBetween("Chennai", "chennai");
+
+        // Assert
+        assertEquals(List.of(anywhere, coastal), southbound);
+        assertEquals(List.of(anywhere), unknown);
+        assertEquals(List.of(), sameStation);
+    }
+
+    @Test
+    public void testResultsAreCachedUntilSeatsChange() {
+        // Arrange
+        List<JourneyDto> first = journeySearch.search("Chennai", "Trichy", SERVICE_DATE, 2);
+
+        // Act
+        List<JourneyDto> cached = journeySearch.search("chennai", "trichy", SERVICE_DATE, 2);
+        ticketBookingService.purchaseTicket(new TicketBookingDto(null, "Chennai", "Trichy", "User",
+                "user@example.com", BigDecimal.TEN, null, null, null));
+        List<JourneyDto> afterPurchase = journeySearch.search("Chennai", "Trichy", SERVICE_DATE, 2);
+
+        // Assert
+        assertSame(first, cached);
+        assertEquals(40, first.get(0).freeSeats());
+        assertEquals(39, afterPurchase.get(0).freeSeats());
+        assertEquals("12635", afterPurchase.get(0).trainNumber());
+        assertEquals(19, afterPurchase.get(0).sections().get(0).freeSeats());
+        verify(ticketBookingService, times(2)).getFares();
+    }
+
+    @Test
+    public void testNoTrainsOnOtherDatesOrAgainstTheDirectionOfTravel() {
+        // Act
+        List<JourneyDto> otherDate = journeySearch.search("Chennai", "Trichy", SERVICE_DATE.plusDays(1), 1);
+        List<JourneyDto> reverse = journeySearch.search("Trichy", "Chennai", SERVICE_DATE, 1);
+        List<JourneyDto> anyDate = journeySearch.search("Chengalpattu", "Madurai", null, 41);
+
+        // Assert
+        assertTrue(otherDate.isEmpty());
+        assertTrue(reverse.isEmpty());
+        assertEquals(SERVICE_DATE, anyDate.get(0).date());
+        assertFalse(anyDate.get(0).seatsForAllPassengers());
+        assertThrows(IllegalArgumentException.class, () -> journeySearch.search("Chennai", "Trichy", null, 0));
+    }
+}
@@ -0,0 +1,238 @@
+package com.trainticketbooking.application.notification;
+
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class NotificationOutboxTest {
+
+    @TempDir
+    Path outboxDir;
+
+    @Test
+    public void testOnlyLocalPurchasesSeatChangesAndCancellationsAreQueued() throws Exception {
+        // Arrange
+        NotificationOutbox outbox = new NotificationOutbox("", false, 100, 1000);
+        TicketBooking purchased = booking(1, 1);
+        TicketBooking moved = booking(1, 5);
+
+        // Act
+        outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, purchased, false));
+        outbox.onBookingChange(new BookingChange(BookingChange.Type.DISCOUNT_APPLIED, purchased, purchased, false));
+        outbox.onBookingChange(new BookingChange(BookingChange.Type.SEAT_CHANGED, purchased, moved, false));
+        outbox.onBookingChange(new BookingChange(BookingChange.Type.CANCELLED, moved, null, false));
+        outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(2, 2), true));
+
+        // Assert
+        List<Notification> batch = outbox.nextBatch(10, 0);
+        assertEquals(List.of(Notification.Kind.CONFIRMATION, Notification.Kind.SEAT_CHANGE,
+                Notification.Kind.CANCELLATION), batch.stream().map(Notification::kind).toList());
+        assertEquals(List.of(1L, 2L, 3L), batch.stream().map(Notification::sequence).toList());
+        assertEquals(5, batch.get(2).seatNumber());
+        assertEquals("user@example.com", batch.get(0).recipient());
+    }
+
+    @Test
+    public void testUndeliveredNotificationsAreQueuedAgainAfterRestart() throws Exception {
+        // Arrange
+        NotificationOutbox outbox = new NotificationOutbox(outboxDir.toString(), false, 100, 1000);
+        for (int ticketId = 1; ticketId <= 3; ticketId++) {
+            outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(ticketId, ticketId),
+                    false));
+        }
+        outbox.delivered(1);
+        outbox.close();
+
+        // Act
+        NotificationOutbox restarted = new NotificationOutbox(outboxDir.toString(), false, 100, 1000);
+        restarted.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(4, 4), false));
+
+        // Assert
+        List<Notification> batch = restarted.nextBatch(10, 0);
+        assertEquals(List.of(2L, 3L, 4L), batch.stream().map(Notification::sequence).toList());
+        assertEquals(booking(2, 2).getUserName(), batch.get(0).userName());
+        assertEquals("Chennai", batch.get(0).from());
+        assertEquals("A", batch.get(0).section());
+    }
+
+    @Test
+    public void testJournalIsEmptiedOnceEverythingIsDeliveredAndNumberingCarriesOn() throws Exception {
+        // Arrange
+        NotificationOutbox outbox = new NotificationOutbox(outboxDir.toString(), false, 100, 1);
+        outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(1, 1), false));
+        outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(2, 2), false));
+        outbox.delivered(2);
+        outbox.close();
+        long journalSize = Files.size(outboxDir.resolve("notification-outbox.log"));
+
+        // Act
+        NotificationOutbox restarted = new NotificationOutbox(outboxDir.toString(), false, 100, 1);
+        restarted.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(3, 3), false));
+
+        // Assert
+        assertTrue(journalSize < 20);
+        assertEquals(List.of(3L), restarted.nextBatch(10, 0).stream().map(Notification::sequence).toList());
+    }
+
+    @Test
+    public void testIncompleteRecordAtTheEndIsDropped() throws Exception {
+        // Arrange
+        NotificationOutbox outbox = new NotificationOutbox(outboxDir.toString(), false, 100, 1000);
+        outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(1, 1), false));
+        outbox.close();
+        appendToJournal(new byte[]{'N', 0, 0, 0, 40, 1, 2});
+
+        // Act
+        NotificationOutbox restarted = new NotificationOutbox(outboxDir.toString(), false, 100, 1000);
+        restarted.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(2, 2), false));
+        restarted.close();
+
+        // Assert
+        NotificationOutbox reread = new NotificationOutbox(outboxDir.toString(), false, 100, 1000);
+        assertEquals(List.of(1L, 2L), reread.nextBatch(10, 0).stream().map(Notification::sequence).toList());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedWithBackoffUntilDelivered() throws Exception {
+        // Arrange
+        NotificationOutbox outbox = new NotificationOutbox("", false, 100, 1000);
+        NotificationSender sender = mock(NotificationSender.class);
+        doThrow(new IllegalStateException("gateway down")).doThrow(new IllegalStateException("gateway down"))
+                .doNothing().when(sender).send(anyList());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(outbox, sender, 2, 0, 10, 15, 10, meterRegistry);
+        for (int ticketId = 1; ticketId <= 3; ticketId++) {
+            outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(ticketId, ticketId),
+                    false));
+        }
+
+        // Act
+        long firstRetry = dispatcher.dispatchOnce(0);
+        long secondRetry = dispatcher.dispatchOnce(0);
+        long delivered = dispatcher.dispatchOnce(0);
+
+        // Assert
+        assertEquals(10, firstRetry);
+        assertEquals(15, secondRetry);
+        assertEquals(0, delivered);
+        assertEquals(1, outbox.size());
+        assertEquals(2, meterRegistry.counter("booking.notifications.sent").count());
+        assertEquals(2, meterRegistry.counter("booking.notifications.send.failures").count());
+        assertEquals(1, meterRegistry.get("booking.notifications.pending").gauge().value());
+        verify(sender, times(3)).send(argThat(batch -> batch.size() == 2 && batch.get(0).sequence() == 1));
+    }
+
+    @Test
+    public void testJournalKeepsOnlyUndeliveredNotificationsAfterEachBatch() throws Exception {
+        // Arrange
+        NotificationOutbox outbox = new NotificationOutbox(outboxDir.toString(), false, 100, 1);
+        for (int ticketId = 1; ticketId <= 3; ticketId++) {
+            outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(ticketId, ticketId),
+                    false));
+        }
+        long fullSize = Files.size(outboxDir.resolve("notification-outbox.log"));
+
+        // Act
+        outbox.delivered(2);
+        long compactedSize = Files.size(outboxDir.resolve("notification-outbox.log"));
+        outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(4, 4), false));
+        outbox.close();
+
+        // Assert
+        assertTrue(compactedSize < fullSize / 2);
+        NotificationOutbox restarted = new NotificationOutbox(outboxDir.toString(), false, 100, 1);
+        assertEquals(List.of(3L, 4L), restarted.nextBatch(10, 0).stream().map(Notification::sequence).toList());
+    }
+
+    @Test
+    public void testJournalIsOnlyRewrittenOnceEnoughRecordsAreNoLongerNeeded() throws Exception {
+        // Arrange
+        NotificationOutbox outbox = new NotificationOutbox(outboxDir.toString(), false, 100, 4);
+        for (int ticketId = 1; ticketId <= 3; ticketId++) {
+            outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(ticketId, ticketId),
+                    false));
+        }
+        long fullSize = Files.size(outboxDir.resolve("notification-outbox.log"));
+
+        // Act
+        outbox.delivered(1);
+        long markedSize = Files.size(outboxDir.resolve("notification-outbox.log"));
+        outbox.delivered(2);
+        long compactedSize = Files.size(outboxDir.resolve("notification-outbox.log"));
+        outbox.close();
+
+        // Assert
+        assertEquals(fullSize + 13, markedSize);
+        assertTrue(compactedSize < fullSize / 2);
+        NotificationOutbox restarted = new NotificationOutbox(outboxDir.toString(), false, 100, 4);
+        assertEquals(List.of(3L), restarted.nextBatch(10, 0).stream().map(Notification::sequence).toList());
+    }
+
+    @Test
+    public void testUndeliverableNotificationIsDeadLetteredWithoutHoldingUpTheRest() throws Exception {
+        // Arrange
+        NotificationOutbox outbox = new NotificationOutbox(outboxDir.toString(), false, 100, 1000);
+        NotificationSender sender = mock(NotificationSender.class);
+        doThrow(new IllegalArgumentException("bad recipient")).when(sender)
+                .send(argThat(batch -> batch.get(0).sequence() == 1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(outbox, sender, 2, 0, 10, 15, 2, meterRegistry);
+        for (int ticketId = 1; ticketId <= 3; ticketId++) {
+            outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(ticketId, ticketId),
+                    false));
+        }
+
+        // Act
+        for (int attempt = 0; attempt < 6; attempt++) {
+            dispatcher.dispatchOnce(0);
+        }
+
+        // Assert
+        assertEquals(0, outbox.size());
+        assertEquals(1, outbox.deadLetterCount());
+        assertEquals(1, meterRegistry.get("booking.notifications.dead.letters").functionCounter().count());
+        assertEquals(2, meterRegistry.counter("booking.notifications.sent").count());
+        verify(sender).send(argThat(batch -> batch.size() == 1 && batch.get(0).sequence() == 2));
+        verify(sender).send(argThat(batch -> batch.size() == 1 && batch.get(0).sequence() == 3));
+        assertTrue(Files.size(outboxDir.resolve("notification-dead-letters.log")) > 0);
+    }
+
+    @Test
+    public void testNotificationsBeyondTheQueueLimitAreDeadLettered() throws Exception {
+        // Arrange
+        NotificationOutbox outbox = new NotificationOutbox("", false, 2, 1000);
+
+        // Act
+        for (int ticketId = 1; ticketId <= 3; ticketId++) {
+            outbox.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(ticketId, ticketId),
+                    false));
+        }
+
+        // Assert
+        assertEquals(2, outbox.size());
+        assertEquals(1, outbox.deadLetterCount());
+        assertEquals(List.of(1L, 2L), outbox.nextBatch(10, 0).stream().map(Notification::sequence).toList());
+    }
+
+    private void appendToJournal(byte[] bytes) throws IOException {
+        Files.write(outboxDir.resolve("notification-outbox.log"), bytes, StandardOpenOption.APPEND);
+    }
+
+    private static TicketBooking booking(int ticketId, int seatNumber) {
+        return new TicketBooking(ticketId, "Chennai", "Trichy", "User" + ticketId, "user@example.com",
+                Money.ofMajor(200), "A", seatNumber);
+    }
+}
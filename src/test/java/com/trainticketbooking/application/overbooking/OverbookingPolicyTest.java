@@ -0,0 +1,82 @@
+package com.trainticketbooking.application.overbooking;
+
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverbookingPolicyTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    public void testAllowanceGrowsWithTheCancellationRateAndStaysWithinTheCap() {
+        // Act
+        int neverCancelled = OverbookingPolicy.allowance(20, 0, 10, 0.05);
+        int rarelyCancelled = OverbookingPolicy.allowance(20, 0.2, 10, 0.05);
+        int oftenCancelled = OverbookingPolicy.allowance(20, 0.4, 10, 0.05);
+        int capped = OverbookingPolicy.allowance(20, 0.9, 3, 0.05);
+
+        // Assert
+        assertEquals(0, neverCancelled);
+        assertTrue(rarelyCancelled > 0);
+        assertTrue(oftenCancelled > rarelyCancelled);
+        assertEquals(3, capped);
+    }
+
+    @Test
+    public void testNoExtraSeatsUntilEnoughSalesAreObserved() {
+        // Arrange
+        OverbookingPolicy policy = new OverbookingPolicy(4, 0.05, 20, 720, () -> 0L);
+        record(policy, "A", 19, 10);
+
+        // Act
+        int before = policy.extraSeats("A");
+        record(policy, "A", 1, 0);
+        int after = policy.extraSeats("A");
+
+        // Assert
+        assertEquals(0, before);
+        assertEquals(4, after);
+        assertEquals(0, policy.extraSeats("B"));
+        assertEquals(0.5, policy.cancellationRate("A"), 1e-9);
+    }
+
+    @Test
+    public void testOldSalesFadeAndReplicatedOrUnseatedChangesAreIgnored() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        OverbookingPolicy policy = new OverbookingPolicy(4, 0.05, 10, 24, now::get);
+        record(policy, "A", 40, 0);
+        TicketBooking seated = booking("A", 1);
+        policy.onBookingChange(new BookingChange(BookingChange.Type.CANCELLED, seated, null, true));
+        policy.onBookingChange(new BookingChange(BookingChange.Type.CANCELLED, booking("A", null), null, false));
+        policy.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking("A", null), false));
+
+        // Act
+        now.set(48 * HOUR);
+        double observations = policy.observations("A");
+
+        // Assert
+        assertEquals(10, observations, 1e-9);
+        assertEquals(0, policy.cancellationRate("A"));
+    }
+
+    private static void record(OverbookingPolicy policy, String section, int sales, int cancellations) {
+        for (int i = 0; i < sales; i++) {
+            policy.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, booking(section, 1), false));
+        }
+        for (int i = 0; i < cancellations; i++) {
+            policy.onBookingChange(new BookingChange(BookingChange.Type.CANCELLED, booking(section, 1), null, false));
+        }
+    }
+
+    private static TicketBooking booking(String section, Integer seatNumber) {
+        return new TicketBooking(1, "Chennai", "Trichy", "User", "user@example.com", Money.ofMajor(200), section,
+                seatNumber);
+    }
+}
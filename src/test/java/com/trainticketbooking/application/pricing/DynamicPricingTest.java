@@ -0,0 +1,63 @@
+package com.trainticketbooking.application.pricing;
+
+import com.trainticketbooking.application.domain.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicPricingTest {
+
+    private static final long DAY = 86_400_000L;
+
+    @Test
+    public void testFareRisesWithOccupancyUpToAFullSection() {
+        // Arrange
+        DynamicPricing pricing = new DynamicPricing("100", 1.0, "", 14, 0.5);
+
+        // Act
+        Money empty = pricing.fare(0);
+        Money halfFull = pricing.fare(10);
+        Money full = pricing.fare(20);
+        Money overbooked = pricing.fare(23);
+
+        // Assert
+        assertTrue(pricing.isEnabled());
+        assertEquals(Money.ofMajor(100), empty);
+        assertEquals(Money.ofMajor(125), halfFull);
+        assertEquals(Money.ofMajor(200), full);
+        assertEquals(full, overbooked);
+    }
+
+    @Test
+    public void testFareRisesAsDepartureComesCloser() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        DynamicPricing pricing = new DynamicPricing(Money.ofMajor(100), 1.0, Instant.ofEpochMilli(30 * DAY), 14, 0.5,
+                now::get);
+
+        // Act
+        Money early = pricing.fare(0);
+        now.set(23 * DAY);
+        Money weekBefore = pricing.fare(0);
+        now.set(31 * DAY);
+        Money afterDeparture = pricing.fare(0);
+
+        // Assert
+        assertEquals(Money.ofMajor(100), early);
+        assertEquals(Money.ofMajor(125), weekBefore);
+        assertEquals(Money.ofMajor(150), afterDeparture);
+    }
+
+    @Test
+    public void testClientPricesLeaveFaresUnset() {
+        // Act
+        DynamicPricing pricing = DynamicPricing.clientPrices();
+
+        // Assert
+        assertFalse(pricing.isEnabled());
+        assertNull(pricing.fare(5));
+    }
+}
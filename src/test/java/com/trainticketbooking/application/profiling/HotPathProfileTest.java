@@ -0,0 +1,82 @@
+package com.trainticketbooking.application.profiling;
+
+import com.trainticketbooking.application.dto.HotMethodDto;
+import com.trainticketbooking.application.dto.HotPathProfileDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HotPathProfileTest {
+
+    private static final String MAPPER = "com.trainticketbooking.application.util.TicketBookingMapperImpl.convertToDto";
+    private static final String SERVICE =
+            "com.trainticketbooking.application.service.TicketBookingService.getAllTickets";
+
+    @Test
+    public void testRanksMethodsByEachKindOfSample() {
+        // Arrange
+        HotPathProfile profile = new HotPathProfile(10, 1000);
+        profile.recordCpuSample(SERVICE, 10_000);
+        profile.recordCpuSample(SERVICE, 10_100);
+        profile.recordCpuSample(MAPPER, 10_200);
+        profile.recordCpuSample(null, 10_300);
+        profile.recordAllocation(MAPPER, 3_000, 10_400);
+        profile.recordAllocation(SERVICE, 1_000, 10_500);
+        profile.recordContention(SERVICE, 4_000_000, 10_600);
+
+        // Act
+        HotPathProfileDto snapshot = profile.snapshot(10_700, 10);
+
+        // Assert
+        assertEquals(10, snapshot.windowSeconds());
+        assertEquals(4, snapshot.cpuSamples());
+        assertEquals(4_000, snapshot.allocatedBytes());
+        assertEquals(1, snapshot.contentions());
+        assertEquals(4.0, snapshot.contendedMillis());
+        assertEquals(List.of(SERVICE, MAPPER), methods(snapshot.byCpu()));
+        assertEquals(0.5, snapshot.byCpu().get(0).cpuShare());
+        assertEquals(List.of(MAPPER, SERVICE), methods(snapshot.byAllocation()));
+        assertEquals(0.75, snapshot.byAllocation().get(0).allocationShare());
+        assertEquals(List.of(SERVICE), methods(snapshot.byContention()));
+        assertEquals(4.0, snapshot.byContention().get(0).contendedMillis());
+    }
+
+    @Test
+    public void testForgetsSamplesOlderThanTheWindow() {
+        // Arrange
+        HotPathProfile profile = new HotPathProfile(10, 1000);
+        profile.recordCpuSample(SERVICE, 10_000);
+        profile.recordCpuSample(MAPPER, 15_000);
+        profile.recordCpuSample(MAPPER, 20_500);
+
+        // Act
+        HotPathProfileDto snapshot = profile.snapshot(20_500, 10);
+
+        // Assert
+        assertEquals(2, snapshot.cpuSamples());
+        assertEquals(List.of(MAPPER), methods(snapshot.byCpu()));
+        assertTrue(snapshot.byAllocation().isEmpty());
+    }
+
+    @Test
+    public void testLimitsTheListedMethods() {
+        // Arrange
+        HotPathProfile profile = new HotPathProfile(10, 1000);
+        profile.recordCpuSample(SERVICE, 10_000);
+        profile.recordCpuSample(SERVICE, 10_000);
+        profile.recordCpuSample(MAPPER, 10_000);
+
+        // Act
+        HotPathProfileDto snapshot = profile.snapshot(10_000, 1);
+
+        // Assert
+        assertEquals(List.of(SERVICE), methods(snapshot.byCpu()));
+    }
+
+    private static List<String> methods(List<HotMethodDto> hotMethods) {
+        return hotMethods.stream().map(HotMethodDto::method).toList();
+    }
+}
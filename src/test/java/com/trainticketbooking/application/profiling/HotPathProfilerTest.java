@@ -0,0 +1,115 @@
+package com.trainticketbooking.application.profiling;
+
+import com.trainticketbooking.application.dto.HotMethodDto;
+import com.trainticketbooking.application.dto.HotPathProfileDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HotPathProfilerTest {
+
+    private static final String TEST_CLASS = HotPathProfilerTest.class.getName();
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    private final Object lock = new Object();
+    private volatile Object sink;
+    private HotPathProfiler hotPathProfiler;
+
+    @AfterEach
+    public void tearDown() {
+        if (hotPathProfiler != null) {
+            hotPathProfiler.stop();
+        }
+    }
+
+    @Test
+    public void testAttributesFlightRecorderSamplesToProfiledMethods() throws InterruptedException {
+        // Arrange
+        hotPathProfiler = new HotPathProfiler(true, HotPathProfilerTest.class.getPackageName(), 60, 10, 1000, 1,
+                System::currentTimeMillis);
+        hotPathProfiler.startIfEnabled();
+
+        // Act
+        HotPathProfileDto hotPaths = hotPathProfiler.hotPaths(50);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!(lists(hotPaths.byCpu(), "spin") && lists(hotPaths.byAllocation(), "allocate")
+                && lists(hotPaths.byContention(), "enterLock")) && System.currentTimeMillis() < deadline) {
+            spin();
+            allocate();
+            contend();
+            hotPaths = hotPathProfiler.hotPaths(50);
+        }
+
+        // Assert
+        assertTrue(hotPathProfiler.isRunning());
+        assertTrue(lists(hotPaths.byCpu(), "spin"), hotPaths.toString());
+        assertTrue(lists(hotPaths.byAllocation(), "allocate"), hotPaths.toString());
+        assertTrue(lists(hotPaths.byContention(), "enterLock"), hotPaths.toString());
+    }
+
+    @Test
+    public void testDoesNotRecordUnlessEnabled() {
+        // Arrange
+        hotPathProfiler = new HotPathProfiler(false, HotPathProfilerTest.class.getPackageName(), 60, 10, 1000, 1,
+                System::currentTimeMillis);
+
+        // Act
+        hotPathProfiler.startIfEnabled();
+
+        // Assert
+        assertFalse(hotPathProfiler.isRunning());
+        assertTrue(hotPathProfiler.hotPaths(10).byCpu().isEmpty());
+    }
+
+    private static boolean lists(List<HotMethodDto> hotMethods, String method) {
+        return hotMethods.stream().anyMatch(hotMethod -> hotMethod.method().equals(TEST_CLASS + "." + method));
+    }
+
+    private void spin() {
+        long end = System.nanoTime() + 100_000_000;
+        double value = 1;
+        while (System.nanoTime() < end) {
+            value = Math.sqrt(value + 1);
+        }
+        sink = value;
+    }
+
+    private void allocate() {
+        for (int i = 0; i < 10_000; i++) {
+            sink = new byte[1024];
+        }
+    }
+
+    private void contend() throws InterruptedException {
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            synchronized (lock) {
+                locked.countDown();
+                sleep(50);
+            }
+        });
+        holder.start();
+        locked.await();
+        enterLock();
+        holder.join();
+    }
+
+    private void enterLock() {
+        synchronized (lock) {
+            sink = lock;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
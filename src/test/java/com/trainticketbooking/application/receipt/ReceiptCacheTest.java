@@ -0,0 +1,186 @@
+package com.trainticketbooking.application.receipt;
+
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.controller.ReceiptController;
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.repository.InMemoryBookingRepository;
+import com.trainticketbooking.application.versioning.BookingVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ReceiptCacheTest {
+
+    private static final String SIGNING_KEY = "receipt-test-key";
+
+    @TempDir
+    Path archiveDir;
+
+    private InMemoryBookingRepository bookingRepository;
+    private BookingArchive bookingArchive;
+    private ReceiptRenderer receiptRenderer;
+    private ReceiptCache receiptCache;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        bookingRepository = new InMemoryBookingRepository();
+        bookingArchive = new BookingArchive(archiveDir.toString(), 16);
+        receiptRenderer = spy(new ReceiptRenderer(SIGNING_KEY));
+        receiptCache = new ReceiptCache(bookingRepository, bookingArchive, receiptRenderer, 100, 1, 10,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        receiptCache.stop();
+    }
+
+    @Test
+    public void testReceiptIsRenderedOnceAndCached() {
+        // Arrange
+        bookingRepository.save(booking(Money.ofMajor(200), 1));
+
+        // Act
+        RenderedReceipt first = receiptCache.receiptFor(1).orElseThrow();
+        RenderedReceipt second = receiptCache.receiptFor(1).orElseThrow();
+
+        // Assert
+        assertSame(first, second);
+        verify(receiptRenderer, times(1)).render(any());
+        String html = new String(first.html(), StandardCharsets.UTF_8);
+        assertTrue(html.contains("<td>Chennai</td>"));
+        assertTrue(html.contains("<td>INR 200.00</td>"));
+        assertTrue(receiptCache.receiptFor(2).isEmpty());
+    }
+
+    @Test
+    public void testReceiptOfArchivedTicketIsReadFromTheArchive() {
+        // Arrange
+        bookingArchive.append(List.of(booking(Money.ofMajor(200), 1)));
+
+        // Act
+        RenderedReceipt receipt = receiptCache.receiptFor(1).orElseThrow();
+
+        // Assert
+        assertEquals(1, receipt.ticketId());
+        assertTrue(new String(receipt.text(), StandardCharsets.UTF_8).contains("Chennai"));
+        assertTrue(receiptCache.receiptFor(2).isEmpty());
+    }
+
+    @Test
+    public void testChangesRenderReceiptInBackground() {
+        // Arrange
+        TicketBooking purchased = booking(Money.ofMajor(200), 1);
+        TicketBooking discounted = booking(Money.ofMajor(190), 1);
+        discounted.nextVersion();
+        bookingRepository.save(discounted.copy());
+
+        // Act
+        receiptCache.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, purchased, false));
+        receiptCache.onBookingChange(new BookingChange(BookingChange.Type.DISCOUNT_APPLIED, purchased, discounted,
+                false));
+
+        // Assert
+        verify(receiptRenderer, timeout(2000).times(2)).render(any());
+        RenderedReceipt receipt = receiptCache.receiptFor(1).orElseThrow();
+        verify(receiptRenderer, times(2)).render(any());
+        assertEquals(discounted.getVersion(), receipt.version());
+        assertNotEquals(purchased.getVersion(), receipt.version());
+    }
+
+    @Test
+    public void testQrPayloadCarriesTicketAndSignature() throws Exception {
+        // Arrange
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SIGNING_KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+
+        // Act
+        String qrPayload = receiptRenderer.render(booking(Money.parse("199.50"), 7)).qrPayload();
+        String unsignedPayload = new ReceiptRenderer("").render(booking(Money.parse("199.50"), 7)).qrPayload();
+
+        // Assert
+        String[] parts = qrPayload.split("\\.");
+        assertEquals(3, parts.length);
+        assertEquals("TB2", parts[0]);
+        assertEquals("1|Chennai|Trichy|User <1>|A|7|19950",
+                new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+        assertEquals(Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(parts[1].getBytes(StandardCharsets.US_ASCII))), parts[2]);
+        assertEquals("TB2." + parts[1], unsignedPayload);
+    }
+
+    @Test
+    public void testReceiptEndpoint_RevalidatesWithEtag() throws Exception {
+        // Arrange
+        bookingRepository.save(booking(Money.ofMajor(200), 1));
+        BookingVersions bookingVersions = new BookingVersions(100_000);
+        MockMvc mockMvc = receiptEndpoint(bookingVersions);
+
+        // Act
+        MvcResult html = mockMvc.perform(get("/ticket-booking/1/receipt"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                .andReturn();
+        String etag = html.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Assert
+        assertNotNull(etag);
+        assertTrue(html.getResponse().getContentAsString(StandardCharsets.UTF_8).contains("User &lt;1&gt;"));
+        mockMvc.perform(get("/ticket-booking/1/receipt").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/ticket-booking/1/receipt").header(HttpHeaders.ACCEPT, "text/plain"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(header().string(HttpHeaders.ETAG, bookingVersions.receiptTag(1,
+                        receiptCache.receiptFor(1).orElseThrow().version(), "text")));
+        mockMvc.perform(get("/ticket-booking/2/receipt"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testReceiptTagsFromBeforeARestartNeverMatch() throws Exception {
+        // Arrange
+        bookingRepository.save(booking(Money.ofMajor(200), 1));
+        String etag = receiptEndpoint(new BookingVersions(100_000)).perform(get("/ticket-booking/1/receipt"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        receiptEndpoint(new BookingVersions(100_000))
+                .perform(get("/ticket-booking/1/receipt").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private MockMvc receiptEndpoint(BookingVersions bookingVersions) {
+        return MockMvcBuilders.standaloneSetup(new ReceiptController(receiptCache, ClusterTopology.standalone(),
+                new ReplicationState("standalone", 1000), bookingVersions)).build();
+    }
+
+    private static TicketBooking booking(Money price, int seatNumber) {
+        return new TicketBooking(1, "Chennai", "Trichy", "User <1>", "user1@example.com", price, "A", seatNumber);
+    }
+}
@@ -0,0 +1,79 @@
+package com.trainticketbooking.application.replication;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.BookingCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ReplicationFollowerTest {
+
+    private final BookingCodec bookingCodec = new BookingCodec(new Jackson2ObjectMapperBuilder()
+            .serializationInclusion(JsonInclude.Include.NON_NULL));
+
+    private ReplicationFollower follower;
+
+    @AfterEach
+    public void stopFollower() {
+        if (follower != null) {
+            follower.stop();
+        }
+    }
+
+    @Test
+    public void testChangeThatCannotBeAppliedTriggersResync() throws IOException {
+        // Arrange
+        TicketBookingService ticketBookingService = mock(TicketBookingService.class);
+        doThrow(new IllegalStateException("uk_ticket_booking_seat"))
+                .when(ticketBookingService).applyReplicatedBooking(any());
+        ReplicationState replicationState = new ReplicationState("replica", 1000);
+        long resyncEpoch;
+        try (ServerSocket primary = new ServerSocket(0)) {
+            primary.setSoTimeout(5000);
+            follower = new ReplicationFollower(replicationState, mock(ReplicationPublisher.class),
+                    ticketBookingService, bookingCodec, "127.0.0.1", primary.getLocalPort(), 200, 10, 0);
+
+            // Act
+            follower.startIfReplica();
+            try (Socket first = primary.accept()) {
+                DataInputStream in = new DataInputStream(first.getInputStream());
+                in.readLong();
+                in.readLong();
+                DataOutputStream out = new DataOutputStream(first.getOutputStream());
+                write(out, new ReplicationFrame(1, ReplicationFrame.Type.SNAPSHOT_START, 7L, null, null, null));
+                write(out, ReplicationFrame.marker(1, ReplicationFrame.Type.SNAPSHOT_END));
+                write(out, ReplicationFrame.save(2, new TicketBooking(1, "Source", "Destination", "User",
+                        "user@example.com", Money.ofMajor(10), "A", 1)));
+                out.flush();
+                try (Socket second = primary.accept()) {
+                    resyncEpoch = new DataInputStream(second.getInputStream()).readLong();
+                }
+            }
+        }
+
+        // Assert
+        assertEquals(0, resyncEpoch);
+        assertFalse(replicationState.isSynced());
+        assertFalse(replicationState.servesReads());
+        verify(ticketBookingService).applyReplicatedBooking(any());
+    }
+
+    private void write(DataOutputStream out, ReplicationFrame frame) throws IOException {
+        byte[] bytes = bookingCodec.encode(frame);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,124 @@
+package com.trainticketbooking.application.replication;
+
+import com.trainticketbooking.application.TrainticketbookingApplication;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.ReplicationStatusDto;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a primary and a replica on localhost, books on the primary and reads from the replica.
+ */
+public class ReplicationIntegrationTest {
+
+    private ConfigurableApplicationContext primary;
+    private ConfigurableApplicationContext replica;
+
+    @AfterEach
+    public void stopNodes() {
+        if (replica != null) {
+            replica.close();
+        }
+        if (primary != null && primary.isActive()) {
+            primary.close();
+        }
+    }
+
+    @Test
+    public void testReplicaFollowsPrimaryAndTakesOverAfterPromotion() throws Exception {
+        // Arrange
+        int primaryPort = freePort();
+        int replicaPort = freePort();
+        int replicationPort = freePort();
+        primary = startNode(primaryPort, "booking.replication.role=primary",
+                "booking.replication.port=" + replicationPort);
+        purchase(client(primaryPort), "Before");
+        replica = startNode(replicaPort, "booking.replication.role=replica",
+                "booking.replication.primary-port=" + replicationPort,
+                "booking.replication.port=" + freePort());
+        RestClient replicaClient = client(replicaPort);
+
+        // Act
+        purchase(client(primaryPort), "After");
+        awaitTrue(() -> ticketList(replicaClient).getData() != null
+                && ticketList(replicaClient).getData().size() == 2);
+        CustomApiResponse<TicketBookingDto> rejectedWrite = purchase(replicaClient, "Rejected");
+        primary.close();
+        awaitTrue(() -> ticketList(replicaClient).getStatus() == 503);
+        CustomApiResponse<ReplicationStatusDto> promotion = RestClient
+                .create("http://localhost:" + replicaPort + "/ticket-booking/replication")
+                .post().uri("/promote")
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {
+                });
+        CustomApiResponse<TicketBookingDto> acceptedWrite = purchase(replicaClient, "Promoted");
+
+        // Assert
+        assertEquals(503, rejectedWrite.getStatus());
+        assertEquals(ApiResponseMessages.REPLICA_READ_ONLY, rejectedWrite.getMessage());
+        assertEquals("PRIMARY", promotion.getData().role());
+        assertEquals(2, promotion.getData().appliedSequence());
+        assertEquals(200, acceptedWrite.getStatus());
+        assertEquals(2, acceptedWrite.getData().seatNumber());
+        assertEquals(3, ticketList(replicaClient).getData().size());
+    }
+
+    private static CustomApiResponse<TicketBookingDto> purchase(RestClient client, String userName) {
+        return client.post().uri("/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new TicketBookingDto(null, "Chennai", "Trichy", userName, "replica@example.com",
+                        BigDecimal.TEN, null, null, null))
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {
+                });
+    }
+
+    private static CustomApiResponse<List<TicketBooking>> ticketList(RestClient client) {
+        return client.get()
+                .uri("/ticket-list?email={email}", "replica@example.com")
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {
+                });
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            Thread.sleep(50);
+        }
+    }
+
+    private static RestClient client(int port) {
+        return RestClient.create("http://localhost:" + port + "/ticket-booking/ticket-booking");
+    }
+
+    private static ConfigurableApplicationContext startNode(int port, String... properties) {
+        return new SpringApplicationBuilder(TrainticketbookingApplication.class)
+                .properties("server.port=" + port)
+                .properties(properties)
+                .run();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
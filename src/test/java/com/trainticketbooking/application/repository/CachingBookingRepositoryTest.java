@@ -0,0 +1,194 @@
+package com.trainticketbooking.application.repository;
+
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class CachingBookingRepositoryTest {
+
+    private InMemoryBookingRepository delegate;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingBookingRepository bookingRepository;
+
+    @BeforeEach
+    public void setUp() {
+        delegate = spy(new InMemoryBookingRepository());
+        meterRegistry = new SimpleMeterRegistry();
+        bookingRepository = new CachingBookingRepository(delegate, 100, 1000, 500, meterRegistry);
+    }
+
+    @Test
+    public void testWritesAreCoalescedUntilFlush() {
+        // Arrange
+        TicketBooking ticketBooking = new TicketBooking(1, "Source", "Destination", "User", "user@example.com",
+                Money.ofMajor(10), "A", 1);
+
+        // Act
+        bookingRepository.save(ticketBooking);
+        ticketBooking.setSeatNumber(2);
+        bookingRepository.save(ticketBooking);
+
+        // Assert
+        verify(delegate, never()).save(any());
+        verify(delegate, never()).saveAll(anyCollection());
+        assertEquals(1, bookingRepository.count());
+        assertEquals(2, bookingRepository.findById(1).orElseThrow().getSeatNumber());
+
+        bookingRepository.flush();
+        verify(delegate, times(1)).saveAll(List.of(ticketBooking));
+        assertEquals(2, delegate.findById(1).orElseThrow().getSeatNumber());
+        assertEquals(1.0, meterRegistry.get("booking.cache.flushed.writes").counter().count());
+    }
+
+    @Test
+    public void testDeleteHidesBookingBeforeFlush() {
+        // Arrange
+        delegate.save(new TicketBooking(1, "Source", "Destination", "User", "user@example.com",
+                Money.ofMajor(10), "A", 1));
+        bookingRepository = new CachingBookingRepository(delegate, 100, 1000, 500, meterRegistry);
+
+        // Act
+        boolean deleted = bookingRepository.deleteById(1);
+
+        // Assert
+        assertTrue(deleted);
+        assertTrue(bookingRepository.findById(1).isEmpty());
+        assertEquals(0, bookingRepository.count());
+        assertTrue(delegate.findById(1).isPresent());
+        bookingRepository.flush();
+        assertTrue(delegate.findById(1).isEmpty());
+    }
+
+    @Test
+    public void testReadThroughCachesLoadedBookings() {
+        // Arrange
+        delegate.save(new TicketBooking(1, "Source", "Destination", "User", "user@example.com",
+                Money.ofMajor(10), "A", 1));
+
+        // Act
+        bookingRepository.findById(1);
+        bookingRepository.findById(1);
+
+        // Assert
+        verify(delegate, times(1)).findById(1);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    public void testQueriesSeeQueuedWrites() {
+        // Arrange
+        bookingRepository.save(new TicketBooking(1, "Source", "Destination", "User", "user@example.com",
+                Money.ofMajor(10), "A", 1));
+
+        // Act
+        List<TicketBooking> tickets = bookingRepository.findByUserEmail("USER@example.com");
+        List<TicketBooking> sectionTickets = bookingRepository.findBySection("a");
+
+        // Assert
+        assertEquals(1, tickets.size());
+        assertEquals(1, sectionTickets.size());
+        assertTrue(delegate.findById(1).isEmpty());
+        verify(delegate, never()).findByUserEmail(any());
+        verify(delegate, never()).findBySection(any());
+    }
+
+    @Test
+    public void testIndexedQueriesFollowMovedAndStoredBookings() {
+        // Arrange
+        delegate.save(new TicketBooking(1, "Source", "Destination", "User", "user@example.com",
+                Money.ofMajor(10), "A", 1));
+        bookingRepository = new CachingBookingRepository(delegate, 100, 1000, 500, meterRegistry);
+        TicketBooking moved = bookingRepository.findById(1).orElseThrow();
+
+        // Act
+        moved.setSection("B");
+        moved.setSeatNumber(21);
+        bookingRepository.save(moved);
+
+        // Assert
+        assertTrue(bookingRepository.findBySection("A").isEmpty());
+        assertEquals(List.of(moved), bookingRepository.findBySection("B"));
+        assertEquals(List.of(moved), bookingRepository.findByUserEmail("user@example.com"));
+    }
+
+    @Test
+    public void testRejectedWritesAreDroppedAndReported() {
+        // Arrange
+        List<TicketBooking> reported = new ArrayList<>();
+        bookingRepository.onRejectedWrites(reported::addAll);
+        TicketBooking accepted = new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com",
+                Money.ofMajor(10), "A", 1);
+        TicketBooking rejected = new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com",
+                Money.ofMajor(10), "A", 2);
+        doAnswer(invocation -> {
+            Collection<TicketBooking> batch = invocation.getArgument(0);
+            if (batch.contains(rejected)) {
+                throw new DuplicateKeyException("uk_ticket_booking_seat");
+            }
+            return invocation.callRealMethod();
+        }).when(delegate).saveAll(anyCollection());
+        bookingRepository.save(accepted);
+        bookingRepository.save(rejected);
+
+        // Act
+        bookingRepository.flush();
+        bookingRepository.flush();
+
+        // Assert
+        assertEquals(List.of(rejected), reported);
+        assertEquals(accepted, delegate.findById(1).orElseThrow());
+        assertTrue(bookingRepository.findById(2).isEmpty());
+        assertTrue(bookingRepository.findByUserEmail("user2@example.com").isEmpty());
+        assertEquals(1, bookingRepository.count());
+        assertEquals(1.0, meterRegistry.get("booking.cache.rejected.writes").counter().count());
+    }
+
+    @Test
+    public void testFailedFlushKeepsWritesQueued() {
+        // Arrange
+        TicketBooking ticketBooking = new TicketBooking(1, "Source", "Destination", "User", "user@example.com",
+                Money.ofMajor(10), "A", 1);
+        bookingRepository.save(ticketBooking);
+        doThrow(new IllegalStateException("database unavailable")).when(delegate).saveAll(anyCollection());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, bookingRepository::flush);
+        doCallRealMethod().when(delegate).saveAll(anyCollection());
+        bookingRepository.flush();
+        assertEquals(ticketBooking, delegate.findById(1).orElseThrow());
+    }
+
+    @Test
+    public void testFlushWritesBookingsAsSavedWhileTheyAreChanged() {
+        // Arrange
+        TicketBooking ticketBooking = new TicketBooking(1, "Source", "Destination", "User", "user@example.com",
+                Money.ofMajor(10), "A", 1);
+        bookingRepository.save(ticketBooking);
+        doAnswer(invocation -> {
+            ticketBooking.setSection("B");
+            bookingRepository.findById(1).orElseThrow().setSeatNumber(22);
+            return invocation.callRealMethod();
+        }).when(delegate).saveAll(anyCollection());
+
+        // Act
+        bookingRepository.flush();
+
+        // Assert
+        TicketBooking flushed = delegate.findById(1).orElseThrow();
+        assertEquals("A", flushed.getSection());
+        assertEquals(1, flushed.getSeatNumber());
+        assertEquals(flushed, bookingRepository.findById(1).orElseThrow());
+    }
+}
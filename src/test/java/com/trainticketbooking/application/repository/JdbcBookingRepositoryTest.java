@@ -0,0 +1,143 @@
+package com.trainticketbooking.application.repository;
+
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JdbcBookingRepositoryTest {
+
+    private EmbeddedDatabase database;
+    private JdbcBookingRepository bookingRepository;
+
+    @BeforeEach
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/booking-schema.sql")
+                .build();
+        bookingRepository = new JdbcBookingRepository(new JdbcTemplate(database),
+                new TransactionTemplate(new DataSourceTransactionManager(database)), 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testSaveAndFind() {
+        // Arrange
+        TicketBooking ticketBooking = new TicketBooking(1, "Source", "Destination", "User", "User@Example.com",
+                Money.ofMajor(10), "A", 1);
+
+        // Act
+        bookingRepository.save(ticketBooking);
+        ticketBooking.setSeatNumber(2);
+        bookingRepository.save(ticketBooking);
+
+        // Assert
+        assertEquals(ticketBooking, bookingRepository.findById(1).orElseThrow());
+        assertEquals(List.of(ticketBooking), bookingRepository.findByUserEmail("user@example.com"));
+        assertEquals(List.of(ticketBooking), bookingRepository.findBySection("a"));
+        assertEquals(ticketBooking, bookingRepository.findFirstByUserName("USER").orElseThrow());
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    public void testSaveRejectsDoubleBooking() {
+        // Arrange
+        bookingRepository.save(new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com",
+                Money.ofMajor(10), "A", 1));
+        TicketBooking secondBooking = new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com",
+                Money.ofMajor(10), "A", 1);
+
+        // Act & Assert
+        assertThrows(DuplicateKeyException.class, () -> bookingRepository.save(secondBooking));
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    public void testSaveAllSwapsSeatsAndInsertsNewRows() {
+        // Arrange
+        TicketBooking ticket1 = new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com",
+                Money.ofMajor(10), "A", 1);
+        TicketBooking ticket2 = new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com",
+                Money.ofMajor(10), "A", 2);
+        bookingRepository.saveAll(List.of(ticket1, ticket2));
+        ticket1.setSeatNumber(2);
+        ticket2.setSeatNumber(1);
+        TicketBooking ticket3 = new TicketBooking(3, "Source", "Destination", "User3", "user3@example.com",
+                Money.ofMajor(10), "B", 21);
+
+        // Act
+        bookingRepository.saveAll(List.of(ticket1, ticket2, ticket3));
+
+        // Assert
+        assertEquals(2, bookingRepository.findById(1).orElseThrow().getSeatNumber());
+        assertEquals(1, bookingRepository.findById(2).orElseThrow().getSeatNumber());
+        assertEquals(ticket3, bookingRepository.findById(3).orElseThrow());
+    }
+
+    @Test
+    public void testDeleteAllById() {
+        // Arrange
+        bookingRepository.saveAll(List.of(
+                new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com", Money.ofMajor(10), "A", 1),
+                new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com", Money.ofMajor(10), "A", 2),
+                new TicketBooking(3, "Source", "Destination", "User3", "user3@example.com", Money.ofMajor(10), "A", 3)));
+
+        // Act
+        bookingRepository.deleteAllById(List.of(1, 3));
+
+        // Assert
+        assertEquals(1, bookingRepository.count());
+        assertTrue(bookingRepository.findById(2).isPresent());
+        assertFalse(bookingRepository.deleteById(1));
+    }
+
+    @Test
+    public void testScanSection() {
+        // Arrange
+        bookingRepository.saveAll(List.of(
+                new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com", Money.ofMajor(10), "A", 1),
+                new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com", Money.ofMajor(10), "B", 21),
+                new TicketBooking(3, "Source", "Destination", "User3", "user3@example.com", Money.ofMajor(10), "A", 3)));
+        List<Integer> scanned = new ArrayList<>();
+
+        // Act
+        bookingRepository.scan("a", ticket -> scanned.add(ticket.getTicketId()));
+
+        // Assert
+        assertEquals(2, scanned.size());
+        assertTrue(scanned.containsAll(List.of(1, 3)));
+    }
+
+    @Test
+    public void testIssuedSequenceOnlyGrows() {
+        // Act
+        long unrecorded = bookingRepository.findIssuedSequence("node-a");
+        bookingRepository.recordIssuedSequence("node-a", 200);
+        bookingRepository.recordIssuedSequence("node-a", 100);
+        bookingRepository.recordIssuedSequence("node-b", 300);
+
+        // Assert
+        assertEquals(0, unrecorded);
+        assertEquals(200, bookingRepository.findIssuedSequence("node-a"));
+        assertEquals(300, bookingRepository.findIssuedSequence("node-b"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.trainticketbooking.application.seating;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeatDefragmenterTest {
+
+    private SectionSeats sectionA;
+
+    @BeforeEach
+    public void setUp() {
+        sectionA = new SectionSeats(1, SeatLayout.STANDARD);
+    }
+
+    @Test
+    public void testPlan_EmptiesSparsestRowIntoFreeSeatOfSameKind() {
+        // Arrange: seat 4 is the free window seat of the front row, seat 20 a window seat at the back
+        sectionA.addAll(Set.of(1, 2, 3, 20));
+
+        // Act
+        List<SeatDefragmenter.Move> moves = SeatDefragmenter.plan(sectionA, 4);
+
+        // Assert
+        assertEquals(List.of(new SeatDefragmenter.Move(20, 4)), moves);
+        assertEquals(Set.of(1, 2, 3, 20), sectionA);
+    }
+
+    @Test
+    public void testPlan_KeepsWindowPassengerAwayFromAisleSeat() {
+        // Arrange: the only free seat in a partly occupied row, seat 3, is on the aisle
+        sectionA.addAll(Set.of(1, 2, 4, 20));
+
+        // Act
+        List<SeatDefragmenter.Move> moves = SeatDefragmenter.plan(sectionA, 4);
+
+        // Assert
+        assertTrue(moves.isEmpty());
+    }
+
+    @Test
+    public void testPlan_MovesCompanionsTogetherOrNotAtAll() {
+        // Arrange: seats 19 and 20 sit beside each other; seats 2 and 4 of the front row are free but apart
+        sectionA.addAll(Set.of(1, 3, 19, 20));
+
+        // Act
+        List<SeatDefragmenter.Move> moves = SeatDefragmenter.plan(sectionA, 4);
+
+        // Assert: the companions stay, the front row moves into the free seats beside them
+        assertEquals(List.of(new SeatDefragmenter.Move(1, 17), new SeatDefragmenter.Move(3, 18)), moves);
+    }
+
+    @Test
+    public void testPlan_MovesCompanionsToSeatsBesideEachOther() {
+        // Arrange
+        sectionA.addAll(Set.of(1, 2, 19, 20));
+
+        // Act
+        List<SeatDefragmenter.Move> moves = SeatDefragmenter.plan(sectionA, 4);
+
+        // Assert: aisle seat to aisle seat and window seat to window seat
+        assertEquals(List.of(new SeatDefragmenter.Move(19, 3), new SeatDefragmenter.Move(20, 4)), moves);
+    }
+
+    @Test
+    public void testPlan_StopsAtMoveLimit() {
+        // Arrange
+        sectionA.addAll(Set.of(1, 2, 3, 5, 6, 7, 16, 20));
+
+        // Act
+        List<SeatDefragmenter.Move> step = SeatDefragmenter.plan(sectionA, 1);
+        List<SeatDefragmenter.Move> all = SeatDefragmenter.plan(sectionA, 10);
+
+        // Assert
+        assertEquals(List.of(new SeatDefragmenter.Move(20, 4)), step);
+        assertEquals(List.of(new SeatDefragmenter.Move(20, 4), new SeatDefragmenter.Move(16, 8)), all);
+    }
+
+    @Test
+    public void testPlan_LeavesCompactSectionAlone() {
+        // Arrange
+        sectionA.addAll(Set.of(1, 2, 3, 4, 5, 6));
+
+        // Act
+        List<SeatDefragmenter.Move> moves = SeatDefragmenter.plan(sectionA, 4);
+
+        // Assert
+        assertTrue(moves.isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+package com.trainticketbooking.application.seating;
+
+import com.trainticketbooking.application.domain.SeatPreference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeatSelectorTest {
+
+    private SectionSeats sectionA;
+    private SectionSeats sectionB;
+    private Map<String, SectionSeats> sections;
+
+    @BeforeEach
+    public void setUp() {
+        sectionA = new SectionSeats(1, SeatLayout.STANDARD);
+        sectionB = new SectionSeats(21, SeatLayout.STANDARD);
+        sections = new LinkedHashMap<>();
+        sections.put("A", sectionA);
+        sections.put("B", sectionB);
+    }
+
+    @Test
+    public void testSelect_BalancesSections() {
+        // Arrange
+        sectionA.addAll(Set.of(1, 2));
+
+        // Act
+        SeatSelector.Selection selection = SeatSelector.select(sections, null, null);
+
+        // Assert
+        assertEquals(new SeatSelector.Selection("B", 21), selection);
+    }
+
+    @Test
+    public void testSelect_PrefersAisleSeat() {
+        // Act
+        SeatSelector.Selection selection = SeatSelector.select(sections, SeatPreference.AISLE, null);
+
+        // Assert
+        assertEquals(new SeatSelector.Selection("A", 2), selection);
+    }
+
+    @Test
+    public void testSelect_PreferenceOutranksBalance() {
+        // Arrange: every window seat of section B is taken
+        sectionA.addAll(Set.of(1, 2, 3, 5, 6));
+        sectionB.addAll(Set.of(21, 24, 25, 28, 29, 32, 33, 36, 37, 40));
+
+        // Act
+        SeatSelector.Selection selection = SeatSelector.select(sections, SeatPreference.WINDOW, null);
+
+        // Assert
+        assertEquals(new SeatSelector.Selection("A", 4), selection);
+    }
+
+    @Test
+    public void testSelect_SeatsGroupMemberAlongside() {
+        // Arrange: seat 6 is in the second row, beside seat 5 on the same side of the aisle
+        sectionA.addAll(Set.of(1, 2, 3, 4, 6));
+
+        // Act
+        SeatSelector.Selection selection = SeatSelector.select(sections, null, 6);
+
+        // Assert
+        assertEquals(new SeatSelector.Selection("A", 5), selection);
+    }
+
+    @Test
+    public void testSelect_SeatsGroupMemberInNearbyRow() {
+        // Arrange: both seats beside seat 6 are taken, the row behind has room
+        sectionA.addAll(Set.of(1, 2, 3, 4, 5, 6, 7, 8));
+
+        // Act
+        SeatSelector.Selection selection = SeatSelector.select(sections, SeatPreference.WINDOW, 6);
+
+        // Assert
+        assertEquals(new SeatSelector.Selection("A", 9), selection);
+    }
+
+    @Test
+    public void testSelect_AllSeatsTaken() {
+        // Arrange
+        IntStream.rangeClosed(1, 20).forEach(sectionA::add);
+        IntStream.rangeClosed(21, 40).forEach(sectionB::add);
+
+        // Act
+        SeatSelector.Selection selection = SeatSelector.select(sections, SeatPreference.WINDOW, 3);
+
+        // Assert
+        assertNull(selection);
+        assertEquals(20, sectionA.size());
+        assertFalse(sectionA.contains(21));
+    }
+}
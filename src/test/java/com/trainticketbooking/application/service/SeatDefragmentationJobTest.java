@@ -0,0 +1,80 @@
+package com.trainticketbooking.application.service;
+
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.repository.InMemoryBookingRepository;
+import com.trainticketbooking.application.util.TicketBookingMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+public class SeatDefragmentationJobTest {
+
+    @Mock
+    private TicketBookingMapper ticketBookingMapper;
+
+    private InMemoryBookingRepository bookingRepository;
+    private TicketBookingService ticketBookingService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        bookingRepository = new InMemoryBookingRepository();
+        ticketBookingService = new TicketBookingService(ticketBookingMapper, bookingRepository,
+                BookingArchive.disabled(), ClusterTopology.standalone(), OverbookingPolicy.disabled(),
+                DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of());
+        meterRegistry = new SimpleMeterRegistry();
+        // Two window passengers at the back, and a free window seat in each of the two front rows
+        for (int seat : List.of(1, 2, 3, 5, 6, 7, 16, 20)) {
+            bookingRepository.save(new TicketBooking(seat, "Source", "Destination", "User" + seat,
+                    "user" + seat + "@example.com", Money.ofMajor(10), "A", seat));
+        }
+        ticketBookingService.loadSeatInventory();
+    }
+
+    @Test
+    public void testRunsStepsUntilNothingIsLeftToGather() throws InterruptedException {
+        // Arrange
+        SeatDefragmentationJob job = new SeatDefragmentationJob(ticketBookingService,
+                new ReplicationState("standalone", 1000), 0, 1, 0, meterRegistry);
+
+        // Act
+        int moved = job.runOnce();
+
+        // Assert
+        assertEquals(2, moved);
+        assertEquals(2.0, meterRegistry.counter("booking.defragmentation.moves").count());
+        assertEquals(4, bookingRepository.findById(20).orElseThrow().getSeatNumber());
+        assertEquals(8, bookingRepository.findById(16).orElseThrow().getSeatNumber());
+        assertEquals(0, job.runOnce());
+    }
+
+    @Test
+    public void testReplicaLeavesSeatsToItsPrimary() throws InterruptedException {
+        // Arrange
+        SeatDefragmentationJob job = new SeatDefragmentationJob(ticketBookingService,
+                new ReplicationState("replica", 1000), 0, 4, 0, meterRegistry);
+
+        // Act
+        int moved = job.runOnce();
+
+        // Assert
+        assertEquals(0, moved);
+        assertTrue(ticketBookingService.isSeatOccupied(20));
+    }
+}
@@ -1,25 +1,55 @@
 package com.trainticketbooking.application.service;
 
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.ClusterTopology;
 import com.trainticketbooking.application.common.ApiResponseMessages;
 import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.domain.BookingChange;
+import com.trainticketbooking.application.domain.Money;
 import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.ArchiveStatusDto;
+import com.trainticketbooking.application.dto.BulkCancellationRequestDto;
+import com.trainticketbooking.application.dto.BulkOperationResultDto;
+import com.trainticketbooking.application.dto.BulkSeatReassignmentRequestDto;
+import com.trainticketbooking.application.dto.SeatExchangeRequestDto;
+import com.trainticketbooking.application.dto.SectionFareDto;
+import com.trainticketbooking.application.dto.SectionOverbookingDto;
 import com.trainticketbooking.application.dto.TicketBookingDto;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.repository.CachingBookingRepository;
+import com.trainticketbooking.application.repository.InMemoryBookingRepository;
 import com.trainticketbooking.application.util.TicketBookingMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,16 +66,38 @@ public class TicketBookingServiceTest {
 
     private static final int MAX_SEATS_PER_SECTION = 20;
 
+    private InMemoryBookingRepository bookingRepository;
+
     private Map<Integer, TicketBooking> ticketBookingMap;
     private Set<Integer> sectionASeats;
     private Set<Integer> sectionBSeats;
+    private List<BookingChange> bookingChanges;
+    private List<List<BookingChange>> bookingChangeBatches;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     public void setUp() {
         ticketBookingMap = new ConcurrentHashMap<>();
-        sectionASeats = new HashSet<>();
-        sectionBSeats = new HashSet<>();
-        ticketBookingService = new TicketBookingService(ticketBookingMapper);
+        bookingChanges = new ArrayList<>();
+        bookingChangeBatches = new ArrayList<>();
+        bookingRepository = new InMemoryBookingRepository();
+        BookingChangeListener recorder = new BookingChangeListener() {
+            @Override
+            public void onBookingChange(BookingChange change) {
+                bookingChanges.add(change);
+            }
+
+            @Override
+            public void onBookingChanges(List<BookingChange> changes) {
+                bookingChangeBatches.add(changes);
+                BookingChangeListener.super.onBookingChanges(changes);
+            }
+        };
+        ticketBookingService = new TicketBookingService(ticketBookingMapper, bookingRepository,
+                BookingArchive.disabled(), ClusterTopology.standalone(), OverbookingPolicy.disabled(),
+                DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of(recorder));
+        sectionASeats = (Set<Integer>) ReflectionTestUtils.getField(ticketBookingService, "sectionASeats");
+        sectionBSeats = (Set<Integer>) ReflectionTestUtils.getField(ticketBookingService, "sectionBSeats");
     }
 
     @Test
@@ -53,7 +105,7 @@ public class TicketBookingServiceTest {
         // Arrange
         TicketBookingDto ticketBookingDto = new TicketBookingDto(
                 1, "Source", "Destination", "User", "user@example.com",
-                BigDecimal.TEN, "A", 1);
+                BigDecimal.TEN, "A", 1, null);
         when(ticketBookingMapper.toDto(any(TicketBooking.class))).thenReturn(ticketBookingDto);
 
         // Act
@@ -84,13 +136,13 @@ public class TicketBookingServiceTest {
         Integer ticketId = 1;
         TicketBooking ticketBooking = new TicketBooking(ticketId,
                 "Source", "Destination", "User", "user@example.com",
-                BigDecimal.TEN, "A", 1);
+                Money.ofMajor(10), "A", 1);
         ticketBookingMap.put(ticketId, ticketBooking);
-        ReflectionTestUtils.setField(ticketBookingService, "ticketBookingMap", ticketBookingMap);
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
 
         when(ticketBookingMapper.toDto(ticketBooking)).thenReturn(new TicketBookingDto(
                 ticketId, "Source", "Destination", "User", "user@example.com",
-                BigDecimal.TEN, "A", 1));
+                BigDecimal.TEN, "A", 1, null));
 
         // Act
         CustomApiResponse<TicketBookingDto> response = ticketBookingService.getUserReceiptDetails(ticketId);
@@ -119,25 +171,23 @@ public class TicketBookingServiceTest {
     public void testGetAllTickets_TicketsFound() {
         // Arrange
         String userEmail = "user@example.com";
-        TicketBookingDto ticketBookingDto = new TicketBookingDto(1, "Source", "Destination", "User", userEmail,
-                BigDecimal.TEN, "A", 1);
         List<TicketBooking> userTickets = new ArrayList<>();
         userTickets.add(new TicketBooking(1, "Source", "Destination", "User", userEmail,
-                BigDecimal.TEN, "A", 1));
+                Money.ofMajor(10), "A", 1));
 
         ticketBookingMap.put(1, userTickets.get(0));
 
-        when(ticketBookingMapper.toDto(userTickets.get(0))).thenReturn(ticketBookingDto);
-        ReflectionTestUtils.setField(ticketBookingService, "ticketBookingMap", ticketBookingMap);
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
 
         // Act
-        CustomApiResponse<List<TicketBookingDto>> response = ticketBookingService.getAllTickets(userEmail);
+        CustomApiResponse<List<TicketBooking>> response = ticketBookingService.getAllTickets(userEmail);
 
         // Assert
         assertEquals(HttpStatus.OK.value(), response.getStatus());
         assertEquals(ApiResponseMessages.TICKET_LIST_FOUND, response.getMessage());
         assertEquals(1, response.getData().size());
-        assertEquals(ticketBookingDto, response.getData().get(0));
+        assertEquals(userTickets.get(0), response.getData().get(0));
+        verify(ticketBookingMapper, never()).toDto(any(TicketBooking.class));
     }
 
     @Test
@@ -146,22 +196,23 @@ public class TicketBookingServiceTest {
         int ticketId = 1;
         int seatNumber = 3;
         TicketBookingDto ticketBookingDto = new TicketBookingDto(ticketId, "Source", "Destination", "User", "user@example.com",
-                BigDecimal.TEN, "A", 3);
+                BigDecimal.TEN, "A", 3, null);
 
         TicketBooking ticketBooking = new TicketBooking(ticketId, "Source", "Destination", "User", "user@example.com",
-                BigDecimal.TEN, "A", 1);
+                Money.ofMajor(10), "A", 1);
 
         ticketBookingMap.put(ticketId, ticketBooking);
 
         when(ticketBookingMapper.toDto(ticketBooking)).thenReturn(ticketBookingDto);
-        ReflectionTestUtils.setField(ticketBookingService, "ticketBookingMap", ticketBookingMap);
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
 
         // Act
-        CustomApiResponse<TicketBookingDto> response = ticketBookingService.updateUserSeatAllocation(ticketId, seatNumber);
+        CustomApiResponse<TicketBookingDto> response = ticketBookingService.updateUserSeatAllocation(ticketId, seatNumber, null);
 
         // Assert
         assertEquals(HttpStatus.OK.value(), response.getStatus());
-        assertEquals(ApiResponseMessages.USER_DETAIL_UPDATED_SUCCESSFUL, response.getMessage());
+        assertEquals("No discount is opted for ticket and " + ApiResponseMessages.USER_DETAIL_UPDATED_SUCCESSFUL,
+                response.getMessage());
         assertEquals(ticketBookingDto, response.getData());
         assertEquals(seatNumber, ticketBooking.getSeatNumber());
     }
@@ -173,17 +224,18 @@ public class TicketBookingServiceTest {
         int seatNumber = 41;
 
         TicketBooking ticketBooking = new TicketBooking(ticketId, "Source", "Destination", "User", "user@example.com",
-                BigDecimal.TEN, "A", 1);
+                Money.ofMajor(10), "A", 1);
 
         ticketBookingMap.put(ticketId, ticketBooking);
-        ReflectionTestUtils.setField(ticketBookingService, "ticketBookingMap", ticketBookingMap);
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
 
         // Act
-        CustomApiResponse<TicketBookingDto> response = ticketBookingService.updateUserSeatAllocation(ticketId, seatNumber);
+        CustomApiResponse<TicketBookingDto> response = ticketBookingService.updateUserSeatAllocation(ticketId, seatNumber, null);
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
-        assertEquals("Invalid seat number. Seat number must be between 1 and " + MAX_SEATS_PER_SECTION * 2, response.getMessage());
+        assertEquals("No discount is opted for ticket and Invalid seat number. Seat number must be between 1 and "
+                + MAX_SEATS_PER_SECTION * 2 + ".", response.getMessage());
         assertEquals(null, response.getData());
         assertEquals(1, ticketBooking.getSeatNumber()); // Seat number should not change
     }
@@ -195,10 +247,10 @@ public class TicketBookingServiceTest {
         String userName = "User";
 
         TicketBooking ticketBooking = new TicketBooking(ticketId, "Source", "Destination", userName, "user@example.com",
-                BigDecimal.TEN, "A", 1);
+                Money.ofMajor(10), "A", 1);
 
         ticketBookingMap.put(ticketId, ticketBooking);
-        ReflectionTestUtils.setField(ticketBookingService, "ticketBookingMap", ticketBookingMap);
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
         // Act
         CustomApiResponse<TicketBookingDto> response = ticketBookingService.deleteUserDetail(userName);
 
@@ -228,31 +280,620 @@ public class TicketBookingServiceTest {
         String section = "A";
 
         TicketBooking ticket1 = new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com",
-                BigDecimal.TEN, "A", 1);
+                Money.ofMajor(10), "A", 1);
         TicketBooking ticket2 = new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com",
-                BigDecimal.TEN, "A", 2);
+                Money.ofMajor(10), "A", 2);
 
         Map<Integer, TicketBooking> ticketBookingMap = new HashMap<>();
         ticketBookingMap.put(1, ticket1);
         ticketBookingMap.put(2, ticket2);
-        ReflectionTestUtils.setField(ticketBookingService, "ticketBookingMap", ticketBookingMap);
-        when(ticketBookingMapper.toDto(ticket1)).thenReturn(new TicketBookingDto(1, "Source", "Destination",
-                "User1", "user1@example.com", BigDecimal.TEN, "A", 1));
-        when(ticketBookingMapper.toDto(ticket2)).thenReturn(new TicketBookingDto(2, "Source", "Destination",
-                "User2", "user2@example.com", BigDecimal.TEN, "A", 2));
-        
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
 
         // Act
-        CustomApiResponse<List<TicketBookingDto>> response = ticketBookingService.getUsersBySection(section);
+        CustomApiResponse<List<TicketBooking>> response = ticketBookingService.getUsersBySection(section);
 
         // Assert
         assertEquals(HttpStatus.OK.value(), response.getStatus());
         assertEquals(ApiResponseMessages.USERS_IN_SECTION_FOUND, response.getMessage());
         assertEquals(2, response.getData().size());
-        assertEquals(new TicketBookingDto(1, "Source", "Destination", "User1", "user1@example.com",
-                BigDecimal.TEN, "A", 1), response.getData().get(0));
-        assertEquals(new TicketBookingDto(2, "Source", "Destination", "User2", "user2@example.com",
-                BigDecimal.TEN, "A", 2), response.getData().get(1));
+        assertEquals(new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com",
+                Money.ofMajor(10), "A", 1), response.getData().get(0));
+        assertEquals(new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com",
+                Money.ofMajor(10), "A", 2), response.getData().get(1));
+    }
+
+    @Test
+    public void testCancelTickets_BySection() {
+        // Arrange
+        ticketBookingMap.put(1, new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com",
+                Money.ofMajor(10), "A", 1));
+        ticketBookingMap.put(2, new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com",
+                Money.ofMajor(10), "B", 21));
+        sectionASeats.add(1);
+        sectionBSeats.add(21);
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
+        ReflectionTestUtils.setField(ticketBookingService, "sectionASeats", sectionASeats);
+        ReflectionTestUtils.setField(ticketBookingService, "sectionBSeats", sectionBSeats);
+
+        // Act
+        CustomApiResponse<List<BulkOperationResultDto>> response =
+                ticketBookingService.cancelTickets(new BulkCancellationRequestDto("a", null));
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(1, response.getData().size());
+        assertEquals(1, response.getData().get(0).ticketId());
+        assertFalse(ticketBookingMap.containsKey(1));
+        assertTrue(ticketBookingMap.containsKey(2));
+        assertTrue(sectionASeats.isEmpty());
+        assertEquals(Set.of(21), sectionBSeats);
+    }
+
+    @Test
+    public void testCancelTickets_WithoutCriteria() {
+        // Act
+        CustomApiResponse<List<BulkOperationResultDto>> response =
+                ticketBookingService.cancelTickets(new BulkCancellationRequestDto(null, Set.of()));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        assertEquals(ApiResponseMessages.BULK_CANCELLATION_CRITERIA_REQUIRED, response.getMessage());
+    }
+
+    @Test
+    public void testCancelTickets_ByUserNameSkipsTicketsWithoutName() {
+        // Arrange
+        ticketBookingMap.put(1, new TicketBooking(1, "Source", "Destination", null, "user1@example.com",
+                Money.ofMajor(10), "A", 1));
+        ticketBookingMap.put(2, new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com",
+                Money.ofMajor(10), "A", 2));
+        sectionASeats.addAll(Set.of(1, 2));
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
+
+        // Act
+        CustomApiResponse<List<BulkOperationResultDto>> response =
+                ticketBookingService.cancelTickets(new BulkCancellationRequestDto(null, Set.of("user2")));
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(1, response.getData().size());
+        assertEquals(2, response.getData().get(0).ticketId());
+        assertTrue(ticketBookingMap.containsKey(1));
+        assertFalse(ticketBookingMap.containsKey(2));
+        assertEquals(Set.of(1), sectionASeats);
+    }
+
+    @Test
+    public void testCancelTickets_RejectsNullUserName() {
+        // Arrange
+        Set<String> userNames = new HashSet<>();
+        userNames.add(null);
+
+        // Act
+        CustomApiResponse<List<BulkOperationResultDto>> response =
+                ticketBookingService.cancelTickets(new BulkCancellationRequestDto(null, userNames));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        assertEquals(ApiResponseMessages.BULK_CANCELLATION_USER_NAME_REQUIRED, response.getMessage());
+    }
+
+    @Test
+    public void testReassignSeats_SwapAndMoveToOtherSection() {
+        // Arrange
+        TicketBooking ticket1 = new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com",
+                Money.ofMajor(10), "A", 1);
+        TicketBooking ticket2 = new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com",
+                Money.ofMajor(10), "A", 2);
+        TicketBooking ticket3 = new TicketBooking(3, "Source", "Destination", "User3", "user3@example.com",
+                Money.ofMajor(10), "A", 3);
+        ticketBookingMap.put(1, ticket1);
+        ticketBookingMap.put(2, ticket2);
+        ticketBookingMap.put(3, ticket3);
+        sectionASeats.addAll(Set.of(1, 2, 3));
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
+        ReflectionTestUtils.setField(ticketBookingService, "sectionASeats", sectionASeats);
+        ReflectionTestUtils.setField(ticketBookingService, "sectionBSeats", sectionBSeats);
+
+        Map<Integer, Integer> seatMapping = new LinkedHashMap<>();
+        seatMapping.put(1, 2);
+        seatMapping.put(2, 1);
+        seatMapping.put(3, 25);
+        seatMapping.put(9, 4);
+
+        // Act
+        CustomApiResponse<List<BulkOperationResultDto>> response =
+                ticketBookingService.reassignSeats(new BulkSeatReassignmentRequestDto(seatMapping));
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(4, response.getData().size());
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getData().get(3).status());
+        assertEquals(2, ticket1.getSeatNumber());
+        assertEquals(1, ticket2.getSeatNumber());
+        assertEquals(25, ticket3.getSeatNumber());
+        assertEquals("B", ticket3.getSection());
+        assertEquals(Set.of(1, 2), sectionASeats);
+        assertEquals(Set.of(25), sectionBSeats);
     }
 
+    @Test
+    public void testReassignSeats_OccupiedTargetKeepsChainedTicketsInPlace() {
+        // Arrange
+        TicketBooking ticket1 = new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com",
+                Money.ofMajor(10), "A", 1);
+        TicketBooking ticket2 = new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com",
+                Money.ofMajor(10), "A", 2);
+        ticketBookingMap.put(1, ticket1);
+        ticketBookingMap.put(2, ticket2);
+        sectionASeats.addAll(Set.of(1, 2, 3));
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
+        ReflectionTestUtils.setField(ticketBookingService, "sectionASeats", sectionASeats);
+
+        Map<Integer, Integer> seatMapping = new LinkedHashMap<>();
+        seatMapping.put(1, 2);
+        seatMapping.put(2, 3);
+
+        // Act
+        CustomApiResponse<List<BulkOperationResultDto>> response =
+                ticketBookingService.reassignSeats(new BulkSeatReassignmentRequestDto(seatMapping));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getData().get(0).status());
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getData().get(1).status());
+        assertEquals(1, ticket1.getSeatNumber());
+        assertEquals(2, ticket2.getSeatNumber());
+        assertEquals(Set.of(1, 2, 3), sectionASeats);
+    }
+
+    @Test
+    public void testExchangeSeats_RotatesSeatsAcrossSections() {
+        // Arrange
+        TicketBooking ticket1 = new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com",
+                Money.ofMajor(10), "A", 1);
+        TicketBooking ticket2 = new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com",
+                Money.ofMajor(10), "A", 2);
+        TicketBooking ticket3 = new TicketBooking(3, "Source", "Destination", "User3", "user3@example.com",
+                Money.ofMajor(10), "B", 25);
+        ticketBookingMap.put(1, ticket1);
+        ticketBookingMap.put(2, ticket2);
+        ticketBookingMap.put(3, ticket3);
+        sectionASeats.addAll(Set.of(1, 2));
+        sectionBSeats.add(25);
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
+
+        Map<Integer, Integer> takesSeatOf = new LinkedHashMap<>();
+        takesSeatOf.put(1, 2);
+        takesSeatOf.put(2, 3);
+        takesSeatOf.put(3, 1);
+
+        // Act
+        CustomApiResponse<List<TicketBookingDto>> response =
+                ticketBookingService.exchangeSeats(new SeatExchangeRequestDto(takesSeatOf));
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(ApiResponseMessages.SEATS_EXCHANGED, response.getMessage());
+        assertEquals(3, response.getData().size());
+        assertEquals(2, ticket1.getSeatNumber());
+        assertEquals(25, ticket2.getSeatNumber());
+        assertEquals("B", ticket2.getSection());
+        assertEquals(1, ticket3.getSeatNumber());
+        assertEquals("A", ticket3.getSection());
+        assertEquals(Set.of(1, 2), sectionASeats);
+        assertEquals(Set.of(25), sectionBSeats);
+        assertEquals(3, bookingChanges.size());
+        assertTrue(bookingChanges.stream().allMatch(change -> change.type() == BookingChange.Type.SEAT_CHANGED));
+        assertEquals(1, bookingChangeBatches.size());
+        assertEquals(3, bookingChangeBatches.get(0).size());
+    }
+
+    @Test
+    public void testExchangeSeats_MissingTicketChangesNothing() {
+        // Arrange
+        TicketBooking ticket1 = new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com",
+                Money.ofMajor(10), "A", 1);
+        ticketBookingMap.put(1, ticket1);
+        sectionASeats.add(1);
+        ReflectionTestUtils.setField(bookingRepository, "ticketBookingMap", ticketBookingMap);
+
+        // Act
+        CustomApiResponse<List<TicketBookingDto>> response =
+                ticketBookingService.exchangeSeats(new SeatExchangeRequestDto(Map.of(1, 9, 9, 1)));
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatus());
+        assertEquals(1, ticket1.getSeatNumber());
+        assertEquals(Set.of(1), sectionASeats);
+        assertTrue(bookingChanges.isEmpty());
+    }
+
+    @Test
+    public void testExchangeSeats_RejectsSeatsLeftWithoutTicket() {
+        // Act
+        CustomApiResponse<List<TicketBookingDto>> response =
+                ticketBookingService.exchangeSeats(new SeatExchangeRequestDto(Map.of(1, 2, 2, 2)));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        assertEquals(ApiResponseMessages.SEAT_EXCHANGE_NOT_A_PERMUTATION, response.getMessage());
+    }
+
+    @Test
+    public void testApplyReplicatedBookings_SwapsSeatsTogether() {
+        // Arrange
+        ticketBookingService.applyReplicatedBooking(new TicketBooking(1, "Source", "Destination", "User1",
+                "user1@example.com", Money.ofMajor(10), "A", 1));
+        ticketBookingService.applyReplicatedBooking(new TicketBooking(2, "Source", "Destination", "User2",
+                "user2@example.com", Money.ofMajor(10), "A", 2));
+
+        // Act
+        ticketBookingService.applyReplicatedBookings(List.of(
+                new TicketBooking(1, "Source", "Destination", "User1", "user1@example.com", Money.ofMajor(10), "A", 2),
+                new TicketBooking(2, "Source", "Destination", "User2", "user2@example.com", Money.ofMajor(10), "A",
+                        1)));
+
+        // Assert
+        assertEquals(Set.of(1, 2), sectionASeats);
+        assertEquals(2, bookingRepository.findById(1).orElseThrow().getSeatNumber());
+        assertEquals(1, bookingRepository.findById(2).orElseThrow().getSeatNumber());
+        assertEquals(3, bookingChangeBatches.size());
+        assertEquals(List.of(BookingChange.Type.SEAT_CHANGED, BookingChange.Type.SEAT_CHANGED),
+                bookingChangeBatches.get(2).stream().map(BookingChange::type).toList());
+        assertTrue(bookingChanges.stream().allMatch(BookingChange::replicated));
+    }
+
+    @Test
+    public void testChangesArePublishedWithDetachedSnapshots() {
+        // Arrange
+        TicketBookingDto ticketBookingDto = new TicketBookingDto(
+                null, "Source", "Destination", "User", "user@example.com",
+                BigDecimal.TEN, null, null, null);
+
+        // Act
+        ticketBookingService.purchaseTicket(ticketBookingDto);
+        ticketBookingService.updateUserSeatAllocation(1, 5, null);
+        ticketBookingService.deleteUserDetail("User");
+
+        // Assert
+        assertEquals(3, bookingChanges.size());
+        assertEquals(BookingChange.Type.PURCHASED, bookingChanges.get(0).type());
+        assertEquals(1, bookingChanges.get(0).after().getSeatNumber());
+        assertEquals(BookingChange.Type.SEAT_CHANGED, bookingChanges.get(1).type());
+        assertEquals(1, bookingChanges.get(1).before().getSeatNumber());
+        assertEquals(5, bookingChanges.get(1).after().getSeatNumber());
+        assertEquals(BookingChange.Type.CANCELLED, bookingChanges.get(2).type());
+        assertNull(bookingChanges.get(2).after());
+        assertEquals(1, bookingChanges.get(2).ticketId());
+    }
+
+    @Test
+    public void testApplyReplicatedBooking_MovesSeat() {
+        // Arrange
+        ticketBookingService.applyReplicatedBooking(new TicketBooking(1, "Source", "Destination", "User",
+                "user@example.com", Money.ofMajor(10), "A", 1));
+
+        // Act
+        ticketBookingService.applyReplicatedBooking(new TicketBooking(1, "Source", "Destination", "User",
+                "user@example.com", Money.ofMajor(10), "B", 22));
+        ticketBookingService.applyReplicatedBooking(new TicketBooking(2, "Source", "Destination", "User2",
+                "user2@example.com", Money.ofMajor(10), "A", 1));
+        ticketBookingService.applyReplicatedCancellation(2);
+
+        // Assert
+        assertFalse(ticketBookingService.isSeatOccupied(1));
+        assertTrue(ticketBookingService.isSeatOccupied(22));
+        assertEquals(1, bookingRepository.count());
+        assertEquals(List.of(BookingChange.Type.PURCHASED, BookingChange.Type.SEAT_CHANGED,
+                        BookingChange.Type.PURCHASED, BookingChange.Type.CANCELLED),
+                bookingChanges.stream().map(BookingChange::type).toList());
+        assertTrue(bookingChanges.stream().allMatch(BookingChange::replicated));
+    }
+
+    @Test
+    public void testOverbookedTicketsWaitForASeatUntilResolved() {
+        // Arrange
+        OverbookingPolicy overbookingPolicy = new OverbookingPolicy(1, 0.5, 1, 720);
+        for (String section : List.of("A", "B")) {
+            TicketBooking seated = new TicketBooking(1, "Source", "Destination", "User", "user@example.com",
+                    Money.ofMajor(10), section, 1);
+            overbookingPolicy.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, seated, false));
+            overbookingPolicy.onBookingChange(new BookingChange(BookingChange.Type.CANCELLED, seated, null, false));
+            overbookingPolicy.onBookingChange(new BookingChange(BookingChange.Type.PURCHASED, null, seated, false));
+        }
+        TicketBookingService service = new TicketBookingService(ticketBookingMapper, bookingRepository,
+                BookingArchive.disabled(), ClusterTopology.standalone(), overbookingPolicy,
+                DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of(bookingChanges::add));
+        for (int i = 1; i <= MAX_SEATS_PER_SECTION * 2 + 2; i++) {
+            service.purchaseTicket(new TicketBookingDto(null, "Source", "Destination", "User" + i,
+                    "user" + i + "@example.com", BigDecimal.TEN, null, null, null));
+        }
+        assertThrows(IllegalArgumentException.class, () -> service.purchaseTicket(new TicketBookingDto(null,
+                "Source", "Destination", "Late", "late@example.com", BigDecimal.TEN, null, null, null)));
+        assertFalse(service.hasAvailableSeat());
+        service.deleteUserDetail("User1");
+
+        // Act
+        CustomApiResponse<List<BulkOperationResultDto>> response = service.resolveOverbooking();
+
+        // Assert
+        assertEquals(ApiResponseMessages.OVERBOOKING_RESOLVED, response.getMessage());
+        assertEquals(List.of(41, 42), response.getData().stream().map(BulkOperationResultDto::ticketId).toList());
+        assertEquals(List.of(HttpStatus.OK.value(), HttpStatus.CONFLICT.value()),
+                response.getData().stream().map(BulkOperationResultDto::status).toList());
+        assertEquals(1, bookingRepository.findById(41).orElseThrow().getSeatNumber());
+        assertTrue(bookingRepository.findById(42).isEmpty());
+        assertEquals(List.of(BookingChange.Type.SEAT_CHANGED, BookingChange.Type.CANCELLED),
+                bookingChanges.subList(bookingChanges.size() - 2, bookingChanges.size()).stream()
+                        .map(BookingChange::type).toList());
+        assertTrue(service.getOverbookingStatus().getData().stream().allMatch(status -> status.waitingTickets() == 0));
+    }
+
+    @Test
+    public void testDynamicFaresFollowOccupancyAndMatchPublishedFares() {
+        // Arrange
+        TicketBookingService service = new TicketBookingService(ticketBookingMapper, bookingRepository,
+                BookingArchive.disabled(), ClusterTopology.standalone(), OverbookingPolicy.disabled(),
+                new DynamicPricing("100", 1.0, "", 14, 0.5), ObservationRegistry.NOOP, List.of());
+
+        // Act
+        service.purchaseTicket(new TicketBookingDto(null, "Source", "Destination", "User1", "user1@example.com",
+                BigDecimal.ONE, null, null, "DISCOUNT1"));
+        service.purchaseTicket(new TicketBookingDto(null, "Source", "Destination", "User2", "user2@example.com",
+                null, null, null, null));
+        service.purchaseTicket(new TicketBookingDto(null, "Source", "Destination", "User3", "user3@example.com",
+                null, null, null, null));
+        CustomApiResponse<List<SectionFareDto>> fares = service.getFares();
+
+        // Assert
+        assertEquals(Money.ofMajor(99), bookingRepository.findById(1).orElseThrow().getPricePaid());
+        assertEquals(Money.ofMajor(100), bookingRepository.findById(2).orElseThrow().getPricePaid());
+        assertEquals(Money.parse("100.25"), bookingRepository.findById(3).orElseThrow().getPricePaid());
+        assertEquals(List.of(new SectionFareDto("A", 20, 18, new BigDecimal("101.00")),
+                new SectionFareDto("B", 20, 19, new BigDecimal("100.25"))), fares.getData());
+    }
+
+    @Test
+    public void testConcurrentPurchasesStopAtTheBookingLimit() throws Exception {
+        // Arrange
+        ticketBookingService.limitBookings(5);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Integer>> purchases = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            String userName = "User" + i;
+            purchases.add(() -> ticketBookingService.purchaseTicket(new TicketBookingDto(null, "Source",
+                    "Destination", userName, userName + "@example.com", BigDecimal.TEN, null, null, null))
+                    .getStatus());
+        }
+
+        // Act
+        List<Integer> statuses = new ArrayList<>();
+        try {
+            for (Future<Integer> status : executor.invokeAll(purchases)) {
+                statuses.add(status.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(5, statuses.stream().filter(status -> status == HttpStatus.OK.value()).count());
+        assertEquals(11, statuses.stream().filter(status -> status == HttpStatus.TOO_MANY_REQUESTS.value()).count());
+        assertEquals(5, bookingRepository.count());
+    }
+
+    @Test
+    public void testImportStopsAtTheBookingLimit() {
+        // Arrange
+        ticketBookingService.limitBookings(3);
+        ticketBookingService.purchaseTicket(new TicketBookingDto(null, "Source", "Destination", "User",
+                "user@example.com", BigDecimal.TEN, null, null, null));
+        List<TicketBookingDto> tickets = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tickets.add(new TicketBookingDto(null, "Source", "Destination", "Imported" + i,
+                    "imported" + i + "@example.com", BigDecimal.TEN, null, null, null));
+        }
+
+        // Act
+        List<String> rejections = ticketBookingService.importTickets(tickets);
+
+        // Assert
+        assertEquals(Arrays.asList(null, null, ApiResponseMessages.TENANT_BOOKING_QUOTA_EXCEEDED,
+                ApiResponseMessages.TENANT_BOOKING_QUOTA_EXCEEDED), rejections);
+        assertEquals(3, bookingRepository.count());
+    }
+
+    @Test
+    public void testSeatUpdatePhasesAreObservedWithinTheUpdate() {
+        // Arrange
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        List<String> stoppedObservations = new ArrayList<>();
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+
+            @Override
+            public void onStop(Observation.Context context) {
+                Observation.ContextView parent = context.getParentObservation() != null
+                        ? context.getParentObservation().getContextView() : null;
+                stoppedObservations.add(context.getName() + " in " + (parent != null ? parent.getName() : null));
+            }
+        });
+        TicketBookingService service = new TicketBookingService(ticketBookingMapper, bookingRepository,
+                BookingArchive.disabled(), ClusterTopology.standalone(), OverbookingPolicy.disabled(),
+                DynamicPricing.clientPrices(), observationRegistry, List.of());
+        service.purchaseTicket(new TicketBookingDto(null, "Source", "Destination", "User", "user@example.com",
+                BigDecimal.TEN, null, null, null));
+
+        // Act
+        service.updateUserSeatAllocation(1, 5, "DISCOUNT1", null);
+
+        // Assert
+        assertEquals(List.of("booking.update.lock-wait in booking.update",
+                "booking.update.lookup in booking.update",
+                "booking.update.discount in booking.update",
+                "booking.update.mapping in booking.update.seat-change",
+                "booking.update.seat-change in booking.update",
+                "booking.update.store in booking.update",
+                "booking.update in null"), stoppedObservations);
+    }
+
+    @Test
+    public void testPurchaseRejectedByTheStoreIsUndone() {
+        // Arrange
+        InMemoryBookingRepository delegate = spy(new InMemoryBookingRepository());
+        doThrow(new DuplicateKeyException("uk_ticket_booking_seat")).when(delegate).saveAll(anyCollection());
+        CachingBookingRepository cachingRepository =
+                new CachingBookingRepository(delegate, 100, 1000, 500, new SimpleMeterRegistry());
+        TicketBookingService service = new TicketBookingService(ticketBookingMapper, cachingRepository,
+                BookingArchive.disabled(), ClusterTopology.standalone(), OverbookingPolicy.disabled(),
+                DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of(bookingChanges::add));
+        service.loadSeatInventory();
+        service.purchaseTicket(new TicketBookingDto(null, "Source", "Destination", "User", "user@example.com",
+                BigDecimal.TEN, null, null, null));
+
+        // Act
+        cachingRepository.flush();
+
+        // Assert
+        assertFalse(service.isSeatOccupied(1));
+        assertEquals(0, cachingRepository.count());
+        assertEquals(List.of(BookingChange.Type.PURCHASED, BookingChange.Type.CANCELLED),
+                bookingChanges.stream().map(BookingChange::type).toList());
+    }
+
+    @Test
+    public void testDefragmentSeatsMovesTicketsWithTheSeatInventory() {
+        // Arrange
+        for (int seat : List.of(1, 2, 3, 20)) {
+            bookingRepository.save(new TicketBooking(seat, "Source", "Destination", "User" + seat,
+                    "user" + seat + "@example.com", Money.ofMajor(10), "A", seat));
+        }
+        ticketBookingService.loadSeatInventory();
+
+        // Act
+        int moved = ticketBookingService.defragmentSeats(4);
+        int movedAgain = ticketBookingService.defragmentSeats(4);
+
+        // Assert
+        assertEquals(1, moved);
+        assertEquals(0, movedAgain);
+        TicketBooking ticket = bookingRepository.findById(20).orElseThrow();
+        assertEquals(4, ticket.getSeatNumber());
+        assertEquals("A", ticket.getSection());
+        assertEquals(2, ticket.getVersion());
+        assertEquals(Set.of(1, 2, 3, 4), sectionASeats);
+        assertEquals(1, bookingChanges.size());
+        assertEquals(BookingChange.Type.SEAT_CHANGED, bookingChanges.get(0).type());
+        assertEquals(20, bookingChanges.get(0).before().getSeatNumber());
+        assertEquals(4, bookingChanges.get(0).after().getSeatNumber());
+    }
+
+    @Test
+    public void testCompleteJourneyMovesBookingsToTheArchive(@TempDir Path archiveDir) throws IOException {
+        // Arrange
+        TicketBookingService service = new TicketBookingService(Mappers.getMapper(TicketBookingMapper.class),
+                bookingRepository, new BookingArchive(archiveDir.toString(), 16), ClusterTopology.standalone(),
+                OverbookingPolicy.disabled(), DynamicPricing.clientPrices(), ObservationRegistry.NOOP,
+                List.of(bookingChanges::add));
+        for (int i = 0; i < 3; i++) {
+            service.purchaseTicket(new TicketBookingDto(null, "Source", "Destination", "User" + i,
+                    "user@example.com", BigDecimal.TEN, null, null, null));
+        }
+        bookingChanges.clear();
+
+        // Act
+        CustomApiResponse<ArchiveStatusDto> response = service.completeJourney();
+        TicketBookingDto nextJourney = service.purchaseTicket(new TicketBookingDto(null, "Source", "Destination",
+                "Next", "user@example.com", BigDecimal.TEN, null, null, null)).getData();
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(new ArchiveStatusDto(true, 0, 3, 1, response.getData().archiveBytes()), response.getData());
+        assertEquals(3, bookingChanges.stream().filter(change -> change.type() == BookingChange.Type.ARCHIVED)
+                .count());
+        assertEquals(1, nextJourney.seatNumber());
+        assertEquals(4, nextJourney.ticketId());
+        assertEquals("User1", service.getUserReceiptDetails(2).getData().userName());
+        assertEquals(List.of(1, 2, 3, 4), service.getAllTickets("user@example.com").getData().stream()
+                .map(TicketBooking::getTicketId)
+                .toList());
+        assertNull(service.updateUserSeatAllocation(2, 5, null).getData());
+    }
+
+    @Test
+    public void testCompleteJourneyWritesTheArchiveWithoutBlockingChanges(@TempDir Path archiveDir)
+            throws IOException {
+        // Arrange
+        BookingArchive bookingArchive = spy(new BookingArchive(archiveDir.toString(), 16));
+        TicketBookingService service = new TicketBookingService(Mappers.getMapper(TicketBookingMapper.class),
+                bookingRepository, bookingArchive, ClusterTopology.standalone(), OverbookingPolicy.disabled(),
+                DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of(bookingChanges::add));
+        for (int i = 0; i < 3; i++) {
+            service.purchaseTicket(new TicketBookingDto(null, "Source", "Destination", "User" + i,
+                    "user@example.com", BigDecimal.TEN, null, null, null));
+        }
+        bookingChanges.clear();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        doAnswer(invocation -> {
+            executor.submit(() -> service.updateUserSeatAllocation(1, 7, null)).get(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(bookingArchive).append(anyCollection());
+
+        // Act
+        CustomApiResponse<ArchiveStatusDto> response;
+        try {
+            response = service.completeJourney();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(new ArchiveStatusDto(true, 1, 3, 1, response.getData().archiveBytes()), response.getData());
+        assertEquals(2, bookingChanges.stream().filter(change -> change.type() == BookingChange.Type.ARCHIVED)
+                .count());
+        assertEquals(7, bookingRepository.findById(1).orElseThrow().getSeatNumber());
+        List<TicketBooking> tickets = service.getAllTickets("user@example.com").getData();
+        assertEquals(List.of(2, 3, 1), tickets.stream().map(TicketBooking::getTicketId).toList());
+        assertEquals(7, tickets.get(2).getSeatNumber());
+        assertEquals(1, service.getOverbookingStatus().getData().stream()
+                .mapToInt(SectionOverbookingDto::seatedTickets).sum());
+    }
+
+    @Test
+    public void testTicketNumberingCarriesOnAfterArchivedTickets(@TempDir Path archiveDir) throws IOException {
+        // Arrange
+        TicketBookingService service = new TicketBookingService(Mappers.getMapper(TicketBookingMapper.class),
+                bookingRepository, new BookingArchive(archiveDir.toString(), 16), ClusterTopology.standalone(),
+                OverbookingPolicy.disabled(), DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of());
+        for (int i = 0; i < 3; i++) {
+            service.purchaseTicket(new TicketBookingDto(null, "Source", "Destination", "User" + i,
+                    "user@example.com", BigDecimal.TEN, null, null, null));
+        }
+        service.completeJourney();
+
+        // Act
+        TicketBookingService restarted = new TicketBookingService(Mappers.getMapper(TicketBookingMapper.class),
+                new InMemoryBookingRepository(), new BookingArchive(archiveDir.toString(), 16),
+                ClusterTopology.standalone(), OverbookingPolicy.disabled(), DynamicPricing.clientPrices(),
+                ObservationRegistry.NOOP, List.of());
+        restarted.loadSeatInventory();
+        TicketBookingDto purchased = restarted.purchaseTicket(new TicketBookingDto(null, "Source", "Destination",
+                "Next", "user@example.com", BigDecimal.TEN, null, null, null)).getData();
+
+        // Assert
+        assertEquals(4, purchased.ticketId());
+    }
+
+    @Test
+    public void testCompleteJourneyWithoutArchive() {
+        // Act
+        CustomApiResponse<ArchiveStatusDto> response = ticketBookingService.completeJourney();
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT.value(), response.getStatus());
+        assertEquals(ApiResponseMessages.ARCHIVE_DISABLED, response.getMessage());
+    }
 }
\ No newline at end of file
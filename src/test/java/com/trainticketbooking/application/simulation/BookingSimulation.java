@@ -0,0 +1,421 @@
+package com.trainticketbooking.application.simulation;
+
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.domain.SeatPreference;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.BulkCancellationRequestDto;
+import com.trainticketbooking.application.dto.BulkOperationResultDto;
+import com.trainticketbooking.application.dto.BulkSeatReassignmentRequestDto;
+import com.trainticketbooking.application.dto.SeatExchangeRequestDto;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.TicketBookingMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Deterministic simulation of clients using one booking node.
+ * <p>
+ * A schedule is fully decided by its seed: a seeded scheduler lets a few clients issue purchases, seat and discount
+ * updates, deletions, bulk seat moves (which stand in for holds) and bulk cancellations at points in virtual time,
+ * while the {@link SimulatedStore} slows down and fails writes, and the node crashes now and then and is restarted
+ * over the same store. Operations are run one at a time, in virtual time order, which matches how the service
+ * serialises them on its lock. After every step the seat and ticket ID invariants are checked, so a schedule that
+ * breaks one can be replayed step by step from its seed.
+ */
+final class BookingSimulation {
+
+    private static final TicketBookingMapper MAPPER = Mappers.getMapper(TicketBookingMapper.class);
+    private static final int SEATS = 40;
+    private static final int CLIENTS = 4;
+    private static final double FAULT_RATE = 0.03;
+    private static final double SLOW_IO_RATE = 0.01;
+    private static final double CRASH_AFTER_FAULT_RATE = 0.5;
+    private static final String[] DISCOUNTS = {null, null, "DISCOUNT1", "DISCOUNT3", "UNKNOWN"};
+
+    private final long seed;
+    private final SplittableRandom random;
+    private final SimulatedStore store;
+    private final List<String> trace;
+    private final PriorityQueue<Event> events = new PriorityQueue<>(
+            Comparator.comparingLong(Event::time).thenComparingLong(Event::sequence));
+    private final Set<Integer> issuedTicketIds = new HashSet<>();
+    private final Map<Integer, String> confirmedTickets = new LinkedHashMap<>();
+    private TicketBookingService service;
+    private long now;
+    private long eventSequence;
+    private int users;
+    private int restarts;
+    private long fingerprint;
+
+    private BookingSimulation(long seed, boolean traced) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.store = new SimulatedStore(random.split(), FAULT_RATE, SLOW_IO_RATE);
+        this.trace = traced ? new ArrayList<>() : null;
+    }
+
+    /**
+     * The outcome of one schedule.
+     *
+     * @param seed          The seed the schedule was made from.
+     * @param steps         The number of steps run.
+     * @param faults        The number of failed writes.
+     * @param restarts      The number of times the node was restarted.
+     * @param virtualMicros The virtual time the schedule took.
+     * @param fingerprint   A hash of every step and its outcome.
+     * @param violation     The first broken invariant, or null.
+     * @param trace         The steps as text, or null if not traced.
+     */
+    record Result(long seed, int steps, int faults, int restarts, long virtualMicros, long fingerprint,
+                  String violation, List<String> trace) {
+    }
+
+    private record Event(long time, long sequence, int client) {
+    }
+
+    private enum Operation { PURCHASE, UPDATE, DELETE, MOVE, CANCEL, DEFRAGMENT, EXCHANGE, CRASH }
+
+    /**
+     * Run one schedule.
+     *
+     * @param seed   The seed.
+     * @param steps  The number of client operations.
+     * @param traced Whether to record every step as text.
+     * @return The outcome.
+     */
+    static Result run(long seed, int steps, boolean traced) {
+        return new BookingSimulation(seed, traced).run(steps);
+    }
+
+    private Result run(int steps) {
+        restart();
+        for (int client = 0; client < CLIENTS; client++) {
+            schedule(client, random.nextLong(1_000));
+        }
+        int step = 0;
+        String violation = null;
+        while (step < steps && violation == null) {
+            Event event = events.poll();
+            now = event.time();
+            step++;
+            violation = perform(pickOperation());
+            if (violation == null) {
+                violation = checkInvariants();
+            }
+            schedule(event.client(), now + store.takeElapsedMicros() + random.nextLong(5_000));
+        }
+        return new Result(seed, step, store.faults(), restarts, now, fingerprint, violation, trace);
+    }
+
+    private Operation pickOperation() {
+        int roll = random.nextInt(100);
+        if (roll < 40) {
+            return Operation.PURCHASE;
+        } else if (roll < 65) {
+            return Operation.UPDATE;
+        } else if (roll < 80) {
+            return Operation.DELETE;
+        } else if (roll < 92) {
+            return Operation.MOVE;
+        } else if (roll < 95) {
+            return Operation.CANCEL;
+        } else if (roll < 97) {
+            return Operation.DEFRAGMENT;
+        } else if (roll < 98) {
+            return Operation.EXCHANGE;
+        }
+        return Operation.CRASH;
+    }
+
+    private String perform(Operation operation) {
+        try {
+            return switch (operation) {
+                case PURCHASE -> purchase();
+                case UPDATE -> update();
+                case DELETE -> delete();
+                case MOVE -> move();
+                case CANCEL -> cancel();
+                case DEFRAGMENT -> defragment();
+                case EXCHANGE -> exchange();
+                case CRASH -> {
+                    record(operation, () -> "restart", 0);
+                    restart();
+                    yield null;
+                }
+            };
+        } catch (SimulatedStore.SimulatedFault e) {
+            record(operation, e::getMessage, -1);
+            // A ticket stored by a write whose acknowledgement was lost was still issued
+            issuedTicketIds.addAll(store.rows().keySet());
+            if (random.nextDouble() < CRASH_AFTER_FAULT_RATE) {
+                restart();
+            }
+            return null;
+        } catch (RuntimeException e) {
+            return operation + " failed: " + e;
+        }
+    }
+
+    private String purchase() {
+        String userName = "user-" + users++;
+        SeatPreference preference = random.nextBoolean() ? null
+                : SeatPreference.values()[random.nextInt(SeatPreference.values().length)];
+        Integer nearTicketId = random.nextInt(4) == 0 ? anyConfirmedTicket() : null;
+        TicketBookingDto request = new TicketBookingDto(null, "Chennai", "Trichy", userName,
+                userName + "@example.com", BigDecimal.valueOf(100), null, null, DISCOUNTS[random.nextInt(4)]);
+        CustomApiResponse<TicketBookingDto> response;
+        try {
+            response = service.purchaseTicket(request, preference, nearTicketId);
+        } catch (IllegalArgumentException e) {
+            record(Operation.PURCHASE, () -> "sold out", 0);
+            long seated = store.rows().values().stream().filter(ticket -> ticket.getSeatNumber() != null).count();
+            return seated == SEATS ? null : "purchase refused with only " + seated + " seats taken";
+        }
+        Integer ticketId = response.getData().ticketId();
+        Integer seatNumber = response.getData().seatNumber();
+        record(Operation.PURCHASE, () -> "ticket " + ticketId + " seat " + seatNumber, ticketId);
+        if (!issuedTicketIds.add(ticketId)) {
+            return "ticket ID " + ticketId + " issued twice";
+        }
+        confirmedTickets.put(ticketId, userName);
+        TicketBooking stored = store.rows().get(ticketId);
+        if (stored == null || !response.getData().seatNumber().equals(stored.getSeatNumber())) {
+            return "ticket " + ticketId + " confirmed with seat " + response.getData().seatNumber()
+                    + " but stored as " + stored;
+        }
+        return null;
+    }
+
+    private String update() {
+        Integer ticketId = random.nextInt(8) == 0 ? Integer.valueOf(random.nextInt(1, 1_000)) : anyStoredTicket();
+        if (ticketId == null) {
+            return null;
+        }
+        Integer seatNumber = random.nextInt(4) == 0 ? null : Integer.valueOf(random.nextInt(0, SEATS + 2));
+        String discount = DISCOUNTS[random.nextInt(DISCOUNTS.length)];
+        TicketBooking before = copyOf(store.rows().get(ticketId));
+        Long expectedVersion = before == null || random.nextInt(3) == 0 ? null
+                : Long.valueOf(before.getVersion() - random.nextInt(2));
+
+        CustomApiResponse<TicketBookingDto> response =
+                service.updateUserSeatAllocation(ticketId, seatNumber, discount, expectedVersion);
+        record(Operation.UPDATE, () -> "ticket " + ticketId + " seat " + seatNumber + " " + discount + " v"
+                + expectedVersion + " -> " + response.getStatus(), response.getStatus());
+        TicketBooking after = store.rows().get(ticketId);
+        if (response.getStatus() != HttpStatus.OK.value()) {
+            if (before != null && (after.getVersion() != before.getVersion()
+                    || !after.getPricePaid().equals(before.getPricePaid())
+                    || !after.getSeatNumber().equals(before.getSeatNumber()))) {
+                return "rejected update of ticket " + ticketId + " changed it from " + before + " to " + after;
+            }
+        } else if (response.getData() != null && seatNumber != null
+                && !seatNumber.equals(after.getSeatNumber())) {
+            return "ticket " + ticketId + " moved to seat " + seatNumber + " but stored as " + after;
+        }
+        return null;
+    }
+
+    private String delete() {
+        Integer ticketId = anyConfirmedTicket();
+        if (ticketId == null) {
+            return null;
+        }
+        String userName = confirmedTickets.remove(ticketId);
+        CustomApiResponse<TicketBookingDto> response = service.deleteUserDetail(userName);
+        record(Operation.DELETE, () -> userName + " -> " + response.getMessage(), response.getStatus());
+        return store.rows().containsKey(ticketId) ? "ticket " + ticketId + " still stored after deletion" : null;
+    }
+
+    private String move() {
+        List<Integer> stored = new ArrayList<>(store.rows().keySet());
+        if (stored.isEmpty()) {
+            return null;
+        }
+        int moves = random.nextInt(1, Math.min(stored.size(), 3) + 1);
+        Map<Integer, Integer> seatMapping = new LinkedHashMap<>();
+        List<Integer> tickets = new ArrayList<>();
+        for (int i = 0; i < moves; i++) {
+            tickets.add(stored.get(random.nextInt(stored.size())));
+        }
+        boolean rotate = random.nextBoolean();
+        for (int i = 0; i < tickets.size(); i++) {
+            // Either pass the seats round among the chosen tickets or send them anywhere
+            Integer seatNumber = rotate
+                    ? store.rows().get(tickets.get((i + 1) % tickets.size())).getSeatNumber()
+                    : Integer.valueOf(random.nextInt(1, SEATS + 1));
+            seatMapping.put(tickets.get(i), seatNumber);
+        }
+        Map<Integer, TicketBooking> before = new HashMap<>();
+        seatMapping.keySet().forEach(ticketId -> before.put(ticketId, copyOf(store.rows().get(ticketId))));
+
+        List<BulkOperationResultDto> results =
+                service.reassignSeats(new BulkSeatReassignmentRequestDto(seatMapping)).getData();
+        record(Operation.MOVE, seatMapping::toString, seatMapping.hashCode());
+        for (BulkOperationResultDto result : results) {
+            TicketBooking after = store.rows().get(result.ticketId());
+            if (result.status() == HttpStatus.OK.value()
+                    ? !seatMapping.get(result.ticketId()).equals(after.getSeatNumber())
+                    : after.getVersion() != before.get(result.ticketId()).getVersion()) {
+                return "move of ticket " + result.ticketId() + " answered " + result.status() + " but stored as "
+                        + after;
+            }
+        }
+        return null;
+    }
+
+    private String cancel() {
+        Set<String> userNames = new HashSet<>();
+        List<Integer> cancelled = new ArrayList<>();
+        for (int i = random.nextInt(1, 3); i > 0; i--) {
+            Integer ticketId = anyConfirmedTicket();
+            if (ticketId != null) {
+                userNames.add(confirmedTickets.remove(ticketId));
+                cancelled.add(ticketId);
+            }
+        }
+        if (userNames.isEmpty()) {
+            return null;
+        }
+        service.cancelTickets(new BulkCancellationRequestDto(null, userNames));
+        record(Operation.CANCEL, userNames::toString, userNames.size());
+        for (Integer ticketId : cancelled) {
+            if (store.rows().containsKey(ticketId)) {
+                return "ticket " + ticketId + " still stored after cancellation";
+            }
+        }
+        return null;
+    }
+
+    private String defragment() {
+        Map<Integer, Integer> seatsBefore = new HashMap<>();
+        store.rows().forEach((ticketId, ticket) -> seatsBefore.put(ticketId, ticket.getSeatNumber()));
+        int moved = service.defragmentSeats(random.nextInt(1, 5));
+        record(Operation.DEFRAGMENT, () -> moved + " moved", moved);
+        if (!seatsBefore.keySet().equals(store.rows().keySet())) {
+            return "defragmentation changed the stored tickets";
+        }
+        long changed = store.rows().values().stream()
+                .filter(ticket -> !ticket.getSeatNumber().equals(seatsBefore.get(ticket.getTicketId())))
+                .count();
+        return changed != moved ? "defragmentation moved " + moved + " passengers but " + changed + " seats changed"
+                : null;
+    }
+
+    private String exchange() {
+        List<Integer> stored = new ArrayList<>(store.rows().keySet());
+        if (stored.size() < 2) {
+            return null;
+        }
+        List<Integer> tickets = new ArrayList<>();
+        for (int i = random.nextInt(2, Math.min(stored.size(), 4) + 1); i > 0; i--) {
+            tickets.add(stored.remove(random.nextInt(stored.size())));
+        }
+        Map<Integer, Integer> takesSeatOf = new LinkedHashMap<>();
+        Map<Integer, Integer> seatsBefore = new HashMap<>();
+        for (int i = 0; i < tickets.size(); i++) {
+            takesSeatOf.put(tickets.get(i), tickets.get((i + 1) % tickets.size()));
+            seatsBefore.put(tickets.get(i), store.rows().get(tickets.get(i)).getSeatNumber());
+        }
+
+        int status = service.exchangeSeats(new SeatExchangeRequestDto(takesSeatOf)).getStatus();
+        record(Operation.EXCHANGE, () -> takesSeatOf + " -> " + status, status);
+        for (Integer ticketId : tickets) {
+            Integer expected = seatsBefore.get(status == HttpStatus.OK.value() ? takesSeatOf.get(ticketId) : ticketId);
+            Integer seat = store.rows().get(ticketId).getSeatNumber();
+            if (!Objects.equals(expected, seat)) {
+                return "exchange " + takesSeatOf + " answered " + status + " but ticket " + ticketId
+                        + " is stored in seat " + seat;
+            }
+        }
+        return null;
+    }
+
+    private String checkInvariants() {
+        boolean[] storedSeats = new boolean[SEATS + 1];
+        for (TicketBooking ticket : store.rows().values()) {
+            Integer seatNumber = ticket.getSeatNumber();
+            if (seatNumber == null || seatNumber < 1 || seatNumber > SEATS) {
+                return "ticket " + ticket.getTicketId() + " stored without a valid seat: " + ticket;
+            }
+            if (storedSeats[seatNumber]) {
+                return "seat " + seatNumber + " stored for two tickets";
+            }
+            storedSeats[seatNumber] = true;
+            if (!ticket.getSection().equals(seatNumber <= SEATS / 2 ? "A" : "B")) {
+                return "ticket " + ticket.getTicketId() + " stored in the wrong section: " + ticket;
+            }
+        }
+        for (int seatNumber = 1; seatNumber <= SEATS; seatNumber++) {
+            if (service.isSeatOccupied(seatNumber) != storedSeats[seatNumber]) {
+                return "seat " + seatNumber + " is " + (storedSeats[seatNumber] ? "" : "not ")
+                        + "stored but the inventory disagrees";
+            }
+        }
+        for (Map.Entry<Integer, String> confirmed : confirmedTickets.entrySet()) {
+            TicketBooking ticket = store.rows().get(confirmed.getKey());
+            if (ticket == null || !ticket.getUserName().equals(confirmed.getValue())) {
+                return "confirmed ticket " + confirmed.getKey() + " of " + confirmed.getValue() + " is now "
+                        + ticket;
+            }
+        }
+        return null;
+    }
+
+    private void restart() {
+        restarts++;
+        service = new TicketBookingService(MAPPER, store, BookingArchive.disabled(), ClusterTopology.standalone(),
+                OverbookingPolicy.disabled(), DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of());
+        service.loadSeatInventory();
+    }
+
+    private void schedule(int client, long time) {
+        events.add(new Event(time, eventSequence++, client));
+    }
+
+    private Integer anyConfirmedTicket() {
+        if (confirmedTickets.isEmpty()) {
+            return null;
+        }
+        int skip = random.nextInt(confirmedTickets.size());
+        return confirmedTickets.keySet().stream().skip(skip).findFirst().orElseThrow();
+    }
+
+    private Integer anyStoredTicket() {
+        if (store.rows().isEmpty()) {
+            return null;
+        }
+        int skip = random.nextInt(store.rows().size());
+        return store.rows().keySet().stream().skip(skip).findFirst().orElseThrow();
+    }
+
+    private void record(Operation operation, Supplier<String> outcome, long value) {
+        fingerprint = 31 * (31 * (31 * fingerprint + now) + operation.ordinal()) + value;
+        if (trace != null) {
+            trace.add("t=" + now + "us " + operation + " " + outcome.get());
+        }
+    }
+
+    private static TicketBooking copyOf(TicketBooking ticket) {
+        return ticket != null ? ticket.copy() : null;
+    }
+}
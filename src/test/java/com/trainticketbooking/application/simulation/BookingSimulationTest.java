@@ -0,0 +1,52 @@
+package com.trainticketbooking.application.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingSimulationTest {
+
+    private static final int STEPS = 200;
+
+    @Test
+    public void testSeatAndTicketIdInvariantsHoldUnderFaultsAndCrashes() {
+        // Arrange
+        int schedules = Integer.getInteger("booking.simulation.schedules", 2_000);
+        long firstSeed = Long.getLong("booking.simulation.seed", 1L);
+
+        // Act
+        List<BookingSimulation.Result> results = LongStream.range(firstSeed, firstSeed + schedules)
+                .parallel()
+                .mapToObj(seed -> BookingSimulation.run(seed, STEPS, false))
+                .toList();
+
+        // Assert
+        results.stream().filter(result -> result.violation() != null).findFirst().ifPresent(result -> {
+            // Replay the failing schedule with its trace
+            BookingSimulation.Result replay = BookingSimulation.run(result.seed(), STEPS, true);
+            fail("Seed " + result.seed() + ", step " + replay.steps() + ": " + replay.violation() + "\n"
+                    + String.join("\n", replay.trace()));
+        });
+        assertTrue(results.stream().mapToInt(BookingSimulation.Result::faults).sum() > 0);
+        assertTrue(results.stream().mapToInt(BookingSimulation.Result::restarts).sum() > schedules);
+    }
+
+    @Test
+    public void testTheSameSeedReplaysTheSameSchedule() {
+        // Act
+        BookingSimulation.Result first = BookingSimulation.run(42, STEPS, true);
+        BookingSimulation.Result second = BookingSimulation.run(42, STEPS, true);
+        BookingSimulation.Result other = BookingSimulation.run(43, STEPS, false);
+
+        // Assert
+        assertNull(first.violation());
+        assertEquals(STEPS, first.steps());
+        assertEquals(first.trace(), second.trace());
+        assertEquals(first.fingerprint(), second.fingerprint());
+        assertEquals(first.virtualMicros(), second.virtualMicros());
+        assertNotEquals(first.fingerprint(), other.fingerprint());
+    }
+}
@@ -0,0 +1,202 @@
+package com.trainticketbooking.application.simulation;
+
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.repository.BookingRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Booking repository for {@link BookingSimulation}, behaving like a database the process talks to: bookings are
+ * stored as copies, so changes made by the service only count once they are written, and every call takes virtual
+ * time. Writes fail at the seeded fault rate, either before they reach the store (the write is lost) or after (the
+ * acknowledgement is lost). Batch saves are all or nothing like the JDBC store's transaction; batch deletes are not
+ * and may stop part way.
+ */
+class SimulatedStore implements BookingRepository {
+
+    private static final long READ_MICROS = 50;
+    private static final long WRITE_MICROS = 200;
+    private static final long SLOW_IO_MICROS = 50_000;
+
+    private final Map<Integer, TicketBooking> rows = new LinkedHashMap<>();
+    private final Map<String, Long> issuedSequences = new LinkedHashMap<>();
+    private final SplittableRandom random;
+    private final double faultRate;
+    private final double slowIoRate;
+    private long elapsedMicros;
+    private int faults;
+
+    SimulatedStore(SplittableRandom random, double faultRate, double slowIoRate) {
+        this.random = random;
+        this.faultRate = faultRate;
+        this.slowIoRate = slowIoRate;
+    }
+
+    /**
+     * Thrown in place of the I/O error of a real store.
+     */
+    static final class SimulatedFault extends RuntimeException {
+
+        SimulatedFault(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    @Override
+    public TicketBooking save(TicketBooking ticketBooking) {
+        beforeWrite();
+        rows.put(ticketBooking.getTicketId(), ticketBooking.copy());
+        afterWrite();
+        return ticketBooking;
+    }
+
+    @Override
+    public void saveAll(Collection<TicketBooking> ticketBookings) {
+        beforeWrite();
+        ticketBookings.forEach(ticket -> rows.put(ticket.getTicketId(), ticket.copy()));
+        afterWrite();
+    }
+
+    @Override
+    public Optional<TicketBooking> findById(Integer ticketId) {
+        read();
+        TicketBooking ticket = rows.get(ticketId);
+        return ticket != null ? Optional.of(ticket.copy()) : Optional.empty();
+    }
+
+    @Override
+    public List<TicketBooking> findByUserEmail(String userEmail) {
+        read();
+        return copies(ticket -> ticket.getUserEmail().equalsIgnoreCase(userEmail));
+    }
+
+    @Override
+    public List<TicketBooking> findBySection(String section) {
+        read();
+        return copies(ticket -> ticket.getSection().equalsIgnoreCase(section));
+    }
+
+    @Override
+    public Optional<TicketBooking> findFirstByUserName(String userName) {
+        read();
+        return copies(ticket -> ticket.getUserName().equalsIgnoreCase(userName)).stream().findFirst();
+    }
+
+    @Override
+    public Collection<TicketBooking> findAll() {
+        read();
+        return copies(ticket -> true);
+    }
+
+    @Override
+    public void scan(String section, Consumer<TicketBooking> action) {
+        read();
+        copies(ticket -> section == null || ticket.getSection().equalsIgnoreCase(section)).forEach(action);
+    }
+
+    @Override
+    public boolean deleteById(Integer ticketId) {
+        beforeWrite();
+        boolean deleted = rows.remove(ticketId) != null;
+        afterWrite();
+        return deleted;
+    }
+
+    @Override
+    public void deleteAllById(Collection<Integer> ticketIds) {
+        for (Integer ticketId : ticketIds) {
+            beforeWrite();
+            rows.remove(ticketId);
+        }
+        afterWrite();
+    }
+
+    @Override
+    public long count() {
+        read();
+        return rows.size();
+    }
+
+    @Override
+    public long findIssuedSequence(String nodeId) {
+        read();
+        return issuedSequences.getOrDefault(nodeId, 0L);
+    }
+
+    @Override
+    public void recordIssuedSequence(String nodeId, long sequence) {
+        beforeWrite();
+        issuedSequences.merge(nodeId, sequence, Math::max);
+        afterWrite();
+    }
+
+    /**
+     * Get the stored bookings as they are, without taking virtual time or failing.
+     *
+     * @return The stored bookings by ticket ID.
+     */
+    Map<Integer, TicketBooking> rows() {
+        return rows;
+    }
+
+    /**
+     * Get the virtual time spent in the store so far and start counting again.
+     *
+     * @return The elapsed virtual time in microseconds.
+     */
+    long takeElapsedMicros() {
+        long elapsed = elapsedMicros;
+        elapsedMicros = 0;
+        return elapsed;
+    }
+
+    int faults() {
+        return faults;
+    }
+
+    private List<TicketBooking> copies(Predicate<TicketBooking> filter) {
+        List<TicketBooking> copies = new ArrayList<>();
+        for (TicketBooking ticket : rows.values()) {
+            if (filter.test(ticket)) {
+                copies.add(ticket.copy());
+            }
+        }
+        return copies;
+    }
+
+    private void read() {
+        elapsedMicros += READ_MICROS;
+        slowIo();
+    }
+
+    private void beforeWrite() {
+        elapsedMicros += WRITE_MICROS;
+        slowIo();
+        fault("write lost");
+    }
+
+    private void afterWrite() {
+        fault("acknowledgement lost");
+    }
+
+    private void slowIo() {
+        if (slowIoRate > 0 && random.nextDouble() < slowIoRate) {
+            elapsedMicros += SLOW_IO_MICROS;
+        }
+    }
+
+    private void fault(String message) {
+        if (faultRate > 0 && random.nextDouble() < faultRate) {
+            faults++;
+            throw new SimulatedFault(message);
+        }
+    }
+}
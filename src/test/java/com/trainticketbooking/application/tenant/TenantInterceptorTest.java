@@ -0,0 +1,139 @@
+package com.trainticketbooking.application.tenant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.BookingCommandRouter;
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.controller.TicketBookingController;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.repository.BookingRepository;
+import com.trainticketbooking.application.repository.InMemoryBookingRepository;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.TicketBookingMapper;
+import com.trainticketbooking.application.versioning.BookingVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class TenantInterceptorTest {
+
+    private static final String PURCHASE = """
+            {"from": "Chennai", "to": "Trichy", "userName": "User", "userEmail": "user@example.com",
+             "pricePaid": 10}""";
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockMvc mockMvc;
+
+    /**
+     * An endpoint that is not {@link TenantScoped}.
+     */
+    @RestController
+    static class OperatorController {
+
+        @GetMapping("/operator")
+        public String operator() {
+            return "ok";
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        TicketBookingMapper ticketBookingMapper = Mappers.getMapper(TicketBookingMapper.class);
+        BookingRepository bookingRepository = new InMemoryBookingRepository();
+        TicketBookingService ticketBookingService = new TicketBookingService(ticketBookingMapper, bookingRepository,
+                BookingArchive.disabled(), ClusterTopology.standalone(), OverbookingPolicy.disabled(),
+                DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of());
+        TenantRegistry tenantRegistry = new TenantRegistry(List.of("north", "south:1:0:0", "east::0:1"),
+                0, 0, 0, ticketBookingService, ticketBookingMapper,
+                DynamicPricing.clientPrices(), ObservationRegistry.NOOP);
+        BookingCommandRouter router = new BookingCommandRouter(ticketBookingService, ClusterTopology.standalone(),
+                new ReplicationState("standalone", 1000), new BookingVersions(100_000), RestClient.builder(), 1000, "");
+        meterRegistry = new SimpleMeterRegistry();
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new TicketBookingController(router), new OperatorController())
+                .addInterceptors(new TenantInterceptor(tenantRegistry, new ObjectMapper(), meterRegistry))
+                .build();
+    }
+
+    @Test
+    public void testTenantsHaveSeparateBookingsSeatsAndTicketIds() throws Exception {
+        // Act
+        purchase(null).andExpect(jsonPath("$.data.ticketId").value(1))
+                .andExpect(jsonPath("$.data.seatNumber").value(1));
+        purchase("north").andExpect(jsonPath("$.data.ticketId").value(1))
+                .andExpect(jsonPath("$.data.seatNumber").value(1));
+        purchase("north").andExpect(jsonPath("$.data.ticketId").value(2));
+
+        // Assert
+        ticketList(null).andExpect(jsonPath("$.data.length()").value(1));
+        ticketList("north").andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(header().stringValues(HttpHeaders.VARY, TenantInterceptor.TENANT_HEADER,
+                        HttpHeaders.ACCEPT));
+        ticketList("default").andExpect(jsonPath("$.data.length()").value(1));
+    }
+
+    @Test
+    public void testUnknownTenantsAndUnscopedEndpointsAreRefused() throws Exception {
+        // Act & Assert
+        purchase("west").andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ApiResponseMessages.UNKNOWN_TENANT + "west"));
+        mockMvc.perform(get("/operator").header(TenantInterceptor.TENANT_HEADER, "north"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ApiResponseMessages.TENANT_ENDPOINT_UNAVAILABLE));
+        mockMvc.perform(get("/operator")).andExpect(status().isOk());
+        assertEquals(1, meterRegistry.get("booking.tenant.rejections").tag("reason", "unknown-tenant").counter()
+                .count());
+    }
+
+    @Test
+    public void testRequestRateIsLimitedPerTenant() throws Exception {
+        // Act & Assert
+        ticketList("south").andExpect(status().isOk());
+        ticketList("south").andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value(ApiResponseMessages.TENANT_RATE_LIMITED));
+        ticketList("north").andExpect(status().isOk());
+        ticketList(null).andExpect(status().isOk());
+        assertEquals(1, meterRegistry.get("booking.tenant.rejections").tag("tenant", "south").counter().count());
+    }
+
+    @Test
+    public void testBookingCountIsLimitedPerTenant() throws Exception {
+        // Act & Assert
+        purchase("east").andExpect(jsonPath("$.status").value(200));
+        purchase("east").andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.message").value(ApiResponseMessages.TENANT_BOOKING_QUOTA_EXCEEDED));
+        purchase("north").andExpect(jsonPath("$.status").value(200));
+        assertNull(TenantContext.current());
+    }
+
+    private ResultActions purchase(String tenant) throws Exception {
+        var request = post("/ticket-booking/").contentType(MediaType.APPLICATION_JSON).content(PURCHASE);
+        return mockMvc.perform(tenant == null ? request : request.header(TenantInterceptor.TENANT_HEADER, tenant));
+    }
+
+    private ResultActions ticketList(String tenant) throws Exception {
+        var request = get("/ticket-booking/ticket-list").param("email", "user@example.com");
+        return mockMvc.perform(tenant == null ? request : request.header(TenantInterceptor.TENANT_HEADER, tenant));
+    }
+}
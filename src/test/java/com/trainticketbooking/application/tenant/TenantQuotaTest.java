@@ -0,0 +1,64 @@
+package com.trainticketbooking.application.tenant;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantQuotaTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testRequestRateAllowsABurstAndRefills() {
+        // Arrange
+        TenantQuota quota = new TenantQuota(2, 0, 0);
+
+        // Act
+        boolean first = quota.tryAcquireRequest(0);
+        boolean second = quota.tryAcquireRequest(0);
+        boolean overRate = quota.tryAcquireRequest(SECOND / 4);
+        boolean refilled = quota.tryAcquireRequest(SECOND / 2);
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(overRate);
+        assertTrue(refilled);
+        assertFalse(quota.tryAcquireRequest(SECOND / 2));
+    }
+
+    @Test
+    public void testWorkersAreLimitedUntilReleased() {
+        // Arrange
+        TenantQuota quota = new TenantQuota(0, 2, 0);
+
+        // Act
+        boolean first = quota.tryAcquireWorker();
+        boolean second = quota.tryAcquireWorker();
+        boolean third = quota.tryAcquireWorker();
+        quota.releaseWorker();
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertTrue(quota.tryAcquireWorker());
+    }
+
+    @Test
+    public void testZeroMeansUnlimited() {
+        // Arrange
+        TenantQuota quota = new TenantQuota(0, 0, 0);
+
+        // Act
+        boolean allowed = true;
+        for (int i = 0; i < 1000; i++) {
+            allowed &= quota.tryAcquireRequest(0) && quota.tryAcquireWorker();
+        }
+
+        // Assert
+        assertTrue(allowed);
+        assertTrue(quota.hasRoomForBooking(Long.MAX_VALUE - 1));
+        assertFalse(new TenantQuota(0, 0, 3).hasRoomForBooking(3));
+    }
+}
@@ -0,0 +1,94 @@
+package com.trainticketbooking.application.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainticketbooking.application.dto.SpanDto;
+import com.trainticketbooking.application.dto.TraceDto;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalSpanExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testGroupsSpansByTraceNewestFirstAndSkipsShortTraces() {
+        // Arrange
+        LocalSpanExporter exporter = new LocalSpanExporter(100, (Path) null, new ObjectMapper());
+        Tracer tracer = tracer(exporter);
+
+        // Act
+        trace(tracer, "http put /{ticketId}", "booking.update", 1_000, 5_000);
+        trace(tracer, "http get /fares", "booking.fares", 10_000, 10_100);
+        List<TraceDto> all = exporter.recentTraces(0, 10);
+        List<TraceDto> slow = exporter.recentTraces(1_000, 10);
+
+        // Assert
+        assertEquals(2, all.size());
+        assertEquals("http get /fares", all.get(0).name());
+        TraceDto update = all.get(1);
+        assertEquals("http put /{ticketId}", update.name());
+        assertEquals(4_000, update.durationMicros());
+        SpanDto root = update.spans().get(0);
+        SpanDto child = update.spans().get(1);
+        assertNull(root.parentSpanId());
+        assertEquals(root.spanId(), child.parentSpanId());
+        assertEquals("booking.update", child.name());
+        assertEquals(List.of(update), slow);
+    }
+
+    @Test
+    public void testKeepsOnlyTheLatestSpansAndAppendsAllToTheFile() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("spans.jsonl");
+        LocalSpanExporter exporter = new LocalSpanExporter(2, file, new ObjectMapper());
+        Tracer tracer = tracer(exporter);
+
+        // Act
+        trace(tracer, "first", "first.child", 100, 110);
+        trace(tracer, "second", "second.child", 200, 210);
+        exporter.flush();
+        List<String> lines = Files.readAllLines(file);
+        exporter.shutdown();
+
+        // Assert
+        assertEquals(List.of("second"), exporter.recentTraces(0, 10).stream().map(TraceDto::name).toList());
+        assertEquals(4, lines.size());
+        SpanDto written = new ObjectMapper().readValue(lines.get(0), SpanDto.class);
+        assertEquals("first.child", written.name());
+        assertEquals(4, written.durationMicros());
+    }
+
+    private static Tracer tracer(LocalSpanExporter exporter) {
+        return SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build()
+                .get("test");
+    }
+
+    /**
+     * Record a root span lasting from the given start to the given end, with one child from just after its start to
+     * its middle.
+     */
+    private static void trace(Tracer tracer, String rootName, String childName, long startMicros, long endMicros) {
+        Span root = tracer.spanBuilder(rootName).setStartTimestamp(startMicros, TimeUnit.MICROSECONDS).startSpan();
+        Span child = tracer.spanBuilder(childName)
+                .setParent(Context.root().with(root))
+                .setStartTimestamp(startMicros + 1, TimeUnit.MICROSECONDS)
+                .startSpan();
+        child.end((startMicros + endMicros) / 2, TimeUnit.MICROSECONDS);
+        root.end(endMicros, TimeUnit.MICROSECONDS);
+    }
+}
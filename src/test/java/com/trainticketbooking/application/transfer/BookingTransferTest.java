@@ -0,0 +1,162 @@
+package com.trainticketbooking.application.transfer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.common.ApiResponseMessages;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.dto.BookingImportErrorDto;
+import com.trainticketbooking.application.dto.BookingImportResultDto;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.repository.InMemoryBookingRepository;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.TicketBookingJsonSerializer;
+import com.trainticketbooking.application.util.TicketBookingMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class BookingTransferTest {
+
+    private InMemoryBookingRepository bookingRepository;
+    private BookingImporter bookingImporter;
+    private BookingExporter bookingExporter;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper objectMapper = new Jackson2ObjectMapperBuilder()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build()
+                .registerModule(new SimpleModule().addSerializer(new TicketBookingJsonSerializer()));
+        bookingRepository = new InMemoryBookingRepository();
+        TicketBookingService ticketBookingService = new TicketBookingService(mock(TicketBookingMapper.class),
+                bookingRepository, BookingArchive.disabled(), ClusterTopology.standalone(),
+                OverbookingPolicy.disabled(), DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of());
+        // Small chunks, so that a few hundred rows already pass through several parallel parses.
+        bookingImporter = new BookingImporter(ticketBookingService, objectMapper, 256, 3, 2);
+        bookingExporter = new BookingExporter(bookingRepository, objectMapper, 128);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookingImporter.stop();
+    }
+
+    @Test
+    public void testImportCsv_RejectsInvalidRows() throws Exception {
+        // Arrange
+        String csv = "userName,userEmail,from,to,pricePaid,seatNumber,discount\n"
+                + "\"Doe, Jane\",jane@example.com,Chennai,Trichy,100,5,DISCOUNT1\n"
+                + "John,john@example.com,Chennai,Trichy,100,5,\n"
+                + "\n"
+                + "Mary,not-an-email,Chennai,Trichy,100,,\n"
+                + "Raj,raj@example.com,Chennai,Trichy,,,\n"
+                + "Ann,ann@example.com,Chennai,Trichy,50,,\n";
+
+        // Act
+        BookingImportResultDto result = importBookings(csv, BookingFormat.CSV);
+
+        // Assert
+        assertEquals(5, result.rowsRead());
+        assertEquals(2, result.imported());
+        assertEquals(3, result.rejected());
+        assertEquals(List.of(
+                new BookingImportErrorDto(5, ApiResponseMessages.INVALID_EMAIL),
+                new BookingImportErrorDto(6, ApiResponseMessages.MISSING_REQUIRED_FIELD + "pricePaid"),
+                new BookingImportErrorDto(3, ApiResponseMessages.SEAT_ALREADY_OCCUPIED)),
+                result.errors());
+        assertEquals("Doe, Jane", bookingRepository.findById(1).orElseThrow().getUserName());
+        assertEquals(Money.ofMajor(99), bookingRepository.findById(1).orElseThrow().getPricePaid());
+        assertEquals(5, bookingRepository.findById(1).orElseThrow().getSeatNumber());
+        assertEquals(21, bookingRepository.findById(2).orElseThrow().getSeatNumber());
+    }
+
+    @Test
+    public void testImportNdjson_SeatsRowsUntilSoldOut() throws Exception {
+        // Arrange
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            ndjson.append("{\"from\":\"Chennai\",\"to\":\"Trichy\",\"userName\":\"User").append(i)
+                    .append("\",\"userEmail\":\"user").append(i).append("@example.com\",\"pricePaid\":10}\n");
+        }
+        ndjson.append("{\"from\":\"Chennai\"");
+
+        // Act
+        BookingImportResultDto result = importBookings(ndjson.toString(), BookingFormat.NDJSON);
+
+        // Assert
+        assertEquals(301, result.rowsRead());
+        assertEquals(40, result.imported());
+        assertEquals(261, result.rejected());
+        assertEquals(100, result.errors().size());
+        assertEquals(41, result.errors().get(0).line());
+        assertEquals(40, bookingRepository.count());
+        assertEquals("User0", bookingRepository.findById(1).orElseThrow().getUserName());
+        assertEquals("User39", bookingRepository.findById(40).orElseThrow().getUserName());
+    }
+
+    @Test
+    public void testExportCsv_ImportsBackIntoEmptyStore() throws Exception {
+        // Arrange
+        importBookings("from,to,userName,userEmail,pricePaid\n"
+                + "Chennai,Trichy,\"Quote \"\"Q\"\" User\",q@example.com,12.50\n"
+                + "Chennai,Madurai,Plain,p@example.com,8\n", BookingFormat.CSV);
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+
+        // Act
+        bookingExporter.exportBookings(Channels.newChannel(exported), BookingFormat.CSV, null);
+        setUp();
+        BookingImportResultDto result = importBookings(exported.toString(StandardCharsets.UTF_8), BookingFormat.CSV);
+
+        // Assert
+        assertEquals(2, result.imported());
+        assertEquals("Quote \"Q\" User", bookingRepository.findById(1).orElseThrow().getUserName());
+        assertEquals(Money.parse("12.50"), bookingRepository.findById(1).orElseThrow().getPricePaid());
+        assertEquals(21, bookingRepository.findById(2).orElseThrow().getSeatNumber());
+    }
+
+    @Test
+    public void testExportNdjson_BySection() throws Exception {
+        // Arrange
+        importBookings("from,to,userName,userEmail,pricePaid,seatNumber\n"
+                + "Chennai,Trichy,A1,a1@example.com,10,1\n"
+                + "Chennai,Trichy,B1,b1@example.com,10,21\n", BookingFormat.CSV);
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+
+        // Act
+        bookingExporter.exportBookings(Channels.newChannel(exported), BookingFormat.NDJSON, "b");
+
+        // Assert
+        assertEquals("{\"ticketId\":2,\"from\":\"Chennai\",\"to\":\"Trichy\",\"userName\":\"B1\","
+                + "\"userEmail\":\"b1@example.com\",\"pricePaid\":10.00,\"section\":\"B\",\"seatNumber\":21,"
+                + "\"version\":1}\n",
+                exported.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testImportCsv_MissingColumns() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> importBookings("from,to,userName\nChennai,Trichy,User\n", BookingFormat.CSV));
+        assertEquals(ApiResponseMessages.MISSING_REQUIRED_FIELD + "userEmail, pricePaid", exception.getMessage());
+    }
+
+    private BookingImportResultDto importBookings(String content, BookingFormat format) throws Exception {
+        return bookingImporter.importBookings(
+                Channels.newChannel(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))), format);
+    }
+}
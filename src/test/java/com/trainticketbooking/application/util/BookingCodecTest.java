@@ -0,0 +1,49 @@
+package com.trainticketbooking.application.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainticketbooking.application.common.CustomApiResponse;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingCodecTest {
+
+    private final BookingCodec bookingCodec = new BookingCodec(new Jackson2ObjectMapperBuilder()
+            .serializationInclusion(JsonInclude.Include.NON_NULL));
+
+    @Test
+    public void testRoundTrip() {
+        // Arrange
+        TicketBooking ticketBooking = new TicketBooking(1, "Source", "Destination", "User", "user@example.com",
+                Money.parse("199.50"), "A", 1);
+
+        // Act
+        TicketBooking decoded = bookingCodec.decode(bookingCodec.encode(ticketBooking), TicketBooking.class);
+
+        // Assert
+        assertEquals(ticketBooking, decoded);
+    }
+
+    @Test
+    public void testEncodingIsSmallerThanJsonAndOmitsNulls() throws Exception {
+        // Arrange
+        CustomApiResponse<TicketBookingDto> response = new CustomApiResponse<>(200, "Ticket Booking Successful",
+                new TicketBookingDto(1, "Source", "Destination", "User", "user@example.com",
+                        BigDecimal.TEN, "A", 1, null));
+        byte[] json = new ObjectMapper().writeValueAsBytes(response);
+
+        // Act
+        byte[] cbor = bookingCodec.encode(response);
+
+        // Assert
+        assertTrue(cbor.length < json.length);
+        assertFalse(bookingCodec.getObjectMapper().readTree(cbor).path("data").has("discount"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.trainticketbooking.application.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.trainticketbooking.application.domain.Money;
+import com.trainticketbooking.application.domain.TicketBooking;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TicketBookingJsonSerializerTest {
+
+    @Test
+    public void testWritesSameJsonAsDto() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new Jackson2ObjectMapperBuilder()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        ObjectMapper directMapper = objectMapper.copy()
+                .registerModule(new SimpleModule().addSerializer(new TicketBookingJsonSerializer()));
+        TicketBooking ticketBooking = new TicketBooking(1, "Source", "Destination", "User", "user@example.com",
+                Money.parse("199.50"), "A", 1);
+        TicketBookingDto ticketBookingDto = new TicketBookingDto(1, "Source", "Destination", "User",
+                "user@example.com", new BigDecimal("199.50"), "A", 1, null, 1L);
+
+        // Act
+        String direct = directMapper.writeValueAsString(ticketBooking);
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(ticketBookingDto), direct);
+    }
+}
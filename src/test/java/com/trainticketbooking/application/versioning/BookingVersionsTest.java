@@ -0,0 +1,176 @@
+package com.trainticketbooking.application.versioning;
+
+import com.trainticketbooking.application.archive.BookingArchive;
+import com.trainticketbooking.application.cluster.BookingCommandRouter;
+import com.trainticketbooking.application.cluster.ClusterTopology;
+import com.trainticketbooking.application.controller.TicketBookingController;
+import com.trainticketbooking.application.dto.TicketBookingDto;
+import com.trainticketbooking.application.overbooking.OverbookingPolicy;
+import com.trainticketbooking.application.pricing.DynamicPricing;
+import com.trainticketbooking.application.replication.ReplicationState;
+import com.trainticketbooking.application.repository.InMemoryBookingRepository;
+import com.trainticketbooking.application.service.TicketBookingService;
+import com.trainticketbooking.application.util.TicketBookingMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class BookingVersionsTest {
+
+    private TicketBookingMapper ticketBookingMapper;
+    private BookingVersions bookingVersions;
+    private TicketBookingService ticketBookingService;
+
+    @BeforeEach
+    public void setUp() {
+        ticketBookingMapper = spy(Mappers.getMapper(TicketBookingMapper.class));
+        bookingVersions = new BookingVersions(100_000);
+        ticketBookingService = new TicketBookingService(ticketBookingMapper, new InMemoryBookingRepository(),
+                BookingArchive.disabled(), ClusterTopology.standalone(), OverbookingPolicy.disabled(),
+                DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of(bookingVersions));
+    }
+
+    @Test
+    public void testAggregateTagsChangeOnlyWhenTouched() {
+        // Arrange
+        String ownEmail = bookingVersions.ticketListTag("user@example.com");
+        String otherEmail = bookingVersions.ticketListTag("other@example.com");
+        String sectionA = bookingVersions.sectionTag("A");
+        String sectionB = bookingVersions.sectionTag("B");
+
+        // Act
+        purchase();
+
+        // Assert
+        assertNotEquals(ownEmail, bookingVersions.ticketListTag("USER@example.com"));
+        assertNotEquals(sectionA, bookingVersions.sectionTag("a"));
+        assertEquals(otherEmail, bookingVersions.ticketListTag("other@example.com"));
+        assertEquals(sectionB, bookingVersions.sectionTag("B"));
+    }
+
+    @Test
+    public void testEveryChangeBumpsTheTicketVersion() {
+        // Arrange
+        TicketBookingDto purchased = purchase();
+
+        // Act
+        TicketBookingDto moved = ticketBookingService.updateUserSeatAllocation(purchased.ticketId(), 5, null)
+                .getData();
+        ticketBookingService.updateUserSeatAllocation(purchased.ticketId(), null, "DISCOUNT1");
+
+        // Assert
+        assertEquals(1L, purchased.version());
+        assertEquals(2L, moved.version());
+        assertEquals(3L, ticketBookingService.getTicketVersion(purchased.ticketId()).orElseThrow());
+    }
+
+    @Test
+    public void testUpdateIsRefusedWhenTheTicketHasChanged() {
+        // Arrange
+        TicketBookingDto purchased = purchase();
+        ticketBookingService.updateUserSeatAllocation(purchased.ticketId(), 5, null, 1L);
+
+        // Act
+        var response = ticketBookingService.updateUserSeatAllocation(purchased.ticketId(), 6, null, 1L);
+
+        // Assert
+        assertEquals(412, response.getStatus());
+        assertEquals(2L, response.getData().version());
+        assertEquals(5, response.getData().seatNumber());
+    }
+
+    @Test
+    public void testExpectedVersionIsReadFromIfMatch() {
+        // Arrange
+        String tag = bookingVersions.ticketTag(3, 2);
+        String restartedTag = new BookingVersions(100_000).ticketTag(3, 2);
+
+        // Assert
+        assertNull(bookingVersions.expectedVersion(3, null));
+        assertNull(bookingVersions.expectedVersion(3, "*"));
+        assertEquals(2L, bookingVersions.expectedVersion(3, tag));
+        assertEquals(5L, bookingVersions.expectedVersion(3, bookingVersions.ticketTag(9, 1) + ", "
+                + bookingVersions.ticketTag(3, 5)));
+        assertEquals(-1L, bookingVersions.expectedVersion(3, "W/" + tag));
+        assertEquals(-1L, bookingVersions.expectedVersion(4, tag));
+        assertEquals(-1L, bookingVersions.expectedVersion(3, restartedTag));
+        assertEquals(-1L, bookingVersions.expectedVersion(3, "\"3-2\""));
+    }
+
+    @Test
+    public void testForgottenKeysNeverMatchTagsFromBeforeTheirLastChange() {
+        // Arrange
+        bookingVersions = new BookingVersions(2);
+        ticketBookingService = new TicketBookingService(ticketBookingMapper, new InMemoryBookingRepository(),
+                BookingArchive.disabled(), ClusterTopology.standalone(), OverbookingPolicy.disabled(),
+                DynamicPricing.clientPrices(), ObservationRegistry.NOOP, List.of(bookingVersions));
+        String before = bookingVersions.ticketListTag("user@example.com");
+        purchase();
+        String afterPurchase = bookingVersions.ticketListTag("user@example.com");
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            ticketBookingService.purchaseTicket(new TicketBookingDto(null, "Chennai", "Trichy", "User",
+                    "user" + i + "@example.org", BigDecimal.TEN, null, null, null), null, null);
+        }
+
+        // Assert
+        String forgotten = bookingVersions.ticketListTag("user@example.com");
+        assertNotEquals(before, forgotten);
+        assertNotEquals(afterPurchase, forgotten);
+        assertEquals(forgotten, bookingVersions.ticketListTag("user@example.com"));
+    }
+
+    @Test
+    public void testConditionalRequests() throws Exception {
+        // Arrange
+        TicketBookingDto purchased = purchase();
+        BookingCommandRouter router = new BookingCommandRouter(ticketBookingService, ClusterTopology.standalone(),
+                new ReplicationState("standalone", 1000), bookingVersions, RestClient.builder(), 1000, "");
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TicketBookingController(router)).build();
+        String ticketTag = bookingVersions.ticketTag(purchased.ticketId(), 1);
+        String listTag = mockMvc.perform(get("/ticket-booking/ticket-list").param("email", "user@example.com"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(ticketBookingMapper);
+
+        // Act & Assert
+        mockMvc.perform(get("/ticket-booking/user-receipt-detail").param("ticketId", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, ticketTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/ticket-booking/ticket-list").param("email", "user@example.com")
+                        .header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isNotModified());
+        verify(ticketBookingMapper, never()).toDto(any());
+
+        mockMvc.perform(put("/ticket-booking/1").param("seatNumber", "5").header(HttpHeaders.IF_MATCH, ticketTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, bookingVersions.ticketTag(1, 2)));
+        mockMvc.perform(put("/ticket-booking/1").param("seatNumber", "6").header(HttpHeaders.IF_MATCH, ticketTag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/ticket-booking/ticket-list").param("email", "user@example.com")
+                        .header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].seatNumber").value(5));
+    }
+
+    private TicketBookingDto purchase() {
+        return ticketBookingService.purchaseTicket(new TicketBookingDto(null, "Chennai", "Trichy", "User",
+                "user@example.com", BigDecimal.TEN, null, null, null), null, null).getData();
+    }
+}